@@ -0,0 +1,174 @@
+package com.example;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares a JMH JSON result file with a stored baseline and fails when a benchmark got slower,
+ * or allocates more, by more than a threshold.
+ *
+ * <p>
+ * Usage: {@code BenchmarkComparison <baseline.json> <result.json> <threshold-percent>}. The
+ * {@code benchmark} Maven profile runs it after the benchmarks with {@code -Djmh.baseline},
+ * {@code -Djmh.result.file} and {@code -Djmh.threshold}.
+ *
+ * <p>
+ * Benchmarks are matched on name and parameters; those missing from either file are ignored, so a
+ * run of some benchmarks can be checked against a full baseline. The primary score is compared in
+ * the direction of its mode (higher is better for throughput, lower for times), and
+ * {@code gc.alloc.rate.norm} is compared when both runs used {@code -prof gc}. A change only
+ * counts as a regression when it also exceeds the combined error of both scores, and allocation
+ * changes below {@value #MIN_ALLOCATION_CHANGE} bytes per operation are ignored. Baselines are
+ * only meaningful on the machine and JVM they were recorded on.
+ *
+ * <p>
+ * Exits with 0 when nothing regressed or there is no baseline yet, 1 when something regressed and
+ * 2 on invalid arguments.
+ */
+public final class BenchmarkComparison {
+
+  private static final String ALLOCATION = "gc.alloc.rate.norm";
+
+  // Allocation changes smaller than this, in bytes per operation, are noise
+  private static final double MIN_ALLOCATION_CHANGE = 16;
+
+  /**
+   * One score of one benchmark.
+   */
+  private record Score(double value, double error, String unit, boolean lowerIsBetter) {
+  }
+
+  private BenchmarkComparison() {
+  }
+
+  public static void main(String[] args) throws IOException {
+    if (args.length != 3) {
+      System.err.println(
+          "Usage: BenchmarkComparison <baseline.json> <result.json> <threshold-percent>");
+      System.exit(2);
+    }
+    Path baselineFile = Path.of(args[0]);
+    Path resultFile = Path.of(args[1]);
+    double threshold = Double.parseDouble(args[2]);
+    if (!Files.exists(baselineFile)) {
+      System.out.println("No benchmark baseline at " + baselineFile + "; save " + resultFile
+          + " there to compare future runs against it");
+      return;
+    }
+    if (!Files.exists(resultFile)) {
+      System.err.println("No benchmark result at " + resultFile);
+      System.exit(2);
+    }
+
+    ObjectMapper objectMapper = new ObjectMapper();
+    Map<String, Score> baseline = scores(objectMapper.readTree(baselineFile.toFile()));
+    Map<String, Score> current = scores(objectMapper.readTree(resultFile.toFile()));
+
+    int regressions = 0;
+    int compared = 0;
+    for (Map.Entry<String, Score> entry : current.entrySet()) {
+      Score before = baseline.get(entry.getKey());
+      if (before == null) {
+        continue;
+      }
+      Score after = entry.getValue();
+      if (!before.unit().equals(after.unit())) {
+        System.out.printf(Locale.ROOT, "SKIPPED    %s: unit changed from %s to %s%n",
+            entry.getKey(), before.unit(), after.unit());
+        continue;
+      }
+      compared++;
+      String status = status(entry.getKey(), before, after, threshold);
+      if ("REGRESSED".equals(status)) {
+        regressions++;
+      }
+      System.out.printf(Locale.ROOT, "%-10s %s: %.3f -> %.3f %s (%+.1f%%)%n", status,
+          entry.getKey(), before.value(), after.value(), after.unit(),
+          percentChange(before, after));
+    }
+
+    System.out.printf(Locale.ROOT, "%d of %d scores regressed by more than %.1f%%%n", regressions,
+        compared, threshold);
+    if (regressions > 0) {
+      System.exit(1);
+    }
+  }
+
+  private static String status(String key, Score before, Score after, double threshold) {
+    double worse = after.lowerIsBetter() ? after.value() - before.value()
+        : before.value() - after.value();
+    double noise = errorOf(before) + errorOf(after);
+    if (key.endsWith(ALLOCATION)) {
+      noise = Math.max(noise, MIN_ALLOCATION_CHANGE);
+    }
+    if (Math.abs(worse) <= noise || before.value() == 0) {
+      return "OK";
+    }
+    double percent = worse / before.value() * 100;
+    if (percent > threshold) {
+      return "REGRESSED";
+    }
+    return percent < -threshold ? "IMPROVED" : "OK";
+  }
+
+  private static double percentChange(Score before, Score after) {
+    return before.value() == 0 ? 0 : (after.value() - before.value()) / before.value() * 100;
+  }
+
+  private static double errorOf(Score score) {
+    return Double.isFinite(score.error()) ? score.error() : 0;
+  }
+
+  /**
+   * The primary score and allocation rate of every benchmark in a result file, keyed by benchmark
+   * name, parameters and metric.
+   */
+  private static Map<String, Score> scores(JsonNode results) {
+    Map<String, Score> scores = new LinkedHashMap<>();
+    for (JsonNode result : results) {
+      String key = key(result);
+      boolean lowerIsBetter = !"thrpt".equals(result.path("mode").asText());
+      scores.put(key, score(result.path("primaryMetric"), lowerIsBetter));
+
+      Iterator<Map.Entry<String, JsonNode>> secondary =
+          result.path("secondaryMetrics").fields();
+      while (secondary.hasNext()) {
+        Map.Entry<String, JsonNode> metric = secondary.next();
+        // Older JMH versions prefix profiler metrics with a middle dot
+        if (metric.getKey().replace("\u00b7", "").equals(ALLOCATION)) {
+          scores.put(key + " " + ALLOCATION, score(metric.getValue(), true));
+        }
+      }
+    }
+    return scores;
+  }
+
+  private static Score score(JsonNode metric, boolean lowerIsBetter) {
+    return new Score(metric.path("score").asDouble(), metric.path("scoreError").asDouble(),
+        metric.path("scoreUnit").asText(), lowerIsBetter);
+  }
+
+  private static String key(JsonNode result) {
+    StringBuilder key = new StringBuilder(result.path("benchmark").asText());
+    Map<String, String> params = new TreeMap<>();
+    result.path("params").fields()
+        .forEachRemaining(param -> params.put(param.getKey(), param.getValue().asText()));
+    if (!params.isEmpty()) {
+      key.append(params.toString().replace('{', '[').replace('}', ']'));
+    }
+    int threads = result.path("threads").asInt(1);
+    if (threads != 1) {
+      key.append(" threads=").append(threads);
+    }
+    return key.toString();
+  }
+}
@@ -0,0 +1,84 @@
+package com.example.controller;
+
+import com.example.dto.GreetingResponse;
+import com.example.service.TemplateGreetingEngine;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Work done by the greeting endpoints per request: rendering a greeting with
+ * {@code String.format} (the former implementation) against the compiled templates of
+ * {@link TemplateGreetingEngine}, and serializing a {@link GreetingResponse} against serving the
+ * cached default greeting body.
+ *
+ * <p>
+ * Run with {@code mvn -Pbenchmark test -Djmh.args="GreetingBenchmark -prof gc"}; the
+ * {@code gc.alloc.rate.norm} column is the number of bytes allocated per operation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Benchmark)
+public class GreetingBenchmark {
+
+  private static final String NAME = "Alice";
+
+  TemplateGreetingEngine engine;
+  ObjectMapper objectMapper;
+  CachedJsonBody defaultBody;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    engine = new TemplateGreetingEngine();
+    engine.configure(name -> Optional.empty(), List.of());
+    // Same date handling as the Quarkus ObjectMapper
+    objectMapper = new ObjectMapper().registerModule(new JavaTimeModule())
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    defaultBody = new CachedJsonBody(objectMapper,
+        () -> new GreetingResponse(engine.defaultGreeting(null)), Duration.ofSeconds(1));
+  }
+
+  @Benchmark
+  public String formatGreeting() {
+    return String.format("Hello, %s! Welcome to Quarkus Template.", NAME);
+  }
+
+  @Benchmark
+  public String templateGreeting() {
+    return engine.greet(NAME, null);
+  }
+
+  @Benchmark
+  public byte[] serializePersonalGreeting() throws Exception {
+    return objectMapper.writeValueAsBytes(new GreetingResponse(engine.greet(NAME, null)));
+  }
+
+  @Benchmark
+  public byte[] serializeDefaultGreeting() throws Exception {
+    return objectMapper.writeValueAsBytes(new GreetingResponse(engine.defaultGreeting(null)));
+  }
+
+  @Benchmark
+  public byte[] cachedDefaultGreeting() {
+    return defaultBody.get();
+  }
+}
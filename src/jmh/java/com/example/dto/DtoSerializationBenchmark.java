@@ -0,0 +1,91 @@
+package com.example.dto;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of the response DTOs, and deserialization of a user request, with the
+ * settings Quarkus applies to its ObjectMapper (ISO dates, unknown properties ignored).
+ *
+ * <p>
+ * Run with {@code mvn -Pbenchmark test -Djmh.args="DtoSerializationBenchmark -prof gc"}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Benchmark)
+public class DtoSerializationBenchmark {
+
+  private static final int PAGE_SIZE = 20;
+
+  ObjectWriter writer;
+  ObjectReader userRequestReader;
+  UserResponse user;
+  UserPage page;
+  ErrorResponse error;
+  byte[] userRequestJson;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule())
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+        .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    writer = objectMapper.writer();
+    userRequestReader = objectMapper.readerFor(UserRequest.class);
+
+    LocalDateTime created = LocalDateTime.of(2026, 1, 1, 12, 0, 0, 123_456_000);
+    List<UserResponse> items = new ArrayList<>(PAGE_SIZE);
+    for (int i = 0; i < PAGE_SIZE; i++) {
+      items.add(new UserResponse((long) i + 1, "user" + i + "@example.com", "User " + i,
+          created.plusMinutes(i), created.plusMinutes(i)));
+    }
+    user = items.get(0);
+    page = new UserPage(items, "aWQ6MjA");
+    error = new ErrorResponse(404, "Not Found", "User not found with id: 42", "/api/users/42");
+    userRequestJson = "{\"email\":\"alice@example.com\",\"name\":\"Alice\"}"
+        .getBytes(StandardCharsets.UTF_8);
+  }
+
+  @Benchmark
+  public byte[] serializeUserResponse() throws Exception {
+    return writer.writeValueAsBytes(user);
+  }
+
+  @Benchmark
+  public byte[] serializeUserPage() throws Exception {
+    return writer.writeValueAsBytes(page);
+  }
+
+  @Benchmark
+  public byte[] serializeErrorResponse() throws Exception {
+    return writer.writeValueAsBytes(error);
+  }
+
+  @Benchmark
+  public UserRequest deserializeUserRequest() throws Exception {
+    return userRequestReader.readValue(userRequestJson);
+  }
+}
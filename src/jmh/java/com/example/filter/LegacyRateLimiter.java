@@ -0,0 +1,72 @@
+package com.example.filter;
+
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.Refill;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The rate limiting logic RateLimitFilter used before RateLimiter: one Bucket4j bucket and one
+ * request counter per key in two unbounded maps. Kept only as a benchmark baseline.
+ */
+class LegacyRateLimiter {
+
+  private final int capacity;
+  private final Duration refillPeriod;
+  private final int ddosThreshold;
+  private final Duration ddosWindow;
+
+  private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+  private final Map<String, RequestCounter> requestCounters = new ConcurrentHashMap<>();
+
+  LegacyRateLimiter(int capacity, Duration refillPeriod, int ddosThreshold, Duration ddosWindow) {
+    this.capacity = capacity;
+    this.refillPeriod = refillPeriod;
+    this.ddosThreshold = ddosThreshold;
+    this.ddosWindow = ddosWindow;
+  }
+
+  RateLimiter.Decision tryAcquire(String key) {
+    Bucket bucket = buckets.computeIfAbsent(key, this::createBucket);
+
+    RequestCounter counter = requestCounters.computeIfAbsent(key, k -> new RequestCounter());
+    counter.increment();
+    boolean ddosSuspected = counter.getCount() > ddosThreshold;
+    if (counter.isExpired(ddosWindow)) {
+      counter.reset();
+    }
+
+    return RateLimiter.Decision.of(bucket.tryConsume(1), ddosSuspected);
+  }
+
+  private Bucket createBucket(String key) {
+    Bandwidth limit = Bandwidth.classic(capacity, Refill.intervally(capacity, refillPeriod));
+    return Bucket.builder().addLimit(limit).build();
+  }
+
+  private static class RequestCounter {
+    private final AtomicInteger count = new AtomicInteger(0);
+    private volatile long startTime = System.currentTimeMillis();
+
+    void increment() {
+      count.incrementAndGet();
+    }
+
+    int getCount() {
+      return count.get();
+    }
+
+    void reset() {
+      count.set(0);
+      startTime = System.currentTimeMillis();
+    }
+
+    boolean isExpired(Duration window) {
+      return System.currentTimeMillis() - startTime > window.toMillis();
+    }
+  }
+}
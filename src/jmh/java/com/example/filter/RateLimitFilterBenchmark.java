@@ -0,0 +1,105 @@
+package com.example.filter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request work of RateLimitFilter once the JAX-RS request has been read: resolving the policy
+ * of a method and path through the route trie, then taking a token from its limiter. Policies are
+ * those of {@code application.yml}, and requests cycle over a mix of reads, writes and probes.
+ *
+ * <p>
+ * Run with {@code mvn -Pbenchmark test -Djmh.args="RateLimitFilterBenchmark -prof gc"}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Benchmark)
+public class RateLimitFilterBenchmark {
+
+  private static final String[][] REQUESTS = {
+      {"GET", "/api/users"},
+      {"GET", "/api/users/42"},
+      {"POST", "/api/users"},
+      {"PUT", "/api/users/42"},
+      {"GET", "/api/greeting/Alice"},
+      {"GET", "/api/v2/users/42"},
+      {"GET", "/health/ready"},
+      {"GET", "/api/objects/report.pdf"}};
+
+  @Param({"16", "100000"})
+  int clients;
+
+  RateLimitPolicies policies;
+  String[] keys;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    Map<String, String> config = Map.of(
+        "app.rate-limit.capacity", "100",
+        "app.rate-limit.ddos-threshold", "200",
+        "app.rate-limit.policies.probes.paths", "/health/**,/metrics/**,/q/**",
+        "app.rate-limit.policies.probes.exempt", "true",
+        "app.rate-limit.policies.user-writes.paths",
+        "/api/users,/api/users/**,/api/v2/users,/api/v2/users/**",
+        "app.rate-limit.policies.user-writes.methods", "POST,PUT,PATCH,DELETE",
+        "app.rate-limit.policies.user-writes.capacity", "30",
+        "app.rate-limit.policies.admin.paths", "/api/**",
+        "app.rate-limit.policies.admin.role", "admin",
+        "app.rate-limit.policies.admin.capacity", "1000");
+    List<RateLimitPolicy> loaded =
+        RateLimitPolicies.load(name -> Optional.ofNullable(config.get(name)), config.keySet());
+    policies = new RateLimitPolicies(loaded, policy -> new RateLimiter(policy.capacity(),
+        policy.refillPeriod(), policy.ddosThreshold(), policy.ddosWindow(), 100_000), null);
+
+    keys = new String[clients];
+    for (int i = 0; i < clients; i++) {
+      keys[i] = "10." + (i >>> 16 & 0xFF) + "." + (i >>> 8 & 0xFF) + "." + (i & 0xFF);
+    }
+  }
+
+  /**
+   * Per-thread position in the request mix and the client keys.
+   */
+  @State(Scope.Thread)
+  public static class Cursor {
+    int request;
+    int client;
+
+    @Setup(Level.Trial)
+    public void setUp(RateLimitFilterBenchmark benchmark) {
+      client = ThreadLocalRandom.current().nextInt(benchmark.clients);
+    }
+  }
+
+  @Benchmark
+  public RateLimiter.Decision resolveAndAcquire(Cursor cursor) {
+    String[] request = REQUESTS[cursor.request];
+    cursor.request = cursor.request + 1 == REQUESTS.length ? 0 : cursor.request + 1;
+    cursor.client = cursor.client + 1 == keys.length ? 0 : cursor.client + 1;
+
+    RateLimitPolicies.Rule rule = policies.resolve(request[0], request[1], role -> false);
+    if (rule == null || rule.limiter() == null) {
+      return null;
+    }
+    return rule.limiter().tryAcquire(keys[cursor.client]);
+  }
+}
@@ -0,0 +1,116 @@
+package com.example.filter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the legacy two-map Bucket4j limiter with RateLimiter while a large number of distinct
+ * client keys (think spoofed {@code X-Forwarded-For} values) hit the filter from 1, 8 and 64
+ * threads.
+ *
+ * <p>
+ * Run with {@code mvn -Pbenchmark test -Djmh.args="RateLimiterBenchmark -prof gc"} to also see
+ * the allocation rate of each implementation.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class RateLimiterBenchmark {
+
+  private static final int CAPACITY = 100;
+  private static final int DDOS_THRESHOLD = 200;
+  private static final Duration WINDOW = Duration.ofMinutes(1);
+
+  @Param({"1000000"})
+  int distinctKeys;
+
+  @Param({"100000"})
+  long maxTrackedKeys;
+
+  String[] keys;
+  LegacyRateLimiter legacy;
+  RateLimiter current;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    keys = new String[distinctKeys];
+    for (int i = 0; i < distinctKeys; i++) {
+      keys[i] = "10." + (i >>> 16 & 0xFF) + "." + (i >>> 8 & 0xFF) + "." + (i & 0xFF);
+    }
+    legacy = new LegacyRateLimiter(CAPACITY, WINDOW, DDOS_THRESHOLD, WINDOW);
+    current = new RateLimiter(CAPACITY, WINDOW, DDOS_THRESHOLD, WINDOW, maxTrackedKeys);
+  }
+
+  /**
+   * Per-thread walk over the key space, starting at a random offset so threads do not move in
+   * lock step.
+   */
+  @State(Scope.Thread)
+  public static class KeyCursor {
+    int index;
+
+    @Setup(Level.Trial)
+    public void setUp(RateLimiterBenchmark benchmark) {
+      index = ThreadLocalRandom.current().nextInt(benchmark.distinctKeys);
+    }
+
+    String next(String[] keys) {
+      index = index + 1 == keys.length ? 0 : index + 1;
+      return keys[index];
+    }
+  }
+
+  @Benchmark
+  @Threads(1)
+  public RateLimiter.Decision legacyThreads1(KeyCursor cursor) {
+    return legacy.tryAcquire(cursor.next(keys));
+  }
+
+  @Benchmark
+  @Threads(8)
+  public RateLimiter.Decision legacyThreads8(KeyCursor cursor) {
+    return legacy.tryAcquire(cursor.next(keys));
+  }
+
+  @Benchmark
+  @Threads(64)
+  public RateLimiter.Decision legacyThreads64(KeyCursor cursor) {
+    return legacy.tryAcquire(cursor.next(keys));
+  }
+
+  @Benchmark
+  @Threads(1)
+  public RateLimiter.Decision currentThreads1(KeyCursor cursor) {
+    return current.tryAcquire(cursor.next(keys));
+  }
+
+  @Benchmark
+  @Threads(8)
+  public RateLimiter.Decision currentThreads8(KeyCursor cursor) {
+    return current.tryAcquire(cursor.next(keys));
+  }
+
+  @Benchmark
+  @Threads(64)
+  public RateLimiter.Decision currentThreads64(KeyCursor cursor) {
+    return current.tryAcquire(cursor.next(keys));
+  }
+}
@@ -0,0 +1,126 @@
+package com.example.filter;
+
+import org.jboss.logging.Logger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Formatter;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+import java.util.logging.SimpleFormatter;
+
+/**
+ * Cost on the request thread of logging one request: the former INFO line per layer (rate limit
+ * filter, controller, service), each formatted as it is logged, against publishing one event to
+ * the access log ring, whose writer thread does the formatting.
+ *
+ * <p>
+ * Run with {@code mvn -Pbenchmark test -Djmh.args="RequestLoggingBenchmark -prof gc"}; the
+ * {@code gc.alloc.rate.norm} column is the number of bytes allocated per request.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g", "-Dorg.jboss.logging.provider=jdk"})
+@State(Scope.Benchmark)
+public class RequestLoggingBenchmark {
+
+  private static final String IP = "203.0.113.7";
+  private static final String METHOD = "GET";
+  private static final String PATH = "/api/users/42";
+
+  Logger filterLog;
+  Logger controllerLog;
+  Logger serviceLog;
+  AccessLogRing ring;
+  Thread writer;
+  volatile boolean running;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    // Format each record like a console handler would, then throw it away
+    java.util.logging.Logger root = java.util.logging.Logger.getLogger("");
+    for (Handler handler : root.getHandlers()) {
+      root.removeHandler(handler);
+    }
+    root.addHandler(new Handler() {
+      private final Formatter formatter = new SimpleFormatter();
+
+      @Override
+      public void publish(LogRecord record) {
+        formatter.format(record);
+      }
+
+      @Override
+      public void flush() {
+      }
+
+      @Override
+      public void close() {
+      }
+    });
+    filterLog = Logger.getLogger(RateLimitFilter.class);
+    controllerLog = Logger.getLogger("com.example.controller.UserController");
+    serviceLog = Logger.getLogger("com.example.service.UserService");
+
+    ring = new AccessLogRing(8192);
+    running = true;
+    writer = new Thread(() -> {
+      StringBuilder line = new StringBuilder(128);
+      while (running) {
+        ring.drain(event -> {
+          line.setLength(0);
+          line.append(event.client).append(' ').append(event.method).append(' ')
+              .append(event.path).append(' ').append(event.status);
+        }, 256);
+      }
+    });
+    writer.setDaemon(true);
+    writer.start();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws InterruptedException {
+    running = false;
+    writer.join();
+  }
+
+  @Benchmark
+  @Threads(4)
+  public void perLayerLogging() {
+    filterLog.infof("Activity: IP %s accessing %s %s", IP, METHOD, PATH);
+    controllerLog.infof("GET /api/users/%d - Getting user by id", 42L);
+    serviceLog.infof("Getting user by id: %d", 42L);
+  }
+
+  @Benchmark
+  @Threads(4)
+  public boolean accessLogEvent() {
+    AccessLogRing.Event event = ring.claim();
+    if (event == null) {
+      return false;
+    }
+    event.timestamp = System.currentTimeMillis();
+    event.method = METHOD;
+    event.path = PATH;
+    event.client = IP;
+    event.status = 200;
+    event.bytes = 512;
+    event.durationNanos = System.nanoTime();
+    ring.commit(event);
+    return true;
+  }
+}
@@ -0,0 +1,84 @@
+package com.example.service;
+
+import com.example.dto.UserResponse;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding and decoding a UserResponse for Redis: as JSON, the way UserCache stored users before
+ * {@link UserResponseCodec}, and in the compact binary form with and without compression. The
+ * size of the stored value is printed when each trial starts ({@code bytes stored: ...}).
+ *
+ * <p>
+ * The typical user has short fields; the large one a 2 KB name, standing in for users with
+ * bigger profiles. Compression is applied regardless of size here, to show what it costs on
+ * values too small to gain from it.
+ *
+ * <p>
+ * Run with {@code mvn -Pbenchmark test -Djmh.args="RedisCodecBenchmark -prof gc"}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Benchmark)
+public class RedisCodecBenchmark {
+
+  @Param({"json", "binary", "binary-lz4", "binary-zstd"})
+  String codecName;
+
+  @Param({"typical", "large"})
+  String payload;
+
+  RedisCodec<UserResponse> codec;
+  UserResponse user;
+  byte[] encoded;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule())
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+        .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    codec = switch (codecName) {
+      case "json" -> RedisCodec.json(objectMapper, UserResponse.class);
+      case "binary" -> UserResponseCodec.INSTANCE;
+      case "binary-lz4" -> UserResponseCodec.INSTANCE.compressed(RedisCodec.Compression.LZ4, 0);
+      case "binary-zstd" -> UserResponseCodec.INSTANCE.compressed(RedisCodec.Compression.ZSTD, 0);
+      default -> throw new IllegalArgumentException(codecName);
+    };
+    LocalDateTime created = LocalDateTime.of(2026, 1, 1, 12, 0, 0, 123_456_000);
+    String name = payload.equals("large") ? "Alice Example ".repeat(150) : "Alice Example";
+    user = new UserResponse(123_456L, "alice.example@example.com", name, created,
+        created.plusDays(3));
+    encoded = codec.encode(user);
+    System.out.println("bytes stored: " + encoded.length);
+  }
+
+  @Benchmark
+  public byte[] encode() {
+    return codec.encode(user);
+  }
+
+  @Benchmark
+  public UserResponse decode() {
+    return codec.decode(encoded);
+  }
+}
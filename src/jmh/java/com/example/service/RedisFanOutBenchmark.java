@@ -0,0 +1,138 @@
+package com.example.service;
+
+import io.quarkus.redis.runtime.datasource.ReactiveRedisDataSourceImpl;
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.core.Vertx;
+import io.vertx.mutiny.redis.client.Redis;
+import io.vertx.mutiny.redis.client.RedisAPI;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading and writing 1000 keys through ReactiveRedisService against {@link RedisStandIn} with a
+ * simulated network round trip: one command at a time, all at once coalesced by the batcher, and
+ * as multi-key operations. Scores are keys per second.
+ *
+ * <p>
+ * Sending the 1000 commands at once without the batcher is left out: the client lets only
+ * {@code quarkus.redis.max-pool-waiting} (24) of them wait for a connection and fails the rest.
+ *
+ * <p>
+ * Run with {@code mvn -Pbenchmark test -Djmh.args="RedisFanOutBenchmark"}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Benchmark)
+public class RedisFanOutBenchmark {
+
+  private static final int KEYS = 1000;
+  private static final Duration TTL = Duration.ofMinutes(10);
+
+  // Simulated round trip to Redis in microseconds
+  @Param({"0", "200"})
+  long rttMicros;
+
+  RedisStandIn standIn;
+  Vertx vertx;
+  Redis redis;
+  ReactiveRedisService plain;
+  ReactiveRedisService coalescing;
+  List<String> keys;
+  Map<String, String> values;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    standIn = new RedisStandIn(Duration.ofNanos(TimeUnit.MICROSECONDS.toNanos(rttMicros)));
+    standIn.start();
+    vertx = Vertx.vertx();
+    redis = Redis.createClient(vertx, standIn.uri());
+    ReactiveRedisDataSourceImpl dataSource =
+        new ReactiveRedisDataSourceImpl(vertx, redis, RedisAPI.api(redis));
+    plain = service(dataSource, Duration.ZERO);
+    coalescing = service(dataSource, Duration.ofMillis(1));
+
+    keys = new ArrayList<>(KEYS);
+    values = new LinkedHashMap<>();
+    for (int i = 0; i < KEYS; i++) {
+      keys.add("bench:" + i);
+      values.put("bench:" + i, "value-" + i);
+    }
+    plain.setAll(values, TTL).await().indefinitely();
+  }
+
+  private static ReactiveRedisService service(ReactiveRedisDataSourceImpl dataSource,
+      Duration window) {
+    ReactiveRedisService service = new ReactiveRedisService();
+    service.dataSource = dataSource;
+    service.batchWindow = window;
+    service.batchMaxSize = 256;
+    service.batchMaxInFlight = 4;
+    service.init();
+    return service;
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    plain.shutdown();
+    coalescing.shutdown();
+    redis.close();
+    vertx.closeAndAwait();
+    standIn.stop();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(KEYS)
+  public int sequentialGets() {
+    int found = 0;
+    for (String key : keys) {
+      if (plain.get(key).await().indefinitely() != null) {
+        found++;
+      }
+    }
+    return found;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(KEYS)
+  public List<String> coalescedGets() {
+    List<Uni<String>> gets = new ArrayList<>(KEYS);
+    for (String key : keys) {
+      gets.add(coalescing.get(key));
+    }
+    return Uni.join().all(gets).andFailFast().await().indefinitely();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(KEYS)
+  public Map<String, String> getAll() {
+    return plain.getAll(keys).await().indefinitely();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(KEYS)
+  public void setAll() {
+    plain.setAll(values, TTL).await().indefinitely();
+  }
+}
@@ -0,0 +1,70 @@
+package com.example.service;
+
+import com.example.dto.UserResponse;
+import com.example.entity.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Mapping of user entities to responses by UserService, for one user and for a page of users as
+ * {@code getUsersPage} does it. The entities are built in memory; no database is involved.
+ *
+ * <p>
+ * Run with {@code mvn -Pbenchmark test -Djmh.args="UserServiceBenchmark -prof gc"}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Benchmark)
+public class UserServiceBenchmark {
+
+  @Param({"20", "100"})
+  int pageSize;
+
+  User user;
+  List<User> page;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    page = new ArrayList<>(pageSize);
+    LocalDateTime created = LocalDateTime.of(2026, 1, 1, 12, 0);
+    for (int i = 0; i < pageSize; i++) {
+      User entity = new User();
+      entity.id = (long) i + 1;
+      entity.setEmail("user" + i + "@example.com");
+      entity.setName("User " + i);
+      entity.setCreatedAt(created.plusMinutes(i));
+      entity.setUpdatedAt(created.plusMinutes(i));
+      page.add(entity);
+    }
+    user = page.get(0);
+  }
+
+  @Benchmark
+  public UserResponse toResponse() {
+    return UserService.toResponse(user);
+  }
+
+  @Benchmark
+  public List<UserResponse> toResponsePage() {
+    return page.stream().map(UserService::toResponse).collect(Collectors.toList());
+  }
+}
@@ -0,0 +1,70 @@
+package com.example.controller;
+
+/**
+ * A single byte range requested with an HTTP {@code Range} header.
+ *
+ * @param start position of the first byte
+ * @param end position of the last byte, inclusive
+ */
+record ByteRange(long start, long end) {
+
+  /**
+   * Returned for a syntactically valid range that lies outside the representation.
+   */
+  static final ByteRange UNSATISFIABLE = new ByteRange(-1, -1);
+
+  private static final String BYTES_UNIT = "bytes=";
+
+  /**
+   * Parse a {@code Range} header against a representation of the given size. Only single ranges are
+   * supported; a header with several ranges or invalid syntax is ignored, which lets the caller
+   * answer with the full representation as RFC 9110 allows.
+   *
+   * @param header the header value, may be null
+   * @param size the size of the full representation
+   * @return the range clamped to the representation, {@link #UNSATISFIABLE}, or null to serve the
+   *         full representation
+   */
+  static ByteRange parse(String header, long size) {
+    if (header == null || !header.regionMatches(true, 0, BYTES_UNIT, 0, BYTES_UNIT.length())) {
+      return null;
+    }
+    String spec = header.substring(BYTES_UNIT.length()).trim();
+    int dash = spec.indexOf('-');
+    if (dash < 0 || spec.indexOf(',') >= 0) {
+      return null;
+    }
+    try {
+      if (dash == 0) {
+        // Suffix range: the last n bytes
+        long suffix = Long.parseLong(spec.substring(1));
+        if (suffix == 0 || size == 0) {
+          return UNSATISFIABLE;
+        }
+        return new ByteRange(Math.max(0, size - suffix), size - 1);
+      }
+      long start = Long.parseLong(spec.substring(0, dash));
+      long end = dash == spec.length() - 1 ? size - 1 : Long.parseLong(spec.substring(dash + 1));
+      if (start < 0 || end < start) {
+        return null;
+      }
+      if (start >= size) {
+        return UNSATISFIABLE;
+      }
+      return new ByteRange(start, Math.min(end, size - 1));
+    } catch (NumberFormatException e) {
+      return null;
+    }
+  }
+
+  long length() {
+    return end - start + 1;
+  }
+
+  /**
+   * Value of the {@code Content-Range} header for this range.
+   */
+  String contentRange(long size) {
+    return this == UNSATISFIABLE ? "bytes */" + size : "bytes " + start + "-" + end + "/" + size;
+  }
+}
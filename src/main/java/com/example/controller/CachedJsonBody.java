@@ -0,0 +1,55 @@
+package com.example.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * JSON response body that is serialized once and then served as the same bytes until it expires,
+ * for responses that are identical for every request apart from a timestamp.
+ *
+ * <p>
+ * Refreshing is not synchronized: threads that find the body expired at the same time may each
+ * serialize it once, and the last one wins.
+ */
+final class CachedJsonBody {
+
+  private record Entry(byte[] json, long expiresAt) {
+  }
+
+  private final ObjectMapper objectMapper;
+  private final Supplier<?> value;
+  private final long ttlNanos;
+  private volatile Entry entry;
+
+  /**
+   * Create a body.
+   *
+   * @param objectMapper serializes the value
+   * @param value creates the value to serialize, called again whenever the body expires
+   * @param ttl how long the serialized bytes are served
+   */
+  CachedJsonBody(ObjectMapper objectMapper, Supplier<?> value, Duration ttl) {
+    this.objectMapper = objectMapper;
+    this.value = value;
+    this.ttlNanos = ttl.toNanos();
+  }
+
+  /**
+   * The serialized body. The array is shared and must not be modified.
+   */
+  byte[] get() {
+    Entry current = entry;
+    long now = System.nanoTime();
+    if (current == null || now - current.expiresAt() >= 0) {
+      try {
+        current = new Entry(objectMapper.writeValueAsBytes(value.get()), now + ttlNanos);
+      } catch (JsonProcessingException e) {
+        throw new IllegalStateException("Could not serialize cached response body", e);
+      }
+      entry = current;
+    }
+    return current.json();
+  }
+}
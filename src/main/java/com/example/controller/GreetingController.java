@@ -3,21 +3,45 @@ package com.example.controller;
 import com.example.dto.GreetingRequest;
 import com.example.dto.GreetingResponse;
 import com.example.service.GreetingService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.inject.Inject;
 import jakarta.validation.Valid;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.eclipse.microprofile.openapi.annotations.Operation;
 import org.eclipse.microprofile.openapi.annotations.media.Content;
 import org.eclipse.microprofile.openapi.annotations.media.Schema;
 import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
 import org.eclipse.microprofile.openapi.annotations.responses.APIResponses;
 import org.eclipse.microprofile.openapi.annotations.tags.Tag;
-import org.jboss.logging.Logger;
 
 /**
  * REST controller for greeting operations.
+ *
+ * <p>
+ * Greetings are in the language of the {@code Accept-Language} header when a template exists for
+ * it. The default greeting is the same for every request of a language, so its JSON body is
+ * serialized once and reused for {@code app.greeting.default-body-ttl}, which is also how stale its
+ * timestamp can be.
+ *
+ * <p>
+ * A personalized greeting carries a weak ETag hashed from its message and language, leaving out the
+ * timestamp, so a client repeating the request with {@code If-None-Match} gets a 304.
  */
 @Path("/api/greeting")
 @Produces(MediaType.APPLICATION_JSON)
@@ -25,31 +49,48 @@ import org.jboss.logging.Logger;
 @Tag(name = "Greeting", description = "Greeting operations")
 public class GreetingController {
 
-  private static final Logger LOG = Logger.getLogger(GreetingController.class);
-
   @Inject
   GreetingService greetingService;
 
+  @Inject
+  ObjectMapper objectMapper;
+
+  @ConfigProperty(name = "app.greeting.default-body-ttl", defaultValue = "1s")
+  Duration defaultBodyTtl;
+
+  // Cache-Control of a personalized greeting
+  @ConfigProperty(name = "app.greeting.cache-control", defaultValue = "public, max-age=60")
+  String cacheControl;
+
+  // One body per supported locale
+  private final Map<Locale, CachedJsonBody> defaultBodies = new ConcurrentHashMap<>();
+
   /**
    * Get a default greeting.
    *
+   * @param acceptLanguage preferred languages of the client
    * @return the greeting response
    */
   @GET
   @Operation(summary = "Get default greeting", description = "Returns a default greeting message")
   @APIResponses(value = {@APIResponse(responseCode = "200", description = "Success",
       content = @Content(schema = @Schema(implementation = GreetingResponse.class)))})
-  public Response getGreeting() {
-    LOG.info("GET /api/greeting - Getting default greeting");
-    String message = greetingService.getDefaultGreeting();
-    GreetingResponse response = new GreetingResponse(message);
-    return Response.ok(response).build();
+  public Response getGreeting(@HeaderParam(HttpHeaders.ACCEPT_LANGUAGE) String acceptLanguage) {
+    Locale locale = greetingService.resolveLocale(acceptLanguage);
+    CachedJsonBody body = defaultBodies.get(locale);
+    if (body == null) {
+      body = defaultBodies.computeIfAbsent(locale, l -> new CachedJsonBody(objectMapper,
+          () -> new GreetingResponse(greetingService.getDefaultGreeting(l)), defaultBodyTtl));
+    }
+    return localized(Response.ok(body.get(), MediaType.APPLICATION_JSON_TYPE), locale);
   }
 
   /**
-   * Get a personalized greeting.
+   * Get a personalized greeting, or a 304 when the {@code If-None-Match} header holds its ETag.
    *
    * @param name the name to greet
+   * @param acceptLanguage preferred languages of the client
+   * @param request the request, for conditional headers
    * @return the greeting response
    */
   @GET
@@ -59,24 +100,32 @@ public class GreetingController {
   @APIResponses(value = {
       @APIResponse(responseCode = "200", description = "Success",
           content = @Content(schema = @Schema(implementation = GreetingResponse.class))),
+      @APIResponse(responseCode = "304", description = "Not modified"),
       @APIResponse(responseCode = "400", description = "Invalid input")})
-  public Response getGreetingByName(@PathParam("name") String name) {
-    LOG.infof("GET /api/greeting/%s - Getting personalized greeting", name);
-
+  public Response getGreetingByName(@PathParam("name") String name,
+      @HeaderParam(HttpHeaders.ACCEPT_LANGUAGE) String acceptLanguage, @Context Request request) {
     if (name == null || name.isBlank()) {
       return Response.status(Response.Status.BAD_REQUEST)
           .entity(new GreetingResponse("Name cannot be empty")).build();
     }
 
-    String message = greetingService.greet(name);
+    Locale locale = greetingService.resolveLocale(acceptLanguage);
+    String message = greetingService.greet(name, locale);
+    EntityTag etag = etag(message, locale);
+    Response.ResponseBuilder notModified = request.evaluatePreconditions(etag);
+    if (notModified != null) {
+      return localized(notModified.header(HttpHeaders.CACHE_CONTROL, cacheControl), locale);
+    }
     GreetingResponse response = new GreetingResponse(message);
-    return Response.ok(response).build();
+    return localized(
+        Response.ok(response).tag(etag).header(HttpHeaders.CACHE_CONTROL, cacheControl), locale);
   }
 
   /**
    * Create a personalized greeting.
    *
    * @param request the greeting request
+   * @param acceptLanguage preferred languages of the client
    * @return the greeting response
    */
   @POST
@@ -86,10 +135,31 @@ public class GreetingController {
       @APIResponse(responseCode = "201", description = "Created",
           content = @Content(schema = @Schema(implementation = GreetingResponse.class))),
       @APIResponse(responseCode = "400", description = "Invalid input")})
-  public Response createGreeting(@Valid GreetingRequest request) {
-    LOG.infof("POST /api/greeting - Creating greeting for: %s", request.getName());
-    String message = greetingService.greet(request.getName());
+  public Response createGreeting(@Valid GreetingRequest request,
+      @HeaderParam(HttpHeaders.ACCEPT_LANGUAGE) String acceptLanguage) {
+    Locale locale = greetingService.resolveLocale(acceptLanguage);
+    String message = greetingService.greet(request.getName(), locale);
     GreetingResponse response = new GreetingResponse(message);
-    return Response.status(Response.Status.CREATED).entity(response).build();
+    return localized(Response.status(Response.Status.CREATED).entity(response), locale);
+  }
+
+  /**
+   * A weak ETag, since responses with the same message differ in their timestamp.
+   */
+  static EntityTag etag(String message, Locale locale) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      digest.update(locale.toLanguageTag().getBytes(StandardCharsets.UTF_8));
+      digest.update((byte) 0);
+      byte[] hash = digest.digest(message.getBytes(StandardCharsets.UTF_8));
+      return new EntityTag(
+          Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(hash, 16)), true);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 not available", e);
+    }
+  }
+
+  private static Response localized(Response.ResponseBuilder builder, Locale locale) {
+    return builder.language(locale).header(HttpHeaders.VARY, HttpHeaders.ACCEPT_LANGUAGE).build();
   }
 }
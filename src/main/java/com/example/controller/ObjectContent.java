@@ -0,0 +1,13 @@
+package com.example.controller;
+
+import java.io.InputStream;
+
+/**
+ * Response entity carrying object bytes read from the object store, written to the client by
+ * {@link ObjectContentWriter}.
+ *
+ * @param stream the content; closed once written
+ * @param length number of bytes in the stream, or -1 if unknown
+ */
+public record ObjectContent(InputStream stream, long length) {
+}
@@ -0,0 +1,168 @@
+package com.example.controller;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.vertx.core.buffer.impl.BufferImpl;
+import io.vertx.core.http.HttpServerResponse;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.ext.Provider;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import org.jboss.resteasy.reactive.server.core.ResteasyReactiveRequestContext;
+import org.jboss.resteasy.reactive.server.spi.ResteasyReactiveResourceInfo;
+import org.jboss.resteasy.reactive.server.spi.ServerMessageBodyWriter;
+import org.jboss.resteasy.reactive.server.spi.ServerRequestContext;
+
+/**
+ * Writes {@link ObjectContent} straight to the Vert.x response.
+ *
+ * <p>
+ * The content is read into pooled direct buffers that are handed to the connection as they are and
+ * returned to the pool once flushed, so serving an object does not allocate heap buffers per chunk.
+ * Reading pauses while the connection's write queue is full: a slow client slows down the read from
+ * the object store instead of making the server buffer the object.
+ */
+@Provider
+@Produces(MediaType.WILDCARD)
+public class ObjectContentWriter implements ServerMessageBodyWriter<ObjectContent> {
+
+  private static final Logger LOG = Logger.getLogger(ObjectContentWriter.class);
+
+  // How long to wait for the write queue to drain before checking the connection again
+  private static final long DRAIN_CHECK_MILLIS = 1000;
+
+  // Bytes read from the object store per buffer written to the client
+  @ConfigProperty(name = "app.minio.download.buffer-size", defaultValue = "65536")
+  int bufferSize;
+
+  ByteBufAllocator allocator = PooledByteBufAllocator.DEFAULT;
+
+  @Override
+  public boolean isWriteable(Class<?> type, Type genericType, ResteasyReactiveResourceInfo target,
+      MediaType mediaType) {
+    return ObjectContent.class.isAssignableFrom(type);
+  }
+
+  @Override
+  public void writeResponse(ObjectContent content, Type genericType, ServerRequestContext context)
+      throws WebApplicationException {
+    HttpServerResponse response =
+        ((ResteasyReactiveRequestContext) context).serverRequest().unwrap(HttpServerResponse.class);
+    try {
+      if (!transfer(content, response)) {
+        LOG.debug("Client closed the connection before the object was fully sent");
+      }
+    } catch (IOException e) {
+      // The status line is already sent; dropping the connection tells the client the body is
+      // incomplete
+      LOG.errorf(e, "Failed to stream object content");
+      response.reset();
+    }
+  }
+
+  @Override
+  public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations,
+      MediaType mediaType) {
+    return ObjectContent.class.isAssignableFrom(type);
+  }
+
+  @Override
+  public void writeTo(ObjectContent content, Class<?> type, Type genericType,
+      Annotation[] annotations, MediaType mediaType, MultivaluedMap<String, Object> httpHeaders,
+      OutputStream entityStream) throws IOException {
+    try (InputStream in = content.stream()) {
+      in.transferTo(entityStream);
+    }
+  }
+
+  /**
+   * Copy the content to the response and end it. Blocks the calling worker thread while the write
+   * queue is full.
+   *
+   * @return false if the client went away before the whole content was written
+   */
+  boolean transfer(ObjectContent content, HttpServerResponse response) throws IOException {
+    if (content.length() >= 0) {
+      response.putHeader(HttpHeaders.CONTENT_LENGTH, String.valueOf(content.length()));
+    } else {
+      response.setChunked(true);
+    }
+    try (InputStream in = content.stream();
+        ReadableByteChannel channel =
+            in instanceof ReadableByteChannel readable ? readable : Channels.newChannel(in)) {
+      boolean end = false;
+      while (!end) {
+        awaitWritable(response);
+        if (response.closed()) {
+          return false;
+        }
+        ByteBuf chunk = allocator.directBuffer(bufferSize);
+        try {
+          end = fill(channel, chunk);
+        } catch (IOException e) {
+          chunk.release();
+          throw e;
+        }
+        if (chunk.isReadable()) {
+          response.write(BufferImpl.buffer(chunk)).onComplete(written -> chunk.release());
+        } else {
+          chunk.release();
+        }
+      }
+    }
+    response.end();
+    return true;
+  }
+
+  /**
+   * Read from the channel until the buffer is full or the stream ends.
+   *
+   * @return whether the stream ended
+   */
+  private static boolean fill(ReadableByteChannel channel, ByteBuf chunk) throws IOException {
+    ByteBuffer target = chunk.nioBuffer(chunk.writerIndex(), chunk.writableBytes());
+    boolean end = false;
+    while (target.hasRemaining() && !end) {
+      end = channel.read(target) < 0;
+    }
+    chunk.writerIndex(chunk.writerIndex() + target.position());
+    return end;
+  }
+
+  private static void awaitWritable(HttpServerResponse response) throws InterruptedIOException {
+    while (!response.closed() && response.writeQueueFull()) {
+      CompletableFuture<Void> drained = new CompletableFuture<>();
+      response.drainHandler(ignored -> drained.complete(null));
+      if (!response.writeQueueFull()) {
+        return;
+      }
+      try {
+        // A connection closed while full never drains, so wake up now and then to notice it
+        drained.get(DRAIN_CHECK_MILLIS, TimeUnit.MILLISECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Interrupted while waiting for the client");
+      } catch (ExecutionException | TimeoutException e) {
+        // Check the connection again
+      }
+    }
+  }
+}
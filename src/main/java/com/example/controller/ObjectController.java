@@ -0,0 +1,137 @@
+package com.example.controller;
+
+import com.example.dto.ObjectMetadata;
+import com.example.filter.VirtualThreadCapable;
+import com.example.service.MinioService;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.media.Content;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponses;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+
+import java.io.InputStream;
+import java.util.Date;
+
+/**
+ * REST controller for objects stored in MinIO.
+ */
+@Path("/api/objects")
+@Tag(name = "Objects", description = "Object storage operations")
+@VirtualThreadCapable
+public class ObjectController {
+
+  static final String ACCEPT_RANGES = "Accept-Ranges";
+  static final String CONTENT_RANGE = "Content-Range";
+
+  @Inject
+  MinioService minioService;
+
+  /**
+   * Upload an object. The request body is streamed to MinIO without being buffered in memory.
+   *
+   * @param name the object name
+   * @param contentLength the size of the body, if known
+   * @param contentType the content type to store with the object
+   * @param body the object content
+   * @return the metadata of the stored object
+   */
+  @PUT
+  @Path("/{name: .+}")
+  @Consumes(MediaType.WILDCARD)
+  @Produces(MediaType.APPLICATION_JSON)
+  @Operation(summary = "Upload object", description = "Stores the request body as an object")
+  @APIResponses(value = {@APIResponse(responseCode = "201", description = "Object stored",
+      content = @Content(schema = @Schema(implementation = ObjectMetadata.class)))})
+  public Response uploadObject(@PathParam("name") String name,
+      @HeaderParam(HttpHeaders.CONTENT_LENGTH) Long contentLength,
+      @HeaderParam(HttpHeaders.CONTENT_TYPE) String contentType, InputStream body) {
+    minioService.uploadStream(name, body, contentLength == null ? -1 : contentLength,
+        contentType == null ? MediaType.APPLICATION_OCTET_STREAM : contentType);
+    return Response.status(Response.Status.CREATED).entity(minioService.statFile(name)).build();
+  }
+
+  /**
+   * Download an object or, with a {@code Range} header, part of it. The content is streamed from
+   * MinIO to the client by {@link ObjectContentWriter}. A request whose {@code If-None-Match} or
+   * {@code If-Modified-Since} header matches the current object gets a 304 without the content
+   * being fetched.
+   *
+   * @param name the object name
+   * @param range the requested byte range
+   * @param request the request, for conditional headers
+   * @return the object content
+   */
+  @GET
+  @Path("/{name: .+}")
+  @Produces(MediaType.WILDCARD)
+  @Operation(summary = "Download object",
+      description = "Returns the object content; supports single byte ranges and conditional "
+          + "requests")
+  @APIResponses(value = {@APIResponse(responseCode = "200", description = "Success"),
+      @APIResponse(responseCode = "206", description = "Partial content"),
+      @APIResponse(responseCode = "304", description = "Not modified"),
+      @APIResponse(responseCode = "404", description = "Object not found"),
+      @APIResponse(responseCode = "416", description = "Range not satisfiable")})
+  public Response downloadObject(@PathParam("name") String name, @HeaderParam("Range") String range,
+      @Context Request request) {
+    ObjectMetadata metadata = minioService.statFile(name);
+    EntityTag etag = new EntityTag(metadata.getEtag());
+    Date lastModified =
+        metadata.getLastModified() == null ? null : Date.from(metadata.getLastModified());
+
+    Response.ResponseBuilder notModified =
+        lastModified == null ? request.evaluatePreconditions(etag)
+            : request.evaluatePreconditions(lastModified, etag);
+    if (notModified != null) {
+      return notModified.build();
+    }
+
+    ByteRange byteRange = ByteRange.parse(range, metadata.getSize());
+    if (byteRange == ByteRange.UNSATISFIABLE) {
+      return Response.status(Response.Status.REQUESTED_RANGE_NOT_SATISFIABLE)
+          .header(CONTENT_RANGE, byteRange.contentRange(metadata.getSize())).build();
+    }
+
+    Response.ResponseBuilder response;
+    ObjectContent content;
+    if (byteRange == null) {
+      content = new ObjectContent(minioService.downloadFile(metadata, 0, -1), metadata.getSize());
+      response = Response.ok();
+    } else {
+      content = new ObjectContent(
+          minioService.downloadFile(metadata, byteRange.start(), byteRange.length()),
+          byteRange.length());
+      response = Response.status(Response.Status.PARTIAL_CONTENT).header(CONTENT_RANGE,
+          byteRange.contentRange(metadata.getSize()));
+    }
+
+    response.entity(content).header(ACCEPT_RANGES, "bytes").tag(etag).lastModified(lastModified)
+        .type(metadata.getContentType() == null ? MediaType.APPLICATION_OCTET_STREAM
+            : metadata.getContentType());
+    return response.build();
+  }
+
+  /**
+   * Delete an object.
+   *
+   * @param name the object name
+   * @return no content
+   */
+  @DELETE
+  @Path("/{name: .+}")
+  @Operation(summary = "Delete object", description = "Deletes an object")
+  @APIResponses(value = {@APIResponse(responseCode = "204", description = "Object deleted")})
+  public Response deleteObject(@PathParam("name") String name) {
+    minioService.deleteFile(name);
+    return Response.noContent().build();
+  }
+}
@@ -0,0 +1,168 @@
+package com.example.controller;
+
+import com.example.dto.UserRequest;
+import com.example.dto.UserResponse;
+import com.example.service.ReactiveUserService;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import jakarta.inject.Inject;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.UriInfo;
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.media.Content;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+import org.eclipse.microprofile.openapi.annotations.parameters.Parameter;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponses;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+import org.jboss.logging.Logger;
+
+/**
+ * Non-blocking REST controller for user CRUD operations. Same API as {@link UserController}, but
+ * requests are handled on the event loop and database calls run on a dedicated pool, so a slow
+ * database cannot exhaust the worker threads shared by every other endpoint.
+ */
+@Path("/api/v2/users")
+@Produces(MediaType.APPLICATION_JSON)
+@Consumes(MediaType.APPLICATION_JSON)
+@Tag(name = "Users v2", description = "Non-blocking user CRUD operations")
+public class ReactiveUserController {
+
+  private static final Logger LOG = Logger.getLogger(ReactiveUserController.class);
+
+  @Inject
+  ReactiveUserService userService;
+
+  /**
+   * Get one page of users using keyset pagination on ID.
+   *
+   * @param cursor the opaque cursor of the page to fetch
+   * @param size the page size
+   * @param uriInfo the request URI info used to build the next link
+   * @return list of users, with the next cursor in the {@code X-Next-Cursor} and {@code Link}
+   *         headers when more users exist
+   */
+  @GET
+  @Operation(summary = "Get users",
+      description = "Returns one page of users ordered by ID; follow the next cursor for more")
+  @APIResponses(value = {
+      @APIResponse(responseCode = "200", description = "Success",
+          content = @Content(schema = @Schema(implementation = UserResponse.class))),
+      @APIResponse(responseCode = "400", description = "Invalid cursor or page size"),
+      @APIResponse(responseCode = "503", description = "Database busy, retry later")})
+  public Uni<Response> getAllUsers(
+      @Parameter(description = "Opaque cursor from a previous page")
+      @QueryParam("cursor") String cursor,
+      @Parameter(description = "Page size") @QueryParam("size") @Min(1) Integer size,
+      @Context UriInfo uriInfo) {
+    return userService.getUsersPage(cursor, size).map(page -> {
+      Response.ResponseBuilder builder = Response.ok(page.getItems());
+      if (page.hasNext()) {
+        builder.header(UserController.NEXT_CURSOR_HEADER, page.getNext()).link(
+            uriInfo.getRequestUriBuilder().replaceQueryParam("cursor", page.getNext()).build(),
+            "next");
+      }
+      return builder.build();
+    });
+  }
+
+  /**
+   * Stream all users as a single JSON array, reading the next page only as fast as the client
+   * consumes the response.
+   *
+   * @return streaming JSON array of users
+   */
+  @GET
+  @Path("/stream")
+  @Operation(summary = "Stream all users",
+      description = "Streams every user as a JSON array with constant memory")
+  @APIResponses(value = {@APIResponse(responseCode = "200", description = "Success",
+      content = @Content(schema = @Schema(implementation = UserResponse.class)))})
+  public Multi<UserResponse> streamAllUsers() {
+    LOG.info("GET /api/v2/users/stream - Streaming all users");
+    return userService.streamUsers();
+  }
+
+  /**
+   * Get user by ID.
+   *
+   * @param id the user ID
+   * @return the user
+   */
+  @GET
+  @Path("/{id}")
+  @Operation(summary = "Get user by ID", description = "Returns a user by their ID")
+  @APIResponses(value = {
+      @APIResponse(responseCode = "200", description = "Success",
+          content = @Content(schema = @Schema(implementation = UserResponse.class))),
+      @APIResponse(responseCode = "404", description = "User not found"),
+      @APIResponse(responseCode = "503", description = "Database busy, retry later")})
+  public Uni<UserResponse> getUserById(
+      @Parameter(description = "User ID", required = true) @PathParam("id") Long id) {
+    return userService.getUserById(id);
+  }
+
+  /**
+   * Create a new user.
+   *
+   * @param request the user request
+   * @return the created user
+   */
+  @POST
+  @Operation(summary = "Create a new user", description = "Creates a new user")
+  @APIResponses(value = {
+      @APIResponse(responseCode = "201", description = "Created",
+          content = @Content(schema = @Schema(implementation = UserResponse.class))),
+      @APIResponse(responseCode = "400", description = "Invalid input"),
+      @APIResponse(responseCode = "409", description = "Email already in use"),
+      @APIResponse(responseCode = "503", description = "Database busy, retry later")})
+  public Uni<Response> createUser(@Valid UserRequest request) {
+    return userService.createUser(request)
+        .map(user -> Response.status(Response.Status.CREATED).entity(user).build());
+  }
+
+  /**
+   * Update an existing user.
+   *
+   * @param id the user ID
+   * @param request the user request
+   * @return the updated user
+   */
+  @PUT
+  @Path("/{id}")
+  @Operation(summary = "Update a user", description = "Updates an existing user")
+  @APIResponses(value = {
+      @APIResponse(responseCode = "200", description = "Success",
+          content = @Content(schema = @Schema(implementation = UserResponse.class))),
+      @APIResponse(responseCode = "400", description = "Invalid input"),
+      @APIResponse(responseCode = "404", description = "User not found"),
+      @APIResponse(responseCode = "409", description = "Email already in use"),
+      @APIResponse(responseCode = "503", description = "Database busy, retry later")})
+  public Uni<UserResponse> updateUser(
+      @Parameter(description = "User ID", required = true) @PathParam("id") Long id,
+      @Valid UserRequest request) {
+    return userService.updateUser(id, request);
+  }
+
+  /**
+   * Delete a user.
+   *
+   * @param id the user ID
+   * @return no content response
+   */
+  @DELETE
+  @Path("/{id}")
+  @Operation(summary = "Delete a user", description = "Deletes a user by their ID")
+  @APIResponses(value = {@APIResponse(responseCode = "204", description = "Deleted successfully"),
+      @APIResponse(responseCode = "404", description = "User not found"),
+      @APIResponse(responseCode = "503", description = "Database busy, retry later")})
+  public Uni<Response> deleteUser(
+      @Parameter(description = "User ID", required = true) @PathParam("id") Long id) {
+    return userService.deleteUser(id).replaceWith(() -> Response.noContent().build());
+  }
+}
@@ -1,5 +1,6 @@
 package com.example.controller;
 
+import com.example.filter.VirtualThreadCapable;
 import com.example.service.VaultService;
 import jakarta.annotation.security.PermitAll;
 import jakarta.annotation.security.RolesAllowed;
@@ -27,7 +28,6 @@ public class SecuredController {
   @PermitAll
   @Produces(MediaType.TEXT_PLAIN)
   public String publicEndpoint() {
-    log.info("Public endpoint accessed");
     return "This is a public endpoint - accessible to everyone";
   }
 
@@ -36,7 +36,6 @@ public class SecuredController {
   @RolesAllowed({"user", "admin"})
   @Produces(MediaType.TEXT_PLAIN)
   public String userEndpoint() {
-    log.info("User endpoint accessed");
     return "This endpoint requires 'user' or 'admin' role";
   }
 
@@ -45,16 +44,15 @@ public class SecuredController {
   @RolesAllowed("admin")
   @Produces(MediaType.TEXT_PLAIN)
   public String adminEndpoint() {
-    log.info("Admin endpoint accessed");
     return "This endpoint requires 'admin' role";
   }
 
   @GET
   @Path("/vault-secret")
   @PermitAll
+  @VirtualThreadCapable
   @Produces(MediaType.APPLICATION_JSON)
   public Response getVaultSecret() {
-    log.info("Vault secret endpoint accessed");
     try {
       // Example: retrieve a secret from Vault
       Map<String, String> secret = vaultService.getSecret("config/app");
@@ -1,13 +1,29 @@
 package com.example.controller;
 
+import com.example.dto.ImportResult;
+import com.example.dto.UserPage;
 import com.example.dto.UserRequest;
 import com.example.dto.UserResponse;
+import com.example.filter.VirtualThreadCapable;
 import com.example.service.UserService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.annotation.PostConstruct;
 import jakarta.inject.Inject;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import jakarta.ws.rs.core.UriInfo;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.eclipse.microprofile.openapi.annotations.Operation;
 import org.eclipse.microprofile.openapi.annotations.media.Content;
 import org.eclipse.microprofile.openapi.annotations.media.Schema;
@@ -17,41 +33,166 @@ import org.eclipse.microprofile.openapi.annotations.responses.APIResponses;
 import org.eclipse.microprofile.openapi.annotations.tags.Tag;
 import org.jboss.logging.Logger;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
 
 /**
  * REST controller for user CRUD operations.
+ *
+ * <p>
+ * A single user is tagged with an ETag derived from its ID and last update, so a client polling it
+ * with {@code If-None-Match} gets a 304 without the body. Since users are read through the user
+ * cache, that needs no database query while the user is cached.
  */
 @Path("/api/users")
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
 @Tag(name = "Users", description = "User CRUD operations")
+@VirtualThreadCapable
 public class UserController {
 
   private static final Logger LOG = Logger.getLogger(UserController.class);
 
+  static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+  static final String NDJSON = "application/x-ndjson";
+
   @Inject
   UserService userService;
 
+  @Inject
+  ObjectMapper objectMapper;
+
+  // Cache-Control of a single user; clients revalidate with its ETag
+  @ConfigProperty(name = "app.users.cache-control", defaultValue = "private, no-cache")
+  String cacheControl;
+
+  private ObjectWriter userWriter;
+
+  @PostConstruct
+  void init() {
+    // Let the generator buffer fill up instead of flushing the socket after every element
+    userWriter = objectMapper.writerFor(UserResponse.class)
+        .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+  }
+
+  /**
+   * Get one page of users using keyset pagination on ID.
+   *
+   * @param cursor the opaque cursor of the page to fetch
+   * @param size the page size
+   * @param uriInfo the request URI info used to build the next link
+   * @return list of users, with the next cursor in the {@code X-Next-Cursor} and {@code Link}
+   *         headers when more users exist
+   */
+  @GET
+  @Operation(summary = "Get users",
+      description = "Returns one page of users ordered by ID; follow the next cursor for more")
+  @APIResponses(value = {
+      @APIResponse(responseCode = "200", description = "Success",
+          content = @Content(schema = @Schema(implementation = UserResponse.class))),
+      @APIResponse(responseCode = "400", description = "Invalid cursor or page size")})
+  public Response getAllUsers(
+      @Parameter(description = "Opaque cursor from a previous page")
+      @QueryParam("cursor") String cursor,
+      @Parameter(description = "Page size") @QueryParam("size") @Min(1) Integer size,
+      @Context UriInfo uriInfo) {
+    UserPage page = userService.getUsersPage(cursor, size);
+
+    Response.ResponseBuilder builder = Response.ok(page.getItems());
+    if (page.hasNext()) {
+      builder.header(NEXT_CURSOR_HEADER, page.getNext()).link(
+          uriInfo.getRequestUriBuilder().replaceQueryParam("cursor", page.getNext()).build(),
+          "next");
+    }
+    return builder.build();
+  }
+
   /**
-   * Get all users.
+   * Stream all users as a single JSON array. The array is written incrementally while rows are read
+   * from the database, so memory use does not depend on the number of users.
    *
-   * @return list of users
+   * @return streaming JSON array of users
    */
   @GET
-  @Operation(summary = "Get all users", description = "Returns a list of all users")
+  @Path("/stream")
+  @Operation(summary = "Stream all users",
+      description = "Streams every user as a JSON array with constant memory")
   @APIResponses(value = {@APIResponse(responseCode = "200", description = "Success",
       content = @Content(schema = @Schema(implementation = UserResponse.class)))})
-  public Response getAllUsers() {
-    LOG.info("GET /api/users - Getting all users");
-    List<UserResponse> users = userService.getAllUsers();
-    return Response.ok(users).build();
+  public Response streamAllUsers() {
+    LOG.info("GET /api/users/stream - Streaming all users");
+    StreamingOutput body = output -> {
+      try (JsonGenerator generator = objectMapper.getFactory().createGenerator(output)) {
+        generator.writeStartArray();
+        userService.streamUsers(user -> writeUser(generator, user));
+        generator.writeEndArray();
+      }
+    };
+    return Response.ok(body).build();
   }
 
   /**
-   * Get user by ID.
+   * Export all users as newline-delimited JSON, one user per line. Like {@code /stream}, users are
+   * written while rows are read, with constant memory.
+   *
+   * @return streaming NDJSON of users
+   */
+  @GET
+  @Path("/export")
+  @Produces(NDJSON)
+  @Operation(summary = "Export all users",
+      description = "Streams every user as newline-delimited JSON with constant memory")
+  @APIResponses(value = {@APIResponse(responseCode = "200", description = "Success",
+      content = @Content(mediaType = NDJSON,
+          schema = @Schema(implementation = UserResponse.class)))})
+  public Response exportUsers() {
+    LOG.info("GET /api/users/export - Exporting all users");
+    StreamingOutput body = output -> {
+      try (JsonGenerator generator = objectMapper.getFactory().createGenerator(output)) {
+        // Lines are separated by the newline alone, not the default space between root values
+        generator.setRootValueSeparator(null);
+        userService.streamUsers(user -> {
+          writeUser(generator, user);
+          writeNewline(generator);
+        });
+      }
+    };
+    return Response.ok(body).build();
+  }
+
+  /**
+   * Import users from newline-delimited JSON, one user request per line, as exported by
+   * {@code /export}. The body is read as it arrives and inserted in batches; rejected lines are
+   * reported by line number and do not stop the import.
+   *
+   * @param body the NDJSON request body
+   * @return the number of imported and rejected lines
+   * @throws IOException if the request body cannot be read
+   */
+  @POST
+  @Path("/bulk")
+  @Consumes(NDJSON)
+  @Operation(summary = "Import users",
+      description = "Creates users from newline-delimited JSON, reporting rejected lines")
+  @APIResponses(value = {@APIResponse(responseCode = "200", description = "Import finished",
+      content = @Content(schema = @Schema(implementation = ImportResult.class)))})
+  public Response importUsers(InputStream body) throws IOException {
+    LOG.info("POST /api/users/bulk - Importing users");
+    ImportResult result = userService.importUsers(body);
+    return Response.ok(result).build();
+  }
+
+  /**
+   * Get user by ID, or a 304 when the {@code If-None-Match} header holds its current ETag.
    *
    * @param id the user ID
+   * @param request the request, for conditional headers
    * @return the user
    */
   @GET
@@ -60,12 +201,18 @@ public class UserController {
   @APIResponses(value = {
       @APIResponse(responseCode = "200", description = "Success",
           content = @Content(schema = @Schema(implementation = UserResponse.class))),
+      @APIResponse(responseCode = "304", description = "Not modified"),
       @APIResponse(responseCode = "404", description = "User not found")})
   public Response getUserById(
-      @Parameter(description = "User ID", required = true) @PathParam("id") Long id) {
-    LOG.infof("GET /api/users/%d - Getting user by id", id);
+      @Parameter(description = "User ID", required = true) @PathParam("id") Long id,
+      @Context Request request) {
     UserResponse user = userService.getUserById(id);
-    return Response.ok(user).build();
+    EntityTag etag = etag(user);
+    Response.ResponseBuilder notModified = request.evaluatePreconditions(etag);
+    if (notModified != null) {
+      return notModified.header(HttpHeaders.CACHE_CONTROL, cacheControl).build();
+    }
+    return Response.ok(user).tag(etag).header(HttpHeaders.CACHE_CONTROL, cacheControl).build();
   }
 
   /**
@@ -79,11 +226,11 @@ public class UserController {
   @APIResponses(value = {
       @APIResponse(responseCode = "201", description = "Created",
           content = @Content(schema = @Schema(implementation = UserResponse.class))),
-      @APIResponse(responseCode = "400", description = "Invalid input")})
+      @APIResponse(responseCode = "400", description = "Invalid input"),
+      @APIResponse(responseCode = "409", description = "Email already in use")})
   public Response createUser(@Valid UserRequest request) {
-    LOG.infof("POST /api/users - Creating user with email: %s", request.getEmail());
     UserResponse user = userService.createUser(request);
-    return Response.status(Response.Status.CREATED).entity(user).build();
+    return Response.status(Response.Status.CREATED).entity(user).tag(etag(user)).build();
   }
 
   /**
@@ -100,13 +247,13 @@ public class UserController {
       @APIResponse(responseCode = "200", description = "Success",
           content = @Content(schema = @Schema(implementation = UserResponse.class))),
       @APIResponse(responseCode = "400", description = "Invalid input"),
-      @APIResponse(responseCode = "404", description = "User not found")})
+      @APIResponse(responseCode = "404", description = "User not found"),
+      @APIResponse(responseCode = "409", description = "Email already in use")})
   public Response updateUser(
       @Parameter(description = "User ID", required = true) @PathParam("id") Long id,
       @Valid UserRequest request) {
-    LOG.infof("PUT /api/users/%d - Updating user", id);
     UserResponse user = userService.updateUser(id, request);
-    return Response.ok(user).build();
+    return Response.ok(user).tag(etag(user)).build();
   }
 
   /**
@@ -122,8 +269,34 @@ public class UserController {
       @APIResponse(responseCode = "404", description = "User not found")})
   public Response deleteUser(
       @Parameter(description = "User ID", required = true) @PathParam("id") Long id) {
-    LOG.infof("DELETE /api/users/%d - Deleting user", id);
     userService.deleteUser(id);
     return Response.noContent().build();
   }
+
+  /**
+   * The ETag of a user: its ID and the time of its last update in microseconds, the precision the
+   * database keeps, so that a user read back from the database has the tag it was written with.
+   */
+  static EntityTag etag(UserResponse user) {
+    LocalDateTime version = user.getUpdatedAt() != null ? user.getUpdatedAt() : user.getCreatedAt();
+    long micros = version == null ? 0
+        : ChronoUnit.MICROS.between(Instant.EPOCH, version.toInstant(ZoneOffset.UTC));
+    return new EntityTag(user.getId() + "-" + Long.toHexString(micros));
+  }
+
+  private void writeUser(JsonGenerator generator, UserResponse user) {
+    try {
+      userWriter.writeValue(generator, user);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static void writeNewline(JsonGenerator generator) {
+    try {
+      generator.writeRaw('\n');
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
 }
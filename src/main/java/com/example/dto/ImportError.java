@@ -0,0 +1,23 @@
+package com.example.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * A line of a bulk import that was rejected, and why.
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class ImportError {
+
+  /**
+   * Number of the rejected line, starting at 1.
+   */
+  private long line;
+
+  private String message;
+}
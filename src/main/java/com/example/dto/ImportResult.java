@@ -0,0 +1,44 @@
+package com.example.dto;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a bulk import: how many lines were imported or rejected, and the reasons for the first
+ * rejections.
+ */
+@Getter
+@ToString
+public class ImportResult {
+
+  private long imported;
+
+  private long failed;
+
+  /**
+   * The first rejected lines, up to the configured limit; {@code failed} counts them all.
+   */
+  private final List<ImportError> errors = new ArrayList<>();
+
+  @Getter(AccessLevel.NONE)
+  private final int maxErrors;
+
+  public ImportResult(int maxErrors) {
+    this.maxErrors = maxErrors;
+  }
+
+  public void addImported(long count) {
+    imported += count;
+  }
+
+  public void addError(long line, String message) {
+    failed++;
+    if (errors.size() < maxErrors) {
+      errors.add(new ImportError(line, message));
+    }
+  }
+}
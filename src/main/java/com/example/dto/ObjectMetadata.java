@@ -0,0 +1,27 @@
+package com.example.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.Instant;
+
+/**
+ * Metadata of an object stored in MinIO.
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class ObjectMetadata {
+
+  private final String name;
+  private final long size;
+
+  /**
+   * Entity tag assigned by the object store, without surrounding quotes.
+   */
+  private final String etag;
+
+  private final String contentType;
+  private final Instant lastModified;
+}
@@ -0,0 +1,27 @@
+package com.example.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.List;
+
+/**
+ * A single keyset page of users together with the opaque cursor for the next page.
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class UserPage {
+
+  private final List<UserResponse> items;
+
+  /**
+   * Cursor to pass back to fetch the next page, or {@code null} when this is the last page.
+   */
+  private final String next;
+
+  public boolean hasNext() {
+    return next != null;
+  }
+}
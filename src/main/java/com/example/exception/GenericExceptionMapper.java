@@ -3,6 +3,7 @@ package com.example.exception;
 import com.example.dto.ErrorResponse;
 import jakarta.ws.rs.WebApplicationException;
 import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.core.UriInfo;
 import jakarta.ws.rs.ext.ExceptionMapper;
@@ -33,7 +34,15 @@ public class GenericExceptionMapper implements ExceptionMapper<Exception> {
       ErrorResponse errorResponse = new ErrorResponse(status,
           Response.Status.fromStatusCode(status).getReasonPhrase(), exception.getMessage(), path);
 
-      return Response.status(status).entity(errorResponse).build();
+      // Keep the headers the exception carries, such as Retry-After on a 503
+      Response.ResponseBuilder builder = Response.status(status).entity(errorResponse);
+      webEx.getResponse().getHeaders().forEach((name, values) -> {
+        if (!HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(name)
+            && !HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+          values.forEach(value -> builder.header(name, value));
+        }
+      });
+      return builder.build();
     }
 
     LOG.errorf(exception, "Internal server error at %s", path);
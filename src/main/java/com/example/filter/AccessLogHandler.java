@@ -0,0 +1,158 @@
+package com.example.filter;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.net.SocketAddress;
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RoutingContext;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import org.jboss.logging.MDC;
+
+/**
+ * Access log with one event per HTTP request, written off the request path.
+ *
+ * <p>
+ * A route ahead of all others notes when each request starts; when its response has been sent, the
+ * method, path, status, size, duration and client go into an {@link AccessLogRing}. A single writer
+ * thread takes events from the ring and logs them to the {@code access} category, with the fields
+ * also set in the MDC so that JSON logging ({@code quarkus.log.console.json}) emits them as
+ * structured fields. Request threads never format log messages or wait for the log.
+ */
+@ApplicationScoped
+public class AccessLogHandler {
+
+  private static final Logger LOG = Logger.getLogger(AccessLogHandler.class);
+
+  private static final Logger ACCESS = Logger.getLogger("access");
+
+  // Events handed to the writer per pass over the ring
+  private static final int DRAIN_BATCH = 256;
+
+  // How long the writer sleeps when the ring is empty
+  private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+  @Inject
+  MeterRegistry registry;
+
+  @ConfigProperty(name = "app.access-log.enabled", defaultValue = "true")
+  boolean enabled;
+
+  // Events buffered for the writer; requests beyond that are counted but not logged
+  @ConfigProperty(name = "app.access-log.buffer-size", defaultValue = "8192")
+  int bufferSize;
+
+  private AccessLogRing ring;
+  private Thread writer;
+  private volatile boolean running;
+  private final StringBuilder line = new StringBuilder(128);
+
+  void init(@Observes Router router) {
+    if (!enabled) {
+      return;
+    }
+    ring = new AccessLogRing(bufferSize);
+    FunctionCounter.builder("access.log.dropped", ring, AccessLogRing::dropped)
+        .description("Access log events dropped because the writer fell behind").register(registry);
+
+    running = true;
+    writer = new Thread(this::write, "access-log-writer");
+    writer.setDaemon(true);
+    writer.start();
+
+    router.route().order(Integer.MIN_VALUE).handler(this::onRequest);
+    LOG.infof("Access log enabled with a buffer of %d events", ring.capacity());
+  }
+
+  @PreDestroy
+  void shutdown() throws InterruptedException {
+    if (writer != null) {
+      running = false;
+      LockSupport.unpark(writer);
+      writer.join(TimeUnit.SECONDS.toMillis(5));
+    }
+  }
+
+  private void onRequest(RoutingContext context) {
+    long timestamp = System.currentTimeMillis();
+    long start = System.nanoTime();
+    context.addEndHandler(ended -> record(context, timestamp, start));
+    context.next();
+  }
+
+  private void record(RoutingContext context, long timestamp, long start) {
+    AccessLogRing.Event event = ring.claim();
+    if (event == null) {
+      return;
+    }
+    try {
+      HttpServerRequest request = context.request();
+      SocketAddress remote = request.remoteAddress();
+      event.timestamp = timestamp;
+      event.method = request.method().name();
+      event.path = request.path();
+      event.client = remote == null ? null : remote.hostAddress();
+      event.forwardedFor = request.getHeader("X-Forwarded-For");
+      event.status = context.response().getStatusCode();
+      event.bytes = context.response().bytesWritten();
+      event.durationNanos = System.nanoTime() - start;
+    } finally {
+      ring.commit(event);
+    }
+  }
+
+  private void write() {
+    for (;;) {
+      // Read before draining, so that what was recorded before shutdown is written first
+      boolean stopping = !running;
+      if (ring.drain(this::log, DRAIN_BATCH) == 0) {
+        if (stopping) {
+          return;
+        }
+        LockSupport.parkNanos(IDLE_PARK_NANOS);
+      }
+    }
+  }
+
+  private void log(AccessLogRing.Event event) {
+    try {
+      String client = client(event);
+      double millis = event.durationNanos / 1e6;
+      MDC.put("method", event.method);
+      MDC.put("path", event.path);
+      MDC.put("status", event.status);
+      MDC.put("bytes", event.bytes);
+      MDC.put("durationMs", millis);
+      MDC.put("client", client);
+      MDC.put("startedAt", event.timestamp);
+
+      line.setLength(0);
+      line.append(client).append(' ').append(event.method).append(' ').append(event.path)
+          .append(' ').append(event.status).append(' ').append(event.bytes).append(' ')
+          .append(Math.round(millis * 10) / 10.0).append("ms");
+      ACCESS.info(line.toString());
+    } catch (RuntimeException e) {
+      LOG.warnf("Could not write access log event: %s", e.getMessage());
+    }
+  }
+
+  /**
+   * The original client: the first address in {@code X-Forwarded-For} when the request came through
+   * a proxy, the peer address otherwise.
+   */
+  private static String client(AccessLogRing.Event event) {
+    String forwarded = event.forwardedFor;
+    if (forwarded == null || forwarded.isEmpty()) {
+      return event.client;
+    }
+    int comma = forwarded.indexOf(',');
+    return (comma < 0 ? forwarded : forwarded.substring(0, comma)).trim();
+  }
+}
@@ -0,0 +1,132 @@
+package com.example.filter;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Bounded ring of preallocated access log events, written by any number of request threads and read
+ * by a single log writer thread.
+ *
+ * <p>
+ * A producer claims the next slot with one CAS, fills in the slot's event and commits it, which
+ * marks the slot as published; it does not allocate, lock or format anything. When the writer falls
+ * behind and the ring is full, events are dropped and counted rather than making requests wait.
+ */
+final class AccessLogRing {
+
+  /**
+   * One request. Instances are reused: a consumer must not keep a reference after {@link #drain}
+   * returns.
+   */
+  static final class Event {
+    long timestamp;
+    String method;
+    String path;
+    String client;
+    String forwardedFor;
+    int status;
+    long bytes;
+    long durationNanos;
+    // Sequence number of the claim, set by the ring
+    long sequence;
+  }
+
+  private final Event[] events;
+  private final int mask;
+  // Sequence number each slot was last published with, or -1
+  private final AtomicLongArray published;
+  private final AtomicLong claimed = new AtomicLong();
+  private final AtomicLong consumed = new AtomicLong();
+  private final LongAdder dropped = new LongAdder();
+
+  /**
+   * Create a ring.
+   *
+   * @param capacity number of events the ring holds, rounded up to a power of two
+   */
+  AccessLogRing(int capacity) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("Access log buffer size must be positive: " + capacity);
+    }
+    int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+    events = new Event[size];
+    published = new AtomicLongArray(size);
+    for (int i = 0; i < size; i++) {
+      events[i] = new Event();
+      published.set(i, -1);
+    }
+    mask = size - 1;
+  }
+
+  int capacity() {
+    return events.length;
+  }
+
+  /**
+   * Claim the next slot for one request. The caller fills in the returned event and must then
+   * {@link #commit} it, even if filling it in failed, as the writer waits for slots in order.
+   *
+   * @return the slot's event, or null if the ring was full and the event was dropped
+   */
+  Event claim() {
+    long sequence;
+    do {
+      sequence = claimed.get();
+      if (sequence - consumed.get() >= events.length) {
+        dropped.increment();
+        return null;
+      }
+    } while (!claimed.compareAndSet(sequence, sequence + 1));
+
+    Event event = events[(int) sequence & mask];
+    event.sequence = sequence;
+    return event;
+  }
+
+  /**
+   * Publish a claimed event to the writer.
+   */
+  void commit(Event event) {
+    published.set((int) event.sequence & mask, event.sequence);
+  }
+
+  /**
+   * Hand published events to the consumer in order. Must only be called by one thread at a time.
+   *
+   * @param sink receives each event; must not keep it or throw
+   * @param max maximum number of events to hand over
+   * @return the number of events handed over
+   */
+  int drain(Consumer<Event> sink, int max) {
+    long next = consumed.get();
+    int count = 0;
+    while (count < max) {
+      int index = (int) next & mask;
+      if (published.get(index) != next) {
+        break;
+      }
+      Event event = events[index];
+      sink.accept(event);
+      // Drop the references so the slot does not keep request strings alive
+      event.method = null;
+      event.path = null;
+      event.client = null;
+      event.forwardedFor = null;
+      next++;
+      count++;
+    }
+    if (count > 0) {
+      consumed.set(next);
+    }
+    return count;
+  }
+
+  /**
+   * Number of events dropped because the ring was full.
+   */
+  long dropped() {
+    return dropped.sum();
+  }
+}
@@ -0,0 +1,246 @@
+package com.example.filter;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.function.LongSupplier;
+
+/**
+ * Rate limiter enforcing one bucket per key across all replicas.
+ *
+ * <p>
+ * Tokens come from a shared {@link TokenSource} in batches. Each replica keeps the batch it leased
+ * for a key locally and spends it without further round trips, and leases the next batch in the
+ * background once it runs low. A request for a key without leased tokens waits for the lease in
+ * flight when it goes through {@link #acquire}, and is rejected by {@link #tryAcquire}. Only while
+ * the token source is failing or slow are requests limited by the local per-node bucket of
+ * {@link RateLimiter} instead.
+ *
+ * <p>
+ * Because batches are leased ahead of use, a replica may hold up to one unused batch per key when a
+ * window ends; those tokens are lost, so a key can see slightly fewer than {@code capacity} permits
+ * per window but never more.
+ */
+public class ClusterRateLimiter extends RateLimiter {
+
+  /**
+   * How a replica leases tokens.
+   *
+   * @param tokenSource shared token store
+   * @param batchSize tokens to lease from the token source at a time
+   * @param backoff how long to limit locally after the token source failed
+   */
+  public record Leasing(TokenSource tokenSource, int batchSize, Duration backoff) {
+
+    public Leasing {
+      if (batchSize < 1) {
+        throw new IllegalArgumentException("Rate limit batch size must be positive: " + batchSize);
+      }
+    }
+  }
+
+  private final TokenSource tokenSource;
+  private final int batchSize;
+  private final int lowWatermark;
+  private final long backoffMillis;
+
+  /** Time, relative to the limiter's epoch, until which the token source is not used. */
+  private volatile long unavailableUntil = Long.MIN_VALUE;
+
+  /**
+   * Create a cluster-wide rate limiter.
+   *
+   * @param capacity tokens available per key in each refill period, across the cluster
+   * @param refillPeriod length of a cluster-wide window
+   * @param ddosThreshold requests per DDoS window above which a key is reported as suspicious
+   * @param ddosWindow window over which requests are counted for DDoS detection
+   * @param maxTrackedKeys maximum number of keys to keep state for
+   * @param leasing where and how tokens are leased
+   */
+  public ClusterRateLimiter(int capacity, Duration refillPeriod, int ddosThreshold,
+      Duration ddosWindow, long maxTrackedKeys, Leasing leasing) {
+    this(capacity, refillPeriod, ddosThreshold, ddosWindow, maxTrackedKeys, leasing,
+        System::currentTimeMillis);
+  }
+
+  ClusterRateLimiter(int capacity, Duration refillPeriod, int ddosThreshold, Duration ddosWindow,
+      long maxTrackedKeys, Leasing leasing, LongSupplier clock) {
+    super(capacity, refillPeriod, ddosThreshold, ddosWindow, maxTrackedKeys, clock);
+    this.tokenSource = leasing.tokenSource();
+    this.batchSize = Math.min(leasing.batchSize(), capacity);
+    this.lowWatermark = this.batchSize / 4;
+    this.backoffMillis = leasing.backoff().toMillis();
+  }
+
+  @Override
+  boolean consume(String key, KeyState base, long now) {
+    if (now < unavailableUntil) {
+      return super.consume(key, base, now);
+    }
+    LeasedKeyState state = (LeasedKeyState) base;
+    long window = window(now);
+
+    long remaining = state.take(window);
+    if (remaining >= 0) {
+      if (remaining <= lowWatermark && state.exhaustedWindow != window) {
+        refill(key, state, window, now);
+      }
+      return true;
+    }
+    if (state.exhaustedWindow == window) {
+      return false;
+    }
+
+    // Use the lease right away if the token source answered synchronously
+    if (refill(key, state, window, now).isDone()) {
+      if (state.take(window) >= 0) {
+        return true;
+      }
+      if (now < unavailableUntil) {
+        return super.consume(key, base, now);
+      }
+    }
+    // Never admit on top of the cluster budget while its tokens are on their way
+    return false;
+  }
+
+  @Override
+  CompletionStage<?> pendingTokens(String key, KeyState base, long now) {
+    if (now < unavailableUntil) {
+      return null;
+    }
+    LeasedKeyState state = (LeasedKeyState) base;
+    CompletableFuture<Void> leasing = state.leasing;
+    if (leasing != null) {
+      return leasing;
+    }
+    // The lease may have landed since the request was rejected
+    return state.available(window(now)) ? LeasedKeyState.LANDED : null;
+  }
+
+  @Override
+  KeyState newState(String key, int hash, long now) {
+    return new LeasedKeyState(key, hash, now);
+  }
+
+  private long window(long now) {
+    return (epoch + now) / refillMillis;
+  }
+
+  /**
+   * Lease a batch for the key unless a lease is already in flight.
+   *
+   * @return a stage completing once the lease in flight has been applied to the key's state
+   */
+  private CompletableFuture<Void> refill(String key, LeasedKeyState state, long window, long now) {
+    CompletableFuture<Void> leasing = state.leasing;
+    if (leasing != null) {
+      return leasing;
+    }
+    CompletableFuture<Void> applied = new CompletableFuture<>();
+    leasing = state.startRefill(applied);
+    if (leasing != null) {
+      return leasing;
+    }
+    CompletionStage<Integer> lease;
+    try {
+      lease = tokenSource.lease(key, window, refillMillis, capacity, batchSize);
+    } catch (RuntimeException e) {
+      lease = CompletableFuture.failedFuture(e);
+    }
+    lease.whenComplete((granted, error) -> {
+      if (error != null) {
+        unavailableUntil = now + backoffMillis;
+      } else if (granted > 0) {
+        state.grant(window, granted);
+      } else {
+        state.exhaustedWindow = window;
+      }
+      state.leasing = null;
+      applied.complete(null);
+    });
+    return applied;
+  }
+
+  /**
+   * Key state extended with the batch of cluster tokens leased for the current window.
+   */
+  static final class LeasedKeyState extends KeyState {
+
+    /** Completed stage for requests that find tokens once they look again. */
+    static final CompletionStage<Void> LANDED = CompletableFuture.completedStage(null);
+
+    private static final AtomicLongFieldUpdater<LeasedKeyState> LEASE =
+        AtomicLongFieldUpdater.newUpdater(LeasedKeyState.class, "lease");
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<LeasedKeyState, CompletableFuture> LEASING =
+        AtomicReferenceFieldUpdater.newUpdater(LeasedKeyState.class, CompletableFuture.class,
+            "leasing");
+
+    /** Window index and leased tokens left in it. */
+    private volatile long lease;
+
+    /** Window in which the token source reported the key's bucket as empty. */
+    volatile long exhaustedWindow = -1;
+
+    /** Completed once the lease in flight has been applied; null while none is. */
+    volatile CompletableFuture<Void> leasing;
+
+    LeasedKeyState(String key, int hash, long now) {
+      super(key, hash, now);
+    }
+
+    /**
+     * Take one leased token.
+     *
+     * @return the tokens left after taking one, or -1 if there was none for the window
+     */
+    long take(long window) {
+      for (;;) {
+        long current = lease;
+        long left = count(current);
+        if (windowStart(current) != window || left == 0) {
+          return -1;
+        }
+        if (LEASE.compareAndSet(this, current, pack(window, left - 1))) {
+          return left - 1;
+        }
+      }
+    }
+
+    void grant(long window, int tokens) {
+      for (;;) {
+        long current = lease;
+        long left = windowStart(current) == window ? count(current) : 0;
+        long next = pack(window, Math.min(left + tokens, MAX_COUNT));
+        if (LEASE.compareAndSet(this, current, next)) {
+          return;
+        }
+      }
+    }
+
+    boolean available(long window) {
+      long current = lease;
+      return windowStart(current) == window && count(current) > 0;
+    }
+
+    /**
+     * Mark a lease as in flight.
+     *
+     * @return null if the caller is to lease, otherwise the lease already in flight
+     */
+    CompletableFuture<Void> startRefill(CompletableFuture<Void> applied) {
+      for (;;) {
+        if (LEASING.compareAndSet(this, null, applied)) {
+          return null;
+        }
+        CompletableFuture<Void> current = leasing;
+        if (current != null) {
+          return current;
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,67 @@
+package com.example.filter;
+
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.quarkus.vertx.http.runtime.RouteConstants;
+import io.quarkus.vertx.http.runtime.VertxHttpRecorder;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RoutingContext;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Body size limit of object uploads ({@code PUT /api/objects/...}).
+ *
+ * <p>
+ * Uploads are streamed to MinIO rather than buffered, so they may be far larger than
+ * {@code quarkus.http.limits.max-body-size}, which stays at its default for every other endpoint.
+ * Quarkus enforces that limit in a route of its own: a declared {@code Content-Length} above it is
+ * rejected, and a chunked body is cut off by the request input stream once it grows past it. The
+ * routes registered here run on either side of that one for uploads only. The first rejects a
+ * declared length above {@code app.minio.upload.max-size} and hides the header from the global
+ * check; the second puts the header back and raises the input stream limit to the upload limit.
+ */
+@ApplicationScoped
+public class ObjectUploadLimit {
+
+  static final String UPLOAD_PATH = "/api/objects/*";
+
+  private static final String DECLARED_LENGTH = ObjectUploadLimit.class.getName() + ".length";
+
+  // Largest object body accepted by PUT /api/objects/{name}
+  @ConfigProperty(name = "app.minio.upload.max-size", defaultValue = "5368709120")
+  long maxSize;
+
+  void init(@Observes Router router) {
+    router.route(HttpMethod.PUT, UPLOAD_PATH).order(RouteConstants.ROUTE_ORDER_UPLOAD_LIMIT - 1)
+        .handler(this::admit);
+    router.route(HttpMethod.PUT, UPLOAD_PATH).order(RouteConstants.ROUTE_ORDER_UPLOAD_LIMIT + 1)
+        .handler(this::restore);
+  }
+
+  private void admit(RoutingContext context) {
+    String declared = context.request().headers().get(HttpHeaderNames.CONTENT_LENGTH);
+    if (declared != null) {
+      if (Long.parseLong(declared) > maxSize) {
+        context.response().putHeader(HttpHeaderNames.CONNECTION, "close")
+            .setStatusCode(HttpResponseStatus.REQUEST_ENTITY_TOO_LARGE.code()).end()
+            .onComplete(sent -> context.request().connection().close());
+        return;
+      }
+      context.put(DECLARED_LENGTH, declared);
+      context.request().headers().remove(HttpHeaderNames.CONTENT_LENGTH);
+    }
+    context.next();
+  }
+
+  private void restore(RoutingContext context) {
+    String declared = context.get(DECLARED_LENGTH);
+    if (declared != null) {
+      context.request().headers().set(HttpHeaderNames.CONTENT_LENGTH, declared);
+    }
+    context.put(VertxHttpRecorder.MAX_REQUEST_SIZE_KEY, maxSize);
+    context.next();
+  }
+}
@@ -1,22 +1,50 @@
 package com.example.filter;
 
-import io.github.bucket4j.Bandwidth;
-import io.github.bucket4j.Bucket;
-import io.github.bucket4j.Refill;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
 import jakarta.ws.rs.container.ContainerRequestContext;
 import jakarta.ws.rs.container.ContainerRequestFilter;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.SecurityContext;
 import jakarta.ws.rs.ext.Provider;
 import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
 import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.jboss.logging.Logger;
+import org.jboss.resteasy.reactive.server.spi.ResteasyReactiveContainerRequestContext;
 
 /**
  * Rate limiting filter that applies rate limits to API endpoints.
+ *
+ * <p>
+ * Limits come from the policies under {@code app.rate-limit} (see {@link RateLimitPolicies}). When
+ * {@code app.rate-limit.policies-file} points to a properties file, its entries override the
+ * application configuration and are reloaded whenever the file changes.
+ *
+ * <p>
+ * Rejected requests are counted in {@code rate.limit.rejections} and requests over the DDoS
+ * threshold in {@code rate.limit.ddos.suspected}, both tagged with the policy name. The counters
+ * are registered whenever the policies are loaded, so counting a request is a map lookup.
  */
 @Provider
 @Priority(1)
@@ -24,38 +52,112 @@ public class RateLimitFilter implements ContainerRequestFilter {
 
   private static final Logger LOG = Logger.getLogger(RateLimitFilter.class);
 
-  // Rate limit: 100 requests per minute per IP
-  private static final int RATE_LIMIT_CAPACITY = 100;
-  private static final Duration RATE_LIMIT_REFILL_DURATION = Duration.ofMinutes(1);
+  // Upper bound on the number of IP addresses tracked at once per policy
+  @ConfigProperty(name = "app.rate-limit.max-tracked-keys", defaultValue = "100000")
+  long maxTrackedKeys;
 
-  // DDoS detection thresholds
-  private static final int DDOS_THRESHOLD = 200; // requests per minute
-  private static final Duration DDOS_WINDOW = Duration.ofMinutes(1);
+  // Optional properties file with policy overrides that is reloaded on change
+  @ConfigProperty(name = "app.rate-limit.policies-file")
+  Optional<Path> policiesFile;
 
-  // Store buckets per IP address
-  private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+  // How often to check the policies file for changes
+  @ConfigProperty(name = "app.rate-limit.reload-interval", defaultValue = "10s")
+  Duration reloadInterval;
 
-  // Track request counts for DDoS detection
-  private final Map<String, RequestCounter> requestCounters = new ConcurrentHashMap<>();
+  // Share each IP's bucket between all replicas through Redis
+  @ConfigProperty(name = "app.rate-limit.cluster.enabled", defaultValue = "false")
+  boolean clusterEnabled;
+
+  // Tokens leased from Redis at a time
+  @ConfigProperty(name = "app.rate-limit.cluster.batch-size", defaultValue = "10")
+  int clusterBatchSize;
+
+  // How long to fall back to per-node limiting after Redis failed or timed out
+  @ConfigProperty(name = "app.rate-limit.cluster.backoff", defaultValue = "5s")
+  Duration clusterBackoff;
+
+  @Inject
+  Config config;
+
+  @Inject
+  RedisTokenSource tokenSource;
+
+  @Inject
+  MeterRegistry registry;
+
+  /**
+   * Counters of one policy.
+   */
+  private record PolicyCounters(Counter rejections, Counter ddosSuspected) {
+  }
+
+  // Policies with their bucket and DDoS counter per IP address
+  private volatile RateLimitPolicies policies;
+  private volatile Map<String, PolicyCounters> counters = Map.of();
+
+  private final AtomicLong nextReloadCheck = new AtomicLong();
+  private volatile FileTime policiesFileModified;
+
+  @PostConstruct
+  void init() {
+    policiesFileModified = policiesFileModified();
+    policies = loadPolicies(null);
+    nextReloadCheck.set(System.currentTimeMillis() + reloadInterval.toMillis());
+  }
 
   @Override
   public void filter(ContainerRequestContext requestContext) throws IOException {
     String ipAddress = getClientIpAddress(requestContext);
+    String method = requestContext.getMethod();
     String path = requestContext.getUriInfo().getPath();
 
-    // Log activity
-    LOG.infof("Activity: IP %s accessing %s %s", ipAddress, requestContext.getMethod(), path);
+    reloadPoliciesIfChanged();
+    SecurityContext securityContext = requestContext.getSecurityContext();
+    RateLimitPolicies.Rule rule = policies.resolve(method, path,
+        role -> securityContext != null && securityContext.isUserInRole(role));
+    if (rule == null || rule.limiter() == null) {
+      return;
+    }
+    RateLimitPolicy policy = rule.policy();
+
+    // Count the request and try to consume a token
+    CompletionStage<RateLimiter.Decision> acquired = rule.limiter().acquire(ipAddress);
+    RateLimiter.Decision decision = acquired.toCompletableFuture().getNow(null);
+    if (decision != null) {
+      apply(requestContext, decision, policy, ipAddress, path);
+      return;
+    }
 
-    // Get or create bucket for this IP
-    Bucket bucket = buckets.computeIfAbsent(ipAddress, this::createBucket);
+    // Waiting for cluster tokens; carry on once they arrive without holding the thread
+    ResteasyReactiveContainerRequestContext suspended =
+        (ResteasyReactiveContainerRequestContext) requestContext;
+    suspended.suspend();
+    acquired.whenComplete((leased, error) -> {
+      if (error != null) {
+        suspended.resume(error);
+        return;
+      }
+      apply(requestContext, leased, policy, ipAddress, path);
+      suspended.resume();
+    });
+  }
 
+  private void apply(ContainerRequestContext requestContext, RateLimiter.Decision decision,
+      RateLimitPolicy policy, String ipAddress, String path) {
     // Check for DDoS patterns
-    checkForDDoS(ipAddress, path);
+    if (decision.ddosSuspected()) {
+      countersFor(policy).ddosSuspected().increment();
+      LOG.errorf(
+          "DDoS Attack Detected: IP %s has made more than %d requests in %d minute(s)"
+              + " on path: %s",
+          ipAddress, policy.ddosThreshold(), policy.ddosWindow().toMinutes(), path);
+    }
 
-    // Try to consume a token
-    if (!bucket.tryConsume(1)) {
+    if (!decision.permitted()) {
       // Rate limit exceeded
-      LOG.errorf("Rate limit exceeded for IP: %s on path: %s", ipAddress, path);
+      countersFor(policy).rejections().increment();
+      LOG.errorf("Rate limit exceeded for IP: %s on path: %s (policy %s)", ipAddress, path,
+          policy.name());
       LOG.warnf("Possible DDoS attack detected from IP: %s - Rate limit exceeded", ipAddress);
 
       Response response = Response.status(Response.Status.TOO_MANY_REQUESTS)
@@ -65,12 +167,98 @@ public class RateLimitFilter implements ContainerRequestFilter {
   }
 
   /**
-   * Create a new bucket with rate limiting configuration.
+   * Reload the policies if the policies file changed since it was last read. Checks at most once
+   * per reload interval; a file that fails to parse leaves the current policies in place.
    */
-  private Bucket createBucket(String key) {
-    Bandwidth limit = Bandwidth.classic(RATE_LIMIT_CAPACITY,
-        Refill.intervally(RATE_LIMIT_CAPACITY, RATE_LIMIT_REFILL_DURATION));
-    return Bucket.builder().addLimit(limit).build();
+  private void reloadPoliciesIfChanged() {
+    if (policiesFile.isEmpty()) {
+      return;
+    }
+    long now = System.currentTimeMillis();
+    long next = nextReloadCheck.get();
+    if (now < next || !nextReloadCheck.compareAndSet(next, now + reloadInterval.toMillis())) {
+      return;
+    }
+    FileTime modified = policiesFileModified();
+    if (Objects.equals(modified, policiesFileModified)) {
+      return;
+    }
+    try {
+      policies = loadPolicies(policies);
+      policiesFileModified = modified;
+      LOG.infof("Reloaded rate limit policies from %s", policiesFile.get());
+    } catch (RuntimeException e) {
+      LOG.errorf(e, "Invalid rate limit policies in %s, keeping the current ones",
+          policiesFile.get());
+    }
+  }
+
+  private RateLimitPolicies loadPolicies(RateLimitPolicies previous) {
+    Properties overrides = readPoliciesFile();
+    Set<String> names = new HashSet<>(overrides.stringPropertyNames());
+    config.getPropertyNames().forEach(names::add);
+    Function<String, Optional<String>> lookup =
+        name -> Optional.ofNullable(overrides.getProperty(name))
+            .or(() -> config.getOptionalValue(name, String.class));
+
+    List<RateLimitPolicy> loaded = RateLimitPolicies.load(lookup, names);
+    RateLimitPolicies created = new RateLimitPolicies(loaded, this::createLimiter, previous);
+    // Counters of removed policies stay registered; they are cheap and keep their totals
+    counters = loaded.stream().collect(
+        Collectors.toUnmodifiableMap(RateLimitPolicy::name, policy -> countersFor(policy.name())));
+    return created;
+  }
+
+  private PolicyCounters countersFor(RateLimitPolicy policy) {
+    PolicyCounters policyCounters = counters.get(policy.name());
+    // Only misses while a reload swaps the policies and counters
+    return policyCounters != null ? policyCounters : countersFor(policy.name());
+  }
+
+  private PolicyCounters countersFor(String policy) {
+    return new PolicyCounters(
+        Counter.builder("rate.limit.rejections")
+            .description("Requests rejected because the client exceeded its rate limit")
+            .tag("policy", policy).register(registry),
+        Counter.builder("rate.limit.ddos.suspected")
+            .description("Requests from clients over the DDoS threshold").tag("policy", policy)
+            .register(registry));
+  }
+
+  private RateLimiter createLimiter(RateLimitPolicy policy) {
+    if (clusterEnabled) {
+      // Keep the Redis buckets of different policies apart
+      TokenSource policyTokens = (key, window, windowMillis, capacity, batch) -> tokenSource
+          .lease(policy.name() + ":" + key, window, windowMillis, capacity, batch);
+      return new ClusterRateLimiter(policy.capacity(), policy.refillPeriod(),
+          policy.ddosThreshold(), policy.ddosWindow(), maxTrackedKeys,
+          new ClusterRateLimiter.Leasing(policyTokens, clusterBatchSize, clusterBackoff));
+    }
+    return new RateLimiter(policy.capacity(), policy.refillPeriod(), policy.ddosThreshold(),
+        policy.ddosWindow(), maxTrackedKeys);
+  }
+
+  private Properties readPoliciesFile() {
+    Properties properties = new Properties();
+    if (policiesFile.isPresent() && Files.exists(policiesFile.get())) {
+      try (Reader reader = Files.newBufferedReader(policiesFile.get())) {
+        properties.load(reader);
+      } catch (IOException e) {
+        throw new UncheckedIOException("Could not read " + policiesFile.get(), e);
+      }
+    }
+    return properties;
+  }
+
+  private FileTime policiesFileModified() {
+    if (policiesFile.isEmpty()) {
+      return null;
+    }
+    try {
+      return Files.getLastModifiedTime(policiesFile.get());
+    } catch (IOException e) {
+      return null;
+    }
   }
 
   /**
@@ -92,49 +280,4 @@ public class RateLimitFilter implements ContainerRequestFilter {
     // Fallback to a default value (in production, this would be from SecurityContext)
     return "unknown";
   }
-
-  /**
-   * Check for DDoS attack patterns.
-   */
-  private void checkForDDoS(String ipAddress, String path) {
-    RequestCounter counter = requestCounters.computeIfAbsent(ipAddress, k -> new RequestCounter());
-
-    counter.increment();
-
-    // Check if threshold exceeded
-    if (counter.getCount() > DDOS_THRESHOLD) {
-      LOG.errorf("DDoS Attack Detected: IP %s has made %d requests in the last minute on path: %s",
-          ipAddress, counter.getCount(), path);
-    }
-
-    // Reset counter if window expired
-    if (counter.isExpired(DDOS_WINDOW)) {
-      counter.reset();
-    }
-  }
-
-  /**
-   * Counter for tracking request rates.
-   */
-  private static class RequestCounter {
-    private final AtomicInteger count = new AtomicInteger(0);
-    private volatile long startTime = System.currentTimeMillis();
-
-    public void increment() {
-      count.incrementAndGet();
-    }
-
-    public int getCount() {
-      return count.get();
-    }
-
-    public void reset() {
-      count.set(0);
-      startTime = System.currentTimeMillis();
-    }
-
-    public boolean isExpired(Duration window) {
-      return System.currentTimeMillis() - startTime > window.toMillis();
-    }
-  }
 }
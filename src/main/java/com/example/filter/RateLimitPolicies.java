@@ -0,0 +1,170 @@
+package com.example.filter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Immutable set of rate limit policies together with the limiter of each, indexed by path.
+ *
+ * <p>
+ * Policies are read from {@code app.rate-limit.policies.<name>.*}. The top-level
+ * {@code app.rate-limit.*} limits form the {@value #DEFAULT_POLICY} policy, which covers every path
+ * and supplies the limits a named policy does not set itself. When a path matches several patterns
+ * the most specific one wins; among the policies of one pattern, those restricted to a role or to
+ * some methods are tried first.
+ */
+final class RateLimitPolicies {
+
+  static final String PREFIX = "app.rate-limit.";
+  static final String POLICY_PREFIX = PREFIX + "policies.";
+  static final String DEFAULT_POLICY = "default";
+
+  /**
+   * A policy and the limiter enforcing it, which is null for exempt policies.
+   */
+  record Rule(RateLimitPolicy policy, RateLimiter limiter) {
+  }
+
+  private final List<Rule> rules;
+  private final RouteMatcher<Rule> routes = new RouteMatcher<>();
+
+  /**
+   * Index the policies and create their limiters.
+   *
+   * @param policies the policies
+   * @param limiterFactory creates the limiter of a non-exempt policy
+   * @param previous policies being replaced, whose limiters are kept for policies with unchanged
+   *        limits so a reload does not reset client budgets; null on first load
+   */
+  RateLimitPolicies(List<RateLimitPolicy> policies,
+      Function<RateLimitPolicy, RateLimiter> limiterFactory, RateLimitPolicies previous) {
+    Map<String, Rule> previousRules = new HashMap<>();
+    if (previous != null) {
+      previous.rules.forEach(rule -> previousRules.put(rule.policy().name(), rule));
+    }
+
+    List<RateLimitPolicy> ordered = new ArrayList<>(policies);
+    ordered.sort(Comparator.comparingInt(RateLimitPolicies::generality));
+
+    List<Rule> created = new ArrayList<>(ordered.size());
+    for (RateLimitPolicy policy : ordered) {
+      Rule old = previousRules.get(policy.name());
+      RateLimiter limiter;
+      if (policy.exempt()) {
+        limiter = null;
+      } else if (old != null && old.policy().sameLimits(policy)) {
+        limiter = old.limiter();
+      } else {
+        limiter = limiterFactory.apply(policy);
+      }
+      Rule rule = new Rule(policy, limiter);
+      created.add(rule);
+      policy.paths().forEach(path -> routes.add(path, rule));
+    }
+    this.rules = List.copyOf(created);
+  }
+
+  /**
+   * Find the rule for a request.
+   *
+   * @param method HTTP method
+   * @param path request path
+   * @param hasRole whether the caller has a role
+   * @return the rule, or null if no policy applies
+   */
+  Rule resolve(String method, String path, Predicate<String> hasRole) {
+    return routes.match(path, rule -> rule.policy().appliesTo(method, hasRole));
+  }
+
+  List<Rule> rules() {
+    return rules;
+  }
+
+  /**
+   * Read the policies from configuration.
+   *
+   * @param config looks up a configuration value
+   * @param propertyNames all configuration property names, used to find the policy names
+   * @return the configured policies followed by the default policy
+   */
+  static List<RateLimitPolicy> load(Function<String, Optional<String>> config,
+      Iterable<String> propertyNames) {
+    RateLimitPolicy defaults = new RateLimitPolicy(DEFAULT_POLICY, List.of("/**"), Set.of(), null,
+        false, intValue(config, PREFIX + "capacity", 100),
+        Duration.ofMinutes(intValue(config, PREFIX + "refill-duration-minutes", 1)),
+        intValue(config, PREFIX + "ddos-threshold", 200),
+        Duration.ofMinutes(intValue(config, PREFIX + "ddos-window-minutes", 1)));
+
+    Set<String> names = new TreeSet<>();
+    for (String property : propertyNames) {
+      if (property.startsWith(POLICY_PREFIX)) {
+        int end = property.indexOf('.', POLICY_PREFIX.length());
+        if (end > 0) {
+          names.add(property.substring(POLICY_PREFIX.length(), end));
+        }
+      }
+    }
+
+    List<RateLimitPolicy> policies = new ArrayList<>(names.size() + 1);
+    for (String name : names) {
+      policies.add(loadPolicy(config, name, defaults));
+    }
+    policies.add(defaults);
+    return policies;
+  }
+
+  private static RateLimitPolicy loadPolicy(Function<String, Optional<String>> config, String name,
+      RateLimitPolicy defaults) {
+    String prefix = POLICY_PREFIX + name + ".";
+    List<String> paths = list(config.apply(prefix + "paths"));
+    if (paths.isEmpty()) {
+      throw new IllegalArgumentException("Rate limit policy '" + name + "' has no paths");
+    }
+    Set<String> methods = new LinkedHashSet<>();
+    list(config.apply(prefix + "methods")).forEach(m -> methods.add(m.toUpperCase(Locale.ROOT)));
+
+    return new RateLimitPolicy(name, paths, Set.copyOf(methods),
+        config.apply(prefix + "role").map(String::trim).filter(r -> !r.isEmpty()).orElse(null),
+        config.apply(prefix + "exempt").map(Boolean::parseBoolean).orElse(false),
+        intValue(config, prefix + "capacity", defaults.capacity()),
+        minutes(config, prefix + "refill-duration-minutes", defaults.refillPeriod()),
+        intValue(config, prefix + "ddos-threshold", defaults.ddosThreshold()),
+        minutes(config, prefix + "ddos-window-minutes", defaults.ddosWindow()));
+  }
+
+  /**
+   * Sort key putting policies restricted to a role or some methods before broader ones.
+   */
+  private static int generality(RateLimitPolicy policy) {
+    return (policy.role() == null ? 2 : 0) + (policy.methods().isEmpty() ? 1 : 0);
+  }
+
+  private static List<String> list(Optional<String> value) {
+    return value
+        .map(v -> Arrays.stream(v.split(",")).map(String::trim).filter(s -> !s.isEmpty()).toList())
+        .orElse(List.of());
+  }
+
+  private static int intValue(Function<String, Optional<String>> config, String name,
+      int defaultValue) {
+    return config.apply(name).map(String::trim).map(Integer::parseInt).orElse(defaultValue);
+  }
+
+  private static Duration minutes(Function<String, Optional<String>> config, String name,
+      Duration defaultValue) {
+    return config.apply(name).map(String::trim).map(Long::parseLong).map(Duration::ofMinutes)
+        .orElse(defaultValue);
+  }
+}
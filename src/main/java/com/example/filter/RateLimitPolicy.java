@@ -0,0 +1,40 @@
+package com.example.filter;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Rate limit for the requests matching a set of path patterns, optionally restricted to some HTTP
+ * methods and to callers with a given role.
+ *
+ * @param name policy name, the key under {@code app.rate-limit.policies}
+ * @param paths path patterns, see {@link RouteMatcher}
+ * @param methods HTTP methods the policy applies to, empty for all
+ * @param role role the caller must have for the policy to apply, or null for everyone
+ * @param exempt whether matching requests are not rate limited at all
+ * @param capacity requests allowed per client in each refill period
+ * @param refillPeriod period after which a client's budget is restored
+ * @param ddosThreshold requests per DDoS window above which a client is reported
+ * @param ddosWindow window over which requests are counted for DDoS detection
+ */
+public record RateLimitPolicy(String name, List<String> paths, Set<String> methods, String role,
+    boolean exempt, int capacity, Duration refillPeriod, int ddosThreshold, Duration ddosWindow) {
+
+  /**
+   * Whether the policy applies to a request, given its path already matched.
+   */
+  boolean appliesTo(String method, Predicate<String> hasRole) {
+    return (methods.isEmpty() || methods.contains(method)) && (role == null || hasRole.test(role));
+  }
+
+  /**
+   * Whether the limits of the two policies are the same, so their client buckets can be shared.
+   */
+  boolean sameLimits(RateLimitPolicy other) {
+    return exempt == other.exempt && capacity == other.capacity
+        && refillPeriod.equals(other.refillPeriod) && ddosThreshold == other.ddosThreshold
+        && ddosWindow.equals(other.ddosWindow);
+  }
+}
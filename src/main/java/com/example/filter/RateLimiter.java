@@ -0,0 +1,350 @@
+package com.example.filter;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-key rate limiter with DDoS detection.
+ *
+ * <p>
+ * Each key gets a bucket of {@code capacity} tokens that is refilled in full every refill period,
+ * and a request counter over the DDoS window. Both are packed into the two primitive fields of a
+ * single {@link KeyState} and updated with CAS, so a request costs one table probe and no locks.
+ *
+ * <p>
+ * States live in a fixed-size, 4-way set-associative table sized from {@code maxTrackedKeys}. A new
+ * key takes a free slot in its set if there is one, otherwise it replaces the entry that has gone
+ * longest without a request, so idle keys are the first to go and a flood of spoofed addresses
+ * cannot grow memory beyond the table. Keys rejected within the last refill period are passed over
+ * while the set holds any other entry, so that such a flood cannot hand a throttled key a fresh
+ * bucket. Two threads racing to insert the same new key may briefly create two states for it; the
+ * table stays correct for every other key.
+ */
+public class RateLimiter {
+
+  private static final int WAYS = 4;
+
+  /**
+   * Outcome of a single acquire attempt.
+   */
+  public enum Decision {
+    PERMITTED(true, false), PERMITTED_DDOS(true, true), REJECTED(false, false), REJECTED_DDOS(false,
+        true);
+
+    private final boolean permitted;
+    private final boolean ddosSuspected;
+    private final CompletableFuture<Decision> completed = CompletableFuture.completedFuture(this);
+
+    Decision(boolean permitted, boolean ddosSuspected) {
+      this.permitted = permitted;
+      this.ddosSuspected = ddosSuspected;
+    }
+
+    public boolean permitted() {
+      return permitted;
+    }
+
+    public boolean ddosSuspected() {
+      return ddosSuspected;
+    }
+
+    static Decision of(boolean permitted, boolean ddosSuspected) {
+      if (permitted) {
+        return ddosSuspected ? PERMITTED_DDOS : PERMITTED;
+      }
+      return ddosSuspected ? REJECTED_DDOS : REJECTED;
+    }
+  }
+
+  final int capacity;
+  final long refillMillis;
+  final long epoch;
+  private final int ddosThreshold;
+  private final long ddosWindowMillis;
+  private final LongSupplier clock;
+  private final long idleMillis;
+  private final AtomicReferenceArray<KeyState> slots;
+  private final int setMask;
+
+  /**
+   * Create a rate limiter.
+   *
+   * @param capacity tokens available per key in each refill period
+   * @param refillPeriod period after which a key's bucket is refilled in full
+   * @param ddosThreshold requests per DDoS window above which a key is reported as suspicious
+   * @param ddosWindow window over which requests are counted for DDoS detection
+   * @param maxTrackedKeys maximum number of keys to keep state for
+   */
+  public RateLimiter(int capacity, Duration refillPeriod, int ddosThreshold, Duration ddosWindow,
+      long maxTrackedKeys) {
+    this(capacity, refillPeriod, ddosThreshold, ddosWindow, maxTrackedKeys,
+        System::currentTimeMillis);
+  }
+
+  RateLimiter(int capacity, Duration refillPeriod, int ddosThreshold, Duration ddosWindow,
+      long maxTrackedKeys, LongSupplier clock) {
+    if (capacity < 1 || capacity > KeyState.MAX_COUNT) {
+      throw new IllegalArgumentException("Rate limit capacity out of range: " + capacity);
+    }
+    this.capacity = capacity;
+    this.refillMillis = refillPeriod.toMillis();
+    this.ddosThreshold = ddosThreshold;
+    this.ddosWindowMillis = ddosWindow.toMillis();
+    this.clock = clock;
+    this.epoch = clock.getAsLong();
+    this.idleMillis = Math.max(refillMillis, ddosWindowMillis);
+
+    int size = Integer.highestOneBit((int) Math.min(Math.max(maxTrackedKeys, WAYS), 1 << 30));
+    this.slots = new AtomicReferenceArray<>(size);
+    this.setMask = (size - 1) & -WAYS;
+  }
+
+  /**
+   * Count a request for the key and try to take one token from its bucket.
+   *
+   * @param key the client key, usually its IP address
+   * @return whether the request is permitted and whether the key looks like a DDoS source
+   */
+  public Decision tryAcquire(String key) {
+    long now = clock.getAsLong() - epoch;
+    KeyState state = stateFor(key, now);
+    state.touch(now);
+    boolean ddosSuspected = state.recordRequest(now, ddosWindowMillis) > ddosThreshold;
+    return decide(state, consume(key, state, now), ddosSuspected, now);
+  }
+
+  /**
+   * Count a request for the key and take one token from its bucket, waiting for tokens that are
+   * still on their way instead of rejecting the request. The returned stage is already complete
+   * unless the limiter has to wait, which only {@link ClusterRateLimiter} does.
+   *
+   * @param key the client key, usually its IP address
+   * @return a stage completing with the decision
+   */
+  public CompletionStage<Decision> acquire(String key) {
+    long now = clock.getAsLong() - epoch;
+    KeyState state = stateFor(key, now);
+    state.touch(now);
+    boolean ddosSuspected = state.recordRequest(now, ddosWindowMillis) > ddosThreshold;
+    return acquire(key, state, ddosSuspected);
+  }
+
+  private CompletionStage<Decision> acquire(String key, KeyState state, boolean ddosSuspected) {
+    long now = clock.getAsLong() - epoch;
+    boolean permitted = consume(key, state, now);
+    CompletionStage<?> pending = permitted ? null : pendingTokens(key, state, now);
+    if (pending == null) {
+      return decide(state, permitted, ddosSuspected, now).completed;
+    }
+    return pending.thenCompose(ignored -> acquire(key, state, ddosSuspected));
+  }
+
+  private Decision decide(KeyState state, boolean permitted, boolean ddosSuspected, long now) {
+    if (!permitted) {
+      state.throttle(now + refillMillis);
+    }
+    return Decision.of(permitted, ddosSuspected);
+  }
+
+  /**
+   * Take one token for the key from its local bucket.
+   *
+   * @param key the client key
+   * @param state the key's state
+   * @param now milliseconds since the limiter was created
+   * @return whether a token was available
+   */
+  boolean consume(String key, KeyState state, long now) {
+    return state.tryConsume(now, capacity, refillMillis);
+  }
+
+  /**
+   * Tokens on their way to a key whose request {@link #consume} just rejected.
+   *
+   * @param key the client key
+   * @param state the key's state
+   * @param now milliseconds since the limiter was created
+   * @return a stage completing once it is worth trying again, or null if the rejection stands
+   */
+  CompletionStage<?> pendingTokens(String key, KeyState state, long now) {
+    return null;
+  }
+
+  /**
+   * Create the state for a newly tracked key.
+   */
+  KeyState newState(String key, int hash, long now) {
+    return new KeyState(key, hash, now);
+  }
+
+  /**
+   * Approximate number of keys currently tracked.
+   *
+   * @return the number of tracked keys
+   */
+  public long trackedKeys() {
+    long now = clock.getAsLong() - epoch;
+    long tracked = 0;
+    for (int i = 0; i < slots.length(); i++) {
+      KeyState state = slots.get(i);
+      if (state != null && state.idleFor(now) <= idleMillis) {
+        tracked++;
+      }
+    }
+    return tracked;
+  }
+
+  private KeyState stateFor(String key, long now) {
+    int hash = spread(key.hashCode());
+    int set = hash & setMask;
+    for (;;) {
+      int victim = -1;
+      KeyState victimState = null;
+      long victimRank = Long.MIN_VALUE;
+      for (int i = set; i < set + WAYS; i++) {
+        KeyState state = slots.get(i);
+        if (state == null) {
+          if (victim < 0 || victimState != null) {
+            victim = i;
+            victimState = null;
+            victimRank = Long.MAX_VALUE;
+          }
+          continue;
+        }
+        if (state.hash == hash && state.key.equals(key)) {
+          return state;
+        }
+        // Throttled keys rank below every other entry, and among themselves by idle time
+        long idle = Math.max(state.idleFor(now), 0);
+        long rank = state.throttled(now) ? idle - Long.MAX_VALUE : idle;
+        if (rank > victimRank) {
+          victim = i;
+          victimState = state;
+          victimRank = rank;
+        }
+      }
+      KeyState created = newState(key, hash, now);
+      if (slots.compareAndSet(victim, victimState, created)) {
+        return created;
+      }
+      // Lost a race for the slot; look again in case the winner inserted this key
+    }
+  }
+
+  private static int spread(int hash) {
+    return hash ^ hash >>> 16;
+  }
+
+  /**
+   * Compact per-key state. Each field packs a window start (milliseconds since the limiter was
+   * created, upper bits) and a counter (lower bits) into one long.
+   */
+  static class KeyState {
+
+    static final int COUNT_BITS = 23;
+    static final long MAX_COUNT = (1L << COUNT_BITS) - 1;
+
+    private static final AtomicLongFieldUpdater<KeyState> BUCKET =
+        AtomicLongFieldUpdater.newUpdater(KeyState.class, "bucket");
+    private static final AtomicLongFieldUpdater<KeyState> REQUESTS =
+        AtomicLongFieldUpdater.newUpdater(KeyState.class, "requests");
+
+    final String key;
+    final int hash;
+
+    /** Refill window start and tokens used in it. */
+    private volatile long bucket;
+
+    /** DDoS window start and requests seen in it. */
+    private volatile long requests;
+
+    /** Time of the latest request. */
+    private volatile long lastSeen;
+
+    /** Time until which the key counts as throttled after a rejected request. */
+    private volatile long throttledUntil;
+
+    KeyState(String key, int hash, long now) {
+      this.key = key;
+      this.hash = hash;
+      bucket = pack(now, 0);
+      requests = pack(now, 0);
+      lastSeen = now;
+    }
+
+    /**
+     * Time since the latest request for the key.
+     */
+    long idleFor(long now) {
+      return now - lastSeen;
+    }
+
+    void touch(long now) {
+      // Skip the write when another request already stored this millisecond
+      if (lastSeen != now) {
+        lastSeen = now;
+      }
+    }
+
+    void throttle(long until) {
+      if (throttledUntil < until) {
+        throttledUntil = until;
+      }
+    }
+
+    boolean throttled(long now) {
+      return now < throttledUntil;
+    }
+
+    boolean tryConsume(long now, int capacity, long refillMillis) {
+      for (;;) {
+        long current = bucket;
+        long start = windowStart(current);
+        long used = count(current);
+        if (now - start >= refillMillis) {
+          // Refill intervally, keeping windows aligned to the first request
+          start += (now - start) / refillMillis * refillMillis;
+          used = 0;
+        }
+        if (used >= capacity) {
+          return false;
+        }
+        if (BUCKET.compareAndSet(this, current, pack(start, used + 1))) {
+          return true;
+        }
+      }
+    }
+
+    int recordRequest(long now, long windowMillis) {
+      for (;;) {
+        long current = requests;
+        long start = windowStart(current);
+        long seen = count(current);
+        if (now - start > windowMillis) {
+          start = now;
+          seen = 0;
+        }
+        long next = Math.min(seen + 1, MAX_COUNT);
+        if (REQUESTS.compareAndSet(this, current, pack(start, next))) {
+          return (int) next;
+        }
+      }
+    }
+
+    static long pack(long windowStart, long count) {
+      return windowStart << COUNT_BITS | count;
+    }
+
+    static long windowStart(long packed) {
+      return packed >>> COUNT_BITS;
+    }
+
+    static long count(long packed) {
+      return packed & MAX_COUNT;
+    }
+  }
+}
@@ -0,0 +1,48 @@
+package com.example.filter;
+
+import com.example.service.RedisService;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * TokenSource keeping one counter per key and window in Redis. Each lease is a single atomic Lua
+ * script call; the counter expires together with its window.
+ */
+@ApplicationScoped
+public class RedisTokenSource implements TokenSource {
+
+  static final String KEY_PREFIX = "rate-limit:";
+
+  // KEYS[1] = counter, ARGV = capacity, batch, window length in milliseconds
+  static final String LEASE_SCRIPT = """
+      local used = tonumber(redis.call('GET', KEYS[1]) or '0')
+      local grant = math.min(tonumber(ARGV[2]), tonumber(ARGV[1]) - used)
+      if grant <= 0 then
+        return 0
+      end
+      redis.call('INCRBY', KEYS[1], grant)
+      redis.call('PEXPIRE', KEYS[1], ARGV[3])
+      return grant
+      """;
+
+  @Inject
+  RedisService redisService;
+
+  // Leases slower than this count as a Redis failure
+  @ConfigProperty(name = "app.rate-limit.cluster.timeout", defaultValue = "50ms")
+  Duration timeout;
+
+  @Override
+  public CompletionStage<Integer> lease(String key, long window, long windowMillis, int capacity,
+      int batch) {
+    List<String> keys = List.of(KEY_PREFIX + key + ":" + window);
+    List<String> args =
+        List.of(String.valueOf(capacity), String.valueOf(batch), String.valueOf(windowMillis));
+    return redisService.evalLong(LEASE_SCRIPT, keys, args).ifNoItem().after(timeout).fail()
+        .map(Long::intValue).subscribeAsCompletionStage();
+  }
+}
@@ -0,0 +1,142 @@
+package com.example.filter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Segment trie mapping path patterns to values.
+ *
+ * <p>
+ * A pattern is a {@code /}-separated path whose segments are literals, {@code *} (exactly one
+ * segment) or a trailing {@code **} (any number of segments, including none). A lookup walks the
+ * trie once per path segment, so its cost depends on the depth of the path and not on the number of
+ * patterns. The most specific match wins: a literal segment beats {@code *}, which beats
+ * {@code **}; values registered for the same pattern are tried in insertion order.
+ *
+ * <p>
+ * Instances are not thread-safe while being built and are meant to be published once complete.
+ *
+ * @param <T> type of the values
+ */
+final class RouteMatcher<T> {
+
+  private static final String ANY_SEGMENT = "*";
+  private static final String ANY_TAIL = "**";
+
+  private final Node<T> root = new Node<>();
+
+  /**
+   * Register a value for a pattern.
+   */
+  void add(String pattern, T value) {
+    Node<T> node = root;
+    String[] segments = pattern.split("/");
+    for (int i = 0; i < segments.length; i++) {
+      String segment = segments[i];
+      if (segment.isEmpty()) {
+        continue;
+      }
+      if (ANY_TAIL.equals(segment)) {
+        if (i != segments.length - 1) {
+          throw new IllegalArgumentException("'**' must be the last segment of " + pattern);
+        }
+        node = node.tail();
+      } else if (ANY_SEGMENT.equals(segment)) {
+        node = node.wildcard();
+      } else {
+        node = node.literal(segment);
+      }
+    }
+    node.values.add(value);
+  }
+
+  /**
+   * Find the value of the most specific pattern matching the path.
+   *
+   * @param path the request path
+   * @param accept additional condition a value must meet, e.g. on the HTTP method
+   * @return the matching value, or null if there is none
+   */
+  T match(String path, Predicate<T> accept) {
+    return match(root, path, skipSlashes(path, 0), accept);
+  }
+
+  private T match(Node<T> node, String path, int from, Predicate<T> accept) {
+    if (from >= path.length()) {
+      T found = first(node.values, accept);
+      if (found == null && node.tail != null) {
+        found = first(node.tail.values, accept);
+      }
+      return found;
+    }
+
+    int end = path.indexOf('/', from);
+    if (end < 0) {
+      end = path.length();
+    }
+    int next = skipSlashes(path, end);
+
+    T found = null;
+    if (node.literals != null) {
+      Node<T> child = node.literals.get(path.substring(from, end));
+      if (child != null) {
+        found = match(child, path, next, accept);
+      }
+    }
+    if (found == null && node.wildcard != null) {
+      found = match(node.wildcard, path, next, accept);
+    }
+    if (found == null && node.tail != null) {
+      found = first(node.tail.values, accept);
+    }
+    return found;
+  }
+
+  private static int skipSlashes(String path, int from) {
+    while (from < path.length() && path.charAt(from) == '/') {
+      from++;
+    }
+    return from;
+  }
+
+  private static <T> T first(List<T> values, Predicate<T> accept) {
+    for (int i = 0; i < values.size(); i++) {
+      T value = values.get(i);
+      if (accept.test(value)) {
+        return value;
+      }
+    }
+    return null;
+  }
+
+  private static final class Node<T> {
+    final List<T> values = new ArrayList<>(1);
+    Map<String, Node<T>> literals;
+    Node<T> wildcard;
+    Node<T> tail;
+
+    Node<T> literal(String segment) {
+      if (literals == null) {
+        literals = new HashMap<>();
+      }
+      return literals.computeIfAbsent(segment, s -> new Node<>());
+    }
+
+    Node<T> wildcard() {
+      if (wildcard == null) {
+        wildcard = new Node<>();
+      }
+      return wildcard;
+    }
+
+    Node<T> tail() {
+      if (tail == null) {
+        tail = new Node<>();
+      }
+      return tail;
+    }
+  }
+}
@@ -0,0 +1,26 @@
+package com.example.filter;
+
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Cluster-wide store of rate limit tokens shared by every replica.
+ *
+ * <p>
+ * Buckets are fixed windows: all replicas derive the same window index from the wall clock, so a
+ * key gets {@code capacity} tokens per window across the whole cluster.
+ */
+public interface TokenSource {
+
+  /**
+   * Take up to {@code batch} tokens from the key's bucket for a window.
+   *
+   * @param key the client key
+   * @param window index of the window, wall clock time divided by the window length
+   * @param windowMillis window length in milliseconds
+   * @param capacity tokens available to the key per window across the cluster
+   * @param batch maximum number of tokens to take
+   * @return a stage completing with the number of tokens granted, zero once the bucket is empty
+   */
+  CompletionStage<Integer> lease(String key, long window, long windowMillis, int capacity,
+      int batch);
+}
@@ -0,0 +1,21 @@
+package com.example.filter;
+
+import jakarta.ws.rs.NameBinding;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks blocking resources or resource methods that may run on a virtual thread instead of a worker
+ * thread. Whether they do is decided at runtime by {@link VirtualThreadDispatchFilter}.
+ *
+ * <p>
+ * Only annotate methods that block (return a plain entity or {@code Response}); non-blocking
+ * methods returning {@code Uni} or {@code Multi} belong on the event loop.
+ */
+@NameBinding
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface VirtualThreadCapable {
+}
@@ -0,0 +1,66 @@
+package com.example.filter;
+
+import io.quarkus.virtual.threads.VirtualThreads;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.Priorities;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.ext.Provider;
+import java.util.concurrent.ExecutorService;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import org.jboss.resteasy.reactive.server.core.ResteasyReactiveRequestContext;
+import org.jboss.resteasy.reactive.server.spi.ResteasyReactiveContainerRequestContext;
+
+/**
+ * Moves requests to {@link VirtualThreadCapable} resources from the worker pool to a virtual thread
+ * when {@code app.virtual-threads.enabled} is set.
+ *
+ * <p>
+ * This does at runtime what {@code @RunOnVirtualThread} does at build time, which the Java 17
+ * target of this project does not allow: the rest of the request, including the resource method and
+ * the response writer, continues on a new virtual thread, and the worker thread is released right
+ * away. A request blocked on the database or object store then holds a virtual thread instead of
+ * one of the few worker threads. On a JVM without virtual threads the executor falls back to the
+ * worker pool.
+ */
+@Provider
+@VirtualThreadCapable
+@Priority(Priorities.USER)
+public class VirtualThreadDispatchFilter implements ContainerRequestFilter {
+
+  private static final Logger LOG = Logger.getLogger(VirtualThreadDispatchFilter.class);
+
+  @ConfigProperty(name = "app.virtual-threads.enabled", defaultValue = "false")
+  boolean enabled;
+
+  // Keeps the Vert.x context of the request, so request-scoped beans stay available
+  @Inject
+  @VirtualThreads
+  ExecutorService virtualThreads;
+
+  @PostConstruct
+  void init() {
+    LOG.infof("Blocking resources run on %s", enabled ? "virtual threads" : "the worker pool");
+  }
+
+  @Override
+  public void filter(ContainerRequestContext requestContext) {
+    if (!enabled || isVirtual(Thread.currentThread())) {
+      return;
+    }
+    ResteasyReactiveRequestContext context =
+        (ResteasyReactiveRequestContext) ((ResteasyReactiveContainerRequestContext) requestContext)
+            .getServerRequestContext();
+    // Continue the handler chain on the executor once this filter returns
+    context.suspend();
+    context.resume(virtualThreads);
+  }
+
+  private static boolean isVirtual(Thread thread) {
+    // Thread.isVirtual() only exists from Java 21 on
+    return thread.getClass().getName().equals("java.lang.VirtualThread");
+  }
+}
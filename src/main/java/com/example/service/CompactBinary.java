@@ -0,0 +1,134 @@
+package com.example.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+/**
+ * Building blocks of hand-written binary codecs: variable-length integers (one byte up to 127),
+ * length-prefixed UTF-8 strings and timestamps as seconds and nanoseconds.
+ */
+final class CompactBinary {
+
+  private CompactBinary() {
+    // Static helpers only
+  }
+
+  /**
+   * Appends to a growing array.
+   */
+  static final class Writer {
+
+    private byte[] buffer;
+    private int size;
+
+    Writer(int capacity) {
+      buffer = new byte[capacity];
+    }
+
+    Writer writeByte(int value) {
+      ensure(1);
+      buffer[size++] = (byte) value;
+      return this;
+    }
+
+    /**
+     * Write a non-negative value in 1 to 9 bytes; negative values take 10.
+     */
+    Writer writeVarLong(long value) {
+      ensure(10);
+      while ((value & ~0x7FL) != 0) {
+        buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+        value >>>= 7;
+      }
+      buffer[size++] = (byte) value;
+      return this;
+    }
+
+    Writer writeBytes(byte[] value) {
+      ensure(value.length);
+      System.arraycopy(value, 0, buffer, size, value.length);
+      size += value.length;
+      return this;
+    }
+
+    Writer writeString(String value) {
+      byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+      return writeVarLong(utf8.length).writeBytes(utf8);
+    }
+
+    Writer writeTimestamp(LocalDateTime value) {
+      long seconds = value.toEpochSecond(ZoneOffset.UTC);
+      // Zigzag, so that times before 1970 stay short too
+      return writeVarLong((seconds << 1) ^ (seconds >> 63)).writeVarLong(value.getNano());
+    }
+
+    byte[] toByteArray() {
+      return Arrays.copyOf(buffer, size);
+    }
+
+    private void ensure(int bytes) {
+      if (size + bytes > buffer.length) {
+        buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + bytes));
+      }
+    }
+  }
+
+  /**
+   * Reads what a {@link Writer} wrote, failing with an {@link IllegalArgumentException} on
+   * truncated or malformed input.
+   */
+  static final class Reader {
+
+    private final byte[] bytes;
+    private int position;
+
+    Reader(byte[] bytes) {
+      this.bytes = bytes;
+    }
+
+    int position() {
+      return position;
+    }
+
+    int readByte() {
+      if (position >= bytes.length) {
+        throw new IllegalArgumentException("Truncated value");
+      }
+      return bytes[position++] & 0xFF;
+    }
+
+    long readVarLong() {
+      long value = 0;
+      for (int shift = 0; shift < 64; shift += 7) {
+        int next = readByte();
+        value |= (long) (next & 0x7F) << shift;
+        if ((next & 0x80) == 0) {
+          return value;
+        }
+      }
+      throw new IllegalArgumentException("Malformed variable-length integer");
+    }
+
+    String readString() {
+      long length = readVarLong();
+      if (length < 0 || length > bytes.length - position) {
+        throw new IllegalArgumentException("Truncated value");
+      }
+      String value = new String(bytes, position, (int) length, StandardCharsets.UTF_8);
+      position += (int) length;
+      return value;
+    }
+
+    LocalDateTime readTimestamp() {
+      long zigzag = readVarLong();
+      long seconds = (zigzag >>> 1) ^ -(zigzag & 1);
+      long nanos = readVarLong();
+      if (nanos < 0 || nanos > 999_999_999) {
+        throw new IllegalArgumentException("Malformed timestamp");
+      }
+      return LocalDateTime.ofEpochSecond(seconds, (int) nanos, ZoneOffset.UTC);
+    }
+  }
+}
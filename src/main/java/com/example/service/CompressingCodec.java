@@ -0,0 +1,104 @@
+package com.example.service;
+
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdException;
+import java.util.Arrays;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Exception;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4SafeDecompressor;
+
+/**
+ * Compresses the values of another codec from a size threshold on.
+ *
+ * <p>
+ * Each value starts with a byte naming its compression. A compressed value continues with its
+ * original length as a variable-length integer and the compressed bytes; any other value with the
+ * bytes of the wrapped codec. Values that do not shrink are stored as they are, so small values
+ * only cost the leading byte.
+ */
+final class CompressingCodec<T> implements RedisCodec<T> {
+
+  private static final int RAW = 0;
+  private static final int LZ4 = 1;
+  private static final int ZSTD = 2;
+
+  // Favors speed, as for the Kafka producer; higher levels gain little on small values
+  private static final int ZSTD_LEVEL = 1;
+
+  // Values beyond this are assumed corrupt rather than allocated
+  private static final int MAX_LENGTH = 64 * 1024 * 1024;
+
+  private static final LZ4Compressor LZ4_COMPRESSOR = LZ4Factory.fastestInstance().fastCompressor();
+  // The safe decompressor, since the native fast one may read past malformed input
+  private static final LZ4SafeDecompressor LZ4_DECOMPRESSOR =
+      LZ4Factory.fastestInstance().safeDecompressor();
+
+  private final RedisCodec<T> codec;
+  private final Compression compression;
+  private final int threshold;
+
+  CompressingCodec(RedisCodec<T> codec, Compression compression, int threshold) {
+    this.codec = codec;
+    this.compression = compression;
+    this.threshold = threshold;
+  }
+
+  @Override
+  public byte[] encode(T value) {
+    byte[] encoded = codec.encode(value);
+    if (compression != Compression.NONE && encoded.length >= threshold) {
+      byte[] compressed = compression == Compression.LZ4 ? lz4(encoded) : zstd(encoded);
+      if (compressed.length < encoded.length) {
+        return new CompactBinary.Writer(compressed.length + 6)
+            .writeByte(compression == Compression.LZ4 ? LZ4 : ZSTD).writeVarLong(encoded.length)
+            .writeBytes(compressed).toByteArray();
+      }
+    }
+    byte[] raw = new byte[encoded.length + 1];
+    raw[0] = RAW;
+    System.arraycopy(encoded, 0, raw, 1, encoded.length);
+    return raw;
+  }
+
+  @Override
+  public T decode(byte[] bytes) {
+    CompactBinary.Reader reader = new CompactBinary.Reader(bytes);
+    int kind = reader.readByte();
+    if (kind == RAW) {
+      return codec.decode(Arrays.copyOfRange(bytes, 1, bytes.length));
+    }
+    if (kind != LZ4 && kind != ZSTD) {
+      throw new IllegalArgumentException("Unknown compression: " + kind);
+    }
+    long length = reader.readVarLong();
+    if (length < 0 || length > MAX_LENGTH) {
+      throw new IllegalArgumentException("Malformed compressed value");
+    }
+    byte[] compressed = Arrays.copyOfRange(bytes, reader.position(), bytes.length);
+    try {
+      return codec.decode(kind == LZ4 ? unlz4(compressed, (int) length)
+          : Zstd.decompress(compressed, (int) length));
+    } catch (LZ4Exception | ZstdException e) {
+      throw new IllegalArgumentException("Malformed compressed value", e);
+    }
+  }
+
+  private static byte[] lz4(byte[] bytes) {
+    byte[] compressed = new byte[LZ4_COMPRESSOR.maxCompressedLength(bytes.length)];
+    int length = LZ4_COMPRESSOR.compress(bytes, 0, bytes.length, compressed, 0, compressed.length);
+    return Arrays.copyOf(compressed, length);
+  }
+
+  private static byte[] unlz4(byte[] compressed, int length) {
+    byte[] bytes = new byte[length];
+    if (LZ4_DECOMPRESSOR.decompress(compressed, 0, compressed.length, bytes, 0) != length) {
+      throw new LZ4Exception("Length mismatch");
+    }
+    return bytes;
+  }
+
+  private static byte[] zstd(byte[] bytes) {
+    return Zstd.compress(bytes, ZSTD_LEVEL);
+  }
+}
@@ -1,34 +1,65 @@
 package com.example.service;
 
 import jakarta.enterprise.context.ApplicationScoped;
-import org.jboss.logging.Logger;
+import jakarta.inject.Inject;
+import java.util.Locale;
 
 /**
- * Service for greeting operations.
+ * Service for greeting operations. The texts come from the {@link GreetingTemplateEngine}.
  */
 @ApplicationScoped
 public class GreetingService {
 
-  private static final Logger LOG = Logger.getLogger(GreetingService.class);
+  @Inject
+  GreetingTemplateEngine templateEngine;
 
   /**
-   * Generates a greeting message for the given name.
+   * Generates a greeting message for the given name in the default locale.
    *
    * @param name the name to greet
    * @return the greeting message
    */
   public String greet(String name) {
-    LOG.infof("Generating greeting for: %s", name);
-    return String.format("Hello, %s! Welcome to Quarkus Template.", name);
+    return templateEngine.greet(name, null);
   }
 
   /**
-   * Generates a default greeting message.
+   * Generates a greeting message for the given name.
+   *
+   * @param name the name to greet
+   * @param locale the locale of the message, as returned by {@link #resolveLocale}
+   * @return the greeting message
+   */
+  public String greet(String name, Locale locale) {
+    return templateEngine.greet(name, locale);
+  }
+
+  /**
+   * Generates a default greeting message in the default locale.
    *
    * @return the default greeting message
    */
   public String getDefaultGreeting() {
-    LOG.info("Generating default greeting");
-    return "Hello! Welcome to Quarkus Template.";
+    return templateEngine.defaultGreeting(null);
+  }
+
+  /**
+   * Generates a default greeting message.
+   *
+   * @param locale the locale of the message, as returned by {@link #resolveLocale}
+   * @return the default greeting message
+   */
+  public String getDefaultGreeting(Locale locale) {
+    return templateEngine.defaultGreeting(locale);
+  }
+
+  /**
+   * Chooses the locale of the greetings for a request.
+   *
+   * @param acceptLanguage the {@code Accept-Language} header, may be null
+   * @return the supported locale closest to the header
+   */
+  public Locale resolveLocale(String acceptLanguage) {
+    return templateEngine.resolve(acceptLanguage);
   }
 }
@@ -0,0 +1,90 @@
+package com.example.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A greeting pattern such as {@code "Hello, {name}!"}, split once into the literal text between the
+ * {@code {name}} placeholders so that rendering only appends segments.
+ *
+ * <p>
+ * {@code {name}} is the only placeholder; any other text in braces is rejected when the template is
+ * compiled. Templates are immutable and safe to share between threads.
+ */
+public final class GreetingTemplate {
+
+  private static final String NAME = "{name}";
+
+  private final String pattern;
+  // Literal text before each placeholder, followed by the text after the last one
+  private final String[] literals;
+  // Length of all literals together, used to size the output
+  private final int literalLength;
+
+  private GreetingTemplate(String pattern, String[] literals) {
+    this.pattern = pattern;
+    this.literals = literals;
+    int length = 0;
+    for (String literal : literals) {
+      length += literal.length();
+    }
+    this.literalLength = length;
+  }
+
+  /**
+   * Compile a pattern.
+   *
+   * @param pattern the text of the greeting, with {@code {name}} where the name goes
+   * @return the compiled template
+   * @throws IllegalArgumentException if the pattern contains another placeholder or an unmatched
+   *         brace
+   */
+  public static GreetingTemplate compile(String pattern) {
+    List<String> literals = new ArrayList<>();
+    int start = 0;
+    int open = pattern.indexOf('{');
+    while (open >= 0) {
+      if (!pattern.startsWith(NAME, open)) {
+        throw new IllegalArgumentException(
+            "Unsupported placeholder at index " + open + " in greeting template: " + pattern);
+      }
+      literals.add(pattern.substring(start, open));
+      start = open + NAME.length();
+      open = pattern.indexOf('{', start);
+    }
+    String rest = pattern.substring(start);
+    if (rest.indexOf('}') >= 0 || literals.stream().anyMatch(l -> l.indexOf('}') >= 0)) {
+      throw new IllegalArgumentException("Unmatched '}' in greeting template: " + pattern);
+    }
+    literals.add(rest);
+    return new GreetingTemplate(pattern, literals.toArray(new String[0]));
+  }
+
+  /**
+   * The pattern the template was compiled from.
+   */
+  public String pattern() {
+    return pattern;
+  }
+
+  /**
+   * Whether the template has no placeholder, so its text never changes.
+   */
+  public boolean isConstant() {
+    return literals.length == 1;
+  }
+
+  /**
+   * Append the greeting for a name.
+   *
+   * @param out receives the greeting
+   * @param name the name to greet
+   */
+  public void renderTo(StringBuilder out, String name) {
+    out.ensureCapacity(out.length() + literalLength + (literals.length - 1) * name.length());
+    out.append(literals[0]);
+    for (int i = 1; i < literals.length; i++) {
+      out.append(name).append(literals[i]);
+    }
+  }
+}
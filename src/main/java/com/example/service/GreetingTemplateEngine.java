@@ -0,0 +1,38 @@
+package com.example.service;
+
+import java.util.Locale;
+
+/**
+ * Produces the greeting texts returned by {@link GreetingService}.
+ *
+ * <p>
+ * {@link TemplateGreetingEngine} is the default implementation; an application can replace it by
+ * declaring another bean implementing this interface.
+ */
+public interface GreetingTemplateEngine {
+
+  /**
+   * The supported locale closest to an {@code Accept-Language} header.
+   *
+   * @param acceptLanguage the header value, may be null
+   * @return a locale {@link #greet} and {@link #defaultGreeting} have templates for
+   */
+  Locale resolve(String acceptLanguage);
+
+  /**
+   * Greeting for a name.
+   *
+   * @param name the name to greet
+   * @param locale the locale, falling back to the default locale if it is not supported
+   * @return the greeting
+   */
+  String greet(String name, Locale locale);
+
+  /**
+   * Greeting without a name.
+   *
+   * @param locale the locale, falling back to the default locale if it is not supported
+   * @return the greeting
+   */
+  String defaultGreeting(Locale locale);
+}
@@ -1,15 +1,42 @@
 package com.example.service;
 
-import io.smallrye.reactive.messaging.annotations.Broadcast;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.virtual.threads.VirtualThreads;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.reactive.messaging.MutinyEmitter;
+import io.smallrye.reactive.messaging.kafka.KafkaClientService;
+import io.smallrye.reactive.messaging.kafka.KafkaConsumer;
+import io.smallrye.reactive.messaging.kafka.api.IncomingKafkaRecordBatchMetadata;
+import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.eclipse.microprofile.reactive.messaging.Channel;
-import org.eclipse.microprofile.reactive.messaging.Emitter;
 import org.eclipse.microprofile.reactive.messaging.Incoming;
-import org.eclipse.microprofile.reactive.messaging.Outgoing;
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.eclipse.microprofile.reactive.messaging.OnOverflow;
 
 import jakarta.inject.Inject;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 /**
  * Service for Kafka messaging operations.
  */
@@ -17,23 +44,193 @@ import jakarta.inject.Inject;
 @Slf4j
 public class KafkaService {
 
+  static final String GREETINGS_OUT = "greetings-out";
+  static final String GREETINGS_IN = "greetings-in";
+
+  @Inject
+  @Channel(GREETINGS_OUT)
+  @OnOverflow(OnOverflow.Strategy.BUFFER)
+  MutinyEmitter<String> greetingEmitter;
+
+  @Inject
+  MeterRegistry registry;
+
+  // Unacknowledged messages a batch send keeps in flight; matches the connector's own limit
+  @ConfigProperty(name = "mp.messaging.outgoing.greetings-out.max-inflight-messages",
+      defaultValue = "1024")
+  int maxInFlight;
+
+  // Records of a batch processed at the same time; records with the same key stay in order
+  @ConfigProperty(name = "app.kafka.greetings-in.concurrency", defaultValue = "16")
+  int consumerConcurrency;
+
+  // How often to read the consumer lag from the Kafka client
+  @ConfigProperty(name = "app.kafka.greetings-in.lag-refresh-interval", defaultValue = "5s")
+  Duration lagRefreshInterval;
+
+  // Virtual threads where the JVM supports them, the worker pool otherwise
+  @Inject
+  @VirtualThreads
+  ExecutorService consumerWorkers;
+
   @Inject
-  @Channel("greetings-out")
-  Emitter<String> greetingEmitter;
+  KafkaClientService kafkaClientService;
+
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private Timer ackTimer;
+  private Timer nackTimer;
+
+  private final AtomicLong consumerLag = new AtomicLong();
+  private final AtomicLong nextLagRefresh = new AtomicLong();
+  private Counter receivedCounter;
+  private KeyedBatchProcessor batchProcessor;
+
+  @PostConstruct
+  void init() {
+    Gauge.builder("kafka.producer.in.flight", inFlight, AtomicInteger::get)
+        .description("Messages sent but not yet acknowledged by the broker")
+        .tag("channel", GREETINGS_OUT).register(registry);
+    ackTimer = ackTimer("success");
+    nackTimer = ackTimer("failure");
+
+    Gauge.builder("kafka.consumer.lag", consumerLag, AtomicLong::get)
+        .description("Records on the assigned partitions not yet fetched by the consumer")
+        .tag("channel", GREETINGS_IN).register(registry);
+    receivedCounter =
+        Counter.builder("kafka.consumer.records").description("Records processed by the consumer")
+            .tag("channel", GREETINGS_IN).register(registry);
+    batchProcessor = new KeyedBatchProcessor(consumerWorkers, consumerConcurrency);
+  }
 
   /**
    * Send a message to Kafka topic.
+   *
+   * @return a stage completing once the broker acknowledged the message
+   */
+  public CompletionStage<Void> sendGreeting(String message) {
+    log.debug("Sending message to Kafka: {}", message);
+    return send(message).subscribeAsCompletionStage();
+  }
+
+  /**
+   * Send messages to Kafka topic, keeping at most {@code max-inflight-messages} of them
+   * unacknowledged at a time.
+   *
+   * @return a stage completing once every message was acknowledged, or failing with the first
+   *         failed send
+   */
+  public CompletionStage<Void> sendGreetings(Collection<String> messages) {
+    log.debug("Sending {} messages to Kafka", messages.size());
+    return sendGreetings(Multi.createFrom().iterable(messages)).subscribeAsCompletionStage();
+  }
+
+  /**
+   * Send a stream of messages to Kafka topic. Messages are requested from the stream only while
+   * fewer than {@code max-inflight-messages} are waiting for acknowledgement, so a slow broker
+   * slows down the producer of the stream instead of filling up memory.
+   *
+   * @return a Uni completing once the stream ended and every message was acknowledged
+   */
+  public Uni<Void> sendGreetings(Multi<String> messages) {
+    return messages.onItem().transformToUni(this::send).merge(maxInFlight).onItem().ignoreAsUni();
+  }
+
+  /**
+   * Consume a batch of messages from Kafka topic. Records are processed in parallel, except that
+   * records with the same key, or without a key on the same partition, are processed in order. The
+   * batch is acknowledged once every record was processed, and offsets are committed in the
+   * background by the channel's commit strategy.
+   */
+  @Incoming(GREETINGS_IN)
+  public CompletionStage<Void> receiveGreetings(Message<List<String>> batch) {
+    List<ReceivedGreeting> greetings = greetings(batch);
+    log.debug("Received {} messages from Kafka", greetings.size());
+    return batchProcessor.process(greetings, ReceivedGreeting::orderingKey, this::receiveGreeting)
+        .handle((ignored, failure) -> {
+          refreshConsumerLag();
+          return failure == null ? batch.ack() : batch.nack(failure);
+        }).thenCompose(Function.identity());
+  }
+
+  private void receiveGreeting(ReceivedGreeting greeting) {
+    log.debug("Received message from Kafka: {}", greeting.message());
+    receivedCounter.increment();
+  }
+
+  /**
+   * Records of a batch with their key and partition when delivered by the Kafka connector, or the
+   * bare payloads otherwise.
+   */
+  private static List<ReceivedGreeting> greetings(Message<List<String>> batch) {
+    @SuppressWarnings("unchecked")
+    Optional<IncomingKafkaRecordBatchMetadata<String, String>> metadata =
+        batch.getMetadata(IncomingKafkaRecordBatchMetadata.class)
+            .map(m -> (IncomingKafkaRecordBatchMetadata<String, String>) m);
+    if (metadata.isEmpty()) {
+      return batch.getPayload().stream().map(m -> new ReceivedGreeting(null, m, -1)).toList();
+    }
+    List<ReceivedGreeting> greetings = new ArrayList<>(metadata.get().count());
+    for (ConsumerRecord<String, String> record : metadata.get().getRecords()) {
+      greetings.add(new ReceivedGreeting(record.key(), record.value(), record.partition()));
+    }
+    return greetings;
+  }
+
+  /**
+   * Update the consumer lag gauge, at most once per refresh interval. The lag is read on the
+   * polling thread of each consumer of the channel, without blocking the caller.
    */
-  public void sendGreeting(String message) {
-    log.info("Sending message to Kafka: {}", message);
-    greetingEmitter.send(message);
+  private void refreshConsumerLag() {
+    long now = System.currentTimeMillis();
+    long next = nextLagRefresh.get();
+    if (now < next || !nextLagRefresh.compareAndSet(next, now + lagRefreshInterval.toMillis())) {
+      return;
+    }
+    List<KafkaConsumer<String, String>> consumers = kafkaClientService.getConsumers(GREETINGS_IN);
+    if (consumers.isEmpty()) {
+      return;
+    }
+    Function<org.apache.kafka.clients.consumer.Consumer<String, String>, Long> lag =
+        KafkaService::currentLag;
+    Multi.createFrom().iterable(consumers).onItem()
+        .transformToUniAndMerge(consumer -> consumer.runOnPollingThread(lag)).collect()
+        .with(Collectors.summingLong(Long::longValue)).subscribe().with(consumerLag::set,
+            failure -> log.debug("Could not read consumer lag: {}", failure.getMessage()));
+  }
+
+  private static long currentLag(org.apache.kafka.clients.consumer.Consumer<?, ?> consumer) {
+    long lag = 0;
+    for (TopicPartition partition : consumer.assignment()) {
+      lag += consumer.currentLag(partition).orElse(0);
+    }
+    return lag;
+  }
+
+  private Uni<Void> send(String message) {
+    return Uni.createFrom().deferred(() -> {
+      long start = System.nanoTime();
+      inFlight.incrementAndGet();
+      return greetingEmitter.send(message).onTermination().invoke((ignored, failure, cancelled) -> {
+        inFlight.decrementAndGet();
+        Timer timer = failure == null && !cancelled ? ackTimer : nackTimer;
+        timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+      });
+    });
+  }
+
+  private Timer ackTimer(String outcome) {
+    return Timer.builder("kafka.producer.ack")
+        .description("Time from sending a message until the broker acknowledged it")
+        .tag("channel", GREETINGS_OUT).tag("outcome", outcome).publishPercentileHistogram()
+        .register(registry);
   }
 
   /**
-   * Consume messages from Kafka topic.
+   * A received record; records without a key are ordered by partition.
    */
-  @Incoming("greetings-in")
-  public void receiveGreeting(String message) {
-    log.info("Received message from Kafka: {}", message);
+  private record ReceivedGreeting(String key, String message, int partition) {
+    Object orderingKey() {
+      return key != null ? key : partition;
+    }
   }
 }
@@ -0,0 +1,82 @@
+package com.example.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Processes the records of a batch in parallel while keeping records with the same key in order.
+ *
+ * <p>
+ * Records are spread over a fixed number of lanes by the hash of their key. Each lane is handled by
+ * one task that processes its records one after another in batch order, and the lanes run
+ * concurrently on the executor.
+ */
+final class KeyedBatchProcessor {
+
+  private final Executor executor;
+  private final int lanes;
+
+  /**
+   * Create a processor.
+   *
+   * @param executor runs one task per non-empty lane
+   * @param lanes maximum number of records processed at the same time
+   */
+  KeyedBatchProcessor(Executor executor, int lanes) {
+    if (lanes < 1) {
+      throw new IllegalArgumentException("Number of lanes must be positive: " + lanes);
+    }
+    this.executor = executor;
+    this.lanes = lanes;
+  }
+
+  /**
+   * Process a batch.
+   *
+   * @param records the records, in the order they were received
+   * @param key ordering key of a record; records with equal keys are processed in order
+   * @param handler processes one record
+   * @return a future completing once every record is processed, or failing with the first error; a
+   *         lane stops at its first failing record
+   */
+  <R> CompletableFuture<Void> process(List<R> records, Function<R, Object> key,
+      Consumer<R> handler) {
+    if (records.isEmpty()) {
+      return CompletableFuture.completedFuture(null);
+    }
+    if (lanes == 1 || records.size() == 1) {
+      return CompletableFuture.runAsync(() -> records.forEach(handler), executor);
+    }
+
+    List<List<R>> byLane = new ArrayList<>(lanes);
+    for (int i = 0; i < lanes; i++) {
+      byLane.add(null);
+    }
+    for (R record : records) {
+      int lane = Math.floorMod(spread(key.apply(record)), lanes);
+      List<R> laneRecords = byLane.get(lane);
+      if (laneRecords == null) {
+        laneRecords = new ArrayList<>();
+        byLane.set(lane, laneRecords);
+      }
+      laneRecords.add(record);
+    }
+
+    List<CompletableFuture<Void>> tasks = new ArrayList<>(lanes);
+    for (List<R> laneRecords : byLane) {
+      if (laneRecords != null) {
+        tasks.add(CompletableFuture.runAsync(() -> laneRecords.forEach(handler), executor));
+      }
+    }
+    return CompletableFuture.allOf(tasks.toArray(CompletableFuture[]::new));
+  }
+
+  private static int spread(Object key) {
+    int hash = key == null ? 0 : key.hashCode();
+    return hash ^ hash >>> 16;
+  }
+}
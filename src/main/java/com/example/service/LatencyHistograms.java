@@ -0,0 +1,67 @@
+package com.example.service;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import jakarta.enterprise.inject.Produces;
+import jakarta.inject.Singleton;
+import java.time.Duration;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Meter filters that publish latency histograms for HTTP endpoints and {@link Monitored} services,
+ * so that percentiles can be aggregated across replicas from the Prometheus buckets.
+ *
+ * <p>
+ * The histograms are bounded by {@code app.metrics.histogram-min} and
+ * {@code app.metrics.histogram-max}, which limits the number of buckets per series, and the
+ * {@code uri} tag of {@code http.server.requests} is capped at {@code app.metrics.max-uri-tags}
+ * values; requests to further URIs are not recorded.
+ */
+@Singleton
+public class LatencyHistograms {
+
+  static final String HTTP_SERVER_REQUESTS = "http.server.requests";
+
+  @ConfigProperty(name = "app.metrics.histogram-min", defaultValue = "1ms")
+  Duration histogramMin;
+
+  @ConfigProperty(name = "app.metrics.histogram-max", defaultValue = "30s")
+  Duration histogramMax;
+
+  @ConfigProperty(name = "app.metrics.max-uri-tags", defaultValue = "100")
+  int maxUriTags;
+
+  @Produces
+  @Singleton
+  MeterFilter latencyHistograms() {
+    return histograms(histogramMin, histogramMax);
+  }
+
+  @Produces
+  @Singleton
+  MeterFilter uriTagLimit() {
+    return MeterFilter.maximumAllowableTags(HTTP_SERVER_REQUESTS, "uri", maxUriTags,
+        MeterFilter.deny());
+  }
+
+  /**
+   * A filter that publishes a percentile histogram between the given bounds for the HTTP server and
+   * service call timers, and leaves all other meters alone.
+   */
+  static MeterFilter histograms(Duration min, Duration max) {
+    return new MeterFilter() {
+      @Override
+      public DistributionStatisticConfig configure(Meter.Id id,
+          DistributionStatisticConfig config) {
+        if (!id.getName().equals(HTTP_SERVER_REQUESTS)
+            && !id.getName().equals(ServiceTimers.METRIC)) {
+          return config;
+        }
+        return DistributionStatisticConfig.builder().percentilesHistogram(true)
+            .minimumExpectedValue((double) min.toNanos())
+            .maximumExpectedValue((double) max.toNanos()).build().merge(config);
+      }
+    };
+  }
+}
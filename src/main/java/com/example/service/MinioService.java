@@ -1,23 +1,42 @@
 package com.example.service;
 
+import com.example.dto.ObjectMetadata;
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.Multimap;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.minio.BucketExistsArgs;
 import io.minio.GetObjectArgs;
 import io.minio.MakeBucketArgs;
+import io.minio.MinioAsyncClient;
 import io.minio.MinioClient;
 import io.minio.PutObjectArgs;
 import io.minio.RemoveObjectArgs;
+import io.minio.StatObjectArgs;
+import io.minio.StatObjectResponse;
+import io.minio.errors.ErrorResponseException;
+import io.minio.messages.Part;
 import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.NotFoundException;
 import lombok.extern.slf4j.Slf4j;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 
 import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * Service for MinIO object storage operations.
  */
 @ApplicationScoped
+@Monitored
 @Slf4j
 public class MinioService {
 
@@ -33,13 +52,32 @@ public class MinioService {
   @ConfigProperty(name = "app.minio.bucket-name")
   String bucketName;
 
+  // Size of each part of a multipart upload; S3 requires at least 5 MiB
+  @ConfigProperty(name = "app.minio.upload.part-size", defaultValue = "16777216")
+  int partSize;
+
+  // Parts of one multipart upload sent at the same time
+  @ConfigProperty(name = "app.minio.upload.concurrency", defaultValue = "4")
+  int uploadConcurrency;
+
+  @Inject
+  ObjectDiskCache objectCache;
+
+  @Inject
+  MeterRegistry registry;
+
   private MinioClient minioClient;
+  private PartUploadClient partUploadClient;
+  private SingleFlight<String, ObjectMetadata> stats;
 
   @PostConstruct
   public void init() {
+    stats = new SingleFlight<>("minio-stat", registry);
     try {
       minioClient =
           MinioClient.builder().endpoint(endpoint).credentials(accessKey, secretKey).build();
+      partUploadClient = new PartUploadClient(
+          MinioAsyncClient.builder().endpoint(endpoint).credentials(accessKey, secretKey).build());
 
       // Create bucket if it doesn't exist
       boolean bucketExists =
@@ -61,6 +99,7 @@ public class MinioService {
       ByteArrayInputStream bais = new ByteArrayInputStream(content);
       minioClient.putObject(PutObjectArgs.builder().bucket(bucketName).object(objectName)
           .stream(bais, content.length, -1).contentType(contentType).build());
+      invalidate(objectName);
       log.info("Uploaded file to MinIO: {}", objectName);
     } catch (Exception e) {
       log.error("Failed to upload file to MinIO: {}", objectName, e);
@@ -68,18 +107,104 @@ public class MinioService {
     }
   }
 
+  /**
+   * Upload a stream to MinIO without holding the whole content in memory.
+   *
+   * <p>
+   * Content larger than one part is sent as a multipart upload: parts are read from the stream one
+   * at a time into a small pool of reusable buffers and uploaded in parallel, so memory use is
+   * bounded by part size times upload concurrency whatever the object size.
+   *
+   * @param objectName the object name
+   * @param stream the content; not closed by this method
+   * @param size the content length, or -1 if unknown
+   * @param contentType the content type
+   */
+  public void uploadStream(String objectName, InputStream stream, long size, String contentType) {
+    try {
+      if (size >= 0 && size <= partSize) {
+        minioClient.putObject(PutObjectArgs.builder().bucket(bucketName).object(objectName)
+            .stream(stream, size, -1).contentType(contentType).build());
+      } else {
+        byte[] first = new byte[partSize];
+        int read = stream.readNBytes(first, 0, partSize);
+        if (read < partSize) {
+          // The whole content fits in one part, which includes an empty stream of unknown size
+          if (size >= 0) {
+            throw new IOException("Expected " + size + " bytes but the stream had " + read);
+          }
+          minioClient.putObject(PutObjectArgs.builder().bucket(bucketName).object(objectName)
+              .stream(new ByteArrayInputStream(first, 0, read), read, -1).contentType(contentType)
+              .build());
+        } else {
+          uploadParts(objectName, first, stream, size, contentType);
+        }
+      }
+      invalidate(objectName);
+      log.info("Uploaded stream to MinIO: {}", objectName);
+    } catch (Exception e) {
+      log.error("Failed to upload stream to MinIO: {}", objectName, e);
+      throw new RuntimeException("Failed to upload file", e);
+    }
+  }
+
   /**
    * Download a file from MinIO.
    */
   public InputStream downloadFile(String objectName) {
+    return downloadFile(objectName, 0, -1);
+  }
+
+  /**
+   * Download a byte range of a file from MinIO.
+   *
+   * @param objectName the object name
+   * @param offset position of the first byte to read
+   * @param length number of bytes to read, or -1 to read to the end of the object
+   * @return the content of the range; the caller must close it
+   */
+  public InputStream downloadFile(String objectName, long offset, long length) {
+    if (objectCache.isEnabled()) {
+      return downloadFile(statFile(objectName), offset, length);
+    }
+    return fetch(objectName, offset, length);
+  }
+
+  /**
+   * Download a byte range of a file whose metadata the caller already read. The range is served
+   * from the local disk cache when it holds this version of the object.
+   *
+   * @param metadata the current metadata of the object
+   * @param offset position of the first byte to read
+   * @param length number of bytes to read, or -1 to read to the end of the object
+   * @return the content of the range; the caller must close it
+   */
+  public InputStream downloadFile(ObjectMetadata metadata, long offset, long length) {
+    InputStream cached =
+        objectCache.open(metadata, offset, length, objectName -> fetch(objectName, 0, -1));
+    return cached != null ? cached : fetch(metadata.getName(), offset, length);
+  }
+
+  /**
+   * Get the metadata of a file in MinIO. Concurrent calls for the same object share one request.
+   *
+   * @throws NotFoundException if the object does not exist
+   */
+  public ObjectMetadata statFile(String objectName) {
+    return stats.load(objectName, this::stat);
+  }
+
+  private ObjectMetadata stat(String objectName) {
     try {
-      InputStream stream = minioClient
-          .getObject(GetObjectArgs.builder().bucket(bucketName).object(objectName).build());
-      log.info("Downloaded file from MinIO: {}", objectName);
-      return stream;
+      StatObjectResponse stat = minioClient
+          .statObject(StatObjectArgs.builder().bucket(bucketName).object(objectName).build());
+      return new ObjectMetadata(objectName, stat.size(), stat.etag(), stat.contentType(),
+          stat.lastModified() == null ? null : stat.lastModified().toInstant());
+    } catch (ErrorResponseException e) {
+      throw notFoundOr(objectName, e, "Failed to read file metadata");
     } catch (Exception e) {
-      log.error("Failed to download file from MinIO: {}", objectName, e);
-      throw new RuntimeException("Failed to download file", e);
+      log.error("Failed to read file metadata from MinIO: {}", objectName, e);
+      throw new RuntimeException("Failed to read file metadata", e);
     }
   }
 
@@ -90,10 +215,160 @@ public class MinioService {
     try {
       minioClient
           .removeObject(RemoveObjectArgs.builder().bucket(bucketName).object(objectName).build());
+      invalidate(objectName);
       log.info("Deleted file from MinIO: {}", objectName);
     } catch (Exception e) {
       log.error("Failed to delete file from MinIO: {}", objectName, e);
       throw new RuntimeException("Failed to delete file", e);
     }
   }
+
+  /**
+   * Upload the content as a multipart upload.
+   *
+   * @param first a full first part, already read from the stream
+   */
+  private void uploadParts(String objectName, byte[] first, InputStream stream, long size,
+      String contentType) throws Exception {
+    String uploadId = partUploadClient.createUpload(bucketName, objectName, contentType);
+    BlockingQueue<byte[]> buffers = new ArrayBlockingQueue<>(uploadConcurrency);
+    List<CompletableFuture<Part>> parts = new ArrayList<>();
+    // Fails with the first part that fails, so the rest of the stream is not read in vain
+    CompletableFuture<Void> failure = new CompletableFuture<>();
+    try {
+      byte[] buffer = first;
+      int read = partSize;
+      long total = 0;
+      for (int partNumber = 1;; partNumber++) {
+        total += read;
+        byte[] data = buffer;
+        parts.add(
+            partUploadClient.uploadPart(bucketName, objectName, uploadId, partNumber, data, read)
+                .whenComplete((part, error) -> {
+                  if (error != null) {
+                    failure.completeExceptionally(error);
+                  }
+                  buffers.offer(data);
+                }));
+        if (read < partSize) {
+          break;
+        }
+
+        // Once every buffer is in flight, wait for one to be released before reading on
+        buffer = buffers.poll();
+        if (buffer == null) {
+          buffer = parts.size() < uploadConcurrency ? new byte[partSize] : buffers.take();
+        }
+        if (failure.isCompletedExceptionally()) {
+          failure.join();
+        }
+        read = stream.readNBytes(buffer, 0, partSize);
+        if (read == 0) {
+          break;
+        }
+      }
+      if (size >= 0 && total != size) {
+        throw new IOException("Expected " + size + " bytes but the stream had " + total);
+      }
+
+      Part[] completed = new Part[parts.size()];
+      for (int i = 0; i < completed.length; i++) {
+        completed[i] = parts.get(i).join();
+      }
+      partUploadClient.completeUpload(bucketName, objectName, uploadId, completed);
+    } catch (Exception e) {
+      parts.forEach(part -> part.cancel(false));
+      partUploadClient.abortUpload(bucketName, objectName, uploadId);
+      if (e instanceof CompletionException && e.getCause() instanceof Exception) {
+        throw (Exception) e.getCause();
+      }
+      throw e;
+    }
+  }
+
+  // A stat that started before the object changed is not shared with later calls
+  private void invalidate(String objectName) {
+    stats.forget(objectName);
+    objectCache.invalidate(objectName);
+  }
+
+  private InputStream fetch(String objectName, long offset, long length) {
+    try {
+      GetObjectArgs.Builder args = GetObjectArgs.builder().bucket(bucketName).object(objectName);
+      if (offset > 0 || length >= 0) {
+        args.offset(offset);
+      }
+      if (length >= 0) {
+        args.length(length);
+      }
+      InputStream stream = minioClient.getObject(args.build());
+      log.debug("Downloading file from MinIO: {} (offset {}, length {})", objectName, offset,
+          length);
+      return stream;
+    } catch (ErrorResponseException e) {
+      throw notFoundOr(objectName, e, "Failed to download file");
+    } catch (Exception e) {
+      log.error("Failed to download file from MinIO: {}", objectName, e);
+      throw new RuntimeException("Failed to download file", e);
+    }
+  }
+
+  private RuntimeException notFoundOr(String objectName, ErrorResponseException e, String message) {
+    String code = e.errorResponse().code();
+    if ("NoSuchKey".equals(code) || "NoSuchObject".equals(code)) {
+      return new NotFoundException("Object not found: " + objectName);
+    }
+    log.error("{} from MinIO: {}", message, objectName, e);
+    return new RuntimeException(message, e);
+  }
+
+  /**
+   * Exposes the multipart upload calls the MinIO client keeps protected, so parts can be sent in
+   * parallel from buffers owned by the caller.
+   */
+  private static final class PartUploadClient extends MinioAsyncClient {
+
+    PartUploadClient(MinioAsyncClient client) {
+      super(client);
+    }
+
+    String createUpload(String bucket, String object, String contentType) throws Exception {
+      Multimap<String, String> headers = HashMultimap.create();
+      if (contentType != null) {
+        headers.put("Content-Type", contentType);
+      }
+      return createMultipartUploadAsync(bucket, null, object, headers, null).join().result()
+          .uploadId();
+    }
+
+    CompletableFuture<Part> uploadPart(String bucket, String object, String uploadId,
+        int partNumber, byte[] data, int length) throws Exception {
+      return uploadPartAsync(bucket, null, object, data, length, uploadId, partNumber, null, null)
+          .thenApply(response -> new Part(partNumber, response.etag()));
+    }
+
+    void completeUpload(String bucket, String object, String uploadId, Part[] parts)
+        throws Exception {
+      completeMultipartUploadAsync(bucket, null, object, uploadId, parts, null, null).join();
+    }
+
+    void abortUpload(String bucket, String object, String uploadId) {
+      try {
+        abortMultipartUploadAsync(bucket, null, object, uploadId, null, null).join();
+      } catch (Exception e) {
+        log.warn("Failed to abort multipart upload {} of {}", uploadId, object, e);
+      }
+    }
+
+    // Declared without the inherited "throws Exception", which javac flags as a resource that
+    // could throw InterruptedException
+    @Override
+    public void close() {
+      try {
+        super.close();
+      } catch (Exception e) {
+        log.warn("Failed to close the MinIO part upload client", e);
+      }
+    }
+  }
 }
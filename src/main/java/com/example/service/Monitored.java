@@ -0,0 +1,23 @@
+package com.example.service;
+
+import jakarta.interceptor.InterceptorBinding;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Records the duration and outcome of every call to the business methods of a bean, or of one
+ * method, in the {@code service.calls} timer. See {@link ServiceTimers} for the tags.
+ *
+ * <p>
+ * Methods returning a {@code CompletionStage} or {@code Uni} are timed until the result completes,
+ * not only until the method returns.
+ */
+@Inherited
+@InterceptorBinding
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Monitored {
+}
@@ -0,0 +1,46 @@
+package com.example.service;
+
+import io.smallrye.mutiny.Uni;
+import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
+import jakarta.interceptor.AroundInvoke;
+import jakarta.interceptor.Interceptor;
+import jakarta.interceptor.InvocationContext;
+import java.lang.reflect.Method;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Times calls to {@link Monitored} beans and methods into {@link ServiceTimers}.
+ */
+@Monitored
+@Interceptor
+@Priority(Interceptor.Priority.LIBRARY_BEFORE + 10)
+public class MonitoredInterceptor {
+
+  @Inject
+  ServiceTimers timers;
+
+  @AroundInvoke
+  Object time(InvocationContext context) throws Exception {
+    Method method = context.getMethod();
+    long start = System.nanoTime();
+    Object result;
+    try {
+      result = context.proceed();
+    } catch (Exception | Error e) {
+      timers.record(method, true, System.nanoTime() - start);
+      throw e;
+    }
+
+    if (result instanceof CompletionStage<?> stage) {
+      return stage.whenComplete(
+          (value, failure) -> timers.record(method, failure != null, System.nanoTime() - start));
+    }
+    if (result instanceof Uni<?> uni) {
+      return uni.onTermination().invoke((value, failure, cancelled) -> timers.record(method,
+          failure != null, System.nanoTime() - start));
+    }
+    timers.record(method, false, System.nanoTime() - start);
+    return result;
+  }
+}
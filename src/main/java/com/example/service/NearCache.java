@@ -0,0 +1,288 @@
+package com.example.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.redis.client.Command;
+import io.vertx.mutiny.redis.client.Redis;
+import io.vertx.mutiny.redis.client.RedisConnection;
+import io.vertx.mutiny.redis.client.Request;
+import io.vertx.mutiny.redis.client.Response;
+import io.vertx.redis.client.ResponseType;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import org.jboss.logging.Logger;
+
+/**
+ * Bounded in-process copy of Redis values, kept coherent with writes from every node.
+ *
+ * <p>
+ * A dedicated connection receives the keys written in Redis and evicts them here. With
+ * {@link Invalidation#TRACKING} (Redis 6 or later), that connection enables broadcast client
+ * tracking for the cached prefixes and subscribes to {@code __redis__:invalidate}. With
+ * {@link Invalidation#KEYSPACE}, it subscribes to the keyspace notifications of the cached prefixes
+ * instead, which requires {@code notify-keyspace-events} to include {@code K}, {@code g},
+ * {@code $}, {@code x} and {@code e} on the server.
+ *
+ * <p>
+ * Values are only served from memory while that connection is subscribed. When it drops, the cache
+ * is cleared and reads go to Redis until it has reconnected, since invalidations may have been
+ * missed in between. A read records a placeholder before asking Redis, and only caches the value if
+ * no invalidation removed the placeholder in the meantime, so that a value written while the read
+ * was in flight is not cached in its old state.
+ */
+final class NearCache implements AutoCloseable {
+
+  private static final Logger LOG = Logger.getLogger(NearCache.class);
+
+  static final String INVALIDATION_CHANNEL = "__redis__:invalidate";
+
+  /**
+   * How the cache learns about writes.
+   */
+  enum Invalidation {
+    TRACKING, KEYSPACE
+  }
+
+  /**
+   * What to cache and how, from {@code app.redis.near-cache.*}.
+   *
+   * @param invalidation how to learn about writes
+   * @param prefixes the key prefixes to cache; empty to cache every key
+   * @param maxSize the number of keys kept, evicted by Caffeine's size policy
+   * @param ttl how long a key is kept at most, in case an invalidation is lost
+   * @param reconnectDelay how long to wait before reconnecting after the connection dropped
+   */
+  record Settings(Invalidation invalidation, List<String> prefixes, long maxSize, Duration ttl,
+      Duration reconnectDelay) {
+
+    Settings {
+      prefixes = List.copyOf(prefixes);
+    }
+  }
+
+  /**
+   * A cached value, as a string or decoded by a codec; null when the key did not exist.
+   */
+  private record Value(Object value) {
+  }
+
+  /**
+   * Marks a key that is being read from Redis.
+   */
+  private static final class Pending {
+  }
+
+  private final Redis redis;
+  private final Invalidation invalidation;
+  private final List<String> prefixes;
+  private final int database;
+  private final Duration reconnectDelay;
+  private final Cache<String, Object> entries;
+  private final ConcurrentMap<String, Object> map;
+
+  private final AtomicBoolean reconnectScheduled = new AtomicBoolean();
+  private volatile RedisConnection connection;
+  private volatile boolean subscribed;
+  private volatile boolean closed;
+
+  /**
+   * @param redis the client to open the invalidation connection with
+   * @param settings what to cache and how
+   * @param database the database of the keyspace notifications
+   */
+  NearCache(Redis redis, Settings settings, int database, MeterRegistry registry) {
+    this.redis = redis;
+    this.invalidation = settings.invalidation();
+    this.prefixes = settings.prefixes();
+    this.database = database;
+    this.reconnectDelay = settings.reconnectDelay();
+    this.entries =
+        CaffeineCacheMetrics.monitor(registry, Caffeine.newBuilder().maximumSize(settings.maxSize())
+            .expireAfterWrite(settings.ttl()).recordStats().build(), "redis-near");
+    this.map = entries.asMap();
+  }
+
+  /**
+   * Open the invalidation connection in the background.
+   */
+  void start() {
+    connect();
+  }
+
+  /**
+   * Whether reads of a key go through this cache.
+   */
+  boolean covers(String key) {
+    if (prefixes.isEmpty()) {
+      return true;
+    }
+    for (String prefix : prefixes) {
+      if (key.startsWith(prefix)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Whether values are currently served from memory.
+   */
+  boolean isActive() {
+    return subscribed;
+  }
+
+  /**
+   * Get a value from memory, or through the loader when it is not cached or the cache is not
+   * active. A key must always be read with loaders of the same type.
+   */
+  @SuppressWarnings("unchecked")
+  <V> V get(String key, Function<String, V> loader) {
+    if (!subscribed) {
+      return loader.apply(key);
+    }
+    Object cached = entries.getIfPresent(key);
+    if (cached instanceof Value value) {
+      return (V) value.value();
+    }
+    // Another read of the same key in flight keeps its placeholder; this one is not cached
+    Pending pending = new Pending();
+    boolean tracked = cached == null && map.putIfAbsent(key, pending) == null;
+    V loaded;
+    try {
+      loaded = loader.apply(key);
+    } catch (RuntimeException e) {
+      if (tracked) {
+        map.remove(key, pending);
+      }
+      throw e;
+    }
+    if (tracked) {
+      map.replace(key, pending, new Value(loaded));
+    }
+    return loaded;
+  }
+
+  /**
+   * Drop a key, such as after writing it from this node.
+   */
+  void invalidate(String key) {
+    entries.invalidate(key);
+  }
+
+  @Override
+  public void close() {
+    closed = true;
+    subscribed = false;
+    RedisConnection current = connection;
+    if (current != null) {
+      current.closeAndForget();
+    }
+    entries.invalidateAll();
+  }
+
+  private void connect() {
+    if (closed) {
+      return;
+    }
+    redis.connect().call(opened -> {
+      connection = opened;
+      opened.handler(this::onMessage);
+      opened.exceptionHandler(error -> onDisconnect(opened, error));
+      opened.endHandler(() -> onDisconnect(opened, null));
+      return subscribe(opened);
+    }).subscribe().with(opened -> {
+      if (closed) {
+        opened.closeAndForget();
+        return;
+      }
+      // Anything cached before this point may have missed invalidations
+      entries.invalidateAll();
+      subscribed = true;
+      LOG.infof("Near cache subscribed to %s invalidations", invalidation);
+    }, error -> {
+      RedisConnection opened = connection;
+      connection = null;
+      if (opened != null) {
+        opened.closeAndForget();
+      }
+      LOG.warnf("Near cache cannot subscribe to invalidations, retrying in %s: %s", reconnectDelay,
+          error.getMessage());
+      reconnectLater();
+    });
+  }
+
+  private Uni<Void> subscribe(RedisConnection opened) {
+    if (invalidation == Invalidation.KEYSPACE) {
+      Request psubscribe = Request.cmd(Command.PSUBSCRIBE);
+      if (prefixes.isEmpty()) {
+        psubscribe.arg(keyspaceChannel("*"));
+      } else {
+        prefixes.forEach(prefix -> psubscribe.arg(keyspaceChannel(prefix + "*")));
+      }
+      return opened.send(psubscribe).replaceWithVoid();
+    }
+    return opened.send(Request.cmd(Command.CLIENT).arg("ID")).chain(id -> {
+      Request tracking = Request.cmd(Command.CLIENT).arg("TRACKING").arg("ON").arg("REDIRECT")
+          .arg(id.toLong()).arg("BCAST");
+      prefixes.forEach(prefix -> tracking.arg("PREFIX").arg(prefix));
+      return opened.send(tracking);
+    }).chain(() -> opened.send(Request.cmd(Command.SUBSCRIBE).arg(INVALIDATION_CHANNEL)))
+        .replaceWithVoid();
+  }
+
+  private String keyspaceChannel(String pattern) {
+    return "__keyspace@" + database + "__:" + pattern;
+  }
+
+  /**
+   * Handle a pub/sub message: {@code message __redis__:invalidate [keys]} for tracking, where no
+   * keys means the database was flushed, or {@code pmessage pattern __keyspace@N__:key event}.
+   */
+  private void onMessage(Response message) {
+    if (message == null || message.size() < 3) {
+      return;
+    }
+    String kind = message.get(0).toString();
+    if (kind.equals("message") && message.get(1).toString().equals(INVALIDATION_CHANNEL)) {
+      Response keys = message.get(2);
+      if (keys == null || keys.type() != ResponseType.MULTI) {
+        entries.invalidateAll();
+      } else {
+        for (Response key : keys) {
+          entries.invalidate(key.toString());
+        }
+      }
+    } else if (kind.equals("pmessage") && message.size() >= 4) {
+      String channel = message.get(2).toString();
+      entries.invalidate(channel.substring(channel.indexOf("__:") + 3));
+    }
+  }
+
+  private void onDisconnect(RedisConnection dropped, Throwable error) {
+    if (connection != dropped || closed) {
+      return;
+    }
+    connection = null;
+    subscribed = false;
+    entries.invalidateAll();
+    LOG.warnf("Near cache lost its invalidation connection, reconnecting in %s%s", reconnectDelay,
+        error == null ? "" : ": " + error.getMessage());
+    reconnectLater();
+  }
+
+  private void reconnectLater() {
+    if (closed || !reconnectScheduled.compareAndSet(false, true)) {
+      return;
+    }
+    Uni.createFrom().voidItem().onItem().delayIt().by(reconnectDelay).subscribe().with(ignored -> {
+      reconnectScheduled.set(false);
+      connect();
+    });
+  }
+}
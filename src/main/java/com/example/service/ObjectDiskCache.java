@@ -0,0 +1,394 @@
+package com.example.service;
+
+import com.example.dto.ObjectMetadata;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.util.internal.PlatformDependent;
+import io.quarkus.virtual.threads.VirtualThreads;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Size-bounded cache of MinIO objects on local disk.
+ *
+ * <p>
+ * An object is copied to a file the first time it is read and served from a memory-mapped view of
+ * that file afterwards, for as long as its ETag is unchanged. Concurrent first reads of an object
+ * wait for a single copy. A range read is not worth waiting for a copy of the whole object: on a
+ * miss it is served from MinIO while the object is copied in the background. Files are evicted once
+ * the cache outgrows {@code max-size}, least recently and least frequently used first; the mapping
+ * of an evicted file is released as soon as its last reader is closed. The index lives in memory
+ * only, so the directory is emptied at startup.
+ */
+@ApplicationScoped
+public class ObjectDiskCache {
+
+  private static final Logger LOG = Logger.getLogger(ObjectDiskCache.class);
+
+  private static final String REQUESTS_METRIC = "minio.cache.requests";
+
+  @Inject
+  MeterRegistry registry;
+
+  // Copies objects into the cache after a range read missed
+  @Inject
+  @VirtualThreads
+  ExecutorService fillExecutor;
+
+  @ConfigProperty(name = "app.minio.cache.enabled", defaultValue = "false")
+  boolean enabled;
+
+  // Directory holding the cached files; a temporary directory when not set
+  @ConfigProperty(name = "app.minio.cache.directory")
+  Optional<Path> directory;
+
+  // Total bytes of cached objects kept on disk
+  @ConfigProperty(name = "app.minio.cache.max-size", defaultValue = "1073741824")
+  long maxSize;
+
+  // Larger objects are always read from MinIO; at most 2 GiB, the limit of a single mapping
+  @ConfigProperty(name = "app.minio.cache.max-object-size", defaultValue = "67108864")
+  long maxObjectSize;
+
+  private Path root;
+  private AsyncCache<String, CachedObject> index;
+  private Counter hits;
+  private Counter misses;
+  private Counter servedBytes;
+  private final AtomicLong mappedBytes = new AtomicLong();
+
+  @PostConstruct
+  void init() {
+    if (!enabled) {
+      return;
+    }
+    try {
+      root = directory.isPresent() ? Files.createDirectories(directory.get())
+          : Files.createTempDirectory("minio-cache");
+      try (Stream<Path> leftovers = Files.list(root)) {
+        leftovers.forEach(ObjectDiskCache::deleteQuietly);
+      }
+    } catch (IOException e) {
+      LOG.errorf(e, "Object cache disabled: cannot use directory %s", directory.orElse(null));
+      enabled = false;
+      return;
+    }
+    maxObjectSize = Math.min(maxObjectSize, Integer.MAX_VALUE);
+    // Deleting a file is cheap, so evict on the calling thread and keep the disk usage exact
+    index = Caffeine.newBuilder().maximumWeight(maxSize).executor(Runnable::run)
+        .<String, CachedObject>weigher((name, cached) -> (int) cached.size())
+        .removalListener((name, cached, cause) -> {
+          if (cached != null) {
+            cached.evict();
+          }
+        }).buildAsync();
+
+    hits = Counter.builder(REQUESTS_METRIC).tag("result", "hit").register(registry);
+    misses = Counter.builder(REQUESTS_METRIC).tag("result", "miss").register(registry);
+    servedBytes = Counter.builder("minio.cache.served").baseUnit("bytes")
+        .description("Bytes served from the local object cache instead of MinIO")
+        .register(registry);
+    Gauge.builder("minio.cache.hit.ratio", this, ObjectDiskCache::hitRatio)
+        .description("Share of cacheable reads served from the local object cache")
+        .register(registry);
+    Gauge.builder("minio.cache.size", this, ObjectDiskCache::weightedSize).baseUnit("bytes")
+        .description("Bytes of objects held in the local object cache").register(registry);
+    Gauge.builder("minio.cache.mapped", mappedBytes, AtomicLong::get).baseUnit("bytes")
+        .description("Bytes of cached files mapped into memory, including evicted files still read")
+        .register(registry);
+    LOG.infof("Caching up to %d bytes of MinIO objects in %s", maxSize, root);
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Open a byte range of an object from the cache. If the cache does not hold this version of the
+   * object, the object is copied into the cache first when the whole object is read, and in the
+   * background when only a range is.
+   *
+   * @param metadata the current metadata of the object
+   * @param offset position of the first byte to read
+   * @param length number of bytes to read, or -1 to read to the end of the object
+   * @param fetch opens the whole object in MinIO
+   * @return the content of the range, or null if the object cannot be cached and must be read from
+   *         MinIO
+   */
+  public InputStream open(ObjectMetadata metadata, long offset, long length,
+      Function<String, InputStream> fetch) {
+    if (!enabled || metadata.getSize() > maxObjectSize) {
+      return null;
+    }
+    boolean range = offset > 0 || (length >= 0 && length < metadata.getSize());
+    String name = metadata.getName();
+    CompletableFuture<CachedObject> pending = new CompletableFuture<>();
+    CompletableFuture<CachedObject> current = index.asMap().putIfAbsent(name, pending);
+    if (current != null) {
+      if (range && !current.isDone()) {
+        misses.increment();
+        return null;
+      }
+      CachedObject cached = await(current);
+      if (cached != null && cached.etag().equals(metadata.getEtag())) {
+        MappedInputStream content = cached.open(offset, length);
+        if (content != null) {
+          hits.increment();
+          servedBytes.increment(content.remaining());
+          return content;
+        }
+      }
+      // Stale, failed or evicted in the meantime: load this version in its place
+      if (!index.asMap().replace(name, current, pending)) {
+        misses.increment();
+        return null;
+      }
+    }
+    misses.increment();
+    if (range) {
+      fill(metadata, fetch, pending);
+      return null;
+    }
+    CachedObject cached = copy(metadata, fetch, pending);
+    if (cached == null) {
+      return null;
+    }
+    // Opened before the copy becomes visible, so it stays readable even if evicted right away
+    MappedInputStream content = cached.open(offset, length);
+    pending.complete(cached);
+    return content;
+  }
+
+  /**
+   * Drop an object from the cache, after it was overwritten or deleted.
+   */
+  public void invalidate(String objectName) {
+    if (enabled) {
+      index.synchronous().invalidate(objectName);
+    }
+  }
+
+  private void fill(ObjectMetadata metadata, Function<String, InputStream> fetch,
+      CompletableFuture<CachedObject> pending) {
+    try {
+      fillExecutor.execute(() -> {
+        CachedObject cached = copy(metadata, fetch, pending);
+        if (cached != null) {
+          pending.complete(cached);
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      index.asMap().remove(metadata.getName(), pending);
+      pending.completeExceptionally(e);
+    }
+  }
+
+  /**
+   * Copy an object into a file of the cache and map it, or return null if that failed. The caller
+   * makes the copy visible by completing the pending entry.
+   */
+  private CachedObject copy(ObjectMetadata metadata, Function<String, InputStream> fetch,
+      CompletableFuture<CachedObject> pending) {
+    Path file = null;
+    try {
+      file = Files.createTempFile(root, "object", "");
+      try (InputStream in = fetch.apply(metadata.getName())) {
+        Files.copy(in, file, StandardCopyOption.REPLACE_EXISTING);
+      }
+      return new CachedObject(metadata.getEtag(), file);
+    } catch (IOException | RuntimeException e) {
+      LOG.warnf("Could not cache object %s: %s", metadata.getName(), e.getMessage());
+      index.asMap().remove(metadata.getName(), pending);
+      pending.completeExceptionally(e);
+      if (file != null) {
+        deleteQuietly(file);
+      }
+      return null;
+    }
+  }
+
+  private static CachedObject await(CompletableFuture<CachedObject> future) {
+    try {
+      return future.join();
+    } catch (CompletionException | CancellationException e) {
+      return null;
+    }
+  }
+
+  private double hitRatio() {
+    double total = hits.count() + misses.count();
+    return total == 0 ? 0 : hits.count() / total;
+  }
+
+  private double weightedSize() {
+    return index.synchronous().policy().eviction().map(e -> e.weightedSize().orElse(0)).orElse(0L);
+  }
+
+  private static void deleteQuietly(Path file) {
+    try {
+      Files.deleteIfExists(file);
+    } catch (IOException e) {
+      LOG.warnf("Could not delete cached object file %s: %s", file, e.getMessage());
+    }
+  }
+
+  /**
+   * A cached version of an object, mapped once and shared by its readers. The mapping is released
+   * once the entry is evicted and every reader is closed, instead of whenever it is collected.
+   */
+  private final class CachedObject {
+
+    private final String etag;
+    private final Path file;
+    private final MappedByteBuffer mapping;
+    // One held by the cache until eviction, and one by each open reader
+    private final AtomicInteger references = new AtomicInteger(1);
+
+    CachedObject(String etag, Path file) throws IOException {
+      this.etag = etag;
+      this.file = file;
+      try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+        mapping = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      }
+      mappedBytes.addAndGet(mapping.capacity());
+    }
+
+    String etag() {
+      return etag;
+    }
+
+    long size() {
+      return mapping.capacity();
+    }
+
+    /**
+     * Open a range of the mapping, or return null if it was released in the meantime.
+     */
+    MappedInputStream open(long offset, long length) {
+      int current;
+      do {
+        current = references.get();
+        if (current == 0) {
+          return null;
+        }
+      } while (!references.compareAndSet(current, current + 1));
+      int start = (int) Math.min(offset, size());
+      int count = (int) (length < 0 ? size() - start : Math.min(length, size() - start));
+      return new MappedInputStream(mapping.slice(start, count), this::release);
+    }
+
+    void evict() {
+      deleteQuietly(file);
+      release();
+    }
+
+    private void release() {
+      if (references.decrementAndGet() == 0) {
+        mappedBytes.addAndGet(-mapping.capacity());
+        PlatformDependent.freeDirectBuffer(mapping);
+      }
+    }
+  }
+
+  /**
+   * Stream over a memory-mapped file range. It is also a channel, so the range can be copied into
+   * direct buffers without an intermediate heap array.
+   */
+  private static final class MappedInputStream extends InputStream implements ReadableByteChannel {
+
+    private static final ByteBuffer CLOSED = ByteBuffer.allocate(0);
+
+    // Swapped for an empty buffer on close, as the mapping may be released right after
+    private ByteBuffer buffer;
+    private Runnable release;
+
+    MappedInputStream(ByteBuffer buffer, Runnable release) {
+      this.buffer = buffer;
+      this.release = release;
+    }
+
+    int remaining() {
+      return buffer.remaining();
+    }
+
+    @Override
+    public int read() {
+      return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+      if (!buffer.hasRemaining()) {
+        return len == 0 ? 0 : -1;
+      }
+      int count = Math.min(len, buffer.remaining());
+      buffer.get(b, off, count);
+      return count;
+    }
+
+    @Override
+    public int read(ByteBuffer target) {
+      if (!buffer.hasRemaining()) {
+        return -1;
+      }
+      int count = Math.min(target.remaining(), buffer.remaining());
+      target.put(target.position(), buffer, buffer.position(), count);
+      target.position(target.position() + count);
+      buffer.position(buffer.position() + count);
+      return count;
+    }
+
+    @Override
+    public long skip(long n) {
+      int count = (int) Math.max(0, Math.min(n, buffer.remaining()));
+      buffer.position(buffer.position() + count);
+      return count;
+    }
+
+    @Override
+    public int available() {
+      return buffer.remaining();
+    }
+
+    @Override
+    public boolean isOpen() {
+      return release != null;
+    }
+
+    @Override
+    public void close() {
+      if (release != null) {
+        buffer = CLOSED;
+        release.run();
+        release = null;
+      }
+    }
+  }
+}
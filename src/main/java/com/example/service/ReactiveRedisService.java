@@ -0,0 +1,175 @@
+package com.example.service;
+
+import io.quarkus.redis.datasource.ReactiveRedisDataSource;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.redis.client.Command;
+import io.vertx.mutiny.redis.client.Request;
+import io.vertx.mutiny.redis.client.Response;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Non-blocking Redis cache operations, including multi-key reads and writes.
+ *
+ * <p>
+ * Multi-key operations are sent as pipelines of at most {@code app.redis.batch.max-size} commands,
+ * so a fan-out over many keys costs a few round trips instead of one per key. At most
+ * {@code app.redis.batch.max-in-flight} pipelines of one operation are sent at a time, so that a
+ * large operation does not overflow the client's connection pool wait queue
+ * ({@code quarkus.redis.max-pool-waiting}). When {@code app.redis.batch.window} is above zero,
+ * single-key commands are also coalesced with those other callers send within that window (see
+ * {@link RedisBatcher}).
+ */
+@ApplicationScoped
+@Monitored
+public class ReactiveRedisService {
+
+  @Inject
+  ReactiveRedisDataSource dataSource;
+
+  // How long single-key commands wait for others to share a pipeline with; 0 sends them alone
+  @ConfigProperty(name = "app.redis.batch.window", defaultValue = "0s")
+  Duration batchWindow;
+
+  // Commands per pipeline, for coalesced commands and multi-key operations alike
+  @ConfigProperty(name = "app.redis.batch.max-size", defaultValue = "256")
+  int batchMaxSize;
+
+  // Pipelines of one multi-key operation sent at the same time
+  @ConfigProperty(name = "app.redis.batch.max-in-flight", defaultValue = "4")
+  int batchMaxInFlight;
+
+  private RedisBatcher batcher;
+
+  @PostConstruct
+  void init() {
+    if (!batchWindow.isZero()) {
+      batcher = new RedisBatcher(this::pipeline, batchWindow, batchMaxSize);
+    }
+  }
+
+  @PreDestroy
+  void shutdown() {
+    if (batcher != null) {
+      batcher.close();
+    }
+  }
+
+  /**
+   * Store a value with expiration.
+   */
+  public Uni<Void> set(String key, String value, Duration ttl) {
+    return send(setRequest(key, value, ttl)).replaceWithVoid();
+  }
+
+  /**
+   * Retrieve a value, or null when the key does not exist.
+   */
+  public Uni<String> get(String key) {
+    return send(Request.cmd(Command.GET).arg(key)).map(ReactiveRedisService::string);
+  }
+
+  /**
+   * Delete a key.
+   */
+  public Uni<Void> delete(String key) {
+    return send(Request.cmd(Command.DEL).arg(key)).replaceWithVoid();
+  }
+
+  /**
+   * Check if a key exists without transferring its value.
+   */
+  public Uni<Boolean> exists(String key) {
+    return send(Request.cmd(Command.EXISTS).arg(key)).map(response -> response.toLong() > 0);
+  }
+
+  /**
+   * Retrieve the values of many keys.
+   *
+   * @return the values by key, without the keys that do not exist
+   */
+  public Uni<Map<String, String>> getAll(Collection<String> keys) {
+    if (keys.isEmpty()) {
+      return Uni.createFrom().item(Map.of());
+    }
+    // One MGET per chunk of keys, the chunks pipelined together
+    List<String> ordered = List.copyOf(keys);
+    List<Request> requests = new ArrayList<>();
+    for (int from = 0; from < ordered.size(); from += batchMaxSize) {
+      Request mget = Request.cmd(Command.MGET);
+      ordered.subList(from, Math.min(from + batchMaxSize, ordered.size())).forEach(mget::arg);
+      requests.add(mget);
+    }
+    return pipeline(requests).map(responses -> {
+      Map<String, String> values = new HashMap<>();
+      Iterator<String> key = ordered.iterator();
+      for (Response chunk : responses) {
+        for (Response value : chunk) {
+          String next = key.next();
+          if (value != null) {
+            values.put(next, value.toString());
+          }
+        }
+      }
+      return values;
+    });
+  }
+
+  /**
+   * Store many values with the same expiration. The writes are pipelined but not atomic: after a
+   * failure, some of the values may have been stored.
+   */
+  public Uni<Void> setAll(Map<String, String> values, Duration ttl) {
+    if (values.isEmpty()) {
+      return Uni.createFrom().voidItem();
+    }
+    List<Request> requests = new ArrayList<>(values.size());
+    values.forEach((key, value) -> requests.add(setRequest(key, value, ttl)));
+    return pipeline(requests).replaceWithVoid();
+  }
+
+  private Uni<Response> send(Request request) {
+    return batcher != null ? batcher.send(request) : dataSource.getRedis().send(request);
+  }
+
+  /**
+   * Send commands as pipelines of at most the batch size, a limited number of them at a time.
+   */
+  private Uni<List<Response>> pipeline(List<Request> requests) {
+    if (requests.size() <= batchMaxSize) {
+      return dataSource.getRedis().batch(requests);
+    }
+    int chunks = (requests.size() + batchMaxSize - 1) / batchMaxSize;
+    return Multi.createFrom().range(0, chunks).onItem().transformToUni(chunk -> {
+      int from = chunk * batchMaxSize;
+      List<Request> slice = requests.subList(from, Math.min(from + batchMaxSize, requests.size()));
+      return dataSource.getRedis().batch(slice).map(responses -> Map.entry(chunk, responses));
+    }).merge(batchMaxInFlight).collect().asList().map(results -> {
+      // Chunks complete in any order
+      results.sort(Comparator.comparing(Map.Entry::getKey));
+      List<Response> responses = new ArrayList<>(requests.size());
+      results.forEach(result -> responses.addAll(result.getValue()));
+      return responses;
+    });
+  }
+
+  private static Request setRequest(String key, String value, Duration ttl) {
+    return Request.cmd(Command.SET).arg(key).arg(value).arg("PX").arg(ttl.toMillis());
+  }
+
+  private static String string(Response response) {
+    return response == null ? null : response.toString();
+  }
+}
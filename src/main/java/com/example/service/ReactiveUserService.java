@@ -0,0 +1,177 @@
+package com.example.service;
+
+import com.example.dto.UserPage;
+import com.example.dto.UserRequest;
+import com.example.dto.UserResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.arc.Arc;
+import io.quarkus.arc.ManagedContext;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.ServiceUnavailableException;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Non-blocking facade over {@link UserService} for the {@code /api/v2/users} resource.
+ *
+ * <p>
+ * The data layer stays on JDBC, so every call runs on a dedicated pool sized like the connection
+ * pool instead of on the shared worker pool, and callers on the event loop never block. When the
+ * database is slow, only this pool and its bounded queue fill up: further calls fail fast with 503
+ * while every other endpoint keeps its worker threads.
+ */
+@ApplicationScoped
+public class ReactiveUserService {
+
+  private static final Logger LOG = Logger.getLogger(ReactiveUserService.class);
+
+  // Seconds a client is asked to wait before retrying a rejected call
+  private static final long RETRY_AFTER_SECONDS = 1;
+
+  @Inject
+  UserService userService;
+
+  @Inject
+  MeterRegistry registry;
+
+  // Concurrent database calls; more than the connection pool only adds waiting threads
+  @ConfigProperty(name = "app.users.reactive.pool-size", defaultValue = "16")
+  int poolSize;
+
+  // Calls waiting for a thread before new calls are rejected
+  @ConfigProperty(name = "app.users.reactive.max-queued", defaultValue = "1000")
+  int maxQueued;
+
+  @ConfigProperty(name = "app.users.stream.fetch-size", defaultValue = "500")
+  int streamFetchSize;
+
+  private ThreadPoolExecutor executor;
+  private Counter rejected;
+
+  @PostConstruct
+  void init() {
+    AtomicInteger threads = new AtomicInteger();
+    ThreadFactory factory = task -> {
+      Thread thread = new Thread(task, "users-db-" + threads.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    };
+    executor = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+        new ArrayBlockingQueue<>(maxQueued), factory, new ThreadPoolExecutor.AbortPolicy());
+    executor.allowCoreThreadTimeOut(true);
+
+    rejected = Counter.builder("users.reactive.rejected")
+        .description("User calls rejected because the database pool queue was full")
+        .register(registry);
+    Gauge.builder("users.reactive.queued", executor, e -> e.getQueue().size())
+        .description("User calls waiting for a database thread").register(registry);
+    LOG.infof("Running reactive user calls on %d threads with up to %d queued", poolSize,
+        maxQueued);
+  }
+
+  @PreDestroy
+  void shutdown() {
+    executor.shutdown();
+  }
+
+  /**
+   * Get one keyset page of users ordered by ID.
+   *
+   * @see UserService#getUsersPage(String, Integer)
+   */
+  public Uni<UserPage> getUsersPage(String cursor, Integer size) {
+    return offload(() -> userService.getUsersPage(cursor, size));
+  }
+
+  /**
+   * Stream all users ordered by ID. Users are read one keyset page at a time, and the next page is
+   * only read once the subscriber requested more, so memory use does not depend on the number of
+   * users and a slow client does not hold a database connection.
+   *
+   * @return the users
+   */
+  public Multi<UserResponse> streamUsers() {
+    return Multi.createBy().repeating()
+        .uni(() -> new AtomicReference<String>(),
+            cursor -> getUsersPage(cursor.get(), streamFetchSize)
+                .invoke(page -> cursor.set(page.getNext())))
+        .whilst(UserPage::hasNext).onItem().transformToIterable(UserPage::getItems);
+  }
+
+  /**
+   * Get user by ID.
+   *
+   * @see UserService#getUserById(Long)
+   */
+  public Uni<UserResponse> getUserById(Long id) {
+    return offload(() -> userService.getUserById(id));
+  }
+
+  /**
+   * Create a new user.
+   *
+   * @see UserService#createUser(UserRequest)
+   */
+  public Uni<UserResponse> createUser(UserRequest request) {
+    return offload(() -> userService.createUser(request));
+  }
+
+  /**
+   * Update an existing user.
+   *
+   * @see UserService#updateUser(Long, UserRequest)
+   */
+  public Uni<UserResponse> updateUser(Long id, UserRequest request) {
+    return offload(() -> userService.updateUser(id, request));
+  }
+
+  /**
+   * Delete a user.
+   *
+   * @see UserService#deleteUser(Long)
+   */
+  public Uni<Void> deleteUser(Long id) {
+    return offload(() -> {
+      userService.deleteUser(id);
+      return null;
+    });
+  }
+
+  /**
+   * Run a blocking call on the database pool. The call gets its own request context, which the
+   * persistence layer needs outside a transaction.
+   *
+   * @throws ServiceUnavailableException through the returned Uni if the pool queue is full
+   */
+  private <T> Uni<T> offload(Supplier<T> call) {
+    return Uni.createFrom().item(() -> {
+      ManagedContext requestContext = Arc.container().requestContext();
+      requestContext.activate();
+      try {
+        return call.get();
+      } finally {
+        requestContext.terminate();
+      }
+    }).runSubscriptionOn(executor).onFailure(RejectedExecutionException.class).transform(e -> {
+      rejected.increment();
+      return new ServiceUnavailableException("User store is busy, please retry later",
+          RETRY_AFTER_SECONDS);
+    });
+  }
+}
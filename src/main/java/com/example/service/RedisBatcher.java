@@ -0,0 +1,116 @@
+package com.example.service;
+
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.redis.client.Request;
+import io.vertx.mutiny.redis.client.Response;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Coalesces single Redis commands sent within a short window into one pipeline.
+ *
+ * <p>
+ * The first command of a batch starts the window; every command sent until it closes, or until the
+ * batch reaches its maximum size, goes out in the same pipeline and costs one round trip together.
+ * This pays off when many callers send commands at once and adds up to one window of latency to a
+ * command sent alone. Redis fails a pipeline as a whole, so an error fails every command of its
+ * batch.
+ */
+final class RedisBatcher implements AutoCloseable {
+
+  /**
+   * A command waiting for its batch to be sent.
+   */
+  private record Pending(Request request, CompletableFuture<Response> response) {
+  }
+
+  private final Function<List<Request>, Uni<List<Response>>> pipeline;
+  private final long windowNanos;
+  private final int maxSize;
+  private final ScheduledExecutorService timer;
+
+  private final Object lock = new Object();
+  private List<Pending> batch;
+
+  /**
+   * @param pipeline sends a list of commands as one pipeline
+   * @param window how long to collect commands after the first one
+   * @param maxSize commands after which a batch is sent without waiting for the window
+   */
+  RedisBatcher(Function<List<Request>, Uni<List<Response>>> pipeline, Duration window,
+      int maxSize) {
+    this.pipeline = pipeline;
+    this.windowNanos = window.toNanos();
+    this.maxSize = maxSize;
+    this.batch = new ArrayList<>(maxSize);
+    this.timer = Executors.newSingleThreadScheduledExecutor(task -> {
+      Thread thread = new Thread(task, "redis-batcher");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  /**
+   * Send a command with the next batch once the returned Uni is subscribed.
+   */
+  Uni<Response> send(Request request) {
+    return Uni.createFrom().completionStage(() -> enqueue(request));
+  }
+
+  private CompletableFuture<Response> enqueue(Request request) {
+    CompletableFuture<Response> response = new CompletableFuture<>();
+    List<Pending> full = null;
+    boolean first;
+    synchronized (lock) {
+      batch.add(new Pending(request, response));
+      first = batch.size() == 1;
+      if (batch.size() >= maxSize) {
+        full = batch;
+        batch = new ArrayList<>(maxSize);
+      }
+    }
+    if (full != null) {
+      flush(full);
+    } else if (first) {
+      // A batch sent early because it filled up makes this timer close the next one sooner
+      timer.schedule(this::flushWindow, windowNanos, TimeUnit.NANOSECONDS);
+    }
+    return response;
+  }
+
+  private void flushWindow() {
+    List<Pending> closed;
+    synchronized (lock) {
+      if (batch.isEmpty()) {
+        return;
+      }
+      closed = batch;
+      batch = new ArrayList<>(maxSize);
+    }
+    flush(closed);
+  }
+
+  private void flush(List<Pending> closed) {
+    List<Request> requests = new ArrayList<>(closed.size());
+    for (Pending pending : closed) {
+      requests.add(pending.request());
+    }
+    Uni.createFrom().deferred(() -> pipeline.apply(requests)).subscribe().with(responses -> {
+      for (int i = 0; i < closed.size(); i++) {
+        closed.get(i).response().complete(responses.get(i));
+      }
+    }, failure -> closed.forEach(pending -> pending.response().completeExceptionally(failure)));
+  }
+
+  @Override
+  public void close() {
+    timer.shutdown();
+    flushWindow();
+  }
+}
@@ -0,0 +1,67 @@
+package com.example.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Converts values stored in Redis through
+ * {@link RedisService#set(String, Object, RedisCodec, Duration)} to and from bytes.
+ *
+ * <p>
+ * Decoding fails with an {@link IllegalArgumentException} when the bytes were not written by the
+ * same codec.
+ *
+ * @param <T> the type of the values
+ */
+public interface RedisCodec<T> {
+
+  /**
+   * Compression applied by {@link #compressed}.
+   */
+  enum Compression {
+    NONE, LZ4, ZSTD
+  }
+
+  byte[] encode(T value);
+
+  T decode(byte[] bytes);
+
+  /**
+   * This codec with values of at least {@code threshold} encoded bytes compressed. Whatever the
+   * compression, the result reads values written with any other, so it can be changed without
+   * flushing Redis.
+   */
+  default RedisCodec<T> compressed(Compression compression, int threshold) {
+    return new CompressingCodec<>(this, compression, threshold);
+  }
+
+  /**
+   * Values as JSON, for types without a binary codec of their own.
+   */
+  static <T> RedisCodec<T> json(ObjectMapper objectMapper, Class<T> type) {
+    ObjectWriter writer = objectMapper.writerFor(type);
+    ObjectReader reader = objectMapper.readerFor(type);
+    return new RedisCodec<>() {
+      @Override
+      public byte[] encode(T value) {
+        try {
+          return writer.writeValueAsBytes(value);
+        } catch (IOException e) {
+          throw new IllegalArgumentException("Cannot encode " + type.getSimpleName(), e);
+        }
+      }
+
+      @Override
+      public T decode(byte[] bytes) {
+        try {
+          return reader.readValue(bytes);
+        } catch (IOException e) {
+          throw new IllegalArgumentException("Cannot decode " + type.getSimpleName(), e);
+        }
+      }
+    };
+  }
+}
@@ -1,37 +1,125 @@
 package com.example.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.redis.datasource.ReactiveRedisDataSource;
 import io.quarkus.redis.datasource.RedisDataSource;
+import io.quarkus.redis.datasource.keys.KeyCommands;
+import io.quarkus.redis.datasource.pubsub.PubSubCommands;
+import io.quarkus.redis.datasource.value.SetArgs;
 import io.quarkus.redis.datasource.value.ValueCommands;
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.redis.client.Response;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import lombok.extern.slf4j.Slf4j;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Duration;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * Service for Redis cache operations.
+ *
+ * <p>
+ * Each single-key call is one blocking round trip. Use {@link #getAll} and {@link #setAll} to read
+ * or write many keys at once, or {@link ReactiveRedisService} to avoid blocking.
+ *
+ * <p>
+ * With {@code app.redis.near-cache.enabled}, {@link #get} serves the keys under
+ * {@code app.redis.near-cache.prefixes} from a bounded in-process copy that writes from any node
+ * invalidate (see {@link NearCache}).
+ *
+ * <p>
+ * Objects are stored through a {@link RedisCodec}, such as {@link UserResponseCodec}, instead of
+ * being serialized to strings by the caller. The near cache keeps them decoded, so a key must
+ * always be read with the same codec, and not as a string.
  */
 @ApplicationScoped
+@Monitored
 @Slf4j
 public class RedisService {
 
   @Inject
   RedisDataSource redisDataSource;
 
+  @Inject
+  ReactiveRedisService reactiveRedisService;
+
+  @Inject
+  MeterRegistry registry;
+
+  @ConfigProperty(name = "app.redis.near-cache.enabled", defaultValue = "false")
+  boolean nearCacheEnabled;
+
+  // Key prefixes served from the near cache; all keys when unset
+  @ConfigProperty(name = "app.redis.near-cache.prefixes")
+  Optional<List<String>> nearCachePrefixes;
+
+  // tracking (Redis 6+ client-side caching) or keyspace (keyspace notifications)
+  @ConfigProperty(name = "app.redis.near-cache.invalidation", defaultValue = "tracking")
+  NearCache.Invalidation nearCacheInvalidation;
+
+  @ConfigProperty(name = "app.redis.near-cache.max-size", defaultValue = "10000")
+  long nearCacheMaxSize;
+
+  // Upper bound on how long a key is kept, in case an invalidation is lost
+  @ConfigProperty(name = "app.redis.near-cache.ttl", defaultValue = "5m")
+  Duration nearCacheTtl;
+
+  @ConfigProperty(name = "app.redis.near-cache.reconnect-delay", defaultValue = "5s")
+  Duration nearCacheReconnectDelay;
+
+  @ConfigProperty(name = "quarkus.redis.database", defaultValue = "0")
+  int database;
+
   private ValueCommands<String, String> commands;
+  private ValueCommands<String, byte[]> binary;
+  private KeyCommands<String> keys;
+  private NearCache nearCache;
+
+  // SHA1 digest of each Lua script run through evalLong
+  private final Map<String, String> scriptDigests = new ConcurrentHashMap<>();
 
-  public void init() {
+  @PostConstruct
+  void init() {
     commands = redisDataSource.value(String.class);
+    binary = redisDataSource.value(byte[].class);
+    keys = redisDataSource.key();
+    if (nearCacheEnabled) {
+      NearCache.Settings settings =
+          new NearCache.Settings(nearCacheInvalidation, nearCachePrefixes.orElse(List.of()),
+              nearCacheMaxSize, nearCacheTtl, nearCacheReconnectDelay);
+      nearCache =
+          new NearCache(redisDataSource.getReactive().getRedis(), settings, database, registry);
+      nearCache.start();
+    }
+  }
+
+  @PreDestroy
+  void shutdown() {
+    if (nearCache != null) {
+      nearCache.close();
+    }
   }
 
   /**
    * Store a value in Redis with expiration.
    */
   public void set(String key, String value, Duration ttl) {
-    if (commands == null) {
-      init();
-    }
     commands.setex(key, ttl.getSeconds(), value);
+    invalidateNear(key);
     log.debug("Stored key: {} with TTL: {}s", key, ttl.getSeconds());
   }
 
@@ -39,33 +127,149 @@ public class RedisService {
    * Retrieve a value from Redis.
    */
   public String get(String key) {
-    if (commands == null) {
-      init();
-    }
-    String value = commands.get(key);
+    String value = nearCache != null && nearCache.covers(key) ? nearCache.get(key, commands::get)
+        : commands.get(key);
     log.debug("Retrieved key: {} with value: {}", key, value);
     return value;
   }
 
+  /**
+   * Store an object in Redis with expiration, encoded by the given codec.
+   */
+  public <T> void set(String key, T value, RedisCodec<T> codec, Duration ttl) {
+    byte[] bytes = codec.encode(value);
+    binary.psetex(key, ttl.toMillis(), bytes);
+    invalidateNear(key);
+    log.debug("Stored key: {} ({} bytes) with TTL: {}s", key, bytes.length, ttl.getSeconds());
+  }
+
+  /**
+   * Store an object in Redis with expiration, encoded by the given codec, unless the key exists.
+   */
+  public <T> void setIfAbsent(String key, T value, RedisCodec<T> codec, Duration ttl) {
+    byte[] bytes = codec.encode(value);
+    binary.set(key, bytes, new SetArgs().nx().px(ttl));
+    invalidateNear(key);
+    log.debug("Stored key: {} ({} bytes) with TTL: {}s if absent", key, bytes.length,
+        ttl.getSeconds());
+  }
+
+  /**
+   * Retrieve an object stored with the same codec, or null when the key does not exist.
+   *
+   * @throws IllegalArgumentException when the value was not written by that codec
+   */
+  public <T> T get(String key, RedisCodec<T> codec) {
+    Function<String, T> load = k -> {
+      byte[] bytes = binary.get(k);
+      return bytes == null ? null : codec.decode(bytes);
+    };
+    T value =
+        nearCache != null && nearCache.covers(key) ? nearCache.get(key, load) : load.apply(key);
+    log.debug("Retrieved key: {}", key);
+    return value;
+  }
+
   /**
    * Delete a key from Redis.
    */
   public void delete(String key) {
-    if (commands == null) {
-      init();
-    }
-    commands.getdel(key);
+    keys.del(key);
+    invalidateNear(key);
     log.debug("Deleted key: {}", key);
   }
 
   /**
-   * Check if a key exists.
+   * Check if a key exists without transferring its value.
    */
   public boolean exists(String key) {
-    if (commands == null) {
-      init();
+    return keys.exists(key);
+  }
+
+  /**
+   * Retrieve the values of many keys in a few pipelined round trips.
+   *
+   * @return the values by key, without the keys that do not exist
+   */
+  public Map<String, String> getAll(Collection<String> keys) {
+    Map<String, String> values = reactiveRedisService.getAll(keys).await().indefinitely();
+    log.debug("Retrieved {} of {} keys", values.size(), keys.size());
+    return values;
+  }
+
+  /**
+   * Store many values with the same expiration in a few pipelined round trips. The writes are not
+   * atomic: after a failure, some of the values may have been stored.
+   */
+  public void setAll(Map<String, String> values, Duration ttl) {
+    reactiveRedisService.setAll(values, ttl).await().indefinitely();
+    values.keySet().forEach(this::invalidateNear);
+    log.debug("Stored {} keys with TTL: {}s", values.size(), ttl.getSeconds());
+  }
+
+  /**
+   * Publish a message to a pub/sub channel.
+   */
+  public void publish(String channel, String message) {
+    redisDataSource.pubsub(String.class).publish(channel, message);
+    log.debug("Published message to channel: {}", channel);
+  }
+
+  /**
+   * Subscribe to a pub/sub channel. Call {@code unsubscribe()} on the returned subscriber to stop
+   * receiving messages.
+   */
+  public PubSubCommands.RedisSubscriber subscribe(String channel, Consumer<String> onMessage) {
+    PubSubCommands.RedisSubscriber subscriber =
+        redisDataSource.pubsub(String.class).subscribe(channel, onMessage);
+    log.debug("Subscribed to channel: {}", channel);
+    return subscriber;
+  }
+
+  /**
+   * Run a Lua script atomically without blocking the caller and return its integer result. The
+   * script is sent by digest and only uploaded when Redis does not have it cached yet.
+   */
+  public Uni<Long> evalLong(String script, List<String> keys, List<String> args) {
+    ReactiveRedisDataSource reactive = redisDataSource.getReactive();
+    String digest = scriptDigests.computeIfAbsent(script, RedisService::sha1);
+    return reactive.execute("EVALSHA", evalArguments(digest, keys, args))
+        .onFailure(RedisService::isNoScript)
+        .recoverWithUni(() -> reactive.execute("EVAL", evalArguments(script, keys, args)))
+        .map(Response::toLong);
+  }
+
+  // Writes from this node are dropped at once rather than when their invalidation arrives
+  private void invalidateNear(String key) {
+    if (nearCache != null) {
+      nearCache.invalidate(key);
+    }
+  }
+
+  private static String[] evalArguments(String script, List<String> keys, List<String> args) {
+    String[] arguments = new String[2 + keys.size() + args.size()];
+    arguments[0] = script;
+    arguments[1] = String.valueOf(keys.size());
+    int i = 2;
+    for (String key : keys) {
+      arguments[i++] = key;
+    }
+    for (String arg : args) {
+      arguments[i++] = arg;
+    }
+    return arguments;
+  }
+
+  private static boolean isNoScript(Throwable error) {
+    return error.getMessage() != null && error.getMessage().startsWith("NOSCRIPT");
+  }
+
+  private static String sha1(String script) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-1");
+      return HexFormat.of().formatHex(digest.digest(script.getBytes(StandardCharsets.UTF_8)));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-1 not available", e);
     }
-    String value = commands.get(key);
-    return value != null;
   }
 }
@@ -0,0 +1,180 @@
+package com.example.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.jboss.logging.Logger;
+
+/**
+ * In-memory cache of Vault secrets by path.
+ *
+ * <p>
+ * A secret is served from memory until its TTL runs out. The TTL is taken from the secret's
+ * {@code ttl} key when it has one, which is how Vault's KV engine lets a secret announce its own
+ * lease duration, and is the configured default otherwise. After that the cached secret is still
+ * returned while it is reloaded in the background, for up to {@code maxStale}, so that a slow or
+ * unreachable Vault does not add latency or errors to reads; a failed refresh is retried after
+ * {@code retryInterval}. Only a secret that is missing or older than that is loaded by the caller.
+ *
+ * <p>
+ * At most one load per path runs at a time: concurrent misses wait for the same load (see
+ * {@link SingleFlight}). A path that is invalidated while a load is running does not get the loaded
+ * secret cached.
+ */
+final class SecretCache {
+
+  private static final Logger LOG = Logger.getLogger(SecretCache.class);
+
+  static final String TTL_KEY = "ttl";
+
+  private static final String METRIC = "vault.cache.requests";
+  private static final Pattern GO_DURATION = Pattern.compile("(\\d+)([smhd]?)");
+
+  /**
+   * A cached secret with the times, in clock millis, until which it is fresh and may be served.
+   */
+  private record Entry(Map<String, String> secret, long refreshAt, long staleUntil) {
+  }
+
+  private final Function<String, Map<String, String>> loader;
+  private final Duration ttl;
+  private final Duration maxStale;
+  private final Duration retryInterval;
+  private final Executor refreshExecutor;
+  private final LongSupplier clock;
+
+  private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+  private final SingleFlight<String, Map<String, String>> loads;
+
+  private final Counter hits;
+  private final Counter stale;
+  private final Counter misses;
+  private final Counter refreshFailures;
+
+  SecretCache(Function<String, Map<String, String>> loader, Duration ttl, Duration maxStale,
+      Duration retryInterval, Executor refreshExecutor, MeterRegistry registry,
+      LongSupplier clock) {
+    this.loader = loader;
+    this.ttl = ttl;
+    this.maxStale = maxStale;
+    this.retryInterval = retryInterval;
+    this.refreshExecutor = refreshExecutor;
+    this.clock = clock;
+    loads = new SingleFlight<>("vault-secrets", registry);
+    hits = Counter.builder(METRIC).tag("result", "hit").register(registry);
+    stale = Counter.builder(METRIC).tag("result", "stale").register(registry);
+    misses = Counter.builder(METRIC).tag("result", "miss").register(registry);
+    refreshFailures = Counter.builder("vault.cache.refresh.failures")
+        .description("Background refreshes of cached secrets that failed").register(registry);
+  }
+
+  /**
+   * Get a secret, loading it when it is not cached or too stale to serve.
+   *
+   * @param path the secret path
+   * @return the secret, which must not be modified
+   */
+  Map<String, String> get(String path) {
+    Entry entry = entries.get(path);
+    long now = clock.getAsLong();
+    if (entry != null && now < entry.refreshAt()) {
+      hits.increment();
+      return entry.secret();
+    }
+    if (entry != null && now < entry.staleUntil()) {
+      stale.increment();
+      refresh(path, entry);
+      return entry.secret();
+    }
+    misses.increment();
+    return loads.load(path, this::fetch, this::store);
+  }
+
+  /**
+   * Drop a cached secret, and keep a load that is running from caching it.
+   *
+   * @param path the secret path
+   */
+  void invalidate(String path) {
+    loads.forget(path);
+    entries.remove(path);
+  }
+
+  /**
+   * Reload a secret in the background unless a load is already running.
+   */
+  private void refresh(String path, Entry entry) {
+    CompletableFuture<Map<String, String>> load =
+        loads.loadInBackground(path, this::fetch, this::store, refreshExecutor);
+    if (load == null) {
+      return;
+    }
+    load.whenComplete((secret, failure) -> {
+      if (failure != null) {
+        refreshFailures.increment();
+        LOG.warnf("Failed to refresh secret %s, serving the cached one: %s", path,
+            failure.getMessage());
+        // Back off, but keep the cached secret until it is too stale
+        entries.replace(path, entry, new Entry(entry.secret(),
+            clock.getAsLong() + retryInterval.toMillis(), entry.staleUntil()));
+      }
+    });
+  }
+
+  private Map<String, String> fetch(String path) {
+    return Collections.unmodifiableMap(new LinkedHashMap<>(loader.apply(path)));
+  }
+
+  // Only called for the current load, not one the path was invalidated during
+  private void store(String path, Map<String, String> secret) {
+    long fresh = ttlOf(secret).toMillis();
+    long loadedAt = clock.getAsLong();
+    entries.put(path, new Entry(secret, loadedAt + fresh, loadedAt + fresh + maxStale.toMillis()));
+  }
+
+  private Duration ttlOf(Map<String, String> secret) {
+    String value = secret.get(TTL_KEY);
+    if (value == null) {
+      return ttl;
+    }
+    Duration parsed = parseDuration(value.trim());
+    if (parsed == null) {
+      LOG.warnf("Ignoring invalid secret ttl %s", value);
+      return ttl;
+    }
+    return parsed;
+  }
+
+  /**
+   * Parse a duration the way Vault writes them: plain seconds, or amounts with an s, m, h or d unit
+   * such as {@code 1h30m}.
+   *
+   * @return the duration, or null when the value is not one
+   */
+  static Duration parseDuration(String value) {
+    Matcher matcher = GO_DURATION.matcher(value);
+    Duration total = Duration.ZERO;
+    int end = 0;
+    while (matcher.find() && matcher.start() == end) {
+      long amount = Long.parseLong(matcher.group(1));
+      total = total.plus(switch (matcher.group(2)) {
+        case "m" -> Duration.ofMinutes(amount);
+        case "h" -> Duration.ofHours(amount);
+        case "d" -> Duration.ofDays(amount);
+        default -> Duration.ofSeconds(amount);
+      });
+      end = matcher.end();
+    }
+    return end > 0 && end == value.length() ? total : null;
+  }
+}
@@ -0,0 +1,120 @@
+package com.example.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.inject.Any;
+import jakarta.enterprise.inject.spi.Bean;
+import jakarta.enterprise.inject.spi.BeanManager;
+import jakarta.inject.Inject;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+/**
+ * Timers of the {@link Monitored} beans, recorded by {@link MonitoredInterceptor}.
+ *
+ * <p>
+ * Every call is recorded in {@code service.calls}, tagged with the bean class ({@code service}),
+ * the method name ({@code method}) and {@code outcome} ({@code success} or {@code failure}). The
+ * tags only take values from the code itself, so the number of series is bounded by the number of
+ * monitored methods.
+ *
+ * <p>
+ * With {@code app.metrics.preallocated-timers} (the default), both timers of every public method of
+ * a monitored bean are registered at startup, which also makes them visible before the first call,
+ * and are looked up by method afterwards: recording a call neither builds tags nor searches the
+ * registry. Without it, each call looks its timer up in the registry by name and tags, as
+ * Micrometer's own {@code @Timed} does.
+ */
+@ApplicationScoped
+public class ServiceTimers {
+
+  private static final Logger LOG = Logger.getLogger(ServiceTimers.class);
+
+  static final String METRIC = "service.calls";
+
+  @Inject
+  MeterRegistry registry;
+
+  @Inject
+  BeanManager beanManager;
+
+  @ConfigProperty(name = "app.metrics.preallocated-timers", defaultValue = "true")
+  boolean preallocated;
+
+  /**
+   * Timers of one method.
+   */
+  record MethodTimers(Timer success, Timer failure) {
+  }
+
+  private final Map<Method, MethodTimers> timers = new ConcurrentHashMap<>();
+
+  void onStart(@Observes StartupEvent event) {
+    if (!preallocated) {
+      return;
+    }
+    for (Bean<?> bean : beanManager.getBeans(Object.class, Any.Literal.INSTANCE)) {
+      Class<?> type = bean.getBeanClass();
+      if (type.isAnnotationPresent(Monitored.class)) {
+        preallocate(type);
+      }
+    }
+    LOG.debugf("Preallocated timers for %d monitored methods", timers.size());
+  }
+
+  /**
+   * Register the timers of every public method a monitored class declares.
+   */
+  void preallocate(Class<?> type) {
+    for (Method method : type.getDeclaredMethods()) {
+      int modifiers = method.getModifiers();
+      if (Modifier.isPublic(modifiers) && !Modifier.isStatic(modifiers) && !method.isSynthetic()
+          && !method.isAnnotationPresent(PostConstruct.class)
+          && !method.isAnnotationPresent(PreDestroy.class)) {
+        timersFor(method);
+      }
+    }
+  }
+
+  /**
+   * Record one call.
+   *
+   * @param method the method called
+   * @param failed whether it threw or its result failed
+   * @param nanos how long it took
+   */
+  void record(Method method, boolean failed, long nanos) {
+    Timer timer;
+    if (preallocated) {
+      MethodTimers methodTimers = timers.get(method);
+      if (methodTimers == null) {
+        methodTimers = timersFor(method);
+      }
+      timer = failed ? methodTimers.failure() : methodTimers.success();
+    } else {
+      timer = timer(method, failed ? "failure" : "success");
+    }
+    timer.record(nanos, TimeUnit.NANOSECONDS);
+  }
+
+  private MethodTimers timersFor(Method method) {
+    return timers.computeIfAbsent(method,
+        m -> new MethodTimers(timer(m, "success"), timer(m, "failure")));
+  }
+
+  private Timer timer(Method method, String outcome) {
+    return Timer.builder(METRIC).description("Duration of calls to monitored service methods")
+        .tag("service", method.getDeclaringClass().getSimpleName()).tag("method", method.getName())
+        .tag("outcome", outcome).register(registry);
+  }
+}
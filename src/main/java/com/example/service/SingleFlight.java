@@ -0,0 +1,124 @@
+package com.example.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Runs at most one load per key at a time: calls for a key that is already being loaded wait for
+ * that load and share its result, or its exception, instead of loading it again. Once a load has
+ * completed, the next call for the key starts a new one; nothing is cached here.
+ *
+ * <p>
+ * Shared calls are counted by {@code single.flight.shared}, tagged with the name of the flight.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the loaded values
+ */
+final class SingleFlight<K, V> {
+
+  private final Map<K, CompletableFuture<V>> flights = new ConcurrentHashMap<>();
+  private final Counter shared;
+
+  SingleFlight(String name, MeterRegistry registry) {
+    shared = Counter.builder("single.flight.shared").tag("flight", name)
+        .description("Calls that waited for a load another call had started").register(registry);
+  }
+
+  /**
+   * Load a value, or wait for the load of the same key that is already running.
+   */
+  V load(K key, Function<? super K, ? extends V> loader) {
+    return load(key, loader, null);
+  }
+
+  /**
+   * Load a value, or wait for the load of the same key that is already running.
+   *
+   * @param onLoaded called with a value this call loaded unless the key was forgotten meanwhile,
+   *        before any other call for the key can start a new load; may be null
+   */
+  V load(K key, Function<? super K, ? extends V> loader,
+      BiConsumer<? super K, ? super V> onLoaded) {
+    CompletableFuture<V> flight = new CompletableFuture<>();
+    CompletableFuture<V> running = flights.putIfAbsent(key, flight);
+    if (running != null) {
+      shared.increment();
+      return await(running);
+    }
+    run(key, flight, loader, onLoaded);
+    return await(flight);
+  }
+
+  /**
+   * Start loading a value on the executor, unless a load of the key is already running.
+   *
+   * @return the load started, or null when one was already running
+   */
+  CompletableFuture<V> loadInBackground(K key, Function<? super K, ? extends V> loader,
+      BiConsumer<? super K, ? super V> onLoaded, Executor executor) {
+    CompletableFuture<V> flight = new CompletableFuture<>();
+    if (flights.putIfAbsent(key, flight) != null) {
+      return null;
+    }
+    try {
+      executor.execute(() -> run(key, flight, loader, onLoaded));
+    } catch (RejectedExecutionException e) {
+      flights.remove(key, flight);
+      flight.completeExceptionally(e);
+    }
+    return flight;
+  }
+
+  /**
+   * Let the next call for a key start a new load instead of waiting for the one running, such as
+   * after the value was changed. Callers already waiting still get the running load's result.
+   */
+  void forget(K key) {
+    flights.remove(key);
+  }
+
+  private void run(K key, CompletableFuture<V> flight, Function<? super K, ? extends V> loader,
+      BiConsumer<? super K, ? super V> onLoaded) {
+    V value;
+    try {
+      value = loader.apply(key);
+    } catch (RuntimeException | Error e) {
+      flights.remove(key, flight);
+      flight.completeExceptionally(e);
+      return;
+    }
+    // Atomic with forget, so that a value forgotten during its load is never passed on
+    flights.computeIfPresent(key, (k, current) -> {
+      if (current != flight) {
+        return current;
+      }
+      if (onLoaded != null) {
+        onLoaded.accept(k, value);
+      }
+      return null;
+    });
+    flight.complete(value);
+  }
+
+  private static <V> V await(CompletableFuture<V> flight) {
+    try {
+      return flight.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      if (e.getCause() instanceof Error cause) {
+        throw cause;
+      }
+      throw e;
+    }
+  }
+}
@@ -0,0 +1,181 @@
+package com.example.service;
+
+import io.quarkus.arc.DefaultBean;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.jboss.logging.Logger;
+
+/**
+ * Greeting engine rendering templates configured per language.
+ *
+ * <p>
+ * Templates are read from {@code app.greeting.templates.<language>.personal} (with a {@code {name}}
+ * placeholder) and {@code app.greeting.templates.<language>.default}, and compiled once at startup.
+ * Locales are matched on their language only; anything without a template gets
+ * {@code app.greeting.default-locale}. Greetings are rendered into a per-thread
+ * {@link StringBuilder}, and templates without a placeholder return their precomputed text.
+ */
+@ApplicationScoped
+@DefaultBean
+public class TemplateGreetingEngine implements GreetingTemplateEngine {
+
+  private static final Logger LOG = Logger.getLogger(TemplateGreetingEngine.class);
+
+  static final String PREFIX = "app.greeting.";
+  static final String TEMPLATES_PREFIX = PREFIX + "templates.";
+
+  static final String DEFAULT_PERSONAL = "Hello, {name}! Welcome to Quarkus Template.";
+  static final String DEFAULT_GREETING = "Hello! Welcome to Quarkus Template.";
+
+  // Builders larger than this are not kept, so one long name does not pin memory in every thread
+  private static final int MAX_RETAINED_CAPACITY = 1024;
+
+  private static final ThreadLocal<StringBuilder> BUILDER =
+      ThreadLocal.withInitial(() -> new StringBuilder(128));
+
+  /**
+   * Templates of one language.
+   */
+  private record LocaleTemplates(Locale locale, GreetingTemplate personal, String greeting) {
+  }
+
+  private Map<String, LocaleTemplates> templates;
+  private LocaleTemplates defaults;
+
+  @PostConstruct
+  void init() {
+    Config config = ConfigProvider.getConfig();
+    configure(name -> config.getOptionalValue(name, String.class), config.getPropertyNames());
+    LOG.infof("Greeting templates for %s, default %s", templates.keySet(),
+        defaults.locale().toLanguageTag());
+  }
+
+  /**
+   * Load and compile the templates. Called at startup; public so that the engine can also be used
+   * without CDI, as the benchmarks do.
+   *
+   * @param config looks up a configuration value
+   * @param propertyNames all configuration property names, used to find the languages
+   * @throws IllegalArgumentException if a template is invalid or the default locale has none
+   */
+  public void configure(Function<String, Optional<String>> config, Iterable<String> propertyNames) {
+    Set<String> languages = new TreeSet<>();
+    for (String property : propertyNames) {
+      if (property.startsWith(TEMPLATES_PREFIX)) {
+        int end = property.indexOf('.', TEMPLATES_PREFIX.length());
+        if (end > 0) {
+          languages.add(property.substring(TEMPLATES_PREFIX.length(), end));
+        }
+      }
+    }
+
+    Map<String, LocaleTemplates> loaded = new HashMap<>();
+    loaded.put("en", load(config, "en", DEFAULT_PERSONAL, DEFAULT_GREETING));
+    for (String language : languages) {
+      String key = language.toLowerCase(Locale.ROOT);
+      LocaleTemplates fallback = loaded.get(key);
+      loaded.put(key,
+          load(config, language, fallback == null ? null : fallback.personal().pattern(),
+              fallback == null ? null : fallback.greeting()));
+    }
+
+    String defaultLanguage = language(config.apply(PREFIX + "default-locale").orElse("en"));
+    LocaleTemplates defaultTemplates = loaded.get(defaultLanguage);
+    if (defaultTemplates == null) {
+      throw new IllegalArgumentException(
+          "No greeting templates for the default locale '" + defaultLanguage + "'");
+    }
+    templates = Map.copyOf(loaded);
+    defaults = defaultTemplates;
+  }
+
+  private static LocaleTemplates load(Function<String, Optional<String>> config, String language,
+      String personal, String greeting) {
+    String prefix = TEMPLATES_PREFIX + language + ".";
+    String personalPattern = config.apply(prefix + "personal").orElse(personal);
+    String greetingPattern = config.apply(prefix + "default").orElse(greeting);
+    if (personalPattern == null || greetingPattern == null) {
+      throw new IllegalArgumentException(
+          "Greeting templates for '" + language + "' need both 'personal' and 'default'");
+    }
+    GreetingTemplate greetingTemplate = GreetingTemplate.compile(greetingPattern);
+    if (!greetingTemplate.isConstant()) {
+      throw new IllegalArgumentException(
+          "Default greeting for '" + language + "' cannot contain {name}: " + greetingPattern);
+    }
+    return new LocaleTemplates(Locale.forLanguageTag(language(language)),
+        GreetingTemplate.compile(personalPattern), greetingPattern);
+  }
+
+  @Override
+  public Locale resolve(String acceptLanguage) {
+    if (acceptLanguage == null || acceptLanguage.isBlank()) {
+      return defaults.locale();
+    }
+    List<Locale.LanguageRange> ranges;
+    try {
+      ranges = Locale.LanguageRange.parse(acceptLanguage);
+    } catch (IllegalArgumentException e) {
+      return defaults.locale();
+    }
+    // Ranges come sorted by decreasing weight
+    for (Locale.LanguageRange range : ranges) {
+      if (range.getWeight() == 0) {
+        continue;
+      }
+      String language = language(range.getRange());
+      if ("*".equals(language)) {
+        return defaults.locale();
+      }
+      LocaleTemplates match = templates.get(language);
+      if (match != null) {
+        return match.locale();
+      }
+    }
+    return defaults.locale();
+  }
+
+  @Override
+  public String greet(String name, Locale locale) {
+    GreetingTemplate template = templatesFor(locale).personal();
+    StringBuilder out = BUILDER.get();
+    out.setLength(0);
+    template.renderTo(out, String.valueOf(name));
+    String greeting = out.toString();
+    if (out.capacity() > MAX_RETAINED_CAPACITY) {
+      BUILDER.remove();
+    }
+    return greeting;
+  }
+
+  @Override
+  public String defaultGreeting(Locale locale) {
+    return templatesFor(locale).greeting();
+  }
+
+  private LocaleTemplates templatesFor(Locale locale) {
+    if (locale == null) {
+      return defaults;
+    }
+    LocaleTemplates match = templates.get(locale.getLanguage());
+    return match == null ? defaults : match;
+  }
+
+  /**
+   * The lower-case language of a tag or language range, such as {@code en} for {@code en-US}.
+   */
+  private static String language(String tag) {
+    int dash = tag.indexOf('-');
+    return (dash < 0 ? tag : tag.substring(0, dash)).trim().toLowerCase(Locale.ROOT);
+  }
+}
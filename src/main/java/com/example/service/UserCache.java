@@ -0,0 +1,312 @@
+package com.example.service;
+
+import com.example.dto.UserResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.quarkus.redis.datasource.pubsub.PubSubCommands;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+
+/**
+ * Two-tier read-through cache for user lookups. A bounded in-process Caffeine cache (L1) sits in
+ * front of Redis (L2). Writes evict both tiers once the surrounding transaction commits and
+ * broadcast the user ID on a pub/sub channel so that other nodes drop their L1 copy as well.
+ *
+ * <p>
+ * Redis is treated as best effort: when it is unreachable, lookups fall through to the loader and
+ * the failure is counted instead of propagated.
+ *
+ * <p>
+ * Concurrent misses for the same user share one load, also when it fails, such as for a user that
+ * does not exist, and when the cache is disabled (see {@link SingleFlight}).
+ *
+ * <p>
+ * A load that read the row before an update committed must not cache it after the update's eviction
+ * ran. Evictions, local and from other nodes, are counted per stripe of user IDs; a load notes the
+ * count of its stripe when it starts and only stores its result in L1 while the count is unchanged.
+ * An eviction of another user in the same stripe merely costs a later reload. Another node's
+ * eviction is only counted once its message arrives, so in Redis the eviction leaves a tombstone
+ * instead of deleting the user, and loads only write users that are absent: a load that finishes
+ * within {@code l2.tombstone-ttl} of a change on any node cannot cache the previous row.
+ */
+@ApplicationScoped
+public class UserCache {
+
+  private static final Logger LOG = Logger.getLogger(UserCache.class);
+
+  private static final String KEY_PREFIX = "users:";
+  private static final String L2_METRIC = "users.cache.l2.requests";
+  private static final int EVICTION_STRIPES = 1024;
+  // Stored in Redis in place of a user that just changed, and read as a miss
+  private static final byte[] TOMBSTONE = new byte[0];
+
+  @Inject
+  RedisService redisService;
+
+  @Inject
+  MeterRegistry registry;
+
+  @Inject
+  TransactionSynchronizationRegistry transactionRegistry;
+
+  @ConfigProperty(name = "app.users.cache.enabled", defaultValue = "true")
+  boolean enabled;
+
+  @ConfigProperty(name = "app.users.cache.l1.max-size", defaultValue = "10000")
+  long l1MaxSize;
+
+  @ConfigProperty(name = "app.users.cache.l1.ttl", defaultValue = "1m")
+  Duration l1Ttl;
+
+  @ConfigProperty(name = "app.users.cache.l2.enabled", defaultValue = "true")
+  boolean l2Enabled;
+
+  @ConfigProperty(name = "app.users.cache.l2.ttl", defaultValue = "10m")
+  Duration l2Ttl;
+
+  // How long a changed user is kept out of Redis; longer than the slowest load of a user
+  @ConfigProperty(name = "app.users.cache.l2.tombstone-ttl", defaultValue = "10s")
+  Duration l2TombstoneTtl;
+
+  // none, lz4 or zstd; changing it does not invalidate the users already in Redis
+  @ConfigProperty(name = "app.users.cache.l2.compression", defaultValue = "none")
+  RedisCodec.Compression l2Compression;
+
+  // Encoded size in bytes from which users are compressed
+  @ConfigProperty(name = "app.users.cache.l2.compression-threshold", defaultValue = "256")
+  int l2CompressionThreshold;
+
+  @ConfigProperty(name = "app.users.cache.invalidation-channel",
+      defaultValue = "users-cache-invalidation")
+  String invalidationChannel;
+
+  private Cache<Long, UserResponse> l1;
+  private SingleFlight<Long, UserResponse> loads;
+  private RedisCodec<UserResponse> l2Codec;
+  private Counter l2Hits;
+  private Counter l2Misses;
+  private Counter l2Errors;
+  private PubSubCommands.RedisSubscriber subscriber;
+  private final AtomicLongArray evictions = new AtomicLongArray(EVICTION_STRIPES);
+
+  @PostConstruct
+  void init() {
+    l1 = CaffeineCacheMetrics.monitor(registry, Caffeine.newBuilder().maximumSize(l1MaxSize)
+        .expireAfterWrite(l1Ttl).recordStats().<Long, UserResponse>build(), "users-l1");
+    loads = new SingleFlight<>("users", registry);
+    l2Codec = withTombstones(
+        UserResponseCodec.INSTANCE.compressed(l2Compression, l2CompressionThreshold));
+    l2Hits = Counter.builder(L2_METRIC).tag("result", "hit").register(registry);
+    l2Misses = Counter.builder(L2_METRIC).tag("result", "miss").register(registry);
+    l2Errors = Counter.builder(L2_METRIC).tag("result", "error").register(registry);
+  }
+
+  void onStart(@Observes StartupEvent event) {
+    if (!enabled || !l2Enabled) {
+      return;
+    }
+    try {
+      subscriber = redisService.subscribe(invalidationChannel, this::onInvalidation);
+      LOG.infof("Listening for user cache invalidations on channel: %s", invalidationChannel);
+    } catch (Exception e) {
+      LOG.warnf("Cross-node user cache invalidation is unavailable: %s", e.getMessage());
+    }
+  }
+
+  @PreDestroy
+  void shutdown() {
+    if (subscriber != null) {
+      subscriber.unsubscribe();
+    }
+  }
+
+  /**
+   * Get a user from the cache, loading it through L2 and then the given loader on a miss.
+   *
+   * @param id the user ID
+   * @param loader the loader used when neither tier holds the user
+   * @return the user response
+   */
+  public UserResponse get(Long id, Function<Long, UserResponse> loader) {
+    if (!enabled) {
+      return loads.load(id, loader);
+    }
+    UserResponse cached = l1.getIfPresent(id);
+    if (cached != null) {
+      return cached;
+    }
+    return loads.load(id, key -> load(key, loader));
+  }
+
+  /**
+   * Store a user in both tiers once the current transaction commits.
+   *
+   * @param user the user response to cache
+   */
+  public void putAfterCommit(UserResponse user) {
+    if (enabled) {
+      afterCommit(() -> put(user));
+    }
+  }
+
+  /**
+   * Evict a user from both tiers on every node once the current transaction commits.
+   *
+   * @param id the user ID
+   */
+  public void evictAfterCommit(Long id) {
+    afterCommit(() -> evict(id));
+  }
+
+  private UserResponse load(Long id, Function<Long, UserResponse> loader) {
+    long generation = evictions.get(stripe(id));
+    UserResponse user = readL2(id);
+    if (user == null) {
+      user = loader.apply(id);
+      if (evictions.get(stripe(id)) == generation) {
+        writeL2(user, true);
+      }
+    }
+    // Under the entry's lock, which the eviction takes after counting; through the map view, so
+    // that the miss is not counted twice in the cache statistics
+    UserResponse loaded = user;
+    l1.asMap().compute(id,
+        (key, current) -> evictions.get(stripe(key)) == generation ? loaded : current);
+    return user;
+  }
+
+  private void put(UserResponse user) {
+    l1.put(user.getId(), user);
+    writeL2(user, false);
+  }
+
+  private void evict(Long id) {
+    // A load that started before the change is not shared with later reads
+    loads.forget(id);
+    if (!enabled) {
+      return;
+    }
+    evictions.incrementAndGet(stripe(id));
+    l1.invalidate(id);
+    if (!l2Enabled) {
+      return;
+    }
+    try {
+      redisService.set(KEY_PREFIX + id, null, l2Codec, l2TombstoneTtl);
+      redisService.publish(invalidationChannel, id.toString());
+    } catch (Exception e) {
+      l2Errors.increment();
+      LOG.warnf("Failed to evict user %d from Redis: %s", id, e.getMessage());
+    }
+  }
+
+  private UserResponse readL2(Long id) {
+    if (!l2Enabled) {
+      return null;
+    }
+    try {
+      UserResponse user = redisService.get(KEY_PREFIX + id, l2Codec);
+      if (user == null) {
+        l2Misses.increment();
+        return null;
+      }
+      l2Hits.increment();
+      return user;
+    } catch (Exception e) {
+      l2Errors.increment();
+      LOG.debugf("Failed to read user %d from Redis: %s", id, e.getMessage());
+      return null;
+    }
+  }
+
+  /**
+   * Store a user in Redis. A load writes it only if absent, so that it never replaces a tombstone
+   * left by a change on another node whose invalidation has not arrived yet.
+   */
+  private void writeL2(UserResponse user, boolean ifAbsent) {
+    if (!l2Enabled) {
+      return;
+    }
+    try {
+      if (ifAbsent) {
+        redisService.setIfAbsent(KEY_PREFIX + user.getId(), user, l2Codec, l2Ttl);
+      } else {
+        redisService.set(KEY_PREFIX + user.getId(), user, l2Codec, l2Ttl);
+      }
+    } catch (Exception e) {
+      l2Errors.increment();
+      LOG.debugf("Failed to write user %d to Redis: %s", user.getId(), e.getMessage());
+    }
+  }
+
+  private void onInvalidation(String message) {
+    try {
+      Long id = Long.valueOf(message);
+      evictions.incrementAndGet(stripe(id));
+      l1.invalidate(id);
+    } catch (NumberFormatException e) {
+      LOG.warnf("Ignoring malformed user cache invalidation: %s", message);
+    }
+  }
+
+  /**
+   * The codec with an empty value standing for a tombstone, written for null and read as null.
+   */
+  private static RedisCodec<UserResponse> withTombstones(RedisCodec<UserResponse> codec) {
+    return new RedisCodec<>() {
+      @Override
+      public byte[] encode(UserResponse user) {
+        return user == null ? TOMBSTONE : codec.encode(user);
+      }
+
+      @Override
+      public UserResponse decode(byte[] bytes) {
+        return bytes.length == 0 ? null : codec.decode(bytes);
+      }
+    };
+  }
+
+  private static int stripe(Long id) {
+    return (Long.hashCode(id) * 0x9E3779B9 >>> 16) & (EVICTION_STRIPES - 1);
+  }
+
+  /**
+   * Run the action after the current transaction commits, or immediately when there is none, so a
+   * concurrent reader cannot repopulate the cache with the pre-commit row.
+   */
+  private void afterCommit(Runnable action) {
+    if (transactionRegistry.getTransactionStatus() != Status.STATUS_ACTIVE) {
+      action.run();
+      return;
+    }
+    transactionRegistry.registerInterposedSynchronization(new Synchronization() {
+      @Override
+      public void beforeCompletion() {
+        // Nothing to do before completion
+      }
+
+      @Override
+      public void afterCompletion(int status) {
+        if (status == Status.STATUS_COMMITTED) {
+          action.run();
+        }
+      }
+    });
+  }
+}
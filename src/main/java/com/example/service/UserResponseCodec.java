@@ -0,0 +1,80 @@
+package com.example.service;
+
+import com.example.dto.UserResponse;
+
+/**
+ * Compact binary form of {@link UserResponse}: a format version, a bit set of the fields present,
+ * then those fields as variable-length integers, UTF-8 strings and timestamps in UTC. A typical
+ * user takes about half the bytes of its JSON and encodes and decodes without reflection.
+ *
+ * <p>
+ * Fields may only be appended, under a new bit; a new format version is needed for anything else.
+ */
+public final class UserResponseCodec implements RedisCodec<UserResponse> {
+
+  public static final UserResponseCodec INSTANCE = new UserResponseCodec();
+
+  private static final int FORMAT = 1;
+
+  private static final int ID = 1;
+  private static final int EMAIL = 1 << 1;
+  private static final int NAME = 1 << 2;
+  private static final int CREATED_AT = 1 << 3;
+  private static final int UPDATED_AT = 1 << 4;
+
+  private UserResponseCodec() {
+    // Use INSTANCE
+  }
+
+  @Override
+  public byte[] encode(UserResponse user) {
+    int fields = (user.getId() != null ? ID : 0) | (user.getEmail() != null ? EMAIL : 0)
+        | (user.getName() != null ? NAME : 0) | (user.getCreatedAt() != null ? CREATED_AT : 0)
+        | (user.getUpdatedAt() != null ? UPDATED_AT : 0);
+    CompactBinary.Writer writer = new CompactBinary.Writer(64);
+    writer.writeByte(FORMAT).writeByte(fields);
+    if (user.getId() != null) {
+      writer.writeVarLong(user.getId());
+    }
+    if (user.getEmail() != null) {
+      writer.writeString(user.getEmail());
+    }
+    if (user.getName() != null) {
+      writer.writeString(user.getName());
+    }
+    if (user.getCreatedAt() != null) {
+      writer.writeTimestamp(user.getCreatedAt());
+    }
+    if (user.getUpdatedAt() != null) {
+      writer.writeTimestamp(user.getUpdatedAt());
+    }
+    return writer.toByteArray();
+  }
+
+  @Override
+  public UserResponse decode(byte[] bytes) {
+    CompactBinary.Reader reader = new CompactBinary.Reader(bytes);
+    int format = reader.readByte();
+    if (format != FORMAT) {
+      throw new IllegalArgumentException("Unknown user format: " + format);
+    }
+    int fields = reader.readByte();
+    UserResponse user = new UserResponse();
+    if ((fields & ID) != 0) {
+      user.setId(reader.readVarLong());
+    }
+    if ((fields & EMAIL) != 0) {
+      user.setEmail(reader.readString());
+    }
+    if ((fields & NAME) != 0) {
+      user.setName(reader.readString());
+    }
+    if ((fields & CREATED_AT) != 0) {
+      user.setCreatedAt(reader.readTimestamp());
+    }
+    if ((fields & UPDATED_AT) != 0) {
+      user.setUpdatedAt(reader.readTimestamp());
+    }
+    return user;
+  }
+}
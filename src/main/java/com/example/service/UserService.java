@@ -1,48 +1,197 @@
 package com.example.service;
 
+import com.example.dto.ImportResult;
+import com.example.dto.UserPage;
 import com.example.dto.UserRequest;
 import com.example.dto.UserResponse;
 import com.example.entity.User;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.quarkus.hibernate.orm.panache.PanacheQuery;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.panache.common.Sort;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.PersistenceException;
 import jakarta.transaction.Transactional;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import jakarta.ws.rs.BadRequestException;
+import jakarta.ws.rs.ClientErrorException;
 import jakarta.ws.rs.NotFoundException;
+import jakarta.ws.rs.core.Response;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.StatelessSession;
+import org.hibernate.exception.ConstraintViolationException;
+import org.hibernate.jpa.HibernateHints;
 import org.jboss.logging.Logger;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Service class for user operations.
  */
 @ApplicationScoped
+@Monitored
 public class UserService {
 
   private static final Logger LOG = Logger.getLogger(UserService.class);
 
+  private static final String CURSOR_PREFIX = "id:";
+
+  // SQLSTATE of a unique constraint violation
+  private static final String UNIQUE_VIOLATION = "23505";
+
+  @Inject
+  UserCache userCache;
+
+  @Inject
+  StatelessSession statelessSession;
+
+  @Inject
+  ObjectMapper objectMapper;
+
+  @Inject
+  Validator validator;
+
+  @ConfigProperty(name = "app.users.page.default-size", defaultValue = "50")
+  int defaultPageSize;
+
+  @ConfigProperty(name = "app.users.page.max-size", defaultValue = "500")
+  int maxPageSize;
+
+  @ConfigProperty(name = "app.users.stream.fetch-size", defaultValue = "500")
+  int streamFetchSize;
+
+  // Users inserted per transaction and JDBC batch by a bulk import
+  @ConfigProperty(name = "app.users.bulk.batch-size", defaultValue = "1000")
+  int importBatchSize;
+
+  // Rejected lines reported in detail by a bulk import
+  @ConfigProperty(name = "app.users.bulk.max-errors", defaultValue = "1000")
+  int importMaxErrors;
+
   /**
-   * Get all users.
+   * Get one keyset page of users ordered by ID.
    *
-   * @return list of user responses
+   * @param cursor the opaque cursor returned with the previous page, or {@code null} for the first
+   *        page
+   * @param size the requested page size, or {@code null} for the configured default
+   * @return the page of user responses
+   * @throws BadRequestException if the cursor is malformed
    */
-  public List<UserResponse> getAllUsers() {
-    LOG.info("Getting all users");
-    return User.<User>listAll().stream().map(this::toResponse).collect(Collectors.toList());
+  public UserPage getUsersPage(String cursor, Integer size) {
+    int pageSize = size == null ? defaultPageSize : Math.min(size, maxPageSize);
+    LOG.debugf("Getting users page after cursor %s with size %d", cursor, pageSize);
+
+    PanacheQuery<User> query = cursor == null || cursor.isBlank() ? User.findAll(Sort.by("id"))
+        : User.find("id > ?1", Sort.by("id"), decodeCursor(cursor));
+
+    // Fetch one extra row to find out whether another page exists
+    List<User> users = query.range(0, pageSize).list();
+    boolean hasNext = users.size() > pageSize;
+    if (hasNext) {
+      users = users.subList(0, pageSize);
+    }
+
+    List<UserResponse> items =
+        users.stream().map(UserService::toResponse).collect(Collectors.toList());
+    String next = hasNext ? encodeCursor(users.get(pageSize - 1).id) : null;
+    return new UserPage(items, next);
   }
 
   /**
-   * Get user by ID.
+   * Stream all users ordered by ID to the given sink with constant memory. Rows are read through a
+   * forward-only cursor and the persistence context is cleared after every fetch batch, so the
+   * table size does not affect heap usage.
+   *
+   * @param sink the consumer receiving each user response
+   * @return the number of users streamed
+   */
+  @Transactional
+  public long streamUsers(Consumer<UserResponse> sink) {
+    LOG.info("Streaming all users");
+    long count = 0;
+    try (Stream<User> users =
+        User.<User>findAll(Sort.by("id")).withHint(HibernateHints.HINT_FETCH_SIZE, streamFetchSize)
+            .withHint(HibernateHints.HINT_READ_ONLY, true).stream()) {
+      Iterator<User> iterator = users.iterator();
+      while (iterator.hasNext()) {
+        sink.accept(toResponse(iterator.next()));
+        if (++count % streamFetchSize == 0) {
+          User.getEntityManager().clear();
+        }
+      }
+    }
+    LOG.infof("Streamed %d users", count);
+    return count;
+  }
+
+  /**
+   * Import users from newline-delimited JSON, one {@link UserRequest} per line. The input is read
+   * as it arrives and inserted in batches, each in its own transaction through a stateless session
+   * with JDBC batching, so memory use depends on the batch size only. Lines that are malformed,
+   * invalid or use an email already taken are reported and skipped; the other lines are imported.
+   *
+   * @param body the NDJSON input
+   * @return the number of imported and rejected lines, with the reasons for rejection
+   * @throws IOException if the input cannot be read
+   */
+  public ImportResult importUsers(InputStream body) throws IOException {
+    LOG.info("Importing users");
+    ImportResult result = new ImportResult(importMaxErrors);
+    List<ImportLine> batch = new ArrayList<>(importBatchSize);
+    try (BufferedReader reader =
+        new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+      long number = 0;
+      String line;
+      while ((line = reader.readLine()) != null) {
+        number++;
+        if (line.isBlank()) {
+          continue;
+        }
+        UserRequest request = parseImportLine(line, number, result);
+        if (request != null) {
+          batch.add(new ImportLine(number, request));
+        }
+        if (batch.size() == importBatchSize) {
+          importBatch(batch, result);
+          batch.clear();
+        }
+      }
+    }
+    importBatch(batch, result);
+    LOG.infof("Imported %d users, rejected %d lines", result.getImported(), result.getFailed());
+    return result;
+  }
+
+  /**
+   * Get user by ID, served from the user cache when possible. Concurrent calls for a user that is
+   * not cached share one database query.
    *
    * @param id the user ID
    * @return the user response
    * @throws NotFoundException if user not found
    */
   public UserResponse getUserById(Long id) {
-    LOG.infof("Getting user by id: %d", id);
-    User user = User.findById(id);
-    if (user == null) {
-      throw new NotFoundException("User not found with id: " + id);
-    }
-    return toResponse(user);
+    return userCache.get(id, this::loadUser);
   }
 
   /**
@@ -50,24 +199,19 @@ public class UserService {
    *
    * @param request the user request
    * @return the created user response
+   * @throws ClientErrorException with status 409 if another user has the email
    */
   @Transactional
   public UserResponse createUser(UserRequest request) {
-    LOG.infof("Creating user with email: %s", request.getEmail());
-
-    // Check if user with email already exists
-    long count = User.count("email", request.getEmail());
-    if (count > 0) {
-      throw new IllegalArgumentException("User with email already exists: " + request.getEmail());
-    }
-
     User user = new User();
     user.setEmail(request.getEmail());
     user.setName(request.getName());
-    user.persist();
+    persistUnique(user);
 
-    LOG.infof("User created with id: %d", user.id);
-    return toResponse(user);
+    LOG.debugf("User created with id: %d", user.id);
+    UserResponse response = toResponse(user);
+    userCache.putAfterCommit(response);
+    return response;
   }
 
   /**
@@ -77,28 +221,21 @@ public class UserService {
    * @param request the user request
    * @return the updated user response
    * @throws NotFoundException if user not found
+   * @throws ClientErrorException with status 409 if another user has the email
    */
   @Transactional
   public UserResponse updateUser(Long id, UserRequest request) {
-    LOG.infof("Updating user with id: %d", id);
     User user = User.findById(id);
     if (user == null) {
       throw new NotFoundException("User not found with id: " + id);
     }
 
-    // Check if email is being changed to an existing email
-    if (!user.getEmail().equals(request.getEmail())) {
-      long count = User.count("email", request.getEmail());
-      if (count > 0) {
-        throw new IllegalArgumentException("User with email already exists: " + request.getEmail());
-      }
-    }
-
     user.setEmail(request.getEmail());
     user.setName(request.getName());
-    user.persist();
+    persistUnique(user);
 
-    LOG.infof("User updated with id: %d", user.id);
+    LOG.debugf("User updated with id: %d", user.id);
+    userCache.evictAfterCommit(user.id);
     return toResponse(user);
   }
 
@@ -110,13 +247,162 @@ public class UserService {
    */
   @Transactional
   public void deleteUser(Long id) {
-    LOG.infof("Deleting user with id: %d", id);
     User user = User.findById(id);
     if (user == null) {
       throw new NotFoundException("User not found with id: " + id);
     }
     user.delete();
-    LOG.infof("User deleted with id: %d", id);
+    userCache.evictAfterCommit(id);
+    LOG.debugf("User deleted with id: %d", id);
+  }
+
+  /**
+   * Parse and validate one line of a bulk import.
+   *
+   * @return the request, or null if the line was rejected
+   */
+  private UserRequest parseImportLine(String line, long number, ImportResult result) {
+    UserRequest request;
+    try {
+      request = objectMapper.readValue(line, UserRequest.class);
+    } catch (JsonProcessingException e) {
+      result.addError(number, "Malformed JSON: " + e.getOriginalMessage());
+      return null;
+    }
+    if (request == null) {
+      result.addError(number, "Expected a user object");
+      return null;
+    }
+    Set<ConstraintViolation<UserRequest>> violations = validator.validate(request);
+    if (!violations.isEmpty()) {
+      result.addError(number,
+          violations.stream().map(v -> v.getPropertyPath() + ": " + v.getMessage()).sorted()
+              .collect(Collectors.joining(", ")));
+      return null;
+    }
+    return request;
+  }
+
+  /**
+   * Insert one batch of a bulk import. Emails repeated within the batch or already taken are
+   * rejected up front, so the batch normally commits in one go; if a concurrent write takes one of
+   * the emails in the meantime, the batch is inserted again row by row.
+   */
+  private void importBatch(List<ImportLine> batch, ImportResult result) {
+    if (batch.isEmpty()) {
+      return;
+    }
+    Map<String, ImportLine> byEmail = new LinkedHashMap<>();
+    for (ImportLine line : batch) {
+      if (byEmail.putIfAbsent(line.request().getEmail(), line) != null) {
+        result.addError(line.number(), "Duplicate email in import: " + line.request().getEmail());
+      }
+    }
+    try {
+      Set<String> taken = QuarkusTransaction.requiringNew().call(() -> {
+        Set<String> existing = new HashSet<>(statelessSession
+            .createSelectionQuery("select email from User where email in :emails", String.class)
+            .setParameter("emails", byEmail.keySet()).getResultList());
+        statelessSession.setJdbcBatchSize(importBatchSize);
+        for (ImportLine line : byEmail.values()) {
+          if (!existing.contains(line.request().getEmail())) {
+            statelessSession.insert(toEntity(line.request()));
+          }
+        }
+        return existing;
+      });
+      for (ImportLine line : byEmail.values()) {
+        if (taken.contains(line.request().getEmail())) {
+          result.addError(line.number(), alreadyExists(line.request().getEmail()));
+        } else {
+          result.addImported(1);
+        }
+      }
+    } catch (RuntimeException e) {
+      if (!isUniqueViolation(e)) {
+        throw e;
+      }
+      LOG.debug("Email taken during bulk import, inserting the batch row by row");
+      byEmail.values().forEach(line -> importRow(line, result));
+    }
+  }
+
+  private void importRow(ImportLine line, ImportResult result) {
+    try {
+      QuarkusTransaction.requiringNew()
+          .run(() -> statelessSession.insert(toEntity(line.request())));
+      result.addImported(1);
+    } catch (RuntimeException e) {
+      if (!isUniqueViolation(e)) {
+        throw e;
+      }
+      result.addError(line.number(), alreadyExists(line.request().getEmail()));
+    }
+  }
+
+  /**
+   * Build a new user entity. Stateless sessions skip entity callbacks, so the timestamps are set
+   * here.
+   */
+  private static User toEntity(UserRequest request) {
+    User user = new User();
+    user.setEmail(request.getEmail());
+    user.setName(request.getName());
+    LocalDateTime now = LocalDateTime.now();
+    user.setCreatedAt(now);
+    user.setUpdatedAt(now);
+    return user;
+  }
+
+  private static String alreadyExists(String email) {
+    return "User with email already exists: " + email;
+  }
+
+  /**
+   * Write a new or changed user right away, relying on the unique constraint on {@code email}
+   * instead of looking the email up first. This takes one round trip and, unlike a lookup, cannot
+   * race with a concurrent write of the same email.
+   *
+   * @param user the user entity
+   * @throws ClientErrorException with status 409 if another user has the email
+   */
+  private static void persistUnique(User user) {
+    try {
+      user.persistAndFlush();
+    } catch (PersistenceException e) {
+      if (isUniqueViolation(e)) {
+        throw new ClientErrorException(alreadyExists(user.getEmail()), Response.Status.CONFLICT);
+      }
+      throw e;
+    }
+  }
+
+  private static boolean isUniqueViolation(Throwable failure) {
+    for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+      if (cause instanceof ConstraintViolationException violation
+          && violation.getKind() == ConstraintViolationException.ConstraintKind.UNIQUE) {
+        return true;
+      }
+      if (cause instanceof SQLException sql && UNIQUE_VIOLATION.equals(sql.getSQLState())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Load a user from the database.
+   *
+   * @param id the user ID
+   * @return the user response
+   * @throws NotFoundException if user not found
+   */
+  private UserResponse loadUser(Long id) {
+    User user = User.findById(id);
+    if (user == null) {
+      throw new NotFoundException("User not found with id: " + id);
+    }
+    return toResponse(user);
   }
 
   /**
@@ -125,8 +411,37 @@ public class UserService {
    * @param user the user entity
    * @return the user response DTO
    */
-  private UserResponse toResponse(User user) {
+  static UserResponse toResponse(User user) {
     return new UserResponse(user.id, user.getEmail(), user.getName(), user.getCreatedAt(),
         user.getUpdatedAt());
   }
+
+  /**
+   * Encode the last seen ID as an opaque, URL-safe page cursor.
+   */
+  private static String encodeCursor(Long lastId) {
+    byte[] raw = (CURSOR_PREFIX + lastId).getBytes(StandardCharsets.UTF_8);
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+  }
+
+  /**
+   * Decode a page cursor back into the last seen ID.
+   */
+  private static long decodeCursor(String cursor) {
+    try {
+      String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      if (!raw.startsWith(CURSOR_PREFIX)) {
+        throw new BadRequestException("Invalid page cursor: " + cursor);
+      }
+      return Long.parseLong(raw.substring(CURSOR_PREFIX.length()));
+    } catch (IllegalArgumentException e) {
+      throw new BadRequestException("Invalid page cursor: " + cursor);
+    }
+  }
+
+  /**
+   * A parsed line of a bulk import.
+   */
+  private record ImportLine(long number, UserRequest request) {
+  }
 }
@@ -1,18 +1,31 @@
 package com.example.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import io.quarkus.arc.DefaultBean;
 import io.quarkus.vault.VaultKVSecretEngine;
+import io.quarkus.virtual.threads.VirtualThreads;
+import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.enterprise.inject.Instance;
 import jakarta.inject.Inject;
+import java.time.Duration;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.jboss.logging.Logger;
 
 /**
  * Service for HashiCorp Vault operations. This service is only available when Vault is configured
  * and available.
+ *
+ * <p>
+ * Secrets read through {@link #getSecret} are cached (see {@link SecretCache}) unless
+ * {@code app.vault.cache.enabled} is false, and writes and deletes through this service drop the
+ * cached copy. Changes made to Vault by others show up once the cached secret's TTL runs out.
+ * Without the cache, concurrent reads of the same path still share one request to Vault.
  */
 @ApplicationScoped
+@Monitored
 @DefaultBean
 public class VaultService {
 
@@ -21,6 +34,42 @@ public class VaultService {
   @Inject
   Instance<VaultKVSecretEngine> kvSecretEngine;
 
+  @Inject
+  MeterRegistry registry;
+
+  // Refreshes cached secrets in the background
+  @Inject
+  @VirtualThreads
+  ExecutorService refreshExecutor;
+
+  @ConfigProperty(name = "app.vault.cache.enabled", defaultValue = "true")
+  boolean cacheEnabled;
+
+  // How long a secret without a ttl key of its own is served without reloading it
+  @ConfigProperty(name = "app.vault.cache.ttl", defaultValue = "5m")
+  Duration cacheTtl;
+
+  // How long past its TTL a secret is still served while Vault cannot be reached
+  @ConfigProperty(name = "app.vault.cache.max-stale", defaultValue = "1h")
+  Duration cacheMaxStale;
+
+  // How long to wait before refreshing a secret again after a refresh failed
+  @ConfigProperty(name = "app.vault.cache.retry-interval", defaultValue = "5s")
+  Duration cacheRetryInterval;
+
+  private SecretCache cache;
+  private SingleFlight<String, Map<String, String>> reads;
+
+  @PostConstruct
+  void init() {
+    if (cacheEnabled) {
+      cache = new SecretCache(this::readSecret, cacheTtl, cacheMaxStale, cacheRetryInterval,
+          refreshExecutor, registry, System::currentTimeMillis);
+    } else {
+      reads = new SingleFlight<>("vault-secrets", registry);
+    }
+  }
+
   /**
    * Retrieves a secret from Vault.
    *
@@ -28,14 +77,19 @@ public class VaultService {
    * @return a map containing the secret key-value pairs
    */
   public Map<String, String> getSecret(String secretPath) {
-    if (!kvSecretEngine.isResolvable()) {
+    return cache != null ? cache.get(secretPath) : reads.load(secretPath, this::readSecret);
+  }
+
+  private Map<String, String> readSecret(String secretPath) {
+    VaultKVSecretEngine engine = engine();
+    if (engine == null) {
       LOG.warn("Vault is not available. Cannot retrieve secret: " + secretPath);
       throw new RuntimeException("Vault is not configured or available");
     }
 
     LOG.infof("Retrieving secret from Vault: %s", secretPath);
     try {
-      return kvSecretEngine.get().readSecret(secretPath);
+      return engine.readSecret(secretPath);
     } catch (Exception e) {
       LOG.errorf("Failed to retrieve secret from Vault: %s", e.getMessage());
       throw new RuntimeException("Failed to retrieve secret from Vault", e);
@@ -49,18 +103,22 @@ public class VaultService {
    * @param secret the secret data as key-value pairs
    */
   public void writeSecret(String secretPath, Map<String, String> secret) {
-    if (!kvSecretEngine.isResolvable()) {
+    VaultKVSecretEngine engine = engine();
+    if (engine == null) {
       LOG.warn("Vault is not available. Cannot write secret: " + secretPath);
       throw new RuntimeException("Vault is not configured or available");
     }
 
     LOG.infof("Writing secret to Vault: %s", secretPath);
     try {
-      kvSecretEngine.get().writeSecret(secretPath, secret);
+      engine.writeSecret(secretPath, secret);
       LOG.infof("Successfully wrote secret to Vault: %s", secretPath);
     } catch (Exception e) {
       LOG.errorf("Failed to write secret to Vault: %s", e.getMessage());
       throw new RuntimeException("Failed to write secret to Vault", e);
+    } finally {
+      // Also after a failure, which may have reached Vault
+      invalidate(secretPath);
     }
   }
 
@@ -70,18 +128,22 @@ public class VaultService {
    * @param secretPath the path to the secret to delete
    */
   public void deleteSecret(String secretPath) {
-    if (!kvSecretEngine.isResolvable()) {
+    VaultKVSecretEngine engine = engine();
+    if (engine == null) {
       LOG.warn("Vault is not available. Cannot delete secret: " + secretPath);
       throw new RuntimeException("Vault is not configured or available");
     }
 
     LOG.infof("Deleting secret from Vault: %s", secretPath);
     try {
-      kvSecretEngine.get().deleteSecret(secretPath);
+      engine.deleteSecret(secretPath);
       LOG.infof("Successfully deleted secret from Vault: %s", secretPath);
     } catch (Exception e) {
       LOG.errorf("Failed to delete secret from Vault: %s", e.getMessage());
       throw new RuntimeException("Failed to delete secret from Vault", e);
+    } finally {
+      // Also after a failure, which may have reached Vault
+      invalidate(secretPath);
     }
   }
 
@@ -93,4 +155,19 @@ public class VaultService {
   public boolean isVaultAvailable() {
     return kvSecretEngine.isResolvable();
   }
+
+  /**
+   * The KV secret engine, or null when Vault is not configured.
+   */
+  VaultKVSecretEngine engine() {
+    return kvSecretEngine.isResolvable() ? kvSecretEngine.get() : null;
+  }
+
+  private void invalidate(String secretPath) {
+    if (cache != null) {
+      cache.invalidate(secretPath);
+    } else {
+      reads.forget(secretPath);
+    }
+  }
 }
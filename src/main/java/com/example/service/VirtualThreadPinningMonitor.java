@@ -0,0 +1,118 @@
+package com.example.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reports virtual threads that stay pinned to their carrier thread, typically because they block
+ * inside a {@code synchronized} block or a native call, as JDBC drivers and HTTP clients still do
+ * in places. A pinned virtual thread occupies one of the few carrier threads for as long as it
+ * blocks, so frequent pinning undoes the benefit of running blocking resources on virtual threads.
+ *
+ * <p>
+ * Pinning is observed through the JDK Flight Recorder {@code jdk.VirtualThreadPinned} event and
+ * recorded in the {@code jvm.threads.virtual.pinned} timer, tagged with the first frame outside the
+ * JDK. The stack of each new pinning site is logged once.
+ */
+@ApplicationScoped
+public class VirtualThreadPinningMonitor {
+
+  private static final Logger LOG = Logger.getLogger(VirtualThreadPinningMonitor.class);
+
+  private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+  private static final List<String> JDK_PACKAGES = List.of("java.", "javax.", "jdk.", "sun.");
+
+  @Inject
+  MeterRegistry registry;
+
+  @ConfigProperty(name = "app.virtual-threads.enabled", defaultValue = "false")
+  boolean enabled;
+
+  // Shortest pinning that is reported
+  @ConfigProperty(name = "app.virtual-threads.pinned-threshold", defaultValue = "20ms")
+  Duration threshold;
+
+  private final Set<String> loggedSites = ConcurrentHashMap.newKeySet();
+  private RecordingStream stream;
+
+  void onStart(@Observes StartupEvent event) {
+    if (!enabled) {
+      return;
+    }
+    if (Runtime.version().feature() < 21) {
+      LOG.infof("Virtual thread pinning is not monitored: Java %d has no virtual threads",
+          Runtime.version().feature());
+      return;
+    }
+    stream = new RecordingStream();
+    stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+    stream.onEvent(PINNED_EVENT, this::record);
+    stream.startAsync();
+    LOG.infof("Reporting virtual threads pinned for more than %s", threshold);
+  }
+
+  @PreDestroy
+  void shutdown() {
+    if (stream != null) {
+      stream.close();
+    }
+  }
+
+  private void record(RecordedEvent event) {
+    String site = site(event.getStackTrace());
+    Timer.builder("jvm.threads.virtual.pinned").tag("site", site)
+        .description("Time virtual threads blocked while pinned to their carrier thread")
+        .register(registry).record(event.getDuration());
+    if (loggedSites.add(site)) {
+      LOG.warnf("Virtual thread pinned for %d ms at %s%s", event.getDuration().toMillis(), site,
+          format(event.getStackTrace()));
+    }
+  }
+
+  /**
+   * The first frame outside the JDK, which names the library or application code that pinned the
+   * thread.
+   */
+  private static String site(RecordedStackTrace stackTrace) {
+    if (stackTrace == null) {
+      return "unknown";
+    }
+    for (RecordedFrame frame : stackTrace.getFrames()) {
+      String type = frame.getMethod().getType().getName();
+      if (JDK_PACKAGES.stream().noneMatch(type::startsWith)) {
+        return type + "." + frame.getMethod().getName();
+      }
+    }
+    return "jdk";
+  }
+
+  private static String format(RecordedStackTrace stackTrace) {
+    if (stackTrace == null) {
+      return "";
+    }
+    StringBuilder trace = new StringBuilder();
+    for (RecordedFrame frame : stackTrace.getFrames()) {
+      trace.append(System.lineSeparator()).append("\tat ")
+          .append(frame.getMethod().getType().getName()).append('.')
+          .append(frame.getMethod().getName()).append(':').append(frame.getLineNumber());
+    }
+    return trace.toString();
+  }
+}
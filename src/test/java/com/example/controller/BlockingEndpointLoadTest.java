@@ -0,0 +1,132 @@
+package com.example.controller;
+
+import com.example.dto.UserRequest;
+import com.example.dto.UserResponse;
+import com.example.service.UserService;
+import io.quarkus.arc.ClientProxy;
+import io.quarkus.test.common.http.TestHTTPResource;
+import io.quarkus.test.junit.QuarkusMock;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.BeforeEach;
+
+import java.net.URI;
+import java.net.URL;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Throughput of a blocking user endpoint at high concurrency, against a database stand-in that
+ * takes a fixed time per lookup. Subclasses run it with the worker pool and with virtual threads.
+ *
+ * <p>
+ * On the worker pool, throughput cannot exceed {@link #workerPoolCeiling()}, the number of worker
+ * threads times the lookups one thread completes per second; on virtual threads it should not be
+ * bound by the pool.
+ */
+abstract class BlockingEndpointLoadTest {
+
+  static final int CONCURRENCY = 1024;
+  static final int WORKER_THREADS = 64;
+  static final long DB_LATENCY_MILLIS = 20;
+  static final Duration RUN_TIME = Duration.ofSeconds(10);
+
+  private Long userId;
+
+  @TestHTTPResource("/api/users")
+  URL usersUrl;
+
+  @Inject
+  UserService userService;
+
+  /**
+   * Small worker pool and no rate limits, so that the load saturates the pool and is not throttled.
+   */
+  abstract static class LoadProfile implements QuarkusTestProfile {
+
+    abstract boolean virtualThreads();
+
+    @Override
+    public Map<String, String> getConfigOverrides() {
+      return Map.of("quarkus.thread-pool.max-threads", String.valueOf(WORKER_THREADS),
+          "app.rate-limit.capacity", "100000000", "app.rate-limit.ddos-threshold", "100000000",
+          "app.virtual-threads.enabled", String.valueOf(virtualThreads()));
+    }
+  }
+
+  @BeforeEach
+  void slowDatabase() {
+    UserService delegate = ClientProxy.unwrap(userService);
+    String email = "load-" + System.nanoTime() + "@example.com";
+    userId = delegate.createUser(new UserRequest(email, "Load User")).getId();
+    QuarkusMock.installMockForType(new SlowUserService(delegate), UserService.class);
+  }
+
+  static double workerPoolCeiling() {
+    return WORKER_THREADS * 1000.0 / DB_LATENCY_MILLIS;
+  }
+
+  /**
+   * Keep {@link #CONCURRENCY} lookups in flight for {@link #RUN_TIME}.
+   *
+   * @return completed lookups per second
+   */
+  double measureThroughput() throws Exception {
+    HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    HttpRequest request = HttpRequest.newBuilder(URI.create(usersUrl + "/" + userId)).GET().build();
+    Semaphore inFlight = new Semaphore(CONCURRENCY);
+    AtomicLong completed = new AtomicLong();
+    AtomicLong failed = new AtomicLong();
+
+    long start = System.nanoTime();
+    long end = start + RUN_TIME.toNanos();
+    while (System.nanoTime() < end) {
+      inFlight.acquire();
+      client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+          .whenComplete((response, error) -> {
+            if (error == null && response.statusCode() == 200) {
+              completed.incrementAndGet();
+            } else {
+              failed.incrementAndGet();
+            }
+            inFlight.release();
+          });
+    }
+    inFlight.acquire(CONCURRENCY);
+    double throughput = completed.get() / ((System.nanoTime() - start) / 1e9);
+
+    System.out.printf("%s: %.0f req/s at %d connections (worker pool ceiling %.0f req/s)%n",
+        getClass().getSimpleName(), throughput, CONCURRENCY, workerPoolCeiling());
+    assertEquals(0, failed.get(), "Failed requests");
+    return throughput;
+  }
+
+  /**
+   * User service whose lookups take a while, as if the database were slow.
+   */
+  private static final class SlowUserService extends UserService {
+    private final UserService delegate;
+
+    SlowUserService(UserService delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public UserResponse getUserById(Long id) {
+      try {
+        Thread.sleep(DB_LATENCY_MILLIS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException(e);
+      }
+      return delegate.getUserById(id);
+    }
+  }
+}
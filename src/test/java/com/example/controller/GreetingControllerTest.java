@@ -6,6 +6,7 @@ import org.junit.jupiter.api.Test;
 
 import static io.restassured.RestAssured.given;
 import static org.hamcrest.CoreMatchers.*;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * Integration tests for GreetingController.
@@ -19,6 +20,17 @@ class GreetingControllerTest {
         .body("message", notNullValue()).body("timestamp", notNullValue());
   }
 
+  @Test
+  void testDefaultGreetingIsLocalized() {
+    given().header("Accept-Language", "id-ID,id;q=0.9,en;q=0.8").when().get("/api/greeting").then()
+        .statusCode(200).contentType(ContentType.JSON).header("Content-Language", "id")
+        .header("Vary", containsString("Accept-Language")).body("message", startsWith("Halo"))
+        .body("timestamp", notNullValue());
+
+    given().header("Accept-Language", "fr").when().get("/api/greeting").then().statusCode(200)
+        .header("Content-Language", "en").body("message", startsWith("Hello"));
+  }
+
   @Test
   void testGetGreetingByName() {
     String name = "John";
@@ -28,6 +40,21 @@ class GreetingControllerTest {
         .body("timestamp", notNullValue());
   }
 
+  @Test
+  void testConditionalGetGreetingByName() {
+    String etag = given().when().get("/api/greeting/{name}", "Etag").then().statusCode(200)
+        .header("Cache-Control", containsString("max-age")).extract().header("ETag");
+    assertTrue(etag.startsWith("W/\""), etag);
+
+    given().header("If-None-Match", etag).when().get("/api/greeting/{name}", "Etag").then()
+        .statusCode(304).header("ETag", etag).header("Vary", containsString("Accept-Language"));
+    given().header("If-None-Match", etag).when().get("/api/greeting/{name}", "Other").then()
+        .statusCode(200).header("ETag", not(etag));
+    given().header("If-None-Match", etag).header("Accept-Language", "id").when()
+        .get("/api/greeting/{name}", "Etag").then().statusCode(200)
+        .body("message", startsWith("Halo"));
+  }
+
   @Test
   void testGetGreetingByNameWithBlankName() {
     // Note: Spaces in path parameters get URL encoded and may be treated as valid
@@ -46,6 +73,13 @@ class GreetingControllerTest {
         .body("timestamp", notNullValue());
   }
 
+  @Test
+  void testCreateLocalizedGreeting() {
+    given().contentType(ContentType.JSON).header("Accept-Language", "id")
+        .body("{\"name\": \"Budi\"}").when().post("/api/greeting").then().statusCode(201)
+        .body("message", equalTo("Halo, Budi! Selamat datang di Quarkus Template."));
+  }
+
   @Test
   void testCreateGreetingWithInvalidRequest() {
     String requestBody = "{\"name\": \"A\"}";
@@ -0,0 +1,171 @@
+package com.example.controller;
+
+import com.example.dto.UserRequest;
+import com.example.load.LatencySlo;
+import com.example.load.LoadResult;
+import com.example.load.OpenLoadGenerator;
+import com.example.service.InMemoryKafkaResource;
+import com.example.service.UserService;
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.common.http.TestHTTPResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.net.URI;
+import java.net.URL;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * End-to-end latency of the greeting, user and secured APIs under an open-model arrival rate,
+ * checked against p50/p99/p99.9 objectives for successful responses.
+ *
+ * <p>
+ * The arrival rate and run time come from {@code -Dload.rate} (requests per second, default 200)
+ * and {@code -Dload.duration} (seconds, default 10), and each scenario's objective from
+ * {@code -Dload.slo.<scenario>=p50,p99,p99.9} in milliseconds. Rate limits are lifted so that only
+ * the application itself is measured; RateLimitSaturationLoadTest covers the limiter.
+ *
+ * Note: This test is skipped by default. Run it with
+ * {@code mvn test -Dtest=HttpLoadTest -Dload-tests=true}.
+ */
+@QuarkusTest
+@TestProfile(HttpLoadTest.LoadProfile.class)
+@QuarkusTestResource(value = InMemoryKafkaResource.class, restrictToAnnotatedClass = true)
+@EnabledIfSystemProperty(named = "load-tests", matches = "true")
+class HttpLoadTest {
+
+  static final double RATE = Double.parseDouble(System.getProperty("load.rate", "200"));
+  static final Duration DURATION = Duration.ofSeconds(Long.getLong("load.duration", 10));
+  static final int MAX_IN_FLIGHT = 2048;
+
+  @TestHTTPResource("/api/greeting")
+  URL greetingUrl;
+
+  @TestHTTPResource("/api/users")
+  URL usersUrl;
+
+  @TestHTTPResource("/api/secured")
+  URL securedUrl;
+
+  @Inject
+  UserService userService;
+
+  private final OpenLoadGenerator generator = new OpenLoadGenerator(MAX_IN_FLIGHT);
+
+  /**
+   * No rate limits, and HTTP basic authentication against the users in {@code users.properties}.
+   */
+  public static class LoadProfile implements QuarkusTestProfile {
+    @Override
+    public Map<String, String> getConfigOverrides() {
+      return Map.of("quarkus.http.auth.basic", "true", "app.rate-limit.capacity", "100000000",
+          "app.rate-limit.ddos-threshold", "100000000",
+          "app.rate-limit.policies.user-writes.capacity", "100000000",
+          "app.rate-limit.policies.admin.capacity", "100000000");
+    }
+  }
+
+  @Test
+  void testGreetingLatency() throws Exception {
+    URI greeting = URI.create(greetingUrl.toString());
+    URI personal = URI.create(greetingUrl + "/Alice");
+    URI create = URI.create(greetingUrl.toString());
+
+    LoadResult result = generator.run("greeting", RATE, DURATION, i -> switch ((int) (i % 4)) {
+      case 0, 1 -> HttpRequest.newBuilder(greeting).GET().build();
+      case 2 -> HttpRequest.newBuilder(personal).GET().build();
+      default ->
+        json(create).POST(HttpRequest.BodyPublishers.ofString("{\"name\":\"Alice\"}")).build();
+    });
+
+    System.out.println(result);
+    result.assertSlo(LatencySlo.fromProperty("load.slo.greeting", LatencySlo.ofMillis(5, 50, 200)));
+  }
+
+  /**
+   * Reads, updates, creates and deletes in a 5:2:2:1 mix. Users to read and update are created up
+   * front; each delete removes one created up front for that purpose.
+   */
+  @Test
+  void testUserCrudLatency() throws Exception {
+    List<Long> existing = createUsers("load-read", 100);
+    long deletes = (long) (RATE * DURATION.toSeconds() / 10) + 1;
+    ConcurrentLinkedQueue<Long> deletable =
+        new ConcurrentLinkedQueue<>(createUsers("load-delete", (int) deletes));
+    AtomicLong created = new AtomicLong();
+    String run = Long.toString(System.nanoTime(), 36);
+
+    LoadResult result = generator.run("users", RATE, DURATION, i -> {
+      long id = existing.get((int) (i % existing.size()));
+      return switch ((int) (i % 10)) {
+        case 0, 1, 2 -> HttpRequest.newBuilder(URI.create(usersUrl + "/" + id)).GET().build();
+        case 3, 4 -> HttpRequest.newBuilder(URI.create(usersUrl + "?size=20")).GET().build();
+        case 5, 6 -> json(URI.create(usersUrl + "/" + id))
+            .PUT(HttpRequest.BodyPublishers.ofString(userJson("load-read-" + id, i))).build();
+        case 7,
+            8 ->
+          json(URI.create(usersUrl.toString())).POST(HttpRequest.BodyPublishers
+              .ofString(userJson("load-" + run + "-" + created.incrementAndGet(), i))).build();
+        default ->
+          HttpRequest.newBuilder(URI.create(usersUrl + "/" + deletable.remove())).DELETE().build();
+      };
+    });
+
+    System.out.println(result);
+    result.assertSlo(LatencySlo.fromProperty("load.slo.users", LatencySlo.ofMillis(20, 200, 500)));
+  }
+
+  @Test
+  void testSecuredLatency() throws Exception {
+    URI publicUri = URI.create(securedUrl + "/public");
+    URI userUri = URI.create(securedUrl + "/user");
+    URI adminUri = URI.create(securedUrl + "/admin");
+
+    LoadResult result = generator.run("secured", RATE, DURATION, i -> switch ((int) (i % 3)) {
+      case 0 -> HttpRequest.newBuilder(publicUri).GET().build();
+      case 1 -> HttpRequest.newBuilder(userUri).header("Authorization", basic("user", "user")).GET()
+          .build();
+      default -> HttpRequest.newBuilder(adminUri).header("Authorization", basic("admin", "admin"))
+          .GET().build();
+    });
+
+    System.out.println(result);
+    result
+        .assertSlo(LatencySlo.fromProperty("load.slo.secured", LatencySlo.ofMillis(10, 100, 300)));
+  }
+
+  private List<Long> createUsers(String prefix, int count) {
+    String run = Long.toString(System.nanoTime(), 36);
+    List<Long> ids = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      String email = prefix + "-" + run + "-" + i + "@example.com";
+      ids.add(userService.createUser(new UserRequest(email, "Load User " + i)).getId());
+    }
+    return ids;
+  }
+
+  private static HttpRequest.Builder json(URI uri) {
+    return HttpRequest.newBuilder(uri).header("Content-Type", "application/json");
+  }
+
+  private static String userJson(String emailUser, long arrival) {
+    return "{\"email\":\"" + emailUser + "@example.com\",\"name\":\"Load User " + arrival + "\"}";
+  }
+
+  private static String basic(String user, String password) {
+    return "Basic " + Base64.getEncoder()
+        .encodeToString((user + ":" + password).getBytes(StandardCharsets.UTF_8));
+  }
+}
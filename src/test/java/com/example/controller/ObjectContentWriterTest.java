@@ -0,0 +1,157 @@
+package com.example.controller;
+
+import io.netty.buffer.UnpooledByteBufAllocator;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for ObjectContentWriter against a plain Vert.x HTTP server.
+ */
+class ObjectContentWriterTest {
+
+  private static final int BUFFER_SIZE = 16 * 1024;
+
+  private Vertx vertx;
+  private HttpServer server;
+  private ObjectContentWriter writer;
+  private UnpooledByteBufAllocator allocator;
+  private volatile Supplier<ObjectContent> content;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    writer = new ObjectContentWriter();
+    writer.bufferSize = BUFFER_SIZE;
+    // Instrumented allocator, so the test can check every buffer was released
+    allocator = new UnpooledByteBufAllocator(true);
+    writer.allocator = allocator;
+
+    vertx = Vertx.vertx();
+    server = vertx.createHttpServer()
+        .requestHandler(request -> vertx
+            .executeBlocking(() -> writer.transfer(content.get(), request.response()), false))
+        .listen(0).toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+  }
+
+  @AfterEach
+  void tearDown() throws Exception {
+    vertx.close().toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+  }
+
+  @Test
+  void testContentIsStreamedWithLength() throws Exception {
+    byte[] data = new byte[5 * BUFFER_SIZE + 123];
+    new Random(42).nextBytes(data);
+    content = () -> new ObjectContent(new ByteArrayInputStream(data), data.length);
+
+    HttpResponse<byte[]> response = get();
+
+    assertEquals(200, response.statusCode());
+    assertEquals(String.valueOf(data.length),
+        response.headers().firstValue("Content-Length").orElse(null));
+    assertArrayEquals(data, response.body());
+    assertBuffersReleased();
+  }
+
+  @Test
+  void testContentOfUnknownLengthIsChunked() throws Exception {
+    byte[] data = "hello object".getBytes(StandardCharsets.UTF_8);
+    content = () -> new ObjectContent(new ByteArrayInputStream(data), -1);
+
+    HttpResponse<byte[]> response = get();
+
+    assertEquals("chunked", response.headers().firstValue("Transfer-Encoding").orElse(null));
+    assertArrayEquals(data, response.body());
+    assertBuffersReleased();
+  }
+
+  @Test
+  void testSlowClientPausesReading() throws Exception {
+    long size = 1024L * 1024 * 1024;
+    AtomicLong served = new AtomicLong();
+    content = () -> new ObjectContent(new CountingStream(size, served), size);
+
+    try (Socket socket = new Socket("localhost", server.actualPort())) {
+      socket.setReceiveBufferSize(64 * 1024);
+      socket.getOutputStream().write(
+          "GET /big HTTP/1.1\r\nHost: localhost\r\n\r\n".getBytes(StandardCharsets.US_ASCII));
+      // Never read the response: once socket buffers and the write queue are full, the writer
+      // must stop pulling from the source
+      long before;
+      long after = served.get();
+      do {
+        before = after;
+        Thread.sleep(500);
+        after = served.get();
+      } while (after != before);
+
+      assertTrue(after < 64L * 1024 * 1024, "Read " + after + " bytes ahead of the client");
+    }
+  }
+
+  private HttpResponse<byte[]> get() throws Exception {
+    HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    return client.send(HttpRequest
+        .newBuilder(URI.create("http://localhost:" + server.actualPort() + "/o")).build(),
+        HttpResponse.BodyHandlers.ofByteArray());
+  }
+
+  private void assertBuffersReleased() throws InterruptedException {
+    // Buffers are released once flushed, which may be just after the client saw the last byte
+    long deadline = System.currentTimeMillis() + 5000;
+    while (allocator.metric().usedDirectMemory() > 0 && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    assertEquals(0, allocator.metric().usedDirectMemory());
+  }
+
+  /**
+   * Stream of zeros that records how many bytes were read from it.
+   */
+  private static final class CountingStream extends InputStream {
+    private final long size;
+    private final AtomicLong position;
+
+    CountingStream(long size, AtomicLong position) {
+      this.size = size;
+      this.position = position;
+    }
+
+    @Override
+    public int read() {
+      if (position.get() >= size) {
+        return -1;
+      }
+      position.incrementAndGet();
+      return 0;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+      long remaining = size - position.get();
+      if (remaining <= 0) {
+        return -1;
+      }
+      int count = (int) Math.min(len, remaining);
+      position.addAndGet(count);
+      return count;
+    }
+  }
+}
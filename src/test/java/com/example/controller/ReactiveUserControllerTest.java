@@ -0,0 +1,76 @@
+package com.example.controller;
+
+import com.example.dto.UserResponse;
+import com.example.service.ReactiveUserService;
+import io.quarkus.test.junit.QuarkusMock;
+import io.quarkus.test.junit.QuarkusTest;
+import io.restassured.http.ContentType;
+import io.smallrye.mutiny.Uni;
+import jakarta.ws.rs.ServiceUnavailableException;
+import org.junit.jupiter.api.Test;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.*;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+
+/**
+ * Integration tests for ReactiveUserController.
+ */
+@QuarkusTest
+class ReactiveUserControllerTest {
+
+  @Test
+  void testUserLifecycle() {
+    String createBody = "{\"email\": \"v2@example.com\", \"name\": \"V2 User\"}";
+    Integer id = given().contentType(ContentType.JSON).body(createBody).when().post("/api/v2/users")
+        .then().statusCode(201).contentType(ContentType.JSON)
+        .body("email", equalTo("v2@example.com")).body("id", notNullValue()).extract().path("id");
+
+    given().when().get("/api/v2/users/{id}", id).then().statusCode(200).body("name",
+        equalTo("V2 User"));
+
+    String updateBody = "{\"email\": \"v2-updated@example.com\", \"name\": \"V2 Updated\"}";
+    given().contentType(ContentType.JSON).body(updateBody).when().put("/api/v2/users/{id}", id)
+        .then().statusCode(200).body("email", equalTo("v2-updated@example.com"));
+
+    given().when().delete("/api/v2/users/{id}", id).then().statusCode(204);
+    given().when().get("/api/v2/users/{id}", id).then().statusCode(404)
+        .contentType(ContentType.JSON).body("status", equalTo(404));
+  }
+
+  @Test
+  void testCreateUserWithInvalidEmail() {
+    String requestBody = "{\"email\": \"invalid-email\", \"name\": \"Test User\"}";
+    given().contentType(ContentType.JSON).body(requestBody).when().post("/api/v2/users").then()
+        .statusCode(400);
+  }
+
+  @Test
+  void testGetUsersWithInvalidCursor() {
+    given().queryParam("cursor", "not-a-cursor").when().get("/api/v2/users").then().statusCode(400);
+  }
+
+  @Test
+  void testBusyUserStoreAsksClientsToRetryLater() {
+    QuarkusMock.installMockForType(new ReactiveUserService() {
+      @Override
+      public Uni<UserResponse> getUserById(Long id) {
+        return Uni.createFrom()
+            .failure(new ServiceUnavailableException("User store is busy, please retry later", 1L));
+      }
+    }, ReactiveUserService.class);
+
+    given().when().get("/api/v2/users/{id}", 1).then().statusCode(503).header("Retry-After", "1")
+        .contentType(ContentType.JSON).body("status", equalTo(503));
+  }
+
+  @Test
+  void testStreamAllUsers() {
+    String requestBody = "{\"email\": \"v2-stream@example.com\", \"name\": \"Stream User\"}";
+    given().contentType(ContentType.JSON).body(requestBody).when().post("/api/v2/users").then()
+        .statusCode(201);
+
+    given().when().get("/api/v2/users/stream").then().statusCode(200).contentType(ContentType.JSON)
+        .body("size()", greaterThanOrEqualTo(1)).body("email", hasItem("v2-stream@example.com"));
+  }
+}
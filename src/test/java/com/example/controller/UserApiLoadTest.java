@@ -0,0 +1,179 @@
+package com.example.controller;
+
+import com.example.dto.UserPage;
+import com.example.service.UserService;
+import io.quarkus.arc.ClientProxy;
+import io.quarkus.test.common.http.TestHTTPResource;
+import io.quarkus.test.junit.QuarkusMock;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.net.URI;
+import java.net.URL;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Load test comparing the blocking and the reactive user API against a slow database.
+ *
+ * <p>
+ * The database is stood in for by a {@link UserService} that holds one of a fixed number of
+ * permits, like a connection pool, for a fixed time per page query. While many concurrent clients
+ * list users, a probe measures the latency of the blocking greeting endpoint, which shares the
+ * worker pool with the blocking user API.
+ *
+ * Note: This test is skipped by default. Run it with
+ * {@code mvn test -Dtest=UserApiLoadTest -Dload-tests=true}.
+ */
+@QuarkusTest
+@TestProfile(UserApiLoadTest.LoadProfile.class)
+@EnabledIfSystemProperty(named = "load-tests", matches = "true")
+class UserApiLoadTest {
+
+  private static final int CONCURRENCY = 1024;
+  private static final int DB_CONNECTIONS = 16;
+  private static final long DB_LATENCY_MILLIS = 50;
+  private static final Duration RUN_TIME = Duration.ofSeconds(10);
+
+  @TestHTTPResource("/api/users")
+  URL blockingUrl;
+
+  @TestHTTPResource("/api/v2/users")
+  URL reactiveUrl;
+
+  @TestHTTPResource("/api/greeting")
+  URL probeUrl;
+
+  @Inject
+  UserService userService;
+
+  /**
+   * Small worker pool and no rate limits, so that the load saturates the pool and is not throttled.
+   */
+  public static class LoadProfile implements QuarkusTestProfile {
+    @Override
+    public Map<String, String> getConfigOverrides() {
+      return Map.of("quarkus.thread-pool.max-threads", "64", "app.rate-limit.capacity", "100000000",
+          "app.rate-limit.ddos-threshold", "100000000", "app.users.reactive.pool-size",
+          String.valueOf(DB_CONNECTIONS), "app.users.reactive.max-queued",
+          String.valueOf(CONCURRENCY));
+    }
+  }
+
+  @BeforeEach
+  void slowDatabase() {
+    QuarkusMock.installMockForType(new SlowUserService(ClientProxy.unwrap(userService)),
+        UserService.class);
+  }
+
+  @Test
+  void testReactiveApiKeepsWorkerPoolResponsive() throws Exception {
+    Result blocking = run(blockingUrl);
+    Result reactive = run(reactiveUrl);
+
+    System.out.printf("blocking: %s%nreactive: %s%n", blocking, reactive);
+    assertTrue(reactive.probeP99Millis() < blocking.probeP99Millis(),
+        String.format(
+            "Probe p99 was %d ms behind the reactive API and %d ms behind the blocking API",
+            reactive.probeP99Millis(), blocking.probeP99Millis()));
+  }
+
+  private Result run(URL target) throws Exception {
+    HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    HttpRequest request = HttpRequest.newBuilder(URI.create(target + "?size=10")).GET().build();
+    Semaphore inFlight = new Semaphore(CONCURRENCY);
+    AtomicLong completed = new AtomicLong();
+    AtomicLong failed = new AtomicLong();
+    AtomicBoolean running = new AtomicBoolean(true);
+
+    List<Long> probeLatencies = Collections.synchronizedList(new ArrayList<>());
+    Thread probe = new Thread(() -> {
+      HttpRequest probeRequest = HttpRequest.newBuilder(URI.create(probeUrl.toString())).build();
+      while (running.get()) {
+        long start = System.nanoTime();
+        try {
+          client.send(probeRequest, HttpResponse.BodyHandlers.discarding());
+        } catch (Exception e) {
+          return;
+        }
+        probeLatencies.add((System.nanoTime() - start) / 1_000_000);
+      }
+    });
+
+    long start = System.nanoTime();
+    long end = start + RUN_TIME.toNanos();
+    probe.start();
+    while (System.nanoTime() < end) {
+      inFlight.acquire();
+      client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+          .whenComplete((response, error) -> {
+            if (error == null && response.statusCode() == 200) {
+              completed.incrementAndGet();
+            } else {
+              failed.incrementAndGet();
+            }
+            inFlight.release();
+          });
+    }
+    inFlight.acquire(CONCURRENCY);
+    running.set(false);
+    probe.join();
+    double seconds = (System.nanoTime() - start) / 1e9;
+
+    List<Long> latencies = new ArrayList<>(probeLatencies);
+    Collections.sort(latencies);
+    long p99 = latencies.isEmpty() ? Long.MAX_VALUE
+        : latencies.get((int) Math.ceil(latencies.size() * 0.99) - 1);
+    return new Result(completed.get() / seconds, failed.get(), p99);
+  }
+
+  private record Result(double throughput, long failed, long probeP99Millis) {
+    @Override
+    public String toString() {
+      return String.format("%.0f req/s, %d failed, probe p99 %d ms", throughput, failed,
+          probeP99Millis);
+    }
+  }
+
+  /**
+   * User service whose page queries wait for one of a few connections and take a while.
+   */
+  private static final class SlowUserService extends UserService {
+    private final UserService delegate;
+    private final Semaphore connections = new Semaphore(DB_CONNECTIONS);
+
+    SlowUserService(UserService delegate) {
+      this.delegate = delegate;
+    }
+
+    @Override
+    public UserPage getUsersPage(String cursor, Integer size) {
+      connections.acquireUninterruptibly();
+      try {
+        Thread.sleep(DB_LATENCY_MILLIS);
+        return delegate.getUsersPage(cursor, size);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException(e);
+      } finally {
+        connections.release();
+      }
+    }
+  }
+}
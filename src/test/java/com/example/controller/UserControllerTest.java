@@ -2,14 +2,20 @@ package com.example.controller;
 
 import io.quarkus.test.junit.QuarkusTest;
 import io.restassured.http.ContentType;
+import io.restassured.response.Response;
 import org.junit.jupiter.api.MethodOrderer;
 import org.junit.jupiter.api.Order;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestMethodOrder;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static io.restassured.RestAssured.given;
 import static org.hamcrest.CoreMatchers.*;
 import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * Integration tests for UserController.
@@ -91,6 +97,29 @@ class UserControllerTest {
     given().when().get("/api/users/{id}", createdUserId).then().statusCode(404);
   }
 
+  @Test
+  void testConditionalGetUserById() {
+    String requestBody = "{\"email\": \"etag@example.com\", \"name\": \"Etag User\"}";
+    Response created =
+        given().contentType(ContentType.JSON).body(requestBody).when().post("/api/users").then()
+            .statusCode(201).header("ETag", notNullValue()).extract().response();
+    Integer id = created.path("id");
+    String etag = created.header("ETag");
+
+    given().when().get("/api/users/{id}", id).then().statusCode(200).header("ETag", etag)
+        .header("Cache-Control", containsString("no-cache"));
+    given().header("If-None-Match", etag).when().get("/api/users/{id}", id).then().statusCode(304)
+        .header("ETag", etag).body(is(""));
+
+    String updateBody = "{\"email\": \"etag@example.com\", \"name\": \"Renamed User\"}";
+    String updated = given().contentType(ContentType.JSON).body(updateBody).when()
+        .put("/api/users/{id}", id).then().statusCode(200).extract().header("ETag");
+    assertNotEquals(etag, updated);
+
+    given().header("If-None-Match", etag).when().get("/api/users/{id}", id).then().statusCode(200)
+        .header("ETag", updated).body("name", equalTo("Renamed User"));
+  }
+
   @Test
   void testCreateUserWithInvalidEmail() {
     String requestBody = "{\"email\": \"invalid-email\", \"name\": \"Test User\"}";
@@ -107,6 +136,16 @@ class UserControllerTest {
         .statusCode(400).contentType(ContentType.JSON);
   }
 
+  @Test
+  void testCreateUserWithDuplicateEmail() {
+    String requestBody = "{\"email\": \"duplicate@example.com\", \"name\": \"Test User\"}";
+    given().contentType(ContentType.JSON).body(requestBody).when().post("/api/users").then()
+        .statusCode(201);
+
+    given().contentType(ContentType.JSON).body(requestBody).when().post("/api/users").then()
+        .statusCode(409).contentType(ContentType.JSON).body("status", equalTo(409));
+  }
+
   @Test
   void testGetNonExistentUser() {
     given().when().get("/api/users/{id}", 99999L).then().statusCode(404);
@@ -124,4 +163,69 @@ class UserControllerTest {
   void testDeleteNonExistentUser() {
     given().when().delete("/api/users/{id}", 99999L).then().statusCode(404);
   }
+
+  @Test
+  void testGetUsersFollowingCursor() {
+    for (int i = 0; i < 3; i++) {
+      String requestBody =
+          "{\"email\": \"page" + i + "@example.com\", \"name\": \"Page User " + i + "\"}";
+      given().contentType(ContentType.JSON).body(requestBody).when().post("/api/users").then()
+          .statusCode(201);
+    }
+
+    List<Integer> ids = new ArrayList<>();
+    String cursor = null;
+    do {
+      Response response = cursor == null ? given().queryParam("size", 1).when().get("/api/users")
+          : given().queryParam("size", 1).queryParam("cursor", cursor).when().get("/api/users");
+      response.then().statusCode(200).body("size()", equalTo(1));
+      ids.add(response.path("[0].id"));
+      cursor = response.getHeader("X-Next-Cursor");
+    } while (cursor != null);
+
+    assertTrue(ids.size() >= 3);
+    for (int i = 1; i < ids.size(); i++) {
+      assertTrue(ids.get(i) > ids.get(i - 1), "Pages must be ordered by ascending id");
+    }
+  }
+
+  @Test
+  void testGetUsersWithInvalidCursor() {
+    given().queryParam("cursor", "not-a-cursor").when().get("/api/users").then().statusCode(400);
+  }
+
+  @Test
+  void testGetUsersWithInvalidPageSize() {
+    given().queryParam("size", 0).when().get("/api/users").then().statusCode(400);
+  }
+
+  @Test
+  void testStreamAllUsers() {
+    String requestBody = "{\"email\": \"stream@example.com\", \"name\": \"Stream User\"}";
+    given().contentType(ContentType.JSON).body(requestBody).when().post("/api/users").then()
+        .statusCode(201);
+
+    given().when().get("/api/users/stream").then().statusCode(200).contentType(ContentType.JSON)
+        .body("size()", greaterThanOrEqualTo(1)).body("email", hasItem("stream@example.com"));
+  }
+
+  @Test
+  void testBulkImportReportsRejectedLines() {
+    String body = String.join("\n", "{\"email\": \"bulk-1@example.com\", \"name\": \"Bulk One\"}",
+        "{\"email\": \"not-an-email\", \"name\": \"Bulk Two\"}", "",
+        "{\"email\": \"bulk-3@example.com\", \"name\": \"Bulk Three\"}",
+        "{\"email\": \"bulk-1@example.com\", \"name\": \"Bulk Again\"}", "{broken");
+
+    given().contentType("application/x-ndjson").body(body).when().post("/api/users/bulk").then()
+        .statusCode(200).contentType(ContentType.JSON).body("imported", equalTo(2))
+        .body("failed", equalTo(3)).body("errors.line", hasItems(2, 5, 6));
+
+    String export = given().when().get("/api/users/export").then().statusCode(200)
+        .contentType("application/x-ndjson").extract().asString();
+    assertTrue(
+        export.lines().anyMatch(
+            line -> line.startsWith("{") && line.contains("\"email\":\"bulk-3@example.com\"")),
+        export);
+    assertTrue(export.endsWith("\n"));
+  }
 }
@@ -0,0 +1,115 @@
+package com.example.controller;
+
+import com.example.entity.User;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.common.http.TestHTTPResource;
+import io.quarkus.test.junit.QuarkusTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URL;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Load test for the streaming users endpoint.
+ *
+ * Note: This test is skipped by default because it seeds a large table. Run it with
+ * {@code mvn test -Dtest=UserStreamingLoadTest -Dload-tests=true}.
+ */
+@QuarkusTest
+@EnabledIfSystemProperty(named = "load-tests", matches = "true")
+class UserStreamingLoadTest {
+
+  private static final int SMALL_TABLE = 10_000;
+  private static final int LARGE_TABLE = 100_000;
+  private static final int SEED_BATCH = 1_000;
+
+  @TestHTTPResource("/api/users/stream")
+  URL streamUrl;
+
+  @Test
+  void testHeapStaysFlatRegardlessOfTableSize() throws Exception {
+    seedUsers(SMALL_TABLE);
+    long smallPeak = measurePeakHeapGrowth(SMALL_TABLE);
+
+    seedUsers(LARGE_TABLE - SMALL_TABLE);
+    long largePeak = measurePeakHeapGrowth(LARGE_TABLE);
+
+    // Ten times the rows must not need meaningfully more heap than the small table
+    long allowance = 32L * 1024 * 1024;
+    assertTrue(largePeak < smallPeak * 2 + allowance,
+        String.format("Peak heap growth went from %d bytes to %d bytes", smallPeak, largePeak));
+  }
+
+  private void seedUsers(int count) {
+    long offset = User.count();
+    for (int start = 0; start < count; start += SEED_BATCH) {
+      int batchStart = start;
+      QuarkusTransaction.requiringNew().run(() -> {
+        List<User> batch = new ArrayList<>(SEED_BATCH);
+        for (int i = batchStart; i < Math.min(batchStart + SEED_BATCH, count); i++) {
+          User user = new User();
+          user.setEmail("load" + (offset + i) + "@example.com");
+          user.setName("Load User " + (offset + i));
+          batch.add(user);
+        }
+        User.persist(batch);
+      });
+    }
+  }
+
+  private long measurePeakHeapGrowth(int expectedUsers) throws Exception {
+    Runtime runtime = Runtime.getRuntime();
+    System.gc();
+    long baseline = runtime.totalMemory() - runtime.freeMemory();
+
+    AtomicLong peak = new AtomicLong();
+    AtomicBoolean running = new AtomicBoolean(true);
+    Thread sampler = new Thread(() -> {
+      while (running.get()) {
+        peak.accumulateAndGet(runtime.totalMemory() - runtime.freeMemory(), Math::max);
+        try {
+          Thread.sleep(5);
+        } catch (InterruptedException e) {
+          return;
+        }
+      }
+    });
+    sampler.start();
+
+    long objects = 0;
+    HttpClient client = HttpClient.newHttpClient();
+    HttpRequest request = HttpRequest.newBuilder(URI.create(streamUrl.toString())).GET().build();
+    HttpResponse<InputStream> response =
+        client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+    try (InputStream body = response.body()) {
+      byte[] buffer = new byte[8192];
+      int read;
+      while ((read = body.read(buffer)) != -1) {
+        for (int i = 0; i < read; i++) {
+          if (buffer[i] == '{') {
+            objects++;
+          }
+        }
+      }
+    } finally {
+      running.set(false);
+      sampler.join();
+    }
+
+    assertEquals(200, response.statusCode());
+    assertTrue(objects >= expectedUsers, "Expected every seeded user in the stream");
+    return peak.get() - baseline;
+  }
+}
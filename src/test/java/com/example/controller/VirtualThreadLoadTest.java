@@ -0,0 +1,38 @@
+package com.example.controller;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.condition.JRE;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Load test of a blocking endpoint on virtual threads, compared with {@link WorkerPoolLoadTest}.
+ *
+ * Note: This test is skipped by default and needs Java 21. Run it with
+ * {@code mvn test -Dtest=VirtualThreadLoadTest -Dload-tests=true}.
+ */
+@QuarkusTest
+@TestProfile(VirtualThreadLoadTest.VirtualThreadProfile.class)
+@EnabledIfSystemProperty(named = "load-tests", matches = "true")
+@EnabledForJreRange(min = JRE.JAVA_21)
+class VirtualThreadLoadTest extends BlockingEndpointLoadTest {
+
+  public static class VirtualThreadProfile extends LoadProfile {
+    @Override
+    boolean virtualThreads() {
+      return true;
+    }
+  }
+
+  @Test
+  void testThroughputIsNotBoundByWorkerPool() throws Exception {
+    double throughput = measureThroughput();
+
+    assertTrue(throughput > workerPoolCeiling() * 2,
+        String.format("%.0f req/s is not above the worker pool ceiling", throughput));
+  }
+}
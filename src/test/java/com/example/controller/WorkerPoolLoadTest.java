@@ -0,0 +1,36 @@
+package com.example.controller;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Load test of a blocking endpoint on the worker pool, the baseline for
+ * {@link VirtualThreadLoadTest}.
+ *
+ * Note: This test is skipped by default. Run it with
+ * {@code mvn test -Dtest=WorkerPoolLoadTest -Dload-tests=true}.
+ */
+@QuarkusTest
+@TestProfile(WorkerPoolLoadTest.WorkerPoolProfile.class)
+@EnabledIfSystemProperty(named = "load-tests", matches = "true")
+class WorkerPoolLoadTest extends BlockingEndpointLoadTest {
+
+  public static class WorkerPoolProfile extends LoadProfile {
+    @Override
+    boolean virtualThreads() {
+      return false;
+    }
+  }
+
+  @Test
+  void testThroughputIsBoundByWorkerPool() throws Exception {
+    double throughput = measureThroughput();
+
+    assertTrue(throughput <= workerPoolCeiling() * 1.1,
+        String.format("%.0f req/s exceeds the worker pool ceiling", throughput));
+  }
+}
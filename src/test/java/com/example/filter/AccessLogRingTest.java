@@ -0,0 +1,162 @@
+package com.example.filter;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for AccessLogRing.
+ */
+class AccessLogRingTest {
+
+  @Test
+  void testCapacityIsRoundedUpToPowerOfTwo() {
+    assertEquals(1, new AccessLogRing(1).capacity());
+    assertEquals(8, new AccessLogRing(8).capacity());
+    assertEquals(16, new AccessLogRing(9).capacity());
+    assertThrows(IllegalArgumentException.class, () -> new AccessLogRing(0));
+  }
+
+  @Test
+  void testEventsAreDrainedInOrder() {
+    AccessLogRing ring = new AccessLogRing(8);
+    for (int i = 0; i < 5; i++) {
+      assertTrue(record(ring, i, "/p" + i, "10.0.0.1", i));
+    }
+
+    List<String> paths = new ArrayList<>();
+    assertEquals(3, ring.drain(event -> paths.add(event.path), 3));
+    assertEquals(2, ring.drain(event -> paths.add(event.path), 10));
+    assertEquals(0, ring.drain(event -> paths.add(event.path), 10));
+
+    assertEquals(List.of("/p0", "/p1", "/p2", "/p3", "/p4"), paths);
+  }
+
+  @Test
+  void testFullRingDropsEvents() {
+    AccessLogRing ring = new AccessLogRing(4);
+    for (int i = 0; i < 4; i++) {
+      assertTrue(record(ring, i, "/", null, 0));
+    }
+
+    assertFalse(record(ring, 4, "/", null, 0));
+    assertEquals(1, ring.dropped());
+
+    ring.drain(event -> {
+    }, 1);
+    assertTrue(record(ring, 5, "/", null, 0));
+  }
+
+  @Test
+  void testConcurrentProducersLoseNoEvents() throws Exception {
+    AccessLogRing ring = new AccessLogRing(1024);
+    int producers = 4;
+    int perProducer = 20_000;
+    AtomicBoolean done = new AtomicBoolean();
+    long[] received = new long[producers];
+
+    Thread consumer = new Thread(() -> {
+      // Every event is published before done is set, so stop at the first empty drain after it
+      boolean finished = false;
+      while (!finished) {
+        finished = done.get();
+        while (ring.drain(event -> received[(int) event.bytes]++, 256) > 0) {
+          finished = false;
+        }
+      }
+    });
+    consumer.start();
+
+    ExecutorService executor = Executors.newFixedThreadPool(producers);
+    try {
+      List<Future<?>> tasks = new ArrayList<>();
+      for (int p = 0; p < producers; p++) {
+        int producer = p;
+        tasks.add(executor.submit(() -> {
+          for (int i = 0; i < perProducer; i++) {
+            while (!record(ring, i, "/", null, producer)) {
+              Thread.onSpinWait();
+            }
+          }
+        }));
+      }
+      for (Future<?> task : tasks) {
+        task.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    done.set(true);
+    consumer.join();
+
+    for (long count : received) {
+      assertEquals(perProducer, count);
+    }
+  }
+
+  @Test
+  void testPublishDoesNotAllocate() throws Exception {
+    com.sun.management.ThreadMXBean threads =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    AccessLogRing ring = new AccessLogRing(1024);
+    AtomicBoolean done = new AtomicBoolean();
+    Thread consumer = new Thread(() -> {
+      while (!done.get()) {
+        ring.drain(event -> {
+        }, 256);
+      }
+    });
+    consumer.start();
+
+    String path = "/api/users/1";
+    String client = "10.0.0.1";
+    try {
+      // Let the JIT compile publish first
+      publish(ring, path, client, 200_000);
+      long before = threads.getCurrentThreadAllocatedBytes();
+      publish(ring, path, client, 100_000);
+      long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+      assertTrue(allocated < 100_000, "Allocated " + allocated + " bytes for 100000 events");
+    } finally {
+      done.set(true);
+      consumer.join();
+    }
+  }
+
+  private static void publish(AccessLogRing ring, String path, String client, int count) {
+    for (int i = 0; i < count; i++) {
+      while (!record(ring, i, path, client, 512)) {
+        Thread.onSpinWait();
+      }
+    }
+  }
+
+  /**
+   * Claim, fill in and commit one event, as AccessLogHandler does.
+   */
+  private static boolean record(AccessLogRing ring, long timestamp, String path, String client,
+      long bytes) {
+    AccessLogRing.Event event = ring.claim();
+    if (event == null) {
+      return false;
+    }
+    event.timestamp = timestamp;
+    event.method = "GET";
+    event.path = path;
+    event.client = client;
+    event.status = 200;
+    event.bytes = bytes;
+    event.durationNanos = 1_000_000;
+    ring.commit(event);
+    return true;
+  }
+}
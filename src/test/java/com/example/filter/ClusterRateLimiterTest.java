@@ -0,0 +1,181 @@
+package com.example.filter;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for ClusterRateLimiter, with an in-memory stand-in for the Redis token store.
+ */
+class ClusterRateLimiterTest {
+
+  private static final int CAPACITY = 100;
+  private static final Duration WINDOW = Duration.ofMinutes(1);
+
+  private final AtomicLong clock = new AtomicLong(WINDOW.toMillis() * 1000);
+
+  @Test
+  void testReplicasShareOneBucket() {
+    InMemoryTokenSource tokenSource = new InMemoryTokenSource();
+    ClusterRateLimiter first = limiter(tokenSource);
+    ClusterRateLimiter second = limiter(tokenSource);
+
+    int permitted = 0;
+    for (int i = 0; i < CAPACITY; i++) {
+      permitted += first.tryAcquire("10.0.0.1").permitted() ? 1 : 0;
+      permitted += second.tryAcquire("10.0.0.1").permitted() ? 1 : 0;
+    }
+
+    assertEquals(CAPACITY, permitted);
+  }
+
+  @Test
+  void testRequestsMostlyServedFromLocalBatch() {
+    InMemoryTokenSource tokenSource = new InMemoryTokenSource();
+    ClusterRateLimiter limiter = limiter(tokenSource);
+
+    for (int i = 0; i < CAPACITY; i++) {
+      assertTrue(limiter.tryAcquire("10.0.0.1").permitted());
+    }
+
+    assertTrue(tokenSource.calls.get() <= CAPACITY / 10 + 1);
+  }
+
+  @Test
+  void testBucketRefillsInNextWindow() {
+    ClusterRateLimiter limiter = limiter(new InMemoryTokenSource());
+    for (int i = 0; i < CAPACITY; i++) {
+      limiter.tryAcquire("10.0.0.1");
+    }
+    assertFalse(limiter.tryAcquire("10.0.0.1").permitted());
+
+    clock.addAndGet(WINDOW.toMillis());
+
+    assertTrue(limiter.tryAcquire("10.0.0.1").permitted());
+  }
+
+  @Test
+  void testFailingTokenSourceFallsBackToLocalLimit() {
+    AtomicInteger calls = new AtomicInteger();
+    TokenSource failing = (key, window, windowMillis, capacity, batch) -> {
+      calls.incrementAndGet();
+      return CompletableFuture.failedFuture(new IllegalStateException("Redis down"));
+    };
+    ClusterRateLimiter limiter = limiter(failing);
+
+    for (int i = 0; i < CAPACITY; i++) {
+      assertTrue(limiter.tryAcquire("10.0.0.1").permitted());
+    }
+    assertFalse(limiter.tryAcquire("10.0.0.1").permitted());
+    assertEquals(1, calls.get());
+
+    clock.addAndGet(Duration.ofSeconds(5).toMillis());
+    limiter.tryAcquire("10.0.0.1");
+
+    assertEquals(2, calls.get());
+  }
+
+  @Test
+  void testRequestsWaitForLeaseInFlight() {
+    CompletableFuture<Integer> lease = new CompletableFuture<>();
+    ClusterRateLimiter limiter = limiter((key, window, windowMillis, capacity, batch) -> lease);
+
+    CompletableFuture<RateLimiter.Decision> waiting =
+        limiter.acquire("10.0.0.1").toCompletableFuture();
+    assertFalse(waiting.isDone());
+    assertFalse(limiter.tryAcquire("10.0.0.1").permitted(),
+        "Without leased tokens a request must not be admitted locally");
+
+    lease.complete(10);
+
+    assertTrue(waiting.getNow(null).permitted());
+  }
+
+  @Test
+  void testSlowTokenSourceFallsBackToLocalLimit() {
+    CompletableFuture<Integer> lease = new CompletableFuture<>();
+    ClusterRateLimiter limiter = limiter((key, window, windowMillis, capacity, batch) -> lease);
+
+    CompletableFuture<RateLimiter.Decision> waiting =
+        limiter.acquire("10.0.0.1").toCompletableFuture();
+    // As RedisTokenSource fails leases that take longer than its timeout
+    lease.completeExceptionally(new TimeoutException());
+
+    assertTrue(waiting.getNow(null).permitted());
+    for (int i = 1; i < CAPACITY; i++) {
+      assertTrue(limiter.acquire("10.0.0.1").toCompletableFuture().getNow(null).permitted());
+    }
+    assertFalse(limiter.tryAcquire("10.0.0.1").permitted());
+  }
+
+  @Test
+  void testReplicasNeverExceedCapacityWithAsyncLeases() throws Exception {
+    InMemoryTokenSource store = new InMemoryTokenSource();
+    ScheduledExecutorService redis = Executors.newSingleThreadScheduledExecutor();
+    // Leases answered a millisecond later on another thread, as Redis would
+    TokenSource async = (key, window, windowMillis, capacity, batch) -> {
+      CompletableFuture<Integer> lease = new CompletableFuture<>();
+      redis.schedule(
+          () -> store.lease(key, window, windowMillis, capacity, batch).thenAccept(lease::complete),
+          1, TimeUnit.MILLISECONDS);
+      return lease;
+    };
+    List<ClusterRateLimiter> replicas = List.of(limiter(async), limiter(async), limiter(async));
+    try {
+      List<CompletableFuture<RateLimiter.Decision>> decisions = new ArrayList<>();
+      for (int i = 0; i < 3 * CAPACITY; i++) {
+        decisions.add(replicas.get(i % 3).acquire("10.0.0.1").toCompletableFuture());
+      }
+
+      int permitted = 0;
+      for (CompletableFuture<RateLimiter.Decision> decision : decisions) {
+        permitted += decision.get(10, TimeUnit.SECONDS).permitted() ? 1 : 0;
+      }
+      assertTrue(permitted <= CAPACITY, "Admitted " + permitted + " of " + CAPACITY);
+      assertTrue(permitted > CAPACITY - 3 * 10, "Admitted only " + permitted);
+    } finally {
+      redis.shutdownNow();
+    }
+  }
+
+  private ClusterRateLimiter limiter(TokenSource tokenSource) {
+    return new ClusterRateLimiter(CAPACITY, WINDOW, 200, WINDOW, 1024,
+        new ClusterRateLimiter.Leasing(tokenSource, 10, Duration.ofSeconds(5)), clock::get);
+  }
+
+  /**
+   * Same fixed-window semantics as the Lua script of RedisTokenSource.
+   */
+  private static final class InMemoryTokenSource implements TokenSource {
+
+    final Map<String, Integer> used = new ConcurrentHashMap<>();
+    final AtomicInteger calls = new AtomicInteger();
+
+    @Override
+    public synchronized CompletionStage<Integer> lease(String key, long window, long windowMillis,
+        int capacity, int batch) {
+      calls.incrementAndGet();
+      String counter = key + ":" + window;
+      int grant = Math.min(batch, capacity - used.getOrDefault(counter, 0));
+      if (grant <= 0) {
+        return CompletableFuture.completedFuture(0);
+      }
+      used.merge(counter, grant, Integer::sum);
+      return CompletableFuture.completedFuture(grant);
+    }
+  }
+}
@@ -0,0 +1,113 @@
+package com.example.filter;
+
+import io.quarkus.runtime.configuration.MemorySize;
+import io.quarkus.vertx.http.runtime.ServerLimitsConfig;
+import io.quarkus.vertx.http.runtime.VertxHttpRecorder;
+import io.quarkus.vertx.http.runtime.options.HttpServerCommonHandlers;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpServer;
+import io.vertx.ext.web.Router;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigInteger;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests for ObjectUploadLimit on a Vert.x router that enforces the global body limit the way
+ * Quarkus does.
+ */
+class ObjectUploadLimitTest {
+
+  private static final int GLOBAL_LIMIT = 1024;
+  private static final int UPLOAD_LIMIT = 4096;
+
+  private Vertx vertx;
+  private HttpServer server;
+  private HttpClient client;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    vertx = Vertx.vertx();
+    Router router = Router.router(vertx);
+
+    ServerLimitsConfig limits = new ServerLimitsConfig();
+    limits.maxBodySize = Optional.of(new MemorySize(BigInteger.valueOf(GLOBAL_LIMIT)));
+    HttpServerCommonHandlers.enforceMaxBodySize(limits, router);
+
+    ObjectUploadLimit uploadLimit = new ObjectUploadLimit();
+    uploadLimit.maxSize = UPLOAD_LIMIT;
+    uploadLimit.init(router);
+
+    // Answers with the declared length, the body size and the limit left for a chunked body
+    router.route()
+        .handler(context -> context.request().body().onSuccess(
+            body -> context.response().end(context.request().getHeader("Content-Length") + " "
+                + body.length() + " " + context.get(VertxHttpRecorder.MAX_REQUEST_SIZE_KEY))));
+
+    server = vertx.createHttpServer().requestHandler(router).listen(0).toCompletionStage()
+        .toCompletableFuture().get(10, TimeUnit.SECONDS);
+    client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+  }
+
+  @AfterEach
+  void tearDown() throws Exception {
+    vertx.close().toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+  }
+
+  @Test
+  void testUploadAboveGlobalLimitIsAccepted() throws Exception {
+    HttpResponse<String> response =
+        send("PUT", "/api/objects/a/b.bin", HttpRequest.BodyPublishers.ofByteArray(new byte[3000]));
+
+    assertEquals(200, response.statusCode());
+    assertEquals("3000 3000 " + UPLOAD_LIMIT, response.body());
+  }
+
+  @Test
+  void testUploadAboveUploadLimitIsRejected() throws Exception {
+    HttpResponse<String> response = send("PUT", "/api/objects/big.bin",
+        HttpRequest.BodyPublishers.ofByteArray(new byte[UPLOAD_LIMIT + 1]));
+
+    assertEquals(413, response.statusCode());
+  }
+
+  @Test
+  void testChunkedUploadGetsUploadLimit() throws Exception {
+    HttpResponse<String> response = send("PUT", "/api/objects/chunked.bin",
+        HttpRequest.BodyPublishers.ofInputStream(() -> new ByteArrayInputStream(new byte[100])));
+
+    assertEquals(200, response.statusCode());
+    assertEquals("null 100 " + UPLOAD_LIMIT, response.body());
+  }
+
+  @Test
+  void testOtherEndpointsKeepGlobalLimit() throws Exception {
+    assertEquals(413, send("POST", "/api/users",
+        HttpRequest.BodyPublishers.ofByteArray(new byte[GLOBAL_LIMIT + 1])).statusCode());
+    assertEquals(413, send("POST", "/api/objects/a.bin",
+        HttpRequest.BodyPublishers.ofByteArray(new byte[GLOBAL_LIMIT + 1])).statusCode());
+
+    HttpResponse<String> response = send("POST", "/api/users",
+        HttpRequest.BodyPublishers.ofInputStream(() -> new ByteArrayInputStream(new byte[100])));
+    assertEquals("null 100 " + GLOBAL_LIMIT, response.body());
+  }
+
+  private HttpResponse<String> send(String method, String path, HttpRequest.BodyPublisher body)
+      throws Exception {
+    return client.send(
+        HttpRequest.newBuilder(URI.create("http://localhost:" + server.actualPort() + path))
+            .method(method, body).timeout(Duration.ofSeconds(10)).build(),
+        HttpResponse.BodyHandlers.ofString());
+  }
+}
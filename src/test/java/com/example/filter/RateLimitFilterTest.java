@@ -78,4 +78,12 @@ class RateLimitFilterTest {
     // This test just verifies the endpoints are accessible
     assert true : "Multiple endpoints accessed successfully";
   }
+
+  @Test
+  void testExemptPolicySkipsRateLimit() {
+    // The test profile exempts this path; more requests than the capacity of 100 all pass
+    for (int i = 0; i < 150; i++) {
+      given().when().get("/api/greeting/Exempt").then().statusCode(200);
+    }
+  }
 }
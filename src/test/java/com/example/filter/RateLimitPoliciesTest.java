@@ -0,0 +1,99 @@
+package com.example.filter;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for RateLimitPolicies.
+ */
+class RateLimitPoliciesTest {
+
+  private final Map<String, String> config = new HashMap<>(Map.of("app.rate-limit.capacity", "100",
+      "app.rate-limit.policies.probes.paths", "/health/**,/metrics/**",
+      "app.rate-limit.policies.probes.exempt", "true", "app.rate-limit.policies.user-writes.paths",
+      "/api/users,/api/users/**", "app.rate-limit.policies.user-writes.methods", "post, put,delete",
+      "app.rate-limit.policies.user-writes.capacity", "5", "app.rate-limit.policies.admin.paths",
+      "/api/**", "app.rate-limit.policies.admin.role", "admin",
+      "app.rate-limit.policies.admin.capacity", "1000"));
+
+  @Test
+  void testLoadsNamedPoliciesWithDefaults() {
+    List<RateLimitPolicy> policies = load();
+
+    RateLimitPolicy writes =
+        policies.stream().filter(p -> p.name().equals("user-writes")).findFirst().orElseThrow();
+    assertEquals(Set.of("POST", "PUT", "DELETE"), writes.methods());
+    assertEquals(5, writes.capacity());
+    assertEquals(Duration.ofMinutes(1), writes.refillPeriod());
+    assertEquals(200, writes.ddosThreshold());
+    assertEquals(RateLimitPolicies.DEFAULT_POLICY, policies.get(policies.size() - 1).name());
+  }
+
+  @Test
+  void testResolvesByPathMethodAndRole() {
+    RateLimitPolicies policies = build(null);
+
+    assertNull(policies.resolve("GET", "/health/ready", role -> false).limiter());
+    assertEquals("user-writes", name(policies.resolve("POST", "/api/users", role -> false)));
+    assertEquals("default", name(policies.resolve("GET", "/api/users/1", role -> false)));
+    assertEquals("admin", name(policies.resolve("GET", "/api/users/1", "admin"::equals)));
+    assertEquals("default", name(policies.resolve("GET", "/api/greeting", role -> false)));
+  }
+
+  @Test
+  void testWritesHaveTheirOwnBudget() {
+    RateLimitPolicies policies = build(null);
+    RateLimiter writes = policies.resolve("POST", "/api/users", role -> false).limiter();
+    RateLimiter reads = policies.resolve("GET", "/api/users", role -> false).limiter();
+
+    for (int i = 0; i < 5; i++) {
+      assertTrue(writes.tryAcquire("10.0.0.1").permitted());
+    }
+    assertFalse(writes.tryAcquire("10.0.0.1").permitted());
+    assertTrue(reads.tryAcquire("10.0.0.1").permitted());
+  }
+
+  @Test
+  void testReloadKeepsBucketsOfUnchangedPolicies() {
+    RateLimitPolicies first = build(null);
+    config.put("app.rate-limit.policies.admin.capacity", "2000");
+
+    RateLimitPolicies second = build(first);
+
+    assertSame(limiter(first, "user-writes"), limiter(second, "user-writes"));
+    assertNotSame(limiter(first, "admin"), limiter(second, "admin"));
+  }
+
+  @Test
+  void testPolicyWithoutPathsIsRejected() {
+    config.put("app.rate-limit.policies.broken.capacity", "1");
+
+    assertThrows(IllegalArgumentException.class, this::load);
+  }
+
+  private List<RateLimitPolicy> load() {
+    return RateLimitPolicies.load(name -> Optional.ofNullable(config.get(name)), config.keySet());
+  }
+
+  private RateLimitPolicies build(RateLimitPolicies previous) {
+    return new RateLimitPolicies(load(), policy -> new RateLimiter(policy.capacity(),
+        policy.refillPeriod(), policy.ddosThreshold(), policy.ddosWindow(), 1024), previous);
+  }
+
+  private static String name(RateLimitPolicies.Rule rule) {
+    return rule.policy().name();
+  }
+
+  private static RateLimiter limiter(RateLimitPolicies policies, String name) {
+    return policies.rules().stream().filter(rule -> name(rule).equals(name)).findFirst()
+        .orElseThrow().limiter();
+  }
+}
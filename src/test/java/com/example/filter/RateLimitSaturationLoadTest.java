@@ -0,0 +1,130 @@
+package com.example.filter;
+
+import com.example.load.LatencySlo;
+import com.example.load.LoadResult;
+import com.example.load.LoadResult.Outcome;
+import com.example.load.OpenLoadGenerator;
+import com.example.service.InMemoryKafkaResource;
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.common.http.TestHTTPResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.net.URI;
+import java.net.URL;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Behaviour of RateLimitFilter when clients send more than their budget, for capacity planning.
+ *
+ * <p>
+ * A fixed set of clients, told apart by {@code X-Forwarded-For}, sends greeting requests at arrival
+ * rates from half to four times what their combined budget allows over a step. Each step uses new
+ * client addresses so that it starts with full buckets. The test prints permitted and throttled
+ * rates with their latencies per step, and checks that no more than the budget gets through and
+ * that throttled requests stay cheap. A second run sends every request from a new address, so that
+ * the limiter keeps evicting keys from a small table, and checks the latency of permitted requests.
+ *
+ * Note: This test is skipped by default. Run it with
+ * {@code mvn test -Dtest=RateLimitSaturationLoadTest -Dload-tests=true}.
+ */
+@QuarkusTest
+@TestProfile(RateLimitSaturationLoadTest.SaturationProfile.class)
+@QuarkusTestResource(value = InMemoryKafkaResource.class, restrictToAnnotatedClass = true)
+@EnabledIfSystemProperty(named = "load-tests", matches = "true")
+class RateLimitSaturationLoadTest {
+
+  private static final int CLIENTS = 10;
+  private static final int CAPACITY = 100;
+  private static final int MAX_TRACKED_KEYS = 256;
+  private static final Duration STEP = Duration.ofSeconds(5);
+  private static final double[] LOAD_FACTORS = {0.5, 1, 2, 4};
+
+  @TestHTTPResource("/api/greeting")
+  URL greetingUrl;
+
+  private final OpenLoadGenerator generator = new OpenLoadGenerator(4096);
+
+  /**
+   * A small per-client budget that refills once a minute, longer than any step, and no DDoS
+   * threshold in the way.
+   */
+  public static class SaturationProfile implements QuarkusTestProfile {
+    @Override
+    public Map<String, String> getConfigOverrides() {
+      return Map.of("app.rate-limit.capacity", String.valueOf(CAPACITY),
+          "app.rate-limit.refill-duration-minutes", "1", "app.rate-limit.ddos-threshold",
+          "100000000", "app.rate-limit.max-tracked-keys", String.valueOf(MAX_TRACKED_KEYS));
+    }
+  }
+
+  @Test
+  void testThrottlingAtSaturation() throws Exception {
+    URI uri = URI.create(greetingUrl.toString());
+    long budget = (long) CLIENTS * CAPACITY;
+    double budgetRate = budget / (double) STEP.toSeconds();
+    LatencySlo throttledSlo =
+        LatencySlo.fromProperty("load.slo.throttled", LatencySlo.ofMillis(5, 50, 200));
+
+    List<LoadResult> steps = new ArrayList<>();
+    for (int step = 0; step < LOAD_FACTORS.length; step++) {
+      String network = "10." + (step + 1) + ".0.";
+      double rate = budgetRate * LOAD_FACTORS[step];
+      LoadResult result = generator.run(String.format("%.1fx budget", LOAD_FACTORS[step]), rate,
+          STEP, i -> HttpRequest.newBuilder(uri).header("X-Forwarded-For", network + (i % CLIENTS))
+              .GET().build());
+      steps.add(result);
+      System.out.println(result);
+
+      assertEquals(0, result.count(Outcome.ERROR), result + ": failed requests");
+      assertEquals(0, result.overflowed(), result + ": requests not sent");
+      // Clients racing on their first request may briefly get a second bucket
+      assertTrue(result.count(Outcome.OK) <= budget + CLIENTS,
+          result + ": more requests permitted than the budget of " + budget);
+      if (LOAD_FACTORS[step] > 1) {
+        assertTrue(result.count(Outcome.THROTTLED) > 0, result + ": nothing throttled");
+        assertTrue(result.percentileMillis(Outcome.THROTTLED, 99) <= throttledSlo.p99().toMillis(),
+            result + ": throttled p99 above " + throttledSlo.p99().toMillis() + " ms");
+      }
+    }
+
+    System.out.printf("%nRate limit capacity (%d clients x %d requests per minute)%n", CLIENTS,
+        CAPACITY);
+    System.out.printf("%-12s %10s %10s %10s %12s %12s%n", "load", "ok/s", "429/s", "ok p99",
+        "429 p99", "429 p99.9");
+    for (LoadResult result : steps) {
+      System.out.printf("%-12s %10.0f %10.0f %10.1f %12.1f %12.1f%n", result.name(),
+          result.rate(Outcome.OK), result.rate(Outcome.THROTTLED),
+          result.percentileMillis(Outcome.OK, 99), result.percentileMillis(Outcome.THROTTLED, 99),
+          result.percentileMillis(Outcome.THROTTLED, 99.9));
+    }
+  }
+
+  @Test
+  void testLatencyWhileEvictingKeys() throws Exception {
+    URI uri = URI.create(greetingUrl.toString());
+    double rate = Double.parseDouble(System.getProperty("load.rate", "200"));
+    Duration duration = Duration.ofSeconds(Long.getLong("load.duration", 10));
+
+    // Every request from a new address, many times more addresses than the table holds
+    LoadResult result = generator.run("key churn", rate, duration,
+        i -> HttpRequest.newBuilder(uri)
+            .header("X-Forwarded-For",
+                "172." + (16 + (i >>> 16 & 0x0F)) + "." + (i >>> 8 & 0xFF) + "." + (i & 0xFF))
+            .GET().build());
+
+    System.out.println(result);
+    assertEquals(0, result.count(Outcome.THROTTLED), result + ": new addresses were throttled");
+    result.assertSlo(LatencySlo.fromProperty("load.slo.greeting", LatencySlo.ofMillis(5, 50, 200)));
+  }
+}
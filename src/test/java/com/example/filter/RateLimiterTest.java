@@ -0,0 +1,136 @@
+package com.example.filter;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for RateLimiter.
+ */
+class RateLimiterTest {
+
+  private final AtomicLong clock = new AtomicLong(1_000_000L);
+
+  @Test
+  void testRejectsOnceCapacityIsUsed() {
+    RateLimiter limiter = limiter(3, 100, 1_000);
+
+    for (int i = 0; i < 3; i++) {
+      assertTrue(limiter.tryAcquire("10.0.0.1").permitted());
+    }
+    assertFalse(limiter.tryAcquire("10.0.0.1").permitted());
+    assertTrue(limiter.tryAcquire("10.0.0.2").permitted(), "Keys must not share a bucket");
+  }
+
+  @Test
+  void testRefillsAfterPeriod() {
+    RateLimiter limiter = limiter(2, 100, 1_000);
+
+    limiter.tryAcquire("10.0.0.1");
+    limiter.tryAcquire("10.0.0.1");
+    assertFalse(limiter.tryAcquire("10.0.0.1").permitted());
+
+    clock.addAndGet(Duration.ofMinutes(1).toMillis());
+    assertTrue(limiter.tryAcquire("10.0.0.1").permitted());
+  }
+
+  @Test
+  void testReportsDdosAboveThreshold() {
+    RateLimiter limiter = limiter(100, 5, 1_000);
+
+    for (int i = 0; i < 5; i++) {
+      assertFalse(limiter.tryAcquire("10.0.0.1").ddosSuspected());
+    }
+    RateLimiter.Decision decision = limiter.tryAcquire("10.0.0.1");
+    assertTrue(decision.ddosSuspected());
+    assertTrue(decision.permitted());
+
+    clock.addAndGet(Duration.ofMinutes(1).toMillis() + 1);
+    assertFalse(limiter.tryAcquire("10.0.0.1").ddosSuspected(), "Counter must reset per window");
+  }
+
+  @Test
+  void testTrackedKeysAreBounded() {
+    RateLimiter limiter = limiter(100, 200, 1_000);
+
+    for (int i = 0; i < 10_000; i++) {
+      limiter.tryAcquire("10.0." + (i / 256) + "." + (i % 256));
+    }
+
+    assertTrue(limiter.trackedKeys() <= 1_000);
+  }
+
+  @Test
+  void testFloodOfNewKeysDoesNotResetThrottledKey() {
+    RateLimiter limiter = limiter(3, 100_000, 16);
+    for (int i = 0; i < 3; i++) {
+      assertTrue(limiter.tryAcquire("10.0.0.1").permitted());
+    }
+    assertFalse(limiter.tryAcquire("10.0.0.1").permitted());
+
+    for (int i = 0; i < 2_000; i++) {
+      clock.incrementAndGet();
+      limiter.tryAcquire("10.1." + (i / 256) + "." + (i % 256));
+    }
+
+    assertFalse(limiter.tryAcquire("10.0.0.1").permitted(),
+        "A throttled key must not get a fresh bucket by being evicted");
+  }
+
+  @Test
+  void testIdleKeysAreEvicted() {
+    RateLimiter limiter = limiter(100, 200, 1_000);
+
+    limiter.tryAcquire("10.0.0.1");
+    assertEquals(1, limiter.trackedKeys());
+
+    clock.addAndGet(Duration.ofMinutes(2).toMillis());
+    assertEquals(0, limiter.trackedKeys());
+  }
+
+  @Test
+  void testConcurrentRequestsNeverExceedCapacity() throws Exception {
+    RateLimiter limiter = limiter(1_000, 100_000, 1_000);
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    CountDownLatch start = new CountDownLatch(1);
+    try {
+      List<Future<Integer>> results = new ArrayList<>();
+      for (int t = 0; t < 8; t++) {
+        results.add(executor.submit(() -> {
+          start.await();
+          int permitted = 0;
+          for (int i = 0; i < 500; i++) {
+            if (limiter.tryAcquire("10.0.0.1").permitted()) {
+              permitted++;
+            }
+          }
+          return permitted;
+        }));
+      }
+      start.countDown();
+
+      int total = 0;
+      for (Future<Integer> result : results) {
+        total += result.get(10, TimeUnit.SECONDS);
+      }
+      assertEquals(1_000, total);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private RateLimiter limiter(int capacity, int ddosThreshold, long maxTrackedKeys) {
+    return new RateLimiter(capacity, Duration.ofMinutes(1), ddosThreshold, Duration.ofMinutes(1),
+        maxTrackedKeys, clock::get);
+  }
+}
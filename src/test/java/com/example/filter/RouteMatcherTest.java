@@ -0,0 +1,51 @@
+package com.example.filter;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for RouteMatcher.
+ */
+class RouteMatcherTest {
+
+  @Test
+  void testMostSpecificPatternWins() {
+    RouteMatcher<String> matcher = new RouteMatcher<>();
+    matcher.add("/**", "all");
+    matcher.add("/api/**", "api");
+    matcher.add("/api/users/*", "user");
+    matcher.add("/api/users/export", "export");
+
+    assertEquals("export", matcher.match("/api/users/export", v -> true));
+    assertEquals("user", matcher.match("/api/users/42", v -> true));
+    assertEquals("api", matcher.match("/api/users/42/roles", v -> true));
+    assertEquals("api", matcher.match("/api", v -> true), "'**' matches zero segments");
+    assertEquals("all", matcher.match("/health/live", v -> true));
+  }
+
+  @Test
+  void testFallsBackWhenValueNotAccepted() {
+    RouteMatcher<String> matcher = new RouteMatcher<>();
+    matcher.add("/api/**", "api");
+    matcher.add("/api/users/*", "user-writes");
+
+    assertEquals("api", matcher.match("/api/users/42", v -> !v.equals("user-writes")));
+  }
+
+  @Test
+  void testIgnoresRepeatedAndTrailingSlashes() {
+    RouteMatcher<String> matcher = new RouteMatcher<>();
+    matcher.add("/api/greeting", "greeting");
+
+    assertEquals("greeting", matcher.match("api//greeting/", v -> true));
+    assertNull(matcher.match("/api/greeting/Alice", v -> true));
+  }
+
+  @Test
+  void testRejectsTailWildcardInTheMiddle() {
+    RouteMatcher<String> matcher = new RouteMatcher<>();
+
+    assertThrows(IllegalArgumentException.class, () -> matcher.add("/api/**/users", "x"));
+  }
+}
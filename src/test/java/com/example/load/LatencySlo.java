@@ -0,0 +1,41 @@
+package com.example.load;
+
+import java.time.Duration;
+
+/**
+ * Latency objective for successful responses: the p50, p99 and p99.9 latencies a scenario must stay
+ * within.
+ *
+ * @param p50 median latency limit
+ * @param p99 99th percentile limit
+ * @param p999 99.9th percentile limit
+ */
+public record LatencySlo(Duration p50, Duration p99, Duration p999) {
+
+  /**
+   * The objective in system property {@code name}, written as {@code p50,p99,p99.9} in milliseconds
+   * (for example {@code 5,50,200}), or the default if it is not set.
+   */
+  public static LatencySlo fromProperty(String name, LatencySlo defaultSlo) {
+    String value = System.getProperty(name);
+    if (value == null || value.isBlank()) {
+      return defaultSlo;
+    }
+    String[] limits = value.split(",");
+    if (limits.length != 3) {
+      throw new IllegalArgumentException(name + " must be 'p50,p99,p99.9' in ms: " + value);
+    }
+    return ofMillis(Long.parseLong(limits[0].trim()), Long.parseLong(limits[1].trim()),
+        Long.parseLong(limits[2].trim()));
+  }
+
+  public static LatencySlo ofMillis(long p50, long p99, long p999) {
+    return new LatencySlo(Duration.ofMillis(p50), Duration.ofMillis(p99), Duration.ofMillis(p999));
+  }
+
+  @Override
+  public String toString() {
+    return String.format("p50 <= %d ms, p99 <= %d ms, p99.9 <= %d ms", p50.toMillis(),
+        p99.toMillis(), p999.toMillis());
+  }
+}
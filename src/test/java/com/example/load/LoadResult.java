@@ -0,0 +1,141 @@
+package com.example.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Latencies and counts of one run of an {@link OpenLoadGenerator}, split by outcome.
+ *
+ * <p>
+ * Latencies are in microseconds, measured from the time each request was scheduled to start, so
+ * they include any time a request waited behind earlier ones.
+ */
+public final class LoadResult {
+
+  /**
+   * How a request ended.
+   */
+  public enum Outcome {
+    /** 2xx or 3xx response. */
+    OK,
+    /** 429 response from the rate limiter. */
+    THROTTLED,
+    /** Any other status, or no response at all. */
+    ERROR
+  }
+
+  // Longest latency recorded exactly; longer ones are clamped
+  private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+  private final String name;
+  private final double targetRate;
+  private final Map<Outcome, Histogram> latencies = new EnumMap<>(Outcome.class);
+  private final LongAdder overflowed = new LongAdder();
+  private long elapsedNanos;
+  private long unfinished;
+
+  LoadResult(String name, double targetRate) {
+    this.name = name;
+    this.targetRate = targetRate;
+    for (Outcome outcome : Outcome.values()) {
+      latencies.put(outcome, new ConcurrentHistogram(MAX_LATENCY_MICROS, 3));
+    }
+  }
+
+  void record(int status, long latencyNanos) {
+    Outcome outcome = status == 429 ? Outcome.THROTTLED
+        : status >= 200 && status < 400 ? Outcome.OK : Outcome.ERROR;
+    long micros = Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), MAX_LATENCY_MICROS);
+    latencies.get(outcome).recordValue(micros);
+  }
+
+  void recordOverflow() {
+    overflowed.increment();
+  }
+
+  void finish(long elapsedNanos, long unfinished) {
+    this.elapsedNanos = elapsedNanos;
+    this.unfinished = unfinished;
+  }
+
+  public String name() {
+    return name;
+  }
+
+  public long count(Outcome outcome) {
+    return latencies.get(outcome).getTotalCount();
+  }
+
+  /**
+   * Requests not sent because too many were already in flight, a sign that the server, or the
+   * client, could not keep up with the arrival rate.
+   */
+  public long overflowed() {
+    return overflowed.sum();
+  }
+
+  /**
+   * Responses with an outcome per second of the run.
+   */
+  public double rate(Outcome outcome) {
+    return elapsedNanos == 0 ? 0 : count(outcome) * 1e9 / elapsedNanos;
+  }
+
+  /**
+   * Latency percentile of an outcome in milliseconds.
+   *
+   * @param percentile between 0 and 100
+   */
+  public double percentileMillis(Outcome outcome, double percentile) {
+    return latencies.get(outcome).getValueAtPercentile(percentile) / 1000.0;
+  }
+
+  /**
+   * Assert that the run kept up with its arrival rate without errors and that successful responses
+   * met the objective.
+   */
+  public void assertSlo(LatencySlo slo) {
+    assertEquals(0, count(Outcome.ERROR), name + ": failed requests");
+    assertEquals(0, overflowed(), name + ": requests not sent because too many were in flight");
+    assertEquals(0, unfinished, name + ": requests without a response when the run ended");
+    assertTrue(count(Outcome.OK) > 0, name + ": no successful responses");
+    assertPercentile(50, slo.p50().toMillis());
+    assertPercentile(99, slo.p99().toMillis());
+    assertPercentile(99.9, slo.p999().toMillis());
+  }
+
+  private void assertPercentile(double percentile, long limitMillis) {
+    double actual = percentileMillis(Outcome.OK, percentile);
+    assertTrue(actual <= limitMillis, String.format("%s: p%s was %.1f ms, objective %d ms", name,
+        percentile, actual, limitMillis));
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder summary =
+        new StringBuilder(String.format("%s: target %.0f req/s", name, targetRate));
+    for (Outcome outcome : Outcome.values()) {
+      if (count(outcome) > 0) {
+        summary.append(String.format(", %s %.0f/s (p50 %.1f, p99 %.1f, p99.9 %.1f, max %.1f ms)",
+            outcome.name().toLowerCase(), rate(outcome), percentileMillis(outcome, 50),
+            percentileMillis(outcome, 99), percentileMillis(outcome, 99.9),
+            percentileMillis(outcome, 100)));
+      }
+    }
+    if (overflowed() > 0) {
+      summary.append(", ").append(overflowed()).append(" not sent");
+    }
+    if (unfinished > 0) {
+      summary.append(", ").append(unfinished).append(" unfinished");
+    }
+    return summary.toString();
+  }
+}
@@ -0,0 +1,86 @@
+package com.example.load;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongFunction;
+
+/**
+ * Open-model HTTP load: requests start at a fixed arrival rate whether or not earlier ones have
+ * completed, as independent users would send them, instead of a fixed number of clients each
+ * waiting for its previous response.
+ *
+ * <p>
+ * Each latency is measured from the time the request was scheduled to start, not from when it was
+ * actually sent, so a stalled server shows up in the percentiles instead of merely slowing the load
+ * down (coordinated omission). The generator only needs a base URL and plain HTTP, so it works the
+ * same against a {@code @QuarkusTest} application and a deployed one.
+ */
+public final class OpenLoadGenerator {
+
+  // Longest wait for responses still in flight when the run ends
+  private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(30);
+
+  private final HttpClient client;
+  private final int maxInFlight;
+
+  /**
+   * Create a generator.
+   *
+   * @param maxInFlight requests allowed in flight at once; further arrivals are counted as
+   *        overflowed rather than queued in the client
+   */
+  public OpenLoadGenerator(int maxInFlight) {
+    this.client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+        .connectTimeout(Duration.ofSeconds(5)).build();
+    this.maxInFlight = maxInFlight;
+  }
+
+  /**
+   * Send requests at a fixed rate.
+   *
+   * @param name name of the scenario, used in reports and assertion messages
+   * @param ratePerSecond arrival rate
+   * @param duration how long requests keep arriving
+   * @param requests creates the request for each arrival number, starting at 0
+   * @return the latencies and outcomes of the requests
+   */
+  public LoadResult run(String name, double ratePerSecond, Duration duration,
+      LongFunction<HttpRequest> requests) throws InterruptedException {
+    LoadResult result = new LoadResult(name, ratePerSecond);
+    long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond);
+    long arrivals = (long) (ratePerSecond * duration.toNanos() / 1e9);
+    AtomicInteger inFlight = new AtomicInteger();
+
+    long start = System.nanoTime();
+    for (long i = 0; i < arrivals; i++) {
+      long scheduled = start + i * intervalNanos;
+      long wait;
+      while ((wait = scheduled - System.nanoTime()) > 0) {
+        LockSupport.parkNanos(wait);
+      }
+      if (inFlight.get() >= maxInFlight) {
+        result.recordOverflow();
+        continue;
+      }
+      inFlight.incrementAndGet();
+      client.sendAsync(requests.apply(i), HttpResponse.BodyHandlers.discarding())
+          .whenComplete((response, error) -> {
+            result.record(error == null ? response.statusCode() : -1,
+                System.nanoTime() - scheduled);
+            inFlight.decrementAndGet();
+          });
+    }
+
+    long deadline = System.nanoTime() + DRAIN_TIMEOUT.toNanos();
+    while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+    }
+    result.finish(System.nanoTime() - start, inFlight.get());
+    return result;
+  }
+}
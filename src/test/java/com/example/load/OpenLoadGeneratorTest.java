@@ -0,0 +1,107 @@
+package com.example.load;
+
+import com.example.load.LoadResult.Outcome;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for OpenLoadGenerator against a local HTTP server.
+ */
+class OpenLoadGeneratorTest {
+
+  private HttpServer server;
+
+  @AfterEach
+  void stopServer() {
+    if (server != null) {
+      server.stop(0);
+    }
+  }
+
+  private URI start(long delayMillis) throws Exception {
+    server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.createContext("/", exchange -> {
+      try {
+        Thread.sleep(delayMillis);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      int status = exchange.getRequestURI().getPath().equals("/limited") ? 429
+          : exchange.getRequestURI().getPath().equals("/broken") ? 500 : 200;
+      exchange.sendResponseHeaders(status, -1);
+      exchange.close();
+    });
+    // A single thread, so that a slow handler queues requests
+    server.setExecutor(Executors.newSingleThreadExecutor());
+    server.start();
+    return URI.create("http://127.0.0.1:" + server.getAddress().getPort());
+  }
+
+  @Test
+  void testSendsAtArrivalRateAndClassifiesOutcomes() throws Exception {
+    URI base = start(0);
+    OpenLoadGenerator generator = new OpenLoadGenerator(1000);
+
+    LoadResult result = generator.run("mix", 40, Duration.ofSeconds(1),
+        i -> HttpRequest
+            .newBuilder(base.resolve(i % 4 == 0 ? "/limited" : i % 4 == 1 ? "/broken" : "/ok"))
+            .GET().build());
+
+    assertEquals(20, result.count(Outcome.OK));
+    assertEquals(10, result.count(Outcome.THROTTLED));
+    assertEquals(10, result.count(Outcome.ERROR));
+    assertEquals(0, result.overflowed());
+    assertThrows(AssertionError.class,
+        () -> result.assertSlo(LatencySlo.ofMillis(1000, 1000, 1000)), "errors fail the objective");
+  }
+
+  @Test
+  void testLatencyIncludesTimeQueuedBehindSlowResponses() throws Exception {
+    // The server completes 20 requests per second, half the arrival rate
+    URI base = start(50);
+    OpenLoadGenerator generator = new OpenLoadGenerator(100);
+
+    LoadResult result = generator.run("slow", 40, Duration.ofSeconds(1),
+        i -> HttpRequest.newBuilder(base.resolve("/ok")).GET().build());
+
+    assertEquals(40, result.count(Outcome.OK));
+    // The last arrivals wait for the requests queued ahead of them, about a second
+    assertTrue(result.percentileMillis(Outcome.OK, 99) > 500, result.toString());
+    assertThrows(AssertionError.class, () -> result.assertSlo(LatencySlo.ofMillis(100, 100, 100)));
+  }
+
+  @Test
+  void testOverflowWhenTooManyInFlight() throws Exception {
+    URI base = start(200);
+    OpenLoadGenerator generator = new OpenLoadGenerator(2);
+
+    LoadResult result = generator.run("overflow", 50, Duration.ofMillis(200),
+        i -> HttpRequest.newBuilder(base.resolve("/ok")).GET().build());
+
+    assertTrue(result.overflowed() > 0, result.toString());
+    assertEquals(10, result.count(Outcome.OK) + result.overflowed());
+  }
+
+  @Test
+  void testSloFromProperty() {
+    LatencySlo fallback = LatencySlo.ofMillis(1, 2, 3);
+    assertEquals(fallback, LatencySlo.fromProperty("load.slo.unset-for-test", fallback));
+
+    System.setProperty("load.slo.test", "5, 50, 500");
+    try {
+      assertEquals(LatencySlo.ofMillis(5, 50, 500),
+          LatencySlo.fromProperty("load.slo.test", fallback));
+    } finally {
+      System.clearProperty("load.slo.test");
+    }
+  }
+}
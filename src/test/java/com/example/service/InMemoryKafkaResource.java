@@ -0,0 +1,26 @@
+package com.example.service;
+
+import io.quarkus.test.common.QuarkusTestResourceLifecycleManager;
+import io.smallrye.reactive.messaging.memory.InMemoryConnector;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Replaces the Kafka connector of the greetings channels with SmallRye's in-memory connector.
+ */
+public class InMemoryKafkaResource implements QuarkusTestResourceLifecycleManager {
+
+  @Override
+  public Map<String, String> start() {
+    Map<String, String> properties = new HashMap<>();
+    properties.putAll(InMemoryConnector.switchIncomingChannelsToInMemory("greetings-in"));
+    properties.putAll(InMemoryConnector.switchOutgoingChannelsToInMemory("greetings-out"));
+    return properties;
+  }
+
+  @Override
+  public void stop() {
+    InMemoryConnector.clear();
+  }
+}
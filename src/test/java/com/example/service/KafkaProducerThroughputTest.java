@@ -0,0 +1,80 @@
+package com.example.service;
+
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.smallrye.reactive.messaging.memory.InMemoryConnector;
+import jakarta.enterprise.inject.Any;
+import jakarta.inject.Inject;
+import org.jboss.logging.Logger;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares the throughput of one-by-one sends with batch sends against the in-memory connector, so
+ * the numbers reflect the cost of the producer path in this service rather than the broker.
+ *
+ * <p>
+ * Disabled by default; run with {@code mvn test -Dload-tests=true
+ * -Dtest=KafkaProducerThroughputTest}.
+ */
+@QuarkusTest
+@QuarkusTestResource(value = InMemoryKafkaResource.class, restrictToAnnotatedClass = true)
+@EnabledIfSystemProperty(named = "load-tests", matches = "true")
+class KafkaProducerThroughputTest {
+
+  private static final Logger LOG = Logger.getLogger(KafkaProducerThroughputTest.class);
+
+  private static final int MESSAGES = 200_000;
+
+  @Inject
+  KafkaService kafkaService;
+
+  @Inject
+  @Any
+  InMemoryConnector connector;
+
+  @Test
+  void testBatchSendOutperformsOneByOne() throws Exception {
+    List<String> messages = IntStream.range(0, MESSAGES).mapToObj(i -> "Hello " + i).toList();
+
+    // Warm up both paths
+    oneByOne(messages.subList(0, 20_000));
+    batch(messages.subList(0, 20_000));
+
+    double before = MESSAGES / seconds(() -> oneByOne(messages));
+    double after = MESSAGES / seconds(() -> batch(messages));
+    LOG.infof("Kafka producer throughput: one by one %.0f msg/s, batched %.0f msg/s", before,
+        after);
+
+    assertTrue(after > before, "Batched sends should be faster than one-by-one sends");
+  }
+
+  private void oneByOne(List<String> messages) throws Exception {
+    connector.sink("greetings-out").clear();
+    for (String message : messages) {
+      kafkaService.sendGreeting(message).toCompletableFuture().get(5, TimeUnit.SECONDS);
+    }
+  }
+
+  private void batch(List<String> messages) throws Exception {
+    connector.sink("greetings-out").clear();
+    kafkaService.sendGreetings(messages).toCompletableFuture().get(60, TimeUnit.SECONDS);
+  }
+
+  private static double seconds(ThrowingRunnable run) throws Exception {
+    long start = System.nanoTime();
+    run.run();
+    return (System.nanoTime() - start) / 1e9;
+  }
+
+  @FunctionalInterface
+  private interface ThrowingRunnable {
+    void run() throws Exception;
+  }
+}
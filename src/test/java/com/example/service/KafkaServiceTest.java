@@ -0,0 +1,123 @@
+package com.example.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.reactive.messaging.memory.InMemoryConnector;
+import io.smallrye.reactive.messaging.kafka.api.IncomingKafkaRecordBatchMetadata;
+import io.smallrye.reactive.messaging.memory.InMemorySink;
+import jakarta.enterprise.inject.Any;
+import jakarta.inject.Inject;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.TopicPartition;
+import org.eclipse.microprofile.reactive.messaging.Message;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for KafkaService, using the in-memory connector.
+ */
+@QuarkusTest
+@QuarkusTestResource(value = InMemoryKafkaResource.class, restrictToAnnotatedClass = true)
+class KafkaServiceTest {
+
+  @Inject
+  KafkaService kafkaService;
+
+  @Inject
+  @Any
+  InMemoryConnector connector;
+
+  @Inject
+  MeterRegistry registry;
+
+  private InMemorySink<String> sink;
+
+  @BeforeEach
+  void setUp() {
+    sink = connector.sink("greetings-out");
+    sink.clear();
+  }
+
+  @Test
+  void testSendGreetingCompletesOnAck() throws Exception {
+    kafkaService.sendGreeting("Hello").toCompletableFuture().get(5, TimeUnit.SECONDS);
+
+    assertEquals(List.of("Hello"), payloads());
+  }
+
+  @Test
+  void testSendGreetingsDeliversEveryMessage() throws Exception {
+    List<String> messages = IntStream.range(0, 5_000).mapToObj(i -> "Hello " + i).toList();
+
+    kafkaService.sendGreetings(messages).toCompletableFuture().get(30, TimeUnit.SECONDS);
+
+    assertEquals(messages.size(), sink.received().size());
+    assertTrue(payloads().containsAll(messages));
+  }
+
+  @Test
+  void testSendGreetingsFromMulti() {
+    Multi<String> messages = Multi.createFrom().range(0, 2_000).map(i -> "Hi " + i);
+
+    kafkaService.sendGreetings(messages).await().atMost(Duration.ofSeconds(30));
+
+    assertEquals(2_000, sink.received().size());
+  }
+
+  @Test
+  void testAcksAreMeasured() throws Exception {
+    Timer acks = registry.find("kafka.producer.ack")
+        .tags("channel", "greetings-out", "outcome", "success").timer();
+    assertNotNull(acks);
+    long before = acks.count();
+
+    kafkaService.sendGreetings(List.of("a", "b", "c")).toCompletableFuture().get(5,
+        TimeUnit.SECONDS);
+
+    assertEquals(before + 3, acks.count());
+    assertEquals(0.0, registry.get("kafka.producer.in.flight").gauge().value());
+  }
+
+  @Test
+  void testReceiveGreetingsAcksBatchOnceProcessed() throws Exception {
+    TopicPartition partition = new TopicPartition("greetings", 0);
+    List<ConsumerRecord<String, String>> records = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      records.add(new ConsumerRecord<>("greetings", 0, i, "key-" + i % 7, "Hello " + i));
+    }
+    IncomingKafkaRecordBatchMetadata<String, String> metadata =
+        new IncomingKafkaRecordBatchMetadata<>(new ConsumerRecords<>(Map.of(partition, records)),
+            "greetings-in", Map.of());
+    List<String> payloads = records.stream().map(ConsumerRecord::value).toList();
+    CompletableFuture<Void> acked = new CompletableFuture<>();
+    Counter processed = registry.get("kafka.consumer.records").counter();
+    double before = processed.count();
+
+    connector.source("greetings-in").send(Message.of(payloads).addMetadata(metadata).withAck(() -> {
+      acked.complete(null);
+      return acked;
+    }));
+
+    acked.get(10, TimeUnit.SECONDS);
+    assertEquals(before + 100, processed.count());
+  }
+
+  private List<String> payloads() {
+    return sink.received().stream().map(Message::getPayload).toList();
+  }
+}
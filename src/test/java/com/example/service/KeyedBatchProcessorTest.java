@@ -0,0 +1,92 @@
+package com.example.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for KeyedBatchProcessor.
+ */
+class KeyedBatchProcessorTest {
+
+  private final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  void testRecordsWithSameKeyStayInOrder() throws Exception {
+    List<int[]> records = new ArrayList<>();
+    for (int i = 0; i < 2_000; i++) {
+      records.add(new int[] {i % 10, i});
+    }
+    Map<Integer, List<Integer>> seen = new ConcurrentHashMap<>();
+
+    new KeyedBatchProcessor(executor, 4).process(records, r -> r[0], r -> {
+      seen.computeIfAbsent(r[0], k -> new CopyOnWriteArrayList<>()).add(r[1]);
+      if (r[1] % 100 == 0) {
+        sleep(ThreadLocalRandom.current().nextInt(3));
+      }
+    }).get(10, TimeUnit.SECONDS);
+
+    assertEquals(10, seen.size());
+    seen.values().forEach(sequence -> {
+      assertEquals(200, sequence.size());
+      for (int i = 1; i < sequence.size(); i++) {
+        assertTrue(sequence.get(i - 1) < sequence.get(i), "Out of order: " + sequence);
+      }
+    });
+  }
+
+  @Test
+  void testDifferentKeysRunInParallel() throws Exception {
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger maxRunning = new AtomicInteger();
+    List<Integer> records = List.of(0, 1, 2, 3, 4, 5, 6, 7);
+
+    new KeyedBatchProcessor(executor, 8).process(records, r -> r, r -> {
+      maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+      sleep(50);
+      running.decrementAndGet();
+    }).get(10, TimeUnit.SECONDS);
+
+    assertTrue(maxRunning.get() > 1);
+  }
+
+  @Test
+  void testFailureFailsTheBatch() {
+    List<Integer> records = List.of(1, 2, 3);
+
+    ExecutionException error = assertThrows(ExecutionException.class,
+        () -> new KeyedBatchProcessor(executor, 2).process(records, r -> r, r -> {
+          if (r == 2) {
+            throw new IllegalStateException("boom");
+          }
+        }).get(10, TimeUnit.SECONDS));
+
+    assertInstanceOf(IllegalStateException.class, error.getCause());
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,252 @@
+package com.example.service;
+
+import com.example.dto.ObjectMetadata;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.ws.rs.NotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the streaming paths of MinioService against an in-process S3 stub.
+ */
+class MinioServiceTest {
+
+  private static final int PART_SIZE = 5 * 1024 * 1024;
+
+  private S3StubServer s3;
+  private MinioService minioService;
+
+  @BeforeEach
+  void setUp() {
+    s3 = new S3StubServer();
+    s3.start();
+    minioService = new MinioService();
+    minioService.endpoint = s3.endpoint();
+    minioService.accessKey = "minioadmin";
+    minioService.secretKey = "minioadmin";
+    minioService.bucketName = "test-bucket";
+    minioService.partSize = PART_SIZE;
+    minioService.uploadConcurrency = 3;
+    minioService.objectCache = new ObjectDiskCache();
+    minioService.registry = new SimpleMeterRegistry();
+    minioService.init();
+  }
+
+  @AfterEach
+  void tearDown() {
+    s3.stop();
+  }
+
+  @Test
+  void testMultipartUploadRoundTrips() throws IOException {
+    long size = 4L * PART_SIZE + 12345;
+
+    minioService.uploadStream("big.bin", new PatternStream(size), size, "application/x-test");
+
+    assertEquals(size, s3.size("test-bucket", "big.bin"));
+    assertEquals(size, minioService.statFile("big.bin").getSize());
+    assertEquals("application/x-test", minioService.statFile("big.bin").getContentType());
+    try (InputStream in = minioService.downloadFile("big.bin")) {
+      assertMatchesPattern(in, 0, size);
+    }
+  }
+
+  @Test
+  void testUploadOfUnknownSize() throws IOException {
+    long size = 2L * PART_SIZE;
+
+    minioService.uploadStream("unknown.bin", new PatternStream(size), -1, "text/plain");
+
+    assertEquals(size, s3.size("test-bucket", "unknown.bin"));
+  }
+
+  @Test
+  void testEmptyUploadOfUnknownSizeUsesSingleRequest() throws IOException {
+    minioService.uploadStream("empty.bin", InputStream.nullInputStream(), -1, "text/plain");
+
+    assertEquals(0, s3.size("test-bucket", "empty.bin"));
+    assertEquals(0, s3.multipartUploads());
+  }
+
+  @Test
+  void testFailedPartStopsReadingTheStream() throws IOException {
+    s3.failParts();
+    PatternStream stream = new PatternStream(50L * PART_SIZE);
+
+    assertThrows(RuntimeException.class,
+        () -> minioService.uploadStream("failed.bin", stream, -1, "text/plain"));
+
+    // At most one part per buffer in flight, plus the one read when the failure was noticed
+    assertTrue(stream.position <= (minioService.uploadConcurrency + 1L) * PART_SIZE,
+        "Read " + stream.position / PART_SIZE + " parts after the upload failed");
+    assertEquals(-1, s3.size("test-bucket", "failed.bin"));
+  }
+
+  @Test
+  void testSmallUploadUsesSingleRequest() throws IOException {
+    minioService.uploadStream("small.bin", new PatternStream(1000), 1000, "text/plain");
+
+    assertEquals(1000, s3.size("test-bucket", "small.bin"));
+  }
+
+  @Test
+  void testTruncatedStreamIsRejected() throws IOException {
+    long declared = 3L * PART_SIZE;
+
+    assertThrows(RuntimeException.class, () -> minioService.uploadStream("short.bin",
+        new PatternStream(2L * PART_SIZE + 1), declared, "text/plain"));
+    assertEquals(-1, s3.size("test-bucket", "short.bin"));
+  }
+
+  @Test
+  void testRangeDownload() throws IOException {
+    long size = PART_SIZE + 500;
+    minioService.uploadStream("range.bin", new PatternStream(size), size, "text/plain");
+
+    try (InputStream in = minioService.downloadFile("range.bin", PART_SIZE - 10, 100)) {
+      assertMatchesPattern(in, PART_SIZE - 10, 100);
+    }
+  }
+
+  @Test
+  void testStatOfMissingObject() {
+    assertThrows(NotFoundException.class, () -> minioService.statFile("missing.bin"));
+  }
+
+  @Test
+  void testConcurrentStatsShareOneRequest() throws Exception {
+    minioService.uploadFile("hot.txt", "hot".getBytes(StandardCharsets.UTF_8), "text/plain");
+    int before = s3.stats();
+    CountDownLatch release = s3.holdStats();
+
+    List<Object> outcomes = SingleFlightBurst.run(500, () -> minioService.statFile("hot.txt"),
+        minioService.registry, "minio-stat", release::countDown);
+
+    assertEquals(1, s3.stats() - before);
+    outcomes.forEach(outcome -> assertEquals(3, ((ObjectMetadata) outcome).getSize()));
+  }
+
+  @Test
+  void testCachedDownloadSeesOverwrite(@TempDir Path cacheDirectory) throws IOException {
+    ObjectDiskCache cache = new ObjectDiskCache();
+    cache.registry = new SimpleMeterRegistry();
+    cache.enabled = true;
+    cache.directory = Optional.of(cacheDirectory);
+    cache.maxSize = 10L * PART_SIZE;
+    cache.maxObjectSize = PART_SIZE;
+    cache.init();
+    minioService.objectCache = cache;
+
+    minioService.uploadFile("cached.txt", "first".getBytes(StandardCharsets.UTF_8), "text/plain");
+    try (InputStream in = minioService.downloadFile("cached.txt")) {
+      assertEquals("first", new String(in.readAllBytes(), StandardCharsets.UTF_8));
+    }
+    minioService.uploadFile("cached.txt", "second".getBytes(StandardCharsets.UTF_8), "text/plain");
+    try (InputStream in = minioService.downloadFile("cached.txt")) {
+      assertEquals("second", new String(in.readAllBytes(), StandardCharsets.UTF_8));
+    }
+    minioService.deleteFile("cached.txt");
+    assertThrows(NotFoundException.class, () -> minioService.downloadFile("cached.txt"));
+  }
+
+  /**
+   * Streams 3 GB up and down and checks that heap use stays far below the object size. Disabled by
+   * default; run with {@code mvn test -Dload-tests=true -Dtest=MinioServiceTest}.
+   */
+  @Test
+  @EnabledIfSystemProperty(named = "load-tests", matches = "true")
+  void testMultiGigabyteTransferKeepsHeapBounded() throws Exception {
+    long size = 3L * 1024 * 1024 * 1024;
+    MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    System.gc();
+    long baseline = memory.getHeapMemoryUsage().getUsed();
+    AtomicLong peak = new AtomicLong();
+    AtomicBoolean running = new AtomicBoolean(true);
+    Thread sampler = new Thread(() -> {
+      while (running.get()) {
+        peak.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max);
+        Thread.onSpinWait();
+      }
+    });
+    sampler.start();
+    try {
+      minioService.uploadStream("huge.bin", new PatternStream(size), size, "text/plain");
+      try (InputStream in = minioService.downloadFile("huge.bin")) {
+        assertMatchesPattern(in, 0, size);
+      }
+    } finally {
+      running.set(false);
+      sampler.join();
+    }
+
+    long growth = peak.get() - baseline;
+    // Three 5 MiB part buffers plus client and GC slack, nowhere near the 3 GB transferred
+    assertTrue(growth < 512L * 1024 * 1024, "Heap grew by " + growth + " bytes");
+  }
+
+  private static void assertMatchesPattern(InputStream in, long offset, long length)
+      throws IOException {
+    byte[] buffer = new byte[64 * 1024];
+    long position = offset;
+    int read;
+    while ((read = in.read(buffer)) > 0) {
+      for (int i = 0; i < read; i++) {
+        if (buffer[i] != PatternStream.byteAt(position + i)) {
+          fail("Content differs at byte " + (position + i));
+        }
+      }
+      position += read;
+    }
+    assertEquals(offset + length, position);
+  }
+
+  /**
+   * Deterministic content of any length, generated on the fly.
+   */
+  private static final class PatternStream extends InputStream {
+    private final long size;
+    private long position;
+
+    PatternStream(long size) {
+      this.size = size;
+    }
+
+    static byte byteAt(long position) {
+      return (byte) (position * 31 + (position >>> 13));
+    }
+
+    @Override
+    public int read() {
+      return position < size ? byteAt(position++) & 0xFF : -1;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+      if (position >= size) {
+        return -1;
+      }
+      int count = (int) Math.min(len, size - position);
+      for (int i = 0; i < count; i++) {
+        b[off + i] = byteAt(position++);
+      }
+      return count;
+    }
+  }
+}
@@ -0,0 +1,177 @@
+package com.example.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.quarkus.redis.runtime.datasource.BlockingRedisDataSourceImpl;
+import io.quarkus.redis.runtime.datasource.ReactiveRedisDataSourceImpl;
+import io.vertx.mutiny.core.Vertx;
+import io.vertx.mutiny.redis.client.Redis;
+import io.vertx.mutiny.redis.client.RedisAPI;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the RedisService near cache against a local Redis stand-in, with two services
+ * playing two application nodes.
+ */
+class NearCacheTest {
+
+  private static final Duration TTL = Duration.ofMinutes(1);
+
+  private RedisStandIn standIn;
+  private Vertx vertx;
+  private final List<Redis> clients = new ArrayList<>();
+  private final List<RedisService> nodes = new ArrayList<>();
+
+  @BeforeEach
+  void setUp() {
+    standIn = new RedisStandIn();
+    standIn.start();
+    vertx = Vertx.vertx();
+  }
+
+  @AfterEach
+  void tearDown() {
+    nodes.forEach(RedisService::shutdown);
+    clients.forEach(Redis::close);
+    vertx.closeAndAwait();
+    standIn.stop();
+  }
+
+  private RedisService node(NearCache.Invalidation invalidation) {
+    Redis redis = Redis.createClient(vertx, standIn.uri());
+    clients.add(redis);
+    ReactiveRedisDataSourceImpl reactive =
+        new ReactiveRedisDataSourceImpl(vertx, redis, RedisAPI.api(redis));
+    RedisService node = new RedisService();
+    node.redisDataSource = new BlockingRedisDataSourceImpl(reactive, Duration.ofSeconds(10));
+    node.registry = new SimpleMeterRegistry();
+    node.nearCacheEnabled = true;
+    node.nearCachePrefixes = Optional.of(List.of("hot:"));
+    node.nearCacheInvalidation = invalidation;
+    node.nearCacheMaxSize = 100;
+    node.nearCacheTtl = Duration.ofMinutes(5);
+    node.nearCacheReconnectDelay = Duration.ofMillis(100);
+    node.init();
+    nodes.add(node);
+    await(() -> nearCache(node).isActive(), "near cache did not subscribe");
+    return node;
+  }
+
+  private static NearCache nearCache(RedisService node) {
+    try {
+      var field = RedisService.class.getDeclaredField("nearCache");
+      field.setAccessible(true);
+      return (NearCache) field.get(node);
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static void await(BooleanSupplier condition, String message) {
+    long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+    while (!condition.getAsBoolean()) {
+      assertTrue(System.nanoTime() < deadline, message);
+      try {
+        Thread.sleep(10);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException(e);
+      }
+    }
+  }
+
+  private static boolean write(RedisService node, String key, String value) {
+    try {
+      node.set(key, value, TTL);
+      return true;
+    } catch (RuntimeException e) {
+      return false;
+    }
+  }
+
+  @ParameterizedTest
+  @EnumSource(NearCache.Invalidation.class)
+  void testRepeatedReadsAreLocalUntilAnotherNodeWrites(NearCache.Invalidation invalidation) {
+    RedisService writer = node(invalidation);
+    writer.set("hot:greeting", "hello", TTL);
+    // Subscribed after the write, so no late invalidation of it can drop the first read
+    RedisService reader = node(invalidation);
+
+    assertEquals("hello", reader.get("hot:greeting"));
+    long commands = standIn.commands();
+    for (int i = 0; i < 100; i++) {
+      assertEquals("hello", reader.get("hot:greeting"));
+    }
+    assertEquals(commands, standIn.commands(), "repeated reads went to Redis");
+
+    writer.set("hot:greeting", "hi", TTL);
+    await(() -> "hi".equals(reader.get("hot:greeting")), "write from another node not seen");
+    writer.delete("hot:greeting");
+    await(() -> reader.get("hot:greeting") == null, "delete from another node not seen");
+  }
+
+  @Test
+  void testMissingKeysAreCachedToo() {
+    RedisService reader = node(NearCache.Invalidation.TRACKING);
+    RedisService writer = node(NearCache.Invalidation.TRACKING);
+
+    assertNull(reader.get("hot:missing"));
+    long commands = standIn.commands();
+    assertNull(reader.get("hot:missing"));
+    assertEquals(commands, standIn.commands());
+
+    writer.set("hot:missing", "found", TTL);
+    await(() -> "found".equals(reader.get("hot:missing")), "created key not seen");
+  }
+
+  @Test
+  void testOwnWritesAreSeenAtOnce() {
+    RedisService node = node(NearCache.Invalidation.TRACKING);
+    node.set("hot:key", "one", TTL);
+    assertEquals("one", node.get("hot:key"));
+
+    node.set("hot:key", "two", TTL);
+    assertEquals("two", node.get("hot:key"));
+  }
+
+  @Test
+  void testOtherPrefixesGoToRedis() {
+    RedisService node = node(NearCache.Invalidation.TRACKING);
+    node.set("cold:key", "value", TTL);
+
+    node.get("cold:key");
+    long commands = standIn.commands();
+    node.get("cold:key");
+    assertEquals(commands + 1, standIn.commands());
+  }
+
+  @Test
+  void testBypassedWhileDisconnected() {
+    RedisService reader = node(NearCache.Invalidation.TRACKING);
+    RedisService writer = node(NearCache.Invalidation.TRACKING);
+    writer.set("hot:key", "one", TTL);
+    assertEquals("one", reader.get("hot:key"));
+
+    standIn.disconnectAll();
+    await(() -> !nearCache(reader).isActive(), "disconnect not noticed");
+    // Written while the reader cannot hear about it, once the writer's pool has reconnected
+    await(() -> write(writer, "hot:key", "two"), "writer did not reconnect");
+    assertEquals("two", reader.get("hot:key"));
+
+    await(() -> nearCache(reader).isActive(), "near cache did not resubscribe");
+    assertEquals("two", reader.get("hot:key"));
+    writer.set("hot:key", "three", TTL);
+    await(() -> "three".equals(reader.get("hot:key")), "write after reconnect not seen");
+  }
+}
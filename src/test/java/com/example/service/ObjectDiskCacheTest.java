@@ -0,0 +1,272 @@
+package com.example.service;
+
+import com.example.dto.ObjectMetadata;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ObjectDiskCache.
+ */
+class ObjectDiskCacheTest {
+
+  @TempDir
+  Path directory;
+
+  private ObjectDiskCache cache;
+  private SimpleMeterRegistry registry;
+  private ExecutorService fills;
+  private final Map<String, String> store = new HashMap<>();
+  private final AtomicInteger fetches = new AtomicInteger();
+  private final Function<String, InputStream> fetch = name -> {
+    fetches.incrementAndGet();
+    return new ByteArrayInputStream(store.get(name).getBytes(StandardCharsets.UTF_8));
+  };
+
+  @BeforeEach
+  void setUp() {
+    registry = new SimpleMeterRegistry();
+    fills = Executors.newSingleThreadExecutor();
+    cache = new ObjectDiskCache();
+    cache.registry = registry;
+    cache.fillExecutor = fills;
+    cache.enabled = true;
+    cache.directory = Optional.of(directory);
+    cache.maxSize = 100;
+    cache.maxObjectSize = 40;
+    cache.init();
+  }
+
+  @AfterEach
+  void tearDown() {
+    fills.shutdownNow();
+  }
+
+  @Test
+  void testSecondReadIsServedFromDisk() throws IOException {
+    ObjectMetadata object = put("a", "hello cache", "v1");
+
+    assertEquals("hello cache", read(cache.open(object, 0, -1, fetch)));
+    assertEquals("hello cache", read(cache.open(object, 0, -1, fetch)));
+
+    assertEquals(1, fetches.get());
+    assertEquals(1, registry.get("minio.cache.requests").tag("result", "hit").counter().count());
+    assertEquals(11, registry.get("minio.cache.served").counter().count());
+    assertEquals(0.5, registry.get("minio.cache.hit.ratio").gauge().value());
+  }
+
+  @Test
+  void testRangeIsReadFromCachedFile() throws IOException {
+    ObjectMetadata object = put("a", "0123456789", "v1");
+
+    assertEquals("0123456789", read(cache.open(object, 0, -1, fetch)));
+    assertEquals("345", read(cache.open(object, 3, 3, fetch)));
+    assertEquals("89", read(cache.open(object, 8, 5, fetch)));
+  }
+
+  @Test
+  void testRangeMissIsReadFromMinioAndCachedInBackground() throws Exception {
+    ObjectMetadata object = put("a", "0123456789", "v1");
+
+    assertNull(cache.open(object, 3, 3, fetch));
+    awaitFills();
+
+    assertEquals(1, fetches.get());
+    assertEquals(1, cachedFiles());
+    assertEquals("345", read(cache.open(object, 3, 3, fetch)));
+    assertEquals(1, fetches.get());
+  }
+
+  @Test
+  void testRangeDoesNotWaitForCopyInFlight() throws Exception {
+    ObjectMetadata object = put("a", "0123456789", "v1");
+    CountDownLatch release = new CountDownLatch(1);
+    Function<String, InputStream> slowFetch = name -> {
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return fetch.apply(name);
+    };
+
+    assertNull(cache.open(object, 0, 5, slowFetch));
+    assertNull(cache.open(object, 5, 5, slowFetch));
+    release.countDown();
+    awaitFills();
+
+    assertEquals(1, fetches.get());
+    assertEquals("56789", read(cache.open(object, 5, 5, fetch)));
+  }
+
+  @Test
+  void testEvictedMappingIsReleasedAfterLastReader() throws IOException {
+    ObjectMetadata object = put("a", "0123456789", "v1");
+    read(cache.open(object, 0, -1, fetch));
+    assertEquals(10, registry.get("minio.cache.mapped").gauge().value());
+
+    InputStream reader = cache.open(object, 2, 4, fetch);
+    cache.invalidate("a");
+
+    assertEquals(0, cachedFiles());
+    assertEquals(10, registry.get("minio.cache.mapped").gauge().value());
+    assertEquals("2345", read(reader));
+    assertEquals(0, registry.get("minio.cache.mapped").gauge().value());
+    assertEquals(-1, reader.read());
+  }
+
+  @Test
+  void testCachedRangeIsReadableAsChannel() throws IOException {
+    ObjectMetadata object = put("a", "0123456789", "v1");
+    read(cache.open(object, 0, -1, fetch));
+
+    try (InputStream in = cache.open(object, 2, 4, fetch)) {
+      ByteBuffer target = ByteBuffer.allocateDirect(16);
+      assertEquals(4, ((ReadableByteChannel) in).read(target));
+      assertEquals(-1, ((ReadableByteChannel) in).read(target));
+      target.flip();
+      assertEquals("2345", StandardCharsets.UTF_8.decode(target).toString());
+    }
+  }
+
+  @Test
+  void testNewVersionReplacesCachedFile() throws IOException {
+    ObjectMetadata first = put("a", "first", "v1");
+    read(cache.open(first, 0, -1, fetch));
+
+    ObjectMetadata second = put("a", "second", "v2");
+
+    assertEquals("second", read(cache.open(second, 0, -1, fetch)));
+    assertEquals(2, fetches.get());
+    assertEquals(1, cachedFiles());
+  }
+
+  @Test
+  void testInvalidateDeletesFile() throws IOException {
+    ObjectMetadata object = put("a", "content", "v1");
+    read(cache.open(object, 0, -1, fetch));
+
+    cache.invalidate("a");
+
+    assertEquals(0, cachedFiles());
+    assertEquals("content", read(cache.open(object, 0, -1, fetch)));
+    assertEquals(2, fetches.get());
+  }
+
+  @Test
+  void testInvalidateDuringLoadDropsFile() throws IOException {
+    ObjectMetadata object = put("a", "old", "v1");
+    Function<String, InputStream> overwritingFetch = name -> {
+      InputStream in = fetch.apply(name);
+      // The object is overwritten while its previous version is being copied
+      cache.invalidate(name);
+      return in;
+    };
+
+    assertEquals("old", read(cache.open(object, 0, -1, overwritingFetch)));
+
+    assertEquals(0, cachedFiles());
+  }
+
+  @Test
+  void testLargeObjectsAreNotCached() {
+    ObjectMetadata object = put("big", "x".repeat(41), "v1");
+
+    assertNull(cache.open(object, 0, -1, fetch));
+    assertEquals(0, fetches.get());
+  }
+
+  @Test
+  void testCacheStaysWithinMaxSize() throws IOException {
+    for (int i = 0; i < 10; i++) {
+      read(cache.open(put("o" + i, "x".repeat(30), "v1"), 0, -1, fetch));
+    }
+
+    long bytes;
+    try (var files = Files.list(directory)) {
+      bytes = files.mapToLong(file -> file.toFile().length()).sum();
+    }
+    assertTrue(bytes <= 100, "Cache holds " + bytes + " bytes");
+    assertTrue(registry.get("minio.cache.size").gauge().value() <= 100);
+    // Evicted files are unmapped too, as every reader was closed
+    assertTrue(registry.get("minio.cache.mapped").gauge().value() <= 100);
+  }
+
+  @Test
+  void testConcurrentFirstReadsFetchOnce() throws Exception {
+    ObjectMetadata object = put("a", "shared", "v1");
+    CountDownLatch release = new CountDownLatch(1);
+    Function<String, InputStream> slowFetch = name -> {
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return fetch.apply(name);
+    };
+
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<String>> reads = new ArrayList<>();
+      for (int i = 0; i < 8; i++) {
+        reads.add(executor.submit(() -> read(cache.open(object, 0, -1, slowFetch))));
+      }
+      // Let every reader reach the cache before the first copy completes
+      Thread.sleep(100);
+      release.countDown();
+      for (Future<String> read : reads) {
+        assertEquals("shared", read.get());
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    assertEquals(1, fetches.get());
+  }
+
+  private ObjectMetadata put(String name, String content, String etag) {
+    store.put(name, content);
+    return new ObjectMetadata(name, content.length(), etag, "text/plain", Instant.now());
+  }
+
+  private void awaitFills() throws Exception {
+    fills.submit(() -> {
+    }).get();
+  }
+
+  private long cachedFiles() throws IOException {
+    try (var files = Files.list(directory)) {
+      return files.count();
+    }
+  }
+
+  private static String read(InputStream in) throws IOException {
+    try (in) {
+      return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+    }
+  }
+}
@@ -0,0 +1,189 @@
+package com.example.service;
+
+import com.example.dto.UserResponse;
+import io.quarkus.redis.runtime.datasource.BlockingRedisDataSourceImpl;
+import io.quarkus.redis.runtime.datasource.ReactiveRedisDataSourceImpl;
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.core.Vertx;
+import io.vertx.mutiny.redis.client.Redis;
+import io.vertx.mutiny.redis.client.RedisAPI;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ReactiveRedisService and the multi-key RedisService calls against a local Redis
+ * stand-in.
+ */
+class ReactiveRedisServiceTest {
+
+  private static final Duration WAIT = Duration.ofSeconds(10);
+
+  private static RedisStandIn standIn;
+  private static Vertx vertx;
+  private static Redis redis;
+  private static ReactiveRedisDataSourceImpl dataSource;
+
+  private ReactiveRedisService service;
+
+  @BeforeAll
+  static void startRedis() {
+    standIn = new RedisStandIn();
+    standIn.start();
+    vertx = Vertx.vertx();
+    redis = Redis.createClient(vertx, standIn.uri());
+    dataSource = new ReactiveRedisDataSourceImpl(vertx, redis, RedisAPI.api(redis));
+  }
+
+  @AfterAll
+  static void stopRedis() {
+    redis.close();
+    vertx.closeAndAwait();
+    standIn.stop();
+  }
+
+  @BeforeEach
+  void setUp() {
+    standIn.clear();
+    service = service(Duration.ZERO, 256);
+  }
+
+  @AfterEach
+  void tearDown() {
+    service.shutdown();
+  }
+
+  private ReactiveRedisService service(Duration window, int maxSize) {
+    ReactiveRedisService created = new ReactiveRedisService();
+    created.dataSource = dataSource;
+    created.batchWindow = window;
+    created.batchMaxSize = maxSize;
+    created.batchMaxInFlight = 4;
+    created.init();
+    return created;
+  }
+
+  @Test
+  void testSingleKeyOperations() {
+    service.set("greeting", "hello", Duration.ofMinutes(1)).await().atMost(WAIT);
+
+    assertEquals("hello", service.get("greeting").await().atMost(WAIT));
+    assertTrue(service.exists("greeting").await().atMost(WAIT));
+    service.delete("greeting").await().atMost(WAIT);
+    assertFalse(service.exists("greeting").await().atMost(WAIT));
+    assertNull(service.get("greeting").await().atMost(WAIT));
+  }
+
+  @Test
+  void testSetAllAndGetAllInFewRoundTrips() {
+    Map<String, String> values = new HashMap<>();
+    for (int i = 0; i < 1000; i++) {
+      values.put("key:" + i, "value-" + i);
+    }
+    List<String> keys = new ArrayList<>(values.keySet());
+    keys.add("key:missing");
+
+    service.setAll(values, Duration.ofMinutes(1)).await().atMost(WAIT);
+    Map<String, String> read = service.getAll(keys).await().atMost(WAIT);
+
+    assertEquals(values, read);
+    // 1000 SETs and 4 MGETs, each a few pipelines rather than a round trip per key
+    assertEquals(1004, standIn.commands());
+    assertTrue(standIn.roundTrips() <= 16, standIn.roundTrips() + " round trips");
+  }
+
+  @Test
+  void testLargeOperationsStayWithinPoolWaitQueue() {
+    // Far more pipelines than the client lets wait for a connection (24 by default)
+    ReactiveRedisService small = service(Duration.ZERO, 10);
+    Map<String, String> values = new HashMap<>();
+    for (int i = 0; i < 2000; i++) {
+      values.put("key:" + i, "value-" + i);
+    }
+
+    small.setAll(values, Duration.ofMinutes(1)).await().atMost(WAIT);
+
+    assertEquals(values, small.getAll(values.keySet()).await().atMost(WAIT));
+  }
+
+  @Test
+  void testEmptyMultiKeyOperations() {
+    service.setAll(Map.of(), Duration.ofMinutes(1)).await().atMost(WAIT);
+    assertEquals(Map.of(), service.getAll(List.of()).await().atMost(WAIT));
+    assertEquals(0, standIn.commands());
+  }
+
+  @Test
+  void testCoalescesConcurrentSingleKeyCalls() {
+    ReactiveRedisService batching = service(Duration.ofMillis(50), 256);
+    try {
+      batching.set("shared", "value", Duration.ofMinutes(1)).await().atMost(WAIT);
+      standIn.clear();
+      batching.set("shared", "value", Duration.ofMinutes(1)).await().atMost(WAIT);
+      long roundTripsAlone = standIn.roundTrips();
+
+      List<Uni<String>> reads = new ArrayList<>();
+      for (int i = 0; i < 100; i++) {
+        reads.add(batching.get(i % 2 == 0 ? "shared" : "missing"));
+      }
+      List<String> results = Uni.join().all(reads).andFailFast().await().atMost(WAIT);
+
+      for (int i = 0; i < 100; i++) {
+        assertEquals(i % 2 == 0 ? "value" : null, results.get(i));
+      }
+      assertEquals(1, roundTripsAlone);
+      assertTrue(standIn.roundTrips() <= 3, standIn.roundTrips() + " round trips for 100 reads");
+    } finally {
+      batching.shutdown();
+    }
+  }
+
+  @Test
+  void testBlockingServiceUsesExistsAndPipelines() {
+    RedisService blocking = new RedisService();
+    blocking.redisDataSource = new BlockingRedisDataSourceImpl(dataSource, WAIT);
+    blocking.reactiveRedisService = service;
+    blocking.nearCachePrefixes = Optional.empty();
+    blocking.init();
+
+    blocking.setAll(Map.of("a", "1", "b", "2"), Duration.ofMinutes(1));
+    assertEquals(Map.of("a", "1"), blocking.getAll(List.of("a", "c")));
+    assertTrue(blocking.exists("b"));
+    blocking.delete("b");
+    assertFalse(blocking.exists("b"));
+  }
+
+  @Test
+  void testBlockingServiceStoresObjectsWithCodec() {
+    RedisService blocking = new RedisService();
+    blocking.redisDataSource = new BlockingRedisDataSourceImpl(dataSource, WAIT);
+    blocking.reactiveRedisService = service;
+    blocking.nearCachePrefixes = Optional.empty();
+    blocking.init();
+    RedisCodec<UserResponse> codec =
+        UserResponseCodec.INSTANCE.compressed(RedisCodec.Compression.LZ4, 16);
+    UserResponse user = new UserResponse(7L, "alice@example.com", "Alice",
+        LocalDateTime.of(2026, 1, 1, 12, 0), null);
+
+    blocking.set("users:7", user, codec, Duration.ofMinutes(1));
+    UserResponse read = blocking.get("users:7", codec);
+
+    assertEquals(user.getEmail(), read.getEmail());
+    assertEquals(user.getCreatedAt(), read.getCreatedAt());
+    assertNull(blocking.get("users:8", codec));
+    blocking.set("greeting", "hello", Duration.ofMinutes(1));
+    assertThrows(IllegalArgumentException.class, () -> blocking.get("greeting", codec));
+  }
+}
@@ -0,0 +1,76 @@
+package com.example.service;
+
+import io.smallrye.mutiny.Uni;
+import io.vertx.mutiny.redis.client.Command;
+import io.vertx.mutiny.redis.client.Request;
+import io.vertx.mutiny.redis.client.Response;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for RedisBatcher.
+ */
+class RedisBatcherTest {
+
+  private static final Duration WAIT = Duration.ofSeconds(10);
+
+  private final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+
+  private Uni<List<Response>> respondNull(List<Request> requests) {
+    batchSizes.add(requests.size());
+    List<Response> responses = new ArrayList<>();
+    requests.forEach(request -> responses.add(null));
+    return Uni.createFrom().item(responses);
+  }
+
+  private static List<Uni<Response>> gets(RedisBatcher batcher, int count) {
+    List<Uni<Response>> sent = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      sent.add(batcher.send(Request.cmd(Command.GET).arg("key" + i)));
+    }
+    return sent;
+  }
+
+  @Test
+  void testSendsCommandsOfOneWindowTogether() {
+    try (RedisBatcher batcher = new RedisBatcher(this::respondNull, Duration.ofMillis(50), 100)) {
+      Uni.join().all(gets(batcher, 10)).andFailFast().await().atMost(WAIT);
+    }
+    assertEquals(List.of(10), batchSizes);
+  }
+
+  @Test
+  void testSendsFullBatchWithoutWaiting() {
+    try (RedisBatcher batcher = new RedisBatcher(this::respondNull, Duration.ofMinutes(1), 4)) {
+      Uni.join().all(gets(batcher, 8)).andFailFast().await().atMost(WAIT);
+    }
+    assertEquals(List.of(4, 4), batchSizes);
+  }
+
+  @Test
+  void testFailureFailsTheWholeBatch() {
+    RuntimeException failure = new IllegalStateException("connection lost");
+    try (RedisBatcher batcher = new RedisBatcher(requests -> {
+      throw failure;
+    }, Duration.ofMillis(10), 100)) {
+      for (Uni<Response> sent : gets(batcher, 3)) {
+        assertSame(failure,
+            assertThrows(IllegalStateException.class, () -> sent.await().atMost(WAIT)));
+      }
+    }
+  }
+
+  @Test
+  void testNothingSentUntilSubscribed() {
+    try (RedisBatcher batcher = new RedisBatcher(this::respondNull, Duration.ofMillis(10), 100)) {
+      gets(batcher, 3);
+    }
+    assertEquals(List.of(), batchSizes);
+  }
+}
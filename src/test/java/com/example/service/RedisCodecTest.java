@@ -0,0 +1,122 @@
+package com.example.service;
+
+import com.example.dto.UserResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the Redis value codecs.
+ */
+class RedisCodecTest {
+
+  private static final LocalDateTime CREATED = LocalDateTime.of(2026, 1, 1, 12, 0, 0, 123_456_000);
+
+  private static UserResponse user(String name) {
+    return new UserResponse(42L, "alice@example.com", name, CREATED, CREATED.plusDays(3));
+  }
+
+  private static UserResponse roundTrip(UserResponse user) {
+    return UserResponseCodec.INSTANCE.decode(UserResponseCodec.INSTANCE.encode(user));
+  }
+
+  private static void assertSameUser(UserResponse expected, UserResponse actual) {
+    assertEquals(expected.getId(), actual.getId());
+    assertEquals(expected.getEmail(), actual.getEmail());
+    assertEquals(expected.getName(), actual.getName());
+    assertEquals(expected.getCreatedAt(), actual.getCreatedAt());
+    assertEquals(expected.getUpdatedAt(), actual.getUpdatedAt());
+  }
+
+  @Test
+  void testUserRoundTrip() {
+    UserResponse user = user("Zo\u00eb \u00dcnl\u00fc \u540d\u524d");
+
+    assertSameUser(user, roundTrip(user));
+  }
+
+  @Test
+  void testMissingFieldsAndOldDatesRoundTrip() {
+    UserResponse user =
+        new UserResponse(null, null, "", LocalDateTime.of(1901, 12, 13, 20, 45), null);
+
+    assertSameUser(user, roundTrip(user));
+  }
+
+  @Test
+  void testBinaryIsSmallerThanJson() throws Exception {
+    ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule())
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    UserResponse user = user("Alice");
+
+    int json = RedisCodec.json(objectMapper, UserResponse.class).encode(user).length;
+    int binary = UserResponseCodec.INSTANCE.encode(user).length;
+
+    assertTrue(binary * 2 < json, binary + " bytes in binary, " + json + " in JSON");
+  }
+
+  @Test
+  void testJsonRoundTrip() {
+    ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    RedisCodec<UserResponse> codec = RedisCodec.json(objectMapper, UserResponse.class);
+    UserResponse user = user("Alice");
+
+    assertSameUser(user, codec.decode(codec.encode(user)));
+    assertThrows(IllegalArgumentException.class, () -> codec.decode(new byte[] {1, 2}));
+  }
+
+  @ParameterizedTest
+  @EnumSource(RedisCodec.Compression.class)
+  void testCompressesFromThreshold(RedisCodec.Compression compression) {
+    RedisCodec<UserResponse> codec = UserResponseCodec.INSTANCE.compressed(compression, 256);
+    UserResponse small = user("Alice");
+    UserResponse large = user("Alice ".repeat(200));
+
+    byte[] smallBytes = codec.encode(small);
+    byte[] largeBytes = codec.encode(large);
+
+    assertEquals(UserResponseCodec.INSTANCE.encode(small).length + 1, smallBytes.length);
+    int uncompressed = UserResponseCodec.INSTANCE.encode(large).length;
+    if (compression == RedisCodec.Compression.NONE) {
+      assertEquals(uncompressed + 1, largeBytes.length);
+    } else {
+      assertTrue(largeBytes.length < uncompressed / 10, largeBytes.length + " bytes");
+    }
+    assertSameUser(small, codec.decode(smallBytes));
+    assertSameUser(large, codec.decode(largeBytes));
+  }
+
+  @Test
+  void testReadsValuesOfAnyCompression() {
+    UserResponse large = user("Alice ".repeat(200));
+    for (RedisCodec.Compression written : RedisCodec.Compression.values()) {
+      byte[] bytes = UserResponseCodec.INSTANCE.compressed(written, 0).encode(large);
+      for (RedisCodec.Compression reading : RedisCodec.Compression.values()) {
+        assertSameUser(large, UserResponseCodec.INSTANCE.compressed(reading, 0).decode(bytes));
+      }
+    }
+  }
+
+  @Test
+  void testRejectsForeignOrCorruptValues() {
+    RedisCodec<UserResponse> codec =
+        UserResponseCodec.INSTANCE.compressed(RedisCodec.Compression.LZ4, 0);
+    byte[] compressed = codec.encode(user("Alice ".repeat(200)));
+
+    assertThrows(IllegalArgumentException.class,
+        () -> UserResponseCodec.INSTANCE.decode("{\"id\":42}".getBytes()));
+    assertThrows(IllegalArgumentException.class,
+        () -> UserResponseCodec.INSTANCE.decode(new byte[] {1, 1}));
+    assertThrows(IllegalArgumentException.class, () -> codec.decode(new byte[] {9, 1}));
+    assertThrows(IllegalArgumentException.class,
+        () -> codec.decode(Arrays.copyOf(compressed, compressed.length / 2)));
+  }
+}
@@ -0,0 +1,442 @@
+package com.example.service;
+
+import io.quarkus.test.common.QuarkusTestResourceLifecycleManager;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Minimal in-process Redis server speaking RESP2, covering the string and key commands the Redis
+ * services send: GET, SET (with EX/PX/NX), SETEX, PSETEX, MGET, MSET, DEL, GETDEL, EXISTS, PUBLISH
+ * and PING. Anything else, including the HELLO handshake, is answered with an unknown command
+ * error.
+ *
+ * <p>
+ * For near caches it also supports CLIENT ID, broadcast client tracking
+ * ({@code CLIENT TRACKING ON REDIRECT <id> BCAST [PREFIX <prefix>]...}) and SUBSCRIBE/PSUBSCRIBE:
+ * every write sends the key to the redirect connection on {@code __redis__:invalidate}, and to
+ * subscribers of matching {@code __keyspace@0__:} patterns. Only a trailing {@code *} is supported
+ * in patterns.
+ *
+ * <p>
+ * Replies to the commands that arrived together are written after one simulated round trip
+ * ({@code rtt}), so pipelined commands share the delay the way they would over a network. The
+ * number of commands, other than the HELLO and PING that open each connection, and of round trips
+ * is counted.
+ */
+public class RedisStandIn implements QuarkusTestResourceLifecycleManager {
+
+  private record Value(byte[] data, long expiresAt) {
+  }
+
+  /**
+   * A client connection, with the channels and patterns it subscribed to.
+   */
+  private static final class Connection {
+    final long id;
+    final OutputStream out;
+    final List<String> channels = new CopyOnWriteArrayList<>();
+    final List<String> patterns = new CopyOnWriteArrayList<>();
+
+    Connection(long id, OutputStream out) {
+      this.id = id;
+      this.out = out;
+    }
+
+    synchronized void write(byte[] data, boolean flush) throws IOException {
+      out.write(data);
+      if (flush) {
+        out.flush();
+      }
+    }
+  }
+
+  /**
+   * Broadcast tracking of key prefixes, redirected to a connection.
+   */
+  private record Tracking(long redirect, List<String> prefixes) {
+  }
+
+  private final Map<String, Value> values = new ConcurrentHashMap<>();
+  private final Map<Long, Connection> connections = new ConcurrentHashMap<>();
+  private final Map<Long, Tracking> tracking = new ConcurrentHashMap<>();
+  private final AtomicLong connectionIds = new AtomicLong();
+  private final AtomicLong commands = new AtomicLong();
+  private final AtomicLong roundTrips = new AtomicLong();
+  private final Duration rtt;
+  private ServerSocket server;
+
+  public RedisStandIn() {
+    this(Duration.ZERO);
+  }
+
+  public RedisStandIn(Duration rtt) {
+    this.rtt = rtt;
+  }
+
+  @Override
+  public Map<String, String> start() {
+    try {
+      server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    Thread acceptor = new Thread(this::accept, "redis-stand-in");
+    acceptor.setDaemon(true);
+    acceptor.start();
+    return Map.of("quarkus.redis.hosts", uri());
+  }
+
+  @Override
+  public void stop() {
+    try {
+      server.close();
+    } catch (IOException e) {
+      // Already closed
+    }
+  }
+
+  public String uri() {
+    return "redis://localhost:" + server.getLocalPort();
+  }
+
+  public long commands() {
+    return commands.get();
+  }
+
+  public long roundTrips() {
+    return roundTrips.get();
+  }
+
+  /**
+   * Drop every client connection, as a restarting server would.
+   */
+  public void disconnectAll() {
+    connections.values().forEach(connection -> {
+      try {
+        connection.out.close();
+      } catch (IOException e) {
+        // Already closed
+      }
+    });
+  }
+
+  public void clear() {
+    values.clear();
+    commands.set(0);
+    roundTrips.set(0);
+  }
+
+  private void accept() {
+    while (!server.isClosed()) {
+      try {
+        Socket socket = server.accept();
+        socket.setTcpNoDelay(true);
+        Thread connection = new Thread(() -> serve(socket), "redis-stand-in-connection");
+        connection.setDaemon(true);
+        connection.start();
+      } catch (IOException e) {
+        // Closed while waiting
+      }
+    }
+  }
+
+  private void serve(Socket socket) {
+    Connection connection = null;
+    try (socket;
+        InputStream in = new BufferedInputStream(socket.getInputStream());
+        OutputStream out = new BufferedOutputStream(socket.getOutputStream())) {
+      connection = new Connection(connectionIds.incrementAndGet(), out);
+      connections.put(connection.id, connection);
+      ByteArrayOutputStream reply = new ByteArrayOutputStream();
+      while (true) {
+        List<byte[]> command = readCommand(in);
+        reply.reset();
+        execute(command, connection, reply);
+        // Reply once everything that arrived together has been executed
+        boolean last = in.available() == 0;
+        if (last) {
+          roundTrips.incrementAndGet();
+          if (!rtt.isZero()) {
+            LockSupport.parkNanos(rtt.toNanos());
+          }
+        }
+        connection.write(reply.toByteArray(), last);
+      }
+    } catch (EOFException e) {
+      // Client disconnected
+    } catch (IOException e) {
+      // Connection reset
+    } finally {
+      if (connection != null) {
+        connections.remove(connection.id);
+        tracking.remove(connection.id);
+      }
+    }
+  }
+
+  private static List<byte[]> readCommand(InputStream in) throws IOException {
+    String header = readLine(in);
+    if (header.charAt(0) != '*') {
+      throw new IOException("Expected an array, got " + header);
+    }
+    int count = Integer.parseInt(header.substring(1));
+    List<byte[]> arguments = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      int length = Integer.parseInt(readLine(in).substring(1));
+      arguments.add(in.readNBytes(length));
+      readLine(in);
+    }
+    return arguments;
+  }
+
+  private static String readLine(InputStream in) throws IOException {
+    StringBuilder line = new StringBuilder();
+    int c;
+    while ((c = in.read()) != '\r') {
+      if (c < 0) {
+        throw new EOFException();
+      }
+      line.append((char) c);
+    }
+    in.read();
+    return line.toString();
+  }
+
+  private void execute(List<byte[]> command, Connection connection, OutputStream out)
+      throws IOException {
+    String name = string(command.get(0)).toUpperCase(Locale.ROOT);
+    // Not counting the handshake of new connections
+    if (!name.equals("HELLO") && !name.equals("PING")) {
+      commands.incrementAndGet();
+    }
+    switch (name) {
+      case "PING" -> simple(out, "PONG");
+      case "CLIENT" -> client(command, connection, out);
+      case "SUBSCRIBE", "PSUBSCRIBE" -> {
+        List<String> subscriptions =
+            name.equals("SUBSCRIBE") ? connection.channels : connection.patterns;
+        for (int i = 1; i < command.size(); i++) {
+          subscriptions.add(string(command.get(i)));
+          out.write("*3\r\n".getBytes(StandardCharsets.US_ASCII));
+          bulk(out, name.toLowerCase(Locale.ROOT).getBytes(StandardCharsets.US_ASCII));
+          bulk(out, command.get(i));
+          integer(out, connection.channels.size() + connection.patterns.size());
+        }
+      }
+      case "GET" -> bulk(out, get(string(command.get(1))));
+      case "GETDEL" -> {
+        bulk(out, get(string(command.get(1))));
+        if (values.remove(string(command.get(1))) != null) {
+          changed(string(command.get(1)), "del");
+        }
+      }
+      case "SET" -> {
+        long ttlMillis = 0;
+        boolean ifAbsent = false;
+        for (int i = 3; i < command.size(); i++) {
+          String option = string(command.get(i)).toUpperCase(Locale.ROOT);
+          if (option.equals("NX")) {
+            ifAbsent = true;
+          } else {
+            long amount = Long.parseLong(string(command.get(++i)));
+            ttlMillis = option.equals("EX") ? amount * 1000 : option.equals("PX") ? amount : 0;
+          }
+        }
+        if (ifAbsent && get(string(command.get(1))) != null) {
+          bulk(out, null);
+        } else {
+          put(string(command.get(1)), command.get(2), ttlMillis);
+          changed(string(command.get(1)), "set");
+          simple(out, "OK");
+        }
+      }
+      case "SETEX", "PSETEX" -> {
+        long ttl = Long.parseLong(string(command.get(2)));
+        put(string(command.get(1)), command.get(3), name.equals("SETEX") ? ttl * 1000 : ttl);
+        changed(string(command.get(1)), "set");
+        simple(out, "OK");
+      }
+      case "PUBLISH" -> {
+        String channel = string(command.get(1));
+        long receivers = 0;
+        for (Connection target : connections.values()) {
+          if (target.channels.contains(channel)) {
+            ByteArrayOutputStream message = new ByteArrayOutputStream();
+            message.writeBytes("*3\r\n".getBytes(StandardCharsets.US_ASCII));
+            bulk(message, "message".getBytes(StandardCharsets.US_ASCII));
+            bulk(message, command.get(1));
+            bulk(message, command.get(2));
+            send(target, message);
+            receivers++;
+          }
+        }
+        integer(out, receivers);
+      }
+      case "MSET" -> {
+        for (int i = 1; i + 1 < command.size(); i += 2) {
+          put(string(command.get(i)), command.get(i + 1), 0);
+          changed(string(command.get(i)), "set");
+        }
+        simple(out, "OK");
+      }
+      case "MGET" -> {
+        out.write(("*" + (command.size() - 1) + "\r\n").getBytes(StandardCharsets.US_ASCII));
+        for (int i = 1; i < command.size(); i++) {
+          bulk(out, get(string(command.get(i))));
+        }
+      }
+      case "DEL", "EXISTS" -> {
+        long count = 0;
+        for (int i = 1; i < command.size(); i++) {
+          String key = string(command.get(i));
+          if (name.equals("DEL") ? values.remove(key) != null : get(key) != null) {
+            count++;
+            if (name.equals("DEL")) {
+              changed(key, "del");
+            }
+          }
+        }
+        integer(out, count);
+      }
+      default ->
+        out.write(("-ERR unknown command '" + name + "'\r\n").getBytes(StandardCharsets.US_ASCII));
+    }
+  }
+
+  private void client(List<byte[]> command, Connection connection, OutputStream out)
+      throws IOException {
+    String subcommand = string(command.get(1)).toUpperCase(Locale.ROOT);
+    if (subcommand.equals("ID")) {
+      integer(out, connection.id);
+    } else if (subcommand.equals("TRACKING")) {
+      long redirect = connection.id;
+      List<String> prefixes = new ArrayList<>();
+      for (int i = 3; i < command.size(); i++) {
+        String option = string(command.get(i)).toUpperCase(Locale.ROOT);
+        if (option.equals("REDIRECT")) {
+          redirect = Long.parseLong(string(command.get(++i)));
+        } else if (option.equals("PREFIX")) {
+          prefixes.add(string(command.get(++i)));
+        }
+      }
+      if (string(command.get(2)).equalsIgnoreCase("ON")) {
+        tracking.put(connection.id, new Tracking(redirect, prefixes));
+      } else {
+        tracking.remove(connection.id);
+      }
+      simple(out, "OK");
+    } else {
+      out.write(
+          ("-ERR unknown subcommand '" + subcommand + "'\r\n").getBytes(StandardCharsets.US_ASCII));
+    }
+  }
+
+  /**
+   * Send invalidation and keyspace messages for a written key.
+   */
+  private void changed(String key, String event) {
+    for (Tracking registration : tracking.values()) {
+      Connection target = connections.get(registration.redirect());
+      if (target != null && target.channels.contains("__redis__:invalidate")
+          && (registration.prefixes().isEmpty()
+              || registration.prefixes().stream().anyMatch(key::startsWith))) {
+        ByteArrayOutputStream message = new ByteArrayOutputStream();
+        message.writeBytes("*3\r\n".getBytes(StandardCharsets.US_ASCII));
+        bulk(message, "message".getBytes(StandardCharsets.US_ASCII));
+        bulk(message, "__redis__:invalidate".getBytes(StandardCharsets.US_ASCII));
+        message.writeBytes("*1\r\n".getBytes(StandardCharsets.US_ASCII));
+        bulk(message, key.getBytes(StandardCharsets.UTF_8));
+        send(target, message);
+      }
+    }
+    String channel = "__keyspace@0__:" + key;
+    for (Connection target : connections.values()) {
+      for (String pattern : target.patterns) {
+        if (pattern.endsWith("*") ? channel.startsWith(pattern.substring(0, pattern.length() - 1))
+            : channel.equals(pattern)) {
+          ByteArrayOutputStream message = new ByteArrayOutputStream();
+          message.writeBytes("*4\r\n".getBytes(StandardCharsets.US_ASCII));
+          bulk(message, "pmessage".getBytes(StandardCharsets.US_ASCII));
+          bulk(message, pattern.getBytes(StandardCharsets.UTF_8));
+          bulk(message, channel.getBytes(StandardCharsets.UTF_8));
+          bulk(message, event.getBytes(StandardCharsets.US_ASCII));
+          send(target, message);
+        }
+      }
+    }
+  }
+
+  private static void send(Connection target, ByteArrayOutputStream message) {
+    try {
+      target.write(message.toByteArray(), true);
+    } catch (IOException e) {
+      // The subscriber went away
+    }
+  }
+
+  private byte[] get(String key) {
+    Value value = values.get(key);
+    if (value == null) {
+      return null;
+    }
+    if (value.expiresAt() != 0 && value.expiresAt() <= System.currentTimeMillis()) {
+      values.remove(key, value);
+      return null;
+    }
+    return value.data();
+  }
+
+  private void put(String key, byte[] data, long ttlMillis) {
+    values.put(key, new Value(data, ttlMillis > 0 ? System.currentTimeMillis() + ttlMillis : 0));
+  }
+
+  private static void simple(OutputStream out, String reply) throws IOException {
+    out.write(("+" + reply + "\r\n").getBytes(StandardCharsets.US_ASCII));
+  }
+
+  private static void integer(OutputStream out, long value) throws IOException {
+    out.write((":" + value + "\r\n").getBytes(StandardCharsets.US_ASCII));
+  }
+
+  private static void bulk(OutputStream out, byte[] data) {
+    if (data == null) {
+      write(out, "$-1\r\n".getBytes(StandardCharsets.US_ASCII));
+      return;
+    }
+    write(out, ("$" + data.length + "\r\n").getBytes(StandardCharsets.US_ASCII));
+    write(out, data);
+    write(out, "\r\n".getBytes(StandardCharsets.US_ASCII));
+  }
+
+  private static void write(OutputStream out, byte[] data) {
+    try {
+      out.write(data);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static String string(byte[] data) {
+    return new String(data, StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,324 @@
+package com.example.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.quarkus.test.common.QuarkusTestResourceLifecycleManager;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Minimal in-process S3 server covering the calls MinioService makes: bucket checks, single and
+ * multipart uploads, ranged downloads, stat and delete. Objects are kept in temporary files so
+ * multi-gigabyte transfers do not need heap. Authentication is not checked. Stat requests are
+ * counted, and can be held until released to simulate a slow server.
+ */
+public class S3StubServer implements QuarkusTestResourceLifecycleManager {
+
+  private static final Pattern PART_NUMBER = Pattern.compile("<PartNumber>(\\d+)</PartNumber>");
+
+  private final Map<String, Path> objects = new ConcurrentHashMap<>();
+  private final Map<String, String> contentTypes = new ConcurrentHashMap<>();
+  private final Map<String, Map<Integer, Path>> uploads = new ConcurrentHashMap<>();
+  private final AtomicInteger stats = new AtomicInteger();
+  private final AtomicInteger multipartUploads = new AtomicInteger();
+  private volatile CountDownLatch statGate;
+  private volatile boolean failParts;
+  private HttpServer server;
+  private Path directory;
+
+  @Override
+  public Map<String, String> start() {
+    try {
+      directory = Files.createTempDirectory("s3-stub");
+      server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+      server.setExecutor(Executors.newCachedThreadPool());
+      server.createContext("/", this::handle);
+      server.start();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return Map.of("app.minio.endpoint", endpoint(), "app.minio.upload.part-size",
+        String.valueOf(5 * 1024 * 1024));
+  }
+
+  @Override
+  public void stop() {
+    server.stop(0);
+    objects.values().forEach(S3StubServer::deleteQuietly);
+    uploads.values().forEach(parts -> parts.values().forEach(S3StubServer::deleteQuietly));
+    deleteQuietly(directory);
+  }
+
+  public String endpoint() {
+    return "http://localhost:" + server.getAddress().getPort();
+  }
+
+  /**
+   * Size of a stored object, or -1 if it does not exist.
+   */
+  public long size(String bucket, String object) throws IOException {
+    Path file = objects.get(bucket + "/" + object);
+    return file == null ? -1 : Files.size(file);
+  }
+
+  /**
+   * Number of stat (HEAD object) requests received.
+   */
+  public int stats() {
+    return stats.get();
+  }
+
+  /**
+   * Number of multipart uploads started.
+   */
+  public int multipartUploads() {
+    return multipartUploads.get();
+  }
+
+  /**
+   * Answer every following part upload with an internal error.
+   */
+  public void failParts() {
+    failParts = true;
+  }
+
+  /**
+   * Hold stat requests until the returned latch is counted down.
+   */
+  public CountDownLatch holdStats() {
+    statGate = new CountDownLatch(1);
+    return statGate;
+  }
+
+  private void handle(HttpExchange exchange) throws IOException {
+    // The JDK server drops kept-alive connections after some responses; the client would then
+    // fail non-repeatable PUT bodies written to a stale connection
+    exchange.getResponseHeaders().add("Connection", "close");
+    try (exchange) {
+      String[] path = exchange.getRequestURI().getPath().substring(1).split("/", 2);
+      Map<String, String> query = query(exchange.getRequestURI().getRawQuery());
+      String method = exchange.getRequestMethod();
+      if (path.length == 1 || path[1].isEmpty()) {
+        handleBucket(exchange, method, query);
+      } else {
+        handleObject(exchange, method, path[0] + "/" + path[1], query);
+      }
+    } catch (RuntimeException e) {
+      exchange.sendResponseHeaders(500, -1);
+    }
+  }
+
+  private void handleBucket(HttpExchange exchange, String method, Map<String, String> query)
+      throws IOException {
+    if (method.equals("GET") && query.containsKey("location")) {
+      sendXml(exchange, 200, "<LocationConstraint "
+          + "xmlns=\"http://s3.amazonaws.com/doc/2006-03-01/\"></LocationConstraint>");
+    } else {
+      exchange.sendResponseHeaders(200, -1);
+    }
+  }
+
+  private void handleObject(HttpExchange exchange, String method, String key,
+      Map<String, String> query) throws IOException {
+    String uploadId = query.get("uploadId");
+    switch (method) {
+      case "POST" -> {
+        if (query.containsKey("uploads")) {
+          String id = UUID.randomUUID().toString();
+          multipartUploads.incrementAndGet();
+          uploads.put(id, new ConcurrentHashMap<>());
+          contentTypes.put(key, contentType(exchange));
+          sendXml(exchange, 200, "<InitiateMultipartUploadResult><Bucket>b</Bucket><Key>k</Key>"
+              + "<UploadId>" + id + "</UploadId></InitiateMultipartUploadResult>");
+        } else {
+          completeUpload(exchange, key, uploadId);
+        }
+      }
+      case "PUT" -> {
+        if (uploadId != null && failParts) {
+          exchange.getRequestBody().transferTo(OutputStream.nullOutputStream());
+          sendXml(exchange, 500, "<Error><Code>InternalError</Code></Error>");
+          return;
+        }
+        Path file = receive(exchange.getRequestBody());
+        if (uploadId != null) {
+          uploads.get(uploadId).put(Integer.parseInt(query.get("partNumber")), file);
+        } else {
+          replace(key, file);
+          contentTypes.put(key, contentType(exchange));
+        }
+        exchange.getResponseHeaders().add("ETag", "\"" + file.getFileName() + "\"");
+        exchange.sendResponseHeaders(200, -1);
+      }
+      case "DELETE" -> {
+        if (uploadId != null) {
+          Map<Integer, Path> parts = uploads.remove(uploadId);
+          if (parts != null) {
+            parts.values().forEach(S3StubServer::deleteQuietly);
+          }
+        } else {
+          replace(key, null);
+        }
+        exchange.sendResponseHeaders(204, -1);
+      }
+      case "HEAD", "GET" -> {
+        if (method.equals("HEAD")) {
+          awaitStatGate();
+        }
+        download(exchange, method, key);
+      }
+      default -> exchange.sendResponseHeaders(405, -1);
+    }
+  }
+
+  private void awaitStatGate() {
+    stats.incrementAndGet();
+    CountDownLatch gate = statGate;
+    if (gate != null) {
+      try {
+        gate.await(10, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  private void completeUpload(HttpExchange exchange, String key, String uploadId)
+      throws IOException {
+    String request = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+    Map<Integer, Path> parts = uploads.remove(uploadId);
+    Path target = Files.createTempFile(directory, "object", "");
+    Matcher matcher = PART_NUMBER.matcher(request);
+    try (OutputStream out = Files.newOutputStream(target, StandardOpenOption.APPEND)) {
+      while (matcher.find()) {
+        Path part = parts.get(Integer.parseInt(matcher.group(1)));
+        Files.copy(part, out);
+      }
+    }
+    parts.values().forEach(S3StubServer::deleteQuietly);
+    replace(key, target);
+    sendXml(exchange, 200,
+        "<CompleteMultipartUploadResult><Location>l</Location>"
+            + "<Bucket>b</Bucket><Key>k</Key><ETag>\"" + target.getFileName()
+            + "\"</ETag></CompleteMultipartUploadResult>");
+  }
+
+  private void download(HttpExchange exchange, String method, String key) throws IOException {
+    Path file = objects.get(key);
+    if (file == null) {
+      if (method.equals("HEAD")) {
+        exchange.sendResponseHeaders(404, -1);
+      } else {
+        sendXml(exchange, 404, "<Error><Code>NoSuchKey</Code><Message>missing</Message>" + "<Key>"
+            + key + "</Key></Error>");
+      }
+      return;
+    }
+    long size = Files.size(file);
+    long start = 0;
+    long end = size - 1;
+    int status = 200;
+    String range = exchange.getRequestHeaders().getFirst("Range");
+    if (range != null && range.startsWith("bytes=")) {
+      String[] bounds = range.substring(6).split("-", -1);
+      start = Long.parseLong(bounds[0]);
+      end = bounds[1].isEmpty() ? size - 1 : Math.min(Long.parseLong(bounds[1]), size - 1);
+      status = 206;
+      exchange.getResponseHeaders().add("Content-Range", "bytes " + start + "-" + end + "/" + size);
+    }
+    exchange.getResponseHeaders().add("ETag", "\"" + file.getFileName() + "\"");
+    exchange.getResponseHeaders().add("Content-Type",
+        contentTypes.getOrDefault(key, "application/octet-stream"));
+    exchange.getResponseHeaders().add("Last-Modified",
+        DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now(ZoneOffset.UTC)));
+    long length = end - start + 1;
+    if (method.equals("HEAD")) {
+      exchange.getResponseHeaders().add("Content-Length", String.valueOf(size));
+      exchange.sendResponseHeaders(200, -1);
+      return;
+    }
+    exchange.sendResponseHeaders(status, length == 0 ? -1 : length);
+    try (RandomAccessFile in = new RandomAccessFile(file.toFile(), "r");
+        OutputStream out = exchange.getResponseBody()) {
+      in.seek(start);
+      byte[] buffer = new byte[64 * 1024];
+      long remaining = length;
+      while (remaining > 0) {
+        int read = in.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+        out.write(buffer, 0, read);
+        remaining -= read;
+      }
+    }
+  }
+
+  private Path receive(InputStream body) throws IOException {
+    Path file = Files.createTempFile(directory, "part", "");
+    Files.copy(body, file, StandardCopyOption.REPLACE_EXISTING);
+    return file;
+  }
+
+  private void replace(String key, Path file) {
+    Path previous = file == null ? objects.remove(key) : objects.put(key, file);
+    if (previous != null) {
+      deleteQuietly(previous);
+    }
+  }
+
+  private static String contentType(HttpExchange exchange) {
+    String type = exchange.getRequestHeaders().getFirst("Content-Type");
+    return type == null ? "application/octet-stream" : type;
+  }
+
+  private static void sendXml(HttpExchange exchange, int status, String body) throws IOException {
+    byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().add("Content-Type", "application/xml");
+    exchange.sendResponseHeaders(status, bytes.length);
+    exchange.getResponseBody().write(bytes);
+  }
+
+  private static Map<String, String> query(String rawQuery) {
+    Map<String, String> query = new HashMap<>();
+    if (rawQuery != null) {
+      for (String pair : rawQuery.split("&")) {
+        int eq = pair.indexOf('=');
+        String name = eq < 0 ? pair : pair.substring(0, eq);
+        String value =
+            eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+        query.put(name, value);
+      }
+    }
+    return query;
+  }
+
+  private static void deleteQuietly(Path path) {
+    try {
+      Files.deleteIfExists(path);
+    } catch (IOException e) {
+      // Temporary file; the OS cleans up eventually
+    }
+  }
+}
@@ -0,0 +1,203 @@
+package com.example.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.quarkus.vault.VaultKVSecretEngine;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SecretCache and its use in VaultService, against a stub KV secret engine.
+ */
+class SecretCacheTest {
+
+  private final VaultKvStub vault = new VaultKvStub();
+  private final AtomicLong now = new AtomicLong(1_000_000);
+  private ExecutorService executor;
+  private VaultService service;
+
+  @BeforeEach
+  void setUp() {
+    executor = Executors.newCachedThreadPool();
+    service = new VaultService() {
+      @Override
+      VaultKVSecretEngine engine() {
+        return vault;
+      }
+    };
+    service.registry = new SimpleMeterRegistry();
+    service.refreshExecutor = executor;
+    service.cacheEnabled = true;
+    service.cacheTtl = Duration.ofMinutes(5);
+    service.cacheMaxStale = Duration.ofHours(1);
+    service.cacheRetryInterval = Duration.ofSeconds(5);
+    vault.writeSecret("config/app", Map.of("password", "one"));
+  }
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdownNow();
+  }
+
+  private SecretCache cache(Duration ttl) {
+    return new SecretCache(vault::readSecret, ttl, Duration.ofHours(1), Duration.ofSeconds(5),
+        Runnable::run, new SimpleMeterRegistry(), now::get);
+  }
+
+  @Test
+  void testServesFromCacheUntilTtl() {
+    SecretCache cache = cache(Duration.ofMinutes(5));
+
+    assertEquals("one", cache.get("config/app").get("password"));
+    vault.writeSecret("config/app", Map.of("password", "two"));
+    now.addAndGet(Duration.ofMinutes(4).toMillis());
+    assertEquals("one", cache.get("config/app").get("password"));
+    assertEquals(1, vault.reads());
+
+    now.addAndGet(Duration.ofMinutes(2).toMillis());
+    // The expired secret is served once more while it is refreshed
+    assertEquals("one", cache.get("config/app").get("password"));
+    assertEquals("two", cache.get("config/app").get("password"));
+    assertEquals(2, vault.reads());
+  }
+
+  @Test
+  void testTtlFromSecret() {
+    vault.writeSecret("config/app", Map.of("password", "one", "ttl", "1m30s"));
+    SecretCache cache = cache(Duration.ofMinutes(5));
+
+    cache.get("config/app");
+    now.addAndGet(Duration.ofSeconds(89).toMillis());
+    cache.get("config/app");
+    assertEquals(1, vault.reads());
+    now.addAndGet(Duration.ofSeconds(2).toMillis());
+    cache.get("config/app");
+    assertEquals(2, vault.reads());
+  }
+
+  @Test
+  void testServesStaleWhileVaultIsUnreachable() {
+    SecretCache cache = cache(Duration.ofMinutes(5));
+    cache.get("config/app");
+
+    vault.unreachable(true);
+    now.addAndGet(Duration.ofMinutes(10).toMillis());
+    assertEquals("one", cache.get("config/app").get("password"));
+    assertEquals(2, vault.reads());
+    // Retried only after the retry interval
+    assertEquals("one", cache.get("config/app").get("password"));
+    assertEquals(2, vault.reads());
+    now.addAndGet(Duration.ofSeconds(6).toMillis());
+    assertEquals("one", cache.get("config/app").get("password"));
+    assertEquals(3, vault.reads());
+
+    // Too stale to serve
+    now.addAndGet(Duration.ofHours(1).toMillis());
+    assertThrows(IllegalStateException.class, () -> cache.get("config/app"));
+  }
+
+  @Test
+  void testFailedLoadIsNotCached() {
+    SecretCache cache = cache(Duration.ofMinutes(5));
+
+    assertThrows(IllegalArgumentException.class, () -> cache.get("config/missing"));
+    vault.writeSecret("config/missing", Map.of("key", "value"));
+    assertEquals("value", cache.get("config/missing").get("key"));
+  }
+
+  @Test
+  void testConcurrentMissesShareOneLoad() throws Exception {
+    SecretCache cache = cache(Duration.ofMinutes(5));
+    CountDownLatch release = vault.holdReads();
+
+    List<Future<Map<String, String>>> results = new ArrayList<>();
+    for (int i = 0; i < 8; i++) {
+      results.add(executor.submit(() -> cache.get("config/app")));
+    }
+    // Wait until the first load is in Vault, then give the others time to join it
+    while (vault.reads() == 0) {
+      Thread.sleep(1);
+    }
+    Thread.sleep(100);
+    release.countDown();
+
+    for (Future<Map<String, String>> result : results) {
+      assertEquals("one", result.get(10, TimeUnit.SECONDS).get("password"));
+    }
+    assertEquals(1, vault.reads());
+  }
+
+  @Test
+  void testInvalidateDuringLoadDoesNotCacheIt() throws Exception {
+    SecretCache cache = cache(Duration.ofMinutes(5));
+    CountDownLatch release = vault.holdReads();
+
+    Future<Map<String, String>> first = executor.submit(() -> cache.get("config/app"));
+    while (vault.reads() == 0) {
+      Thread.sleep(1);
+    }
+    cache.invalidate("config/app");
+    release.countDown();
+    assertEquals("one", first.get(10, TimeUnit.SECONDS).get("password"));
+
+    cache.get("config/app");
+    assertEquals(2, vault.reads());
+  }
+
+  @Test
+  void testWriteAndDeleteInvalidate() {
+    service.init();
+
+    assertEquals("one", service.getSecret("config/app").get("password"));
+    service.writeSecret("config/app", Map.of("password", "two"));
+    assertEquals("two", service.getSecret("config/app").get("password"));
+    service.deleteSecret("config/app");
+    assertThrows(RuntimeException.class, () -> service.getSecret("config/app"));
+  }
+
+  @Test
+  void testCacheDisabled() {
+    service.cacheEnabled = false;
+    service.init();
+
+    service.getSecret("config/app");
+    service.getSecret("config/app");
+    assertEquals(2, vault.reads());
+  }
+
+  @Test
+  void testConcurrentReadsWithoutCacheShareOneRead() throws Exception {
+    service.cacheEnabled = false;
+    service.init();
+    CountDownLatch release = vault.holdReads();
+
+    List<Object> outcomes = SingleFlightBurst.run(500, () -> service.getSecret("config/app"),
+        service.registry, "vault-secrets", release::countDown);
+
+    assertEquals(1, vault.reads());
+    outcomes.forEach(outcome -> assertEquals("one", ((Map<?, ?>) outcome).get("password")));
+  }
+
+  @Test
+  void testParseDuration() {
+    assertEquals(Duration.ofSeconds(30), SecretCache.parseDuration("30"));
+    assertEquals(Duration.ofMinutes(90), SecretCache.parseDuration("1h30m"));
+    assertEquals(Duration.ofDays(2), SecretCache.parseDuration("2d"));
+    assertNull(SecretCache.parseDuration("soon"));
+    assertNull(SecretCache.parseDuration("5m later"));
+    assertNull(SecretCache.parseDuration(""));
+  }
+}
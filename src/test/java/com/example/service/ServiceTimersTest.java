@@ -0,0 +1,108 @@
+package com.example.service;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for ServiceTimers and the latency histogram filter.
+ */
+class ServiceTimersTest {
+
+  /**
+   * A monitored bean with business and lifecycle methods.
+   */
+  @Monitored
+  public static class Example {
+    @PostConstruct
+    public void start() {}
+
+    public String find() {
+      return "found";
+    }
+
+    void internal() {}
+  }
+
+  private ServiceTimers timers(boolean preallocated, MeterRegistry registry) {
+    ServiceTimers timers = new ServiceTimers();
+    timers.registry = registry;
+    timers.preallocated = preallocated;
+    return timers;
+  }
+
+  private Timer timer(MeterRegistry registry, String method, String outcome) {
+    return registry.find(ServiceTimers.METRIC).tag("service", "Example").tag("method", method)
+        .tag("outcome", outcome).timer();
+  }
+
+  @Test
+  void testPreallocatesPublicBusinessMethods() {
+    MeterRegistry registry = new SimpleMeterRegistry();
+    timers(true, registry).preallocate(Example.class);
+
+    assertNotNull(timer(registry, "find", "success"));
+    assertNotNull(timer(registry, "find", "failure"));
+    assertNull(timer(registry, "start", "success"), "lifecycle methods are not timed");
+    assertNull(timer(registry, "internal", "success"), "only public methods are timed");
+  }
+
+  @Test
+  void testRecordsOutcomeInBothModes() throws Exception {
+    Method find = Example.class.getMethod("find");
+    for (boolean preallocated : new boolean[] {true, false}) {
+      MeterRegistry registry = new SimpleMeterRegistry();
+      ServiceTimers timers = timers(preallocated, registry);
+
+      timers.record(find, false, TimeUnit.MILLISECONDS.toNanos(5));
+      timers.record(find, false, TimeUnit.MILLISECONDS.toNanos(7));
+      timers.record(find, true, TimeUnit.MILLISECONDS.toNanos(1));
+
+      Timer success = timer(registry, "find", "success");
+      assertEquals(2, success.count());
+      assertEquals(12, success.totalTime(TimeUnit.MILLISECONDS), 0.001);
+      assertEquals(1, timer(registry, "find", "failure").count());
+    }
+  }
+
+  @Test
+  void testRecordsUnmonitoredMethodOnFirstCall() throws Exception {
+    MeterRegistry registry = new SimpleMeterRegistry();
+    ServiceTimers timers = timers(true, registry);
+
+    timers.record(Example.class.getDeclaredMethod("internal"), false, 1000);
+
+    assertEquals(1, timer(registry, "internal", "success").count());
+  }
+
+  @Test
+  void testHistogramOnlyForLatencyTimers() {
+    MeterFilter filter = LatencyHistograms.histograms(Duration.ofMillis(1), Duration.ofSeconds(1));
+    DistributionStatisticConfig service = filter.configure(
+        new Meter.Id(ServiceTimers.METRIC, Tags.empty(), null, null, Meter.Type.TIMER),
+        DistributionStatisticConfig.DEFAULT);
+    DistributionStatisticConfig other =
+        filter.configure(new Meter.Id("other", Tags.empty(), null, null, Meter.Type.TIMER),
+            DistributionStatisticConfig.DEFAULT);
+
+    assertTrue(service.isPercentileHistogram());
+    int buckets = service.getHistogramBuckets(true).size();
+    assertTrue(buckets > 0 && buckets < 100, "bounded histogram, got " + buckets + " buckets");
+    assertEquals(DistributionStatisticConfig.DEFAULT, other);
+  }
+}
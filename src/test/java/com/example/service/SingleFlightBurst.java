@@ -0,0 +1,74 @@
+package com.example.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the same call on many threads at once against a backend that holds its first request, and
+ * releases it once every other call is waiting for that request through a {@link SingleFlight}.
+ */
+final class SingleFlightBurst {
+
+  private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+  private SingleFlightBurst() {}
+
+  /**
+   * @param threads the number of concurrent calls
+   * @param call the call to make
+   * @param registry the registry of the single flight the call goes through
+   * @param flight the name of that single flight
+   * @param release releases the backend once all calls are in
+   * @return the value returned by each call, or the exception it threw
+   */
+  static List<Object> run(int threads, Callable<?> call, MeterRegistry registry, String flight,
+      Runnable release) throws Exception {
+    double sharedBefore = shared(registry, flight);
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    CountDownLatch start = new CountDownLatch(1);
+    try {
+      List<Future<Object>> futures = new ArrayList<>(threads);
+      for (int i = 0; i < threads; i++) {
+        futures.add(executor.submit(() -> {
+          start.await();
+          try {
+            return call.call();
+          } catch (RuntimeException e) {
+            return e;
+          }
+        }));
+      }
+      start.countDown();
+      long deadline = System.nanoTime() + TIMEOUT.toNanos();
+      while (shared(registry, flight) - sharedBefore < threads - 1) {
+        if (System.nanoTime() > deadline) {
+          throw new AssertionError(
+              "Only " + (shared(registry, flight) - sharedBefore) + " calls shared the load");
+        }
+        Thread.sleep(5);
+      }
+      release.run();
+      List<Object> outcomes = new ArrayList<>(threads);
+      for (Future<Object> future : futures) {
+        outcomes.add(future.get(TIMEOUT.toSeconds(), TimeUnit.SECONDS));
+      }
+      return outcomes;
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private static double shared(MeterRegistry registry, String flight) {
+    var counter = registry.find("single.flight.shared").tag("flight", flight).counter();
+    return counter == null ? 0 : counter.count();
+  }
+}
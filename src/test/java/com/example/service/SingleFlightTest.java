@@ -0,0 +1,106 @@
+package com.example.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SingleFlight.
+ */
+class SingleFlightTest {
+
+  private static final int THREADS = 500;
+
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+  private final SingleFlight<String, String> flight = new SingleFlight<>("test", registry);
+  private final AtomicInteger calls = new AtomicInteger();
+  private final CountDownLatch release = new CountDownLatch(1);
+
+  /**
+   * A backend that counts its calls and answers once released.
+   */
+  private final Function<String, String> backend = key -> {
+    calls.incrementAndGet();
+    await(release);
+    return key + "-" + calls.get();
+  };
+
+  private static void await(CountDownLatch latch) {
+    try {
+      assertTrue(latch.await(10, TimeUnit.SECONDS));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(e);
+    }
+  }
+
+  @Test
+  void testBurstMakesOneBackendCall() throws Exception {
+    List<Object> outcomes = SingleFlightBurst.run(THREADS, () -> flight.load("user", backend),
+        registry, "test", release::countDown);
+
+    assertEquals(1, calls.get());
+    assertEquals(THREADS, outcomes.size());
+    outcomes.forEach(outcome -> assertEquals("user-1", outcome));
+  }
+
+  @Test
+  void testBurstSharesFailure() throws Exception {
+    Function<String, String> failing = key -> {
+      backend.apply(key);
+      throw new IllegalStateException("backend down");
+    };
+
+    List<Object> outcomes = SingleFlightBurst.run(THREADS, () -> flight.load("user", failing),
+        registry, "test", release::countDown);
+
+    assertEquals(1, calls.get());
+    outcomes.forEach(outcome -> assertInstanceOf(IllegalStateException.class, outcome));
+  }
+
+  @Test
+  void testCompletedLoadIsNotReused() {
+    release.countDown();
+
+    assertEquals("user-1", flight.load("user", backend));
+    assertEquals("user-2", flight.load("user", backend));
+    assertEquals("other-3", flight.load("other", backend));
+  }
+
+  @Test
+  void testForgottenLoadIsNotShared() throws Exception {
+    List<String> loaded = new ArrayList<>();
+    CompletableFuture<String> first = CompletableFuture
+        .supplyAsync(() -> flight.load("user", backend, (key, value) -> loaded.add(value)));
+    while (calls.get() == 0) {
+      Thread.sleep(1);
+    }
+
+    flight.forget("user");
+    release.countDown();
+
+    assertEquals("user-2", flight.load("user", backend, (key, value) -> loaded.add(value)));
+    assertTrue(first.get(10, TimeUnit.SECONDS).startsWith("user-"));
+    assertEquals(List.of("user-2"), loaded);
+  }
+
+  @Test
+  void testLoadInBackground() throws Exception {
+    CompletableFuture<String> load =
+        flight.loadInBackground("user", backend, null, task -> new Thread(task).start());
+    assertNull(flight.loadInBackground("user", backend, null, Runnable::run));
+
+    release.countDown();
+    assertEquals("user-1", load.get(10, TimeUnit.SECONDS));
+    assertEquals(1, calls.get());
+  }
+}
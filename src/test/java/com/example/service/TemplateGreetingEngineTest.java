@@ -0,0 +1,81 @@
+package com.example.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for TemplateGreetingEngine and GreetingTemplate.
+ */
+class TemplateGreetingEngineTest {
+
+  private static TemplateGreetingEngine engine(Map<String, String> config) {
+    TemplateGreetingEngine engine = new TemplateGreetingEngine();
+    engine.configure(name -> Optional.ofNullable(config.get(name)), config.keySet());
+    return engine;
+  }
+
+  @Test
+  void testBuiltInEnglishTemplates() {
+    TemplateGreetingEngine engine = engine(Map.of());
+
+    assertEquals("Hello, John! Welcome to Quarkus Template.", engine.greet("John", null));
+    assertEquals("Hello! Welcome to Quarkus Template.", engine.defaultGreeting(Locale.ENGLISH));
+    assertEquals(Locale.ENGLISH, engine.resolve(null));
+  }
+
+  @Test
+  void testTemplateCompilation() {
+    GreetingTemplate template = GreetingTemplate.compile("{name}, {name}!");
+    StringBuilder out = new StringBuilder();
+    template.renderTo(out, "Ana");
+
+    assertEquals("Ana, Ana!", out.toString());
+    assertFalse(template.isConstant());
+    assertTrue(GreetingTemplate.compile("Hi!").isConstant());
+    assertThrows(IllegalArgumentException.class, () -> GreetingTemplate.compile("Hi {user}"));
+    assertThrows(IllegalArgumentException.class, () -> GreetingTemplate.compile("Hi }"));
+  }
+
+  @Test
+  void testResolvesAcceptLanguage() {
+    TemplateGreetingEngine engine = engine(Map.of("app.greeting.templates.id.personal",
+        "Halo, {name}!", "app.greeting.templates.id.default", "Halo!"));
+
+    Locale indonesian = engine.resolve("id-ID,id;q=0.9,en;q=0.8");
+    assertEquals("id", indonesian.getLanguage());
+    assertEquals("Halo, Budi!", engine.greet("Budi", indonesian));
+    assertEquals("Halo!", engine.defaultGreeting(indonesian));
+
+    assertEquals(Locale.ENGLISH, engine.resolve("fr-FR,en;q=0.5"));
+    assertEquals(Locale.ENGLISH, engine.resolve("fr, de"), "falls back to the default locale");
+    assertEquals(Locale.ENGLISH, engine.resolve("*"));
+    assertEquals(Locale.ENGLISH, engine.resolve("id;q=0"), "q=0 excludes a language");
+    assertEquals(Locale.ENGLISH, engine.resolve("not a valid;;header"));
+    assertEquals("Hello, Budi! Welcome to Quarkus Template.", engine.greet("Budi", Locale.FRENCH));
+  }
+
+  @Test
+  void testInvalidConfiguration() {
+    assertThrows(IllegalArgumentException.class,
+        () -> engine(Map.of("app.greeting.default-locale", "fr")));
+    assertThrows(IllegalArgumentException.class,
+        () -> engine(Map.of("app.greeting.templates.fr.personal", "Bonjour, {name}!")));
+    assertThrows(IllegalArgumentException.class,
+        () -> engine(Map.of("app.greeting.templates.en.default", "Hello {name}")));
+  }
+
+  @Test
+  void testLongNamesAreRendered() {
+    TemplateGreetingEngine engine = engine(Map.of());
+    String name = "x".repeat(5000);
+
+    assertTrue(engine.greet(name, null).contains(name));
+    // The oversized builder is dropped, the next greeting starts from a fresh one
+    assertEquals("Hello, Al! Welcome to Quarkus Template.", engine.greet("Al", null));
+  }
+}
@@ -0,0 +1,134 @@
+package com.example.service;
+
+import com.example.dto.UserResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.quarkus.redis.runtime.datasource.BlockingRedisDataSourceImpl;
+import io.quarkus.redis.runtime.datasource.ReactiveRedisDataSourceImpl;
+import io.vertx.mutiny.core.Vertx;
+import io.vertx.mutiny.redis.client.Redis;
+import io.vertx.mutiny.redis.client.RedisAPI;
+import jakarta.transaction.Status;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the Redis tier of UserCache against a local Redis stand-in, with caches playing
+ * application nodes that do not receive each other's invalidations.
+ */
+class UserCacheL2Test {
+
+  private RedisStandIn standIn;
+  private Vertx vertx;
+  private final List<Redis> clients = new ArrayList<>();
+
+  @BeforeEach
+  void setUp() {
+    standIn = new RedisStandIn();
+    standIn.start();
+    vertx = Vertx.vertx();
+  }
+
+  @AfterEach
+  void tearDown() {
+    clients.forEach(Redis::close);
+    vertx.closeAndAwait();
+    standIn.stop();
+  }
+
+  private UserCache node() {
+    Redis redis = Redis.createClient(vertx, standIn.uri());
+    clients.add(redis);
+    ReactiveRedisDataSourceImpl reactive =
+        new ReactiveRedisDataSourceImpl(vertx, redis, RedisAPI.api(redis));
+    RedisService redisService = new RedisService();
+    redisService.redisDataSource =
+        new BlockingRedisDataSourceImpl(reactive, Duration.ofSeconds(10));
+    redisService.registry = new SimpleMeterRegistry();
+    redisService.init();
+
+    UserCache node = new UserCache();
+    node.redisService = redisService;
+    node.registry = new SimpleMeterRegistry();
+    // No transaction is ever active, so changes apply at once
+    node.transactionRegistry =
+        (TransactionSynchronizationRegistry) Proxy.newProxyInstance(getClass().getClassLoader(),
+            new Class<?>[] {TransactionSynchronizationRegistry.class},
+            (proxy, method, args) -> Status.STATUS_NO_TRANSACTION);
+    node.enabled = true;
+    node.l1MaxSize = 100;
+    node.l1Ttl = Duration.ofMinutes(1);
+    node.l2Enabled = true;
+    node.l2Ttl = Duration.ofMinutes(10);
+    node.l2TombstoneTtl = Duration.ofSeconds(10);
+    node.l2Compression = RedisCodec.Compression.NONE;
+    node.l2CompressionThreshold = 256;
+    node.invalidationChannel = "users-cache-invalidation";
+    node.init();
+    return node;
+  }
+
+  @Test
+  void testLoadOverlappingChangeOnOtherNodeDoesNotCacheOldRow() throws Exception {
+    UserCache reader = node();
+    UserCache writer = node();
+    CountDownLatch loading = new CountDownLatch(1);
+    CountDownLatch committed = new CountDownLatch(1);
+    Function<Long, UserResponse> oldRow = id -> {
+      loading.countDown();
+      try {
+        committed.await(10, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return user(id, "old@example.com");
+    };
+    CompletableFuture<UserResponse> read =
+        CompletableFuture.supplyAsync(() -> reader.get(1L, oldRow));
+    assertTrue(loading.await(10, TimeUnit.SECONDS));
+
+    // The other node commits a change; its invalidation never reaches the reader
+    writer.evictAfterCommit(1L);
+    committed.countDown();
+    assertEquals("old@example.com", read.get(10, TimeUnit.SECONDS).getEmail());
+
+    UserResponse after = node().get(1L, id -> user(id, "new@example.com"));
+    assertEquals("new@example.com", after.getEmail());
+  }
+
+  @Test
+  void testLoadedUserIsSharedThroughRedis() {
+    node().get(2L, id -> user(id, "shared@example.com"));
+
+    UserResponse cached = node().get(2L, id -> fail("user 2 was not read from Redis"));
+    assertEquals("shared@example.com", cached.getEmail());
+  }
+
+  @Test
+  void testPutReplacesTombstone() {
+    UserCache writer = node();
+    writer.evictAfterCommit(3L);
+    writer.putAfterCommit(user(3L, "created@example.com"));
+
+    UserResponse cached = node().get(3L, id -> fail("user 3 was not read from Redis"));
+    assertEquals("created@example.com", cached.getEmail());
+  }
+
+  private static UserResponse user(Long id, String email) {
+    LocalDateTime now = LocalDateTime.now();
+    return new UserResponse(id, email, "Cached User", now, now);
+  }
+}
@@ -0,0 +1,141 @@
+package com.example.service;
+
+import com.example.dto.UserResponse;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.NotFoundException;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the in-process tier of UserCache. Redis (L2) is disabled in the test profile.
+ */
+@QuarkusTest
+class UserCacheTest {
+
+  @Inject
+  UserCache userCache;
+
+  @Inject
+  MeterRegistry registry;
+
+  @Test
+  void testRepeatedReadsHitL1() {
+    AtomicInteger loads = new AtomicInteger();
+    Function<Long, UserResponse> loader = countingLoader(loads);
+
+    UserResponse first = userCache.get(900_001L, loader);
+    UserResponse second = userCache.get(900_001L, loader);
+
+    assertEquals(1, loads.get());
+    assertEquals(first.getEmail(), second.getEmail());
+  }
+
+  @Test
+  void testEvictForcesReload() {
+    AtomicInteger loads = new AtomicInteger();
+    Function<Long, UserResponse> loader = countingLoader(loads);
+
+    userCache.get(900_002L, loader);
+    userCache.evictAfterCommit(900_002L);
+    userCache.get(900_002L, loader);
+
+    assertEquals(2, loads.get());
+  }
+
+  @Test
+  void testMissingUserIsNotCached() {
+    AtomicInteger loads = new AtomicInteger();
+    Function<Long, UserResponse> loader = id -> {
+      loads.incrementAndGet();
+      throw new NotFoundException("User not found with id: " + id);
+    };
+
+    assertThrows(NotFoundException.class, () -> userCache.get(900_003L, loader));
+    assertThrows(NotFoundException.class, () -> userCache.get(900_003L, loader));
+
+    assertEquals(2, loads.get());
+  }
+
+  @Test
+  void testHitsAreExposedAsMetrics() {
+    Function<Long, UserResponse> loader = countingLoader(new AtomicInteger());
+    userCache.get(900_004L, loader);
+    userCache.get(900_004L, loader);
+
+    FunctionCounter hits =
+        registry.find("cache.gets").tags("cache", "users-l1", "result", "hit").functionCounter();
+    assertNotNull(hits);
+    assertTrue(hits.count() >= 1);
+  }
+
+  @Test
+  void testConcurrentMissesShareOneLoad() throws Exception {
+    AtomicInteger loads = new AtomicInteger();
+    CountDownLatch release = new CountDownLatch(1);
+    Function<Long, UserResponse> loader = id -> {
+      loads.incrementAndGet();
+      try {
+        release.await(10, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      throw new NotFoundException("User not found with id: " + id);
+    };
+
+    List<Object> outcomes = SingleFlightBurst.run(500, () -> userCache.get(900_005L, loader),
+        registry, "users", release::countDown);
+
+    assertEquals(1, loads.get());
+    outcomes.forEach(outcome -> assertInstanceOf(NotFoundException.class, outcome));
+  }
+
+  @Test
+  void testReadOverlappingUpdateDoesNotCacheOldRow() throws Exception {
+    CountDownLatch loading = new CountDownLatch(1);
+    CountDownLatch committed = new CountDownLatch(1);
+    Function<Long, UserResponse> oldRow = id -> {
+      loading.countDown();
+      try {
+        committed.await(10, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return user(id, "old" + id + "@example.com");
+    };
+    CompletableFuture<UserResponse> read =
+        CompletableFuture.supplyAsync(() -> userCache.get(900_006L, oldRow));
+    assertTrue(loading.await(10, TimeUnit.SECONDS));
+
+    // The update commits while the read still holds the row it loaded before
+    userCache.evictAfterCommit(900_006L);
+    committed.countDown();
+    assertEquals("old900006@example.com", read.get(10, TimeUnit.SECONDS).getEmail());
+
+    UserResponse after = userCache.get(900_006L, id -> user(id, "new" + id + "@example.com"));
+    assertEquals("new900006@example.com", after.getEmail());
+  }
+
+  private static Function<Long, UserResponse> countingLoader(AtomicInteger loads) {
+    return id -> {
+      loads.incrementAndGet();
+      return user(id, "cached" + id + "@example.com");
+    };
+  }
+
+  private static UserResponse user(Long id, String email) {
+    LocalDateTime now = LocalDateTime.now();
+    return new UserResponse(id, email, "Cached User", now, now);
+  }
+}
@@ -0,0 +1,106 @@
+package com.example.service;
+
+import com.example.dto.UserRequest;
+import com.example.dto.UserResponse;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.ClientErrorException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Stress tests for concurrent writes of the same email through UserService.
+ */
+@QuarkusTest
+class UserServiceConcurrencyTest {
+
+  private static final int THREADS = 16;
+
+  @Inject
+  UserService userService;
+
+  @Test
+  void testConcurrentCreatesOfSameEmailYieldOneUser() throws Exception {
+    for (int round = 0; round < 5; round++) {
+      String email = "race-create-" + round + "@example.com";
+
+      List<Outcome> outcomes = race(i -> () -> userService.createUser(request(email, "User " + i)));
+
+      assertEquals(1, outcomes.stream().filter(o -> o == Outcome.SUCCESS).count());
+      assertEquals(THREADS - 1, outcomes.stream().filter(o -> o == Outcome.CONFLICT).count());
+    }
+  }
+
+  @Test
+  void testConcurrentEmailChangesToSameEmailYieldOneUpdate() throws Exception {
+    List<Long> ids = new ArrayList<>();
+    for (int i = 0; i < THREADS; i++) {
+      ids.add(userService.createUser(request("race-update-" + i + "@example.com", "User")).getId());
+    }
+    String email = "race-update-target@example.com";
+
+    List<Outcome> outcomes =
+        race(i -> () -> userService.updateUser(ids.get(i), request(email, "User " + i)));
+
+    assertEquals(1, outcomes.stream().filter(o -> o == Outcome.SUCCESS).count());
+    assertEquals(THREADS - 1, outcomes.stream().filter(o -> o == Outcome.CONFLICT).count());
+  }
+
+  private enum Outcome {
+    SUCCESS, CONFLICT
+  }
+
+  /**
+   * Run one call per thread, all released at the same moment.
+   */
+  private static List<Outcome> race(IntFunction<Callable<UserResponse>> calls)
+      throws InterruptedException {
+    ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    CountDownLatch start = new CountDownLatch(1);
+    try {
+      List<Future<UserResponse>> futures = new ArrayList<>();
+      for (int i = 0; i < THREADS; i++) {
+        Callable<UserResponse> call = calls.apply(i);
+        futures.add(executor.submit(() -> {
+          start.await();
+          return call.call();
+        }));
+      }
+      start.countDown();
+
+      List<Outcome> outcomes = new ArrayList<>();
+      for (Future<UserResponse> future : futures) {
+        try {
+          future.get();
+          outcomes.add(Outcome.SUCCESS);
+        } catch (ExecutionException e) {
+          if (e.getCause() instanceof ClientErrorException conflict
+              && conflict.getResponse().getStatus() == 409) {
+            outcomes.add(Outcome.CONFLICT);
+          } else {
+            fail("Unexpected failure", e.getCause());
+          }
+        }
+      }
+      return outcomes;
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private static UserRequest request(String email, String name) {
+    return new UserRequest(email, name);
+  }
+}
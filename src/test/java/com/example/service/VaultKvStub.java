@@ -0,0 +1,73 @@
+package com.example.service;
+
+import io.quarkus.vault.VaultKVSecretEngine;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory KV secret engine that counts reads, can fail them as if Vault were unreachable, and can
+ * hold them until released to simulate a slow Vault.
+ */
+public class VaultKvStub extends VaultKVSecretEngine {
+
+  private final Map<String, Map<String, String>> secrets = new ConcurrentHashMap<>();
+  private final AtomicInteger reads = new AtomicInteger();
+  private volatile boolean unreachable;
+  private volatile CountDownLatch readGate;
+
+  public VaultKvStub() {
+    super(null);
+  }
+
+  @Override
+  public Map<String, String> readSecret(String path) {
+    reads.incrementAndGet();
+    CountDownLatch gate = readGate;
+    if (gate != null) {
+      try {
+        gate.await(10, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    if (unreachable) {
+      throw new IllegalStateException("Vault is unreachable");
+    }
+    Map<String, String> secret = secrets.get(path);
+    if (secret == null) {
+      throw new IllegalArgumentException("No secret at " + path);
+    }
+    return new HashMap<>(secret);
+  }
+
+  @Override
+  public void writeSecret(String path, Map<String, String> secret) {
+    secrets.put(path, new HashMap<>(secret));
+  }
+
+  @Override
+  public void deleteSecret(String path) {
+    secrets.remove(path);
+  }
+
+  public int reads() {
+    return reads.get();
+  }
+
+  public void unreachable(boolean unreachable) {
+    this.unreachable = unreachable;
+  }
+
+  /**
+   * Hold reads until the returned latch is counted down.
+   */
+  public CountDownLatch holdReads() {
+    readGate = new CountDownLatch(1);
+    return readGate;
+  }
+}